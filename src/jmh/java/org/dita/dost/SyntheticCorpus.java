@@ -0,0 +1,211 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.dita.dost.store.Store;
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.AttributesImpl;
+
+/**
+ * Generator for synthetic DITA corpora used by benchmarks.
+ *
+ * <p>A corpus of {@code n} topics consists of a root map that defines a key for every topic and {@code n} topics
+ * that reference each other with {@code keyref}, {@code href} and profiling attributes.</p>
+ */
+public final class SyntheticCorpus {
+
+  /** Root map file name. */
+  public static final String MAP = "root.ditamap";
+  /** Profiling attribute values used in topics. */
+  public static final String[] PLATFORMS = { "windows", "linux", "macos", "unix" };
+  public static final String[] AUDIENCES = { "novice", "expert", "admin" };
+  private final int size;
+
+  public SyntheticCorpus(final int size) {
+    this.size = size;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Get topic file name.
+   *
+   * @param i topic index
+   * @return topic file name relative to corpus root
+   */
+  public static String topicName(final int i) {
+    return String.format("topics/t%03d/topic%d.dita", i % 1000, i);
+  }
+
+  /**
+   * Get topic URIs.
+   *
+   * @param base corpus root directory URI
+   * @return absolute topic URIs
+   */
+  public List<URI> topics(final URI base) {
+    final List<URI> res = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      res.add(base.resolve(topicName(i)));
+    }
+    return res;
+  }
+
+  /**
+   * Write root map and topics into store.
+   *
+   * @param store store to write to
+   * @param base corpus root directory URI
+   */
+  public void write(final Store store, final URI base) throws IOException {
+    write(store, base.resolve(MAP), map());
+    for (int i = 0; i < size; i++) {
+      write(store, base.resolve(topicName(i)), topic(i));
+    }
+  }
+
+  private static void write(final Store store, final URI dst, final String content) throws IOException {
+    try (OutputStream out = store.getOutputStream(dst)) {
+      out.write(content.getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
+  /**
+   * Generate root map with a key definition for every topic.
+   */
+  public String map() {
+    final StringBuilder buf = new StringBuilder(size * 128);
+    buf.append("<map class=\"- map/map \">");
+    for (int i = 0; i < size; i++) {
+      buf
+        .append("<keydef class=\"+ map/topicref mapgroup-d/keydef \" processing-role=\"resource-only\" keys=\"key")
+        .append(i)
+        .append("\" href=\"")
+        .append(topicName(i))
+        .append("\"/>");
+    }
+    for (int i = 0; i < size; i++) {
+      buf.append("<topicref class=\"- map/topicref \" href=\"").append(topicName(i)).append("\"/>");
+    }
+    buf.append("</map>");
+    return buf.toString();
+  }
+
+  /**
+   * Generate topic.
+   *
+   * @param i topic index
+   */
+  public String topic(final int i) {
+    final StringBuilder buf = new StringBuilder(2048);
+    buf
+      .append("<concept class=\"- topic/topic concept/concept \" id=\"topic")
+      .append(i)
+      .append("\" domains=\"(topic hi-d) (topic sw-d) (topic ui-d)\">")
+      .append("<title class=\"- topic/title \">Topic ")
+      .append(i)
+      .append("</title>")
+      .append("<conbody class=\"- topic/body concept/conbody \">");
+    for (int j = 0; j < 8; j++) {
+      final int ref = (i + j * 7 + 1) % size;
+      buf
+        .append("<p class=\"- topic/p \" platform=\"")
+        .append(PLATFORMS[(i + j) % PLATFORMS.length])
+        .append("\" audience=\"")
+        .append(AUDIENCES[(i + j) % AUDIENCES.length])
+        .append("\">See <xref class=\"- topic/xref \" keyref=\"key")
+        .append(ref)
+        .append("\"/> and <keyword class=\"+ topic/keyword sw-d/cmdname \" keyref=\"key")
+        .append(ref)
+        .append("\"/> or press <ph class=\"+ topic/ph ui-d/uicontrol \" props=\"")
+        .append(PLATFORMS[j % PLATFORMS.length])
+        .append("\">OK</ph> in <ph class=\"+ topic/ph hi-d/b \">bold</ph>.</p>");
+    }
+    buf
+      .append("</conbody>")
+      .append("<related-links class=\"- topic/related-links \">")
+      .append("<link class=\"- topic/link \" href=\"../../")
+      .append(topicName((i + 1) % size))
+      .append("\"/>")
+      .append("</related-links>")
+      .append("</concept>");
+    return buf.toString();
+  }
+
+  /**
+   * Get attributes of all elements in corpus topics in document order. Equal attribute sets share instances to keep
+   * large corpora in memory.
+   */
+  public Attributes[] attributes() {
+    final Map<List<String>, Attributes> cache = new HashMap<>();
+    final List<Attributes> res = new ArrayList<>(size * 45);
+    for (int i = 0; i < size; i++) {
+      res.add(atts(cache, "class", "- topic/topic concept/concept "));
+      res.add(atts(cache, "class", "- topic/title "));
+      res.add(atts(cache, "class", "- topic/body concept/conbody "));
+      for (int j = 0; j < 8; j++) {
+        res.add(
+          atts(
+            cache,
+            "class",
+            "- topic/p ",
+            "platform",
+            PLATFORMS[(i + j) % PLATFORMS.length],
+            "audience",
+            AUDIENCES[(i + j) % AUDIENCES.length]
+          )
+        );
+        res.add(atts(cache, "class", "- topic/xref "));
+        res.add(atts(cache, "class", "+ topic/keyword sw-d/cmdname "));
+        res.add(atts(cache, "class", "+ topic/ph ui-d/uicontrol ", "props", PLATFORMS[j % PLATFORMS.length]));
+        res.add(atts(cache, "class", "+ topic/ph hi-d/b "));
+      }
+      res.add(atts(cache, "class", "- topic/related-links "));
+      res.add(atts(cache, "class", "- topic/link "));
+    }
+    return res.toArray(new Attributes[0]);
+  }
+
+  private static Attributes atts(final Map<List<String>, Attributes> cache, final String... nameValues) {
+    return cache.computeIfAbsent(
+      List.of(nameValues),
+      key -> {
+        final AttributesImpl atts = new AttributesImpl();
+        for (int i = 0; i < nameValues.length; i += 2) {
+          atts.addAttribute("", nameValues[i], nameValues[i], "CDATA", nameValues[i + 1]);
+        }
+        return atts;
+      }
+    );
+  }
+
+  /**
+   * Write corpus into store and rethrow I/O errors as unchecked.
+   */
+  public static SyntheticCorpus create(final int size, final Store store, final URI base) {
+    final SyntheticCorpus corpus = new SyntheticCorpus(size);
+    try {
+      corpus.write(store, base);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return corpus;
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.reader;
+
+import java.io.StringReader;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import javax.xml.transform.stream.StreamSource;
+import net.sf.saxon.s9api.SaxonApiException;
+import net.sf.saxon.s9api.XdmNode;
+import org.dita.dost.TestUtils;
+import org.dita.dost.util.KeyScope;
+import org.dita.dost.util.XMLUtils;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Key scope resolution over generated scope hierarchies. The root map has key definitions and a number of top level
+ * key scopes, each of which is the root of a chain of nested key scopes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class KeyrefReaderBenchmark {
+
+  private static final int KEYS = 10;
+  private static final URI MAP = URI.create("file:/benchmark/root.ditamap");
+
+  @Param({ "100", "1000", "5000" })
+  public int scopes;
+
+  @Param({ "1", "4" })
+  public int depth;
+
+  private XdmNode doc;
+
+  @Setup(Level.Trial)
+  public void setUp() throws SaxonApiException {
+    final StringBuilder buf = new StringBuilder()
+      .append("<map class='- map/map ' xmlns:ditaarch='http://dita.oasis-open.org/architecture/2005/'>");
+    keys(buf, "root");
+    buf.append("<keydef class='+ map/topicref mapgroup-d/keydef ' keys='alias' keyref='root0'/>");
+    for (int i = 0; i < scopes; i++) {
+      for (int j = 0; j < depth; j++) {
+        buf.append("<topicref class='- map/topicref ' keyscope='s").append(i).append('_').append(j).append("'>");
+        keys(buf, "key");
+        buf.append("<keydef class='+ map/topicref mapgroup-d/keydef ' keys='local' keyref='root0'/>");
+      }
+      buf.append("</topicref>".repeat(depth));
+    }
+    buf.append("</map>");
+    final StreamSource source = new StreamSource(new StringReader(buf.toString()), MAP.toString());
+    doc = new XMLUtils().getProcessor().newDocumentBuilder().build(source);
+  }
+
+  private static void keys(final StringBuilder buf, final String prefix) {
+    for (int k = 0; k < KEYS; k++) {
+      buf
+        .append("<keydef class='+ map/topicref mapgroup-d/keydef' keys='")
+        .append(prefix)
+        .append(k)
+        .append("' href='")
+        .append(prefix)
+        .append(k)
+        .append(".dita'/>");
+    }
+  }
+
+  @Benchmark
+  public KeyScope read() {
+    final KeyrefReader reader = new KeyrefReader();
+    reader.setLogger(new TestUtils.TestLogger());
+    reader.read(MAP, doc);
+    return reader.getKeyDefinition();
+  }
+}
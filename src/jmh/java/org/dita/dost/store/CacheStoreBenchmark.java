@@ -0,0 +1,68 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.store;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.dita.dost.SyntheticCorpus;
+import org.dita.dost.TestUtils;
+import org.dita.dost.exception.DITAOTException;
+import org.dita.dost.util.XMLUtils;
+import org.openjdk.jmh.annotations.*;
+import org.xml.sax.helpers.DefaultHandler;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class CacheStoreBenchmark {
+
+  @Param({ "1000", "10000", "100000" })
+  public int topics;
+
+  private File tempDir;
+  private CacheStore store;
+  private List<URI> files;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    tempDir = Files.createTempDirectory(CacheStoreBenchmark.class.getSimpleName()).toFile();
+    store = new CacheStore(tempDir, new XMLUtils());
+    final URI base = tempDir.toURI();
+    files = SyntheticCorpus.create(topics, store, base).topics(base);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    TestUtils.forceDelete(tempDir);
+  }
+
+  /** Read documents from store into SAX pipeline. */
+  @Benchmark
+  public void transformToContentHandler() throws DITAOTException {
+    for (final URI file : files) {
+      store.transform(file, new DefaultHandler());
+    }
+  }
+
+  /** Read and write back documents with an empty filter pipeline. */
+  @Benchmark
+  public void transformInPlace() throws DITAOTException {
+    for (final URI file : files) {
+      store.transform(file, Collections.emptyList());
+    }
+  }
+}
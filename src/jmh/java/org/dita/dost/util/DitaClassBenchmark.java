@@ -0,0 +1,98 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.util;
+
+import static org.dita.dost.util.Constants.*;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Class attribute matching as done by SAX filters: each element class is tested against a number of DITA classes.
+ * Class attribute values are fresh strings for every element, as they are when returned by a SAX parser.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class DitaClassBenchmark {
+
+  private static final String[] CLASSES = {
+    "- topic/topic concept/concept ",
+    "- topic/title ",
+    "- topic/body concept/conbody ",
+    "- topic/p ",
+    "- topic/ul ",
+    "- topic/li ",
+    "+ topic/ph hi-d/b ",
+    "+ topic/keyword ui-d/uicontrol ",
+    "+ topic/xref ",
+    "+ topic/image ",
+    "+ topic/pre pr-d/codeblock ",
+    "+ topic/ph pr-d/codeph ",
+    "- topic/section ",
+    "- topic/related-links ",
+    "- topic/link ",
+    "- map/topicref ",
+  };
+  private static final DitaClass[] TYPES = {
+    TOPIC_TOPIC,
+    MAP_MAP,
+    TOPIC_LINK,
+    TOPIC_IMAGE,
+    TOPIC_XREF,
+    TOPIC_KEYWORD,
+    MAP_TOPICREF,
+    PR_D_CODEBLOCK,
+  };
+
+  @Param({ "10000" })
+  public int elements;
+
+  private String[] values;
+
+  @Setup(Level.Iteration)
+  public void setUp() {
+    values = new String[elements];
+    for (int i = 0; i < elements; i++) {
+      values[i] = new String(CLASSES[i % CLASSES.length].toCharArray());
+    }
+  }
+
+  /** Match class string against each class with substring search. */
+  @Benchmark
+  public int matchString() {
+    int count = 0;
+    for (final String value : values) {
+      for (final DitaClass type : TYPES) {
+        if (type.matches(value)) {
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  /** Resolve class once per element and match resolved class against each class. */
+  @Benchmark
+  public int matchResolved() {
+    int count = 0;
+    for (final String value : values) {
+      final DitaClass cls = DitaClass.getInstance(value);
+      for (final DitaClass type : TYPES) {
+        if (type.matches(cls)) {
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+}
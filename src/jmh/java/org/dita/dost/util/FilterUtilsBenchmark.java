@@ -0,0 +1,71 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.util;
+
+import static org.dita.dost.util.FilterUtils.Action.EXCLUDE;
+import static org.dita.dost.util.FilterUtils.Action.INCLUDE;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.xml.namespace.QName;
+import org.dita.dost.SyntheticCorpus;
+import org.dita.dost.TestUtils;
+import org.dita.dost.util.FilterUtils.Action;
+import org.dita.dost.util.FilterUtils.FilterKey;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.xml.sax.Attributes;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class FilterUtilsBenchmark {
+
+  private static final QName[][] EXT_PROPS = new QName[0][];
+
+  @Param({ "1000", "10000", "100000" })
+  public int topics;
+
+  private Attributes[] attributes;
+  private FilterUtils filterUtils;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    attributes = new SyntheticCorpus(topics).attributes();
+    final Map<FilterKey, Action> filterMap = Map.of(
+      new FilterKey(QName.valueOf("platform"), "windows"),
+      EXCLUDE,
+      new FilterKey(QName.valueOf("audience"), null),
+      EXCLUDE,
+      new FilterKey(QName.valueOf("audience"), "expert"),
+      INCLUDE,
+      new FilterKey(QName.valueOf("props"), "linux"),
+      EXCLUDE
+    );
+    filterUtils = new FilterUtils(false, filterMap, null, null);
+    filterUtils.setLogger(new TestUtils.TestLogger());
+  }
+
+  @Benchmark
+  public void needExclude(final Blackhole blackhole) {
+    for (final Attributes atts : attributes) {
+      blackhole.consume(filterUtils.needExclude(atts, EXT_PROPS));
+    }
+  }
+
+  @Benchmark
+  public void getFlags(final Blackhole blackhole) {
+    for (final Attributes atts : attributes) {
+      blackhole.consume(filterUtils.getFlags(atts, EXT_PROPS));
+    }
+  }
+}
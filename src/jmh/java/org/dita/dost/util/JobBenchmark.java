@@ -0,0 +1,101 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.dita.dost.SyntheticCorpus;
+import org.dita.dost.TestUtils;
+import org.dita.dost.store.StreamStore;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Heap retained by job file info objects. Reports retained bytes per file as a secondary result.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = { "-XX:+UseSerialGC" })
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class JobBenchmark {
+
+  @Param({ "10000", "100000" })
+  public int topics;
+
+  private File tempDir;
+  private StreamStore store;
+  private Job job;
+
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  @State(Scope.Thread)
+  public static class Heap {
+
+    /** Heap retained per file info in bytes. */
+    public long bytesPerFile;
+  }
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    tempDir = Files.createTempDirectory(JobBenchmark.class.getSimpleName()).toFile();
+    store = new StreamStore(tempDir, new XMLUtils());
+    final URI base = new File(tempDir, "src").toURI();
+    final Job job = new Job(tempDir, store);
+    final List<URI> files = new SyntheticCorpus(topics).topics(base);
+    for (int i = 0; i < files.size(); i++) {
+      final URI src = files.get(i);
+      job.add(
+        Job.FileInfo
+          .builder()
+          .src(src)
+          .uri(URI.create(SyntheticCorpus.topicName(i)))
+          .result(URI.create(src.toString()))
+          .format("dita")
+          .hasKeyref(true)
+          .hasLink(true)
+          .isTarget(i % 2 == 0)
+          .build()
+      );
+    }
+    job.write();
+  }
+
+  @TearDown(Level.Iteration)
+  public void release() {
+    job = null;
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    TestUtils.forceDelete(tempDir);
+  }
+
+  /** Read job configuration and measure heap retained by it. */
+  @Benchmark
+  public Job read(final Heap heap) throws IOException {
+    final long before = usedHeap();
+    job = new Job(tempDir, store);
+    heap.bytesPerFile = (usedHeap() - before) / topics;
+    return job;
+  }
+
+  private static long usedHeap() {
+    final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    for (int i = 0; i < 3; i++) {
+      memory.gc();
+    }
+    return memory.getHeapMemoryUsage().getUsed();
+  }
+}
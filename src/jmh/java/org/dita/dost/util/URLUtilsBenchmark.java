@@ -0,0 +1,58 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.util;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.dita.dost.SyntheticCorpus;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class URLUtilsBenchmark {
+
+  @Param({ "1000", "10000", "100000" })
+  public int topics;
+
+  private List<URI> files;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    files = new SyntheticCorpus(topics).topics(URI.create("file:/tmp/corpus/"));
+  }
+
+  @Benchmark
+  public void getRelativePath(final Blackhole blackhole) {
+    final int size = files.size();
+    for (int i = 0; i < size; i++) {
+      blackhole.consume(URLUtils.getRelativePath(files.get(i), files.get((i + 7) % size)));
+    }
+  }
+
+  @Benchmark
+  public void setFragment(final Blackhole blackhole) {
+    for (final URI file : files) {
+      final URI withFragment = URLUtils.setFragment(file, "topic");
+      blackhole.consume(URLUtils.stripFragment(withFragment));
+    }
+  }
+
+  @Benchmark
+  public void toFile(final Blackhole blackhole) {
+    for (final URI file : files) {
+      blackhole.consume(URLUtils.toFile(file));
+    }
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.writer;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.dita.dost.SyntheticCorpus;
+import org.dita.dost.TestUtils;
+import org.dita.dost.exception.DITAOTException;
+import org.dita.dost.reader.KeyrefReader;
+import org.dita.dost.store.CacheStore;
+import org.dita.dost.store.Store;
+import org.dita.dost.util.Job;
+import org.dita.dost.util.KeyScope;
+import org.dita.dost.util.XMLUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.xml.sax.helpers.DefaultHandler;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class KeyrefPaserBenchmark {
+
+  @Param({ "1000", "10000", "100000" })
+  public int topics;
+
+  private File tempDir;
+  private Store store;
+  private Job job;
+  private KeyScope keyScope;
+  private List<URI> files;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    tempDir = Files.createTempDirectory(KeyrefPaserBenchmark.class.getSimpleName()).toFile();
+    final XMLUtils xmlUtils = new XMLUtils();
+    store = new CacheStore(tempDir, xmlUtils);
+    job = new Job(tempDir, store);
+    final URI base = tempDir.toURI();
+    final SyntheticCorpus corpus = SyntheticCorpus.create(topics, store, base);
+    files = corpus.topics(base);
+
+    final URI map = base.resolve(SyntheticCorpus.MAP);
+    final KeyrefReader reader = new KeyrefReader();
+    reader.setLogger(new TestUtils.TestLogger());
+    reader.setJob(job);
+    reader.setXmlUtils(xmlUtils);
+    reader.read(map, store.getImmutableNode(map));
+    keyScope = reader.getKeyDefinition();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    TestUtils.forceDelete(tempDir);
+  }
+
+  @Benchmark
+  public void resolve(final Blackhole blackhole) throws DITAOTException {
+    for (final URI file : files) {
+      final KeyrefPaser parser = new KeyrefPaser();
+      parser.setLogger(new TestUtils.TestLogger());
+      parser.setJob(job);
+      parser.setKeyDefinition(keyScope);
+      parser.setCurrentFile(file);
+      parser.setContentHandler(new DefaultHandler());
+      store.transform(file, parser);
+      blackhole.consume(parser.getNormalProcessingRoleTargets());
+    }
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.writer;
+
+import static org.dita.dost.util.FilterUtils.Action.EXCLUDE;
+import static org.dita.dost.util.FilterUtils.Action.INCLUDE;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.xml.namespace.QName;
+import org.dita.dost.SyntheticCorpus;
+import org.dita.dost.TestUtils;
+import org.dita.dost.exception.DITAOTException;
+import org.dita.dost.store.CacheStore;
+import org.dita.dost.store.Store;
+import org.dita.dost.util.FilterUtils;
+import org.dita.dost.util.FilterUtils.Action;
+import org.dita.dost.util.FilterUtils.FilterKey;
+import org.dita.dost.util.Job;
+import org.dita.dost.util.XMLUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.xml.sax.helpers.DefaultHandler;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ProfilingFilterBenchmark {
+
+  @Param({ "1000", "10000", "100000" })
+  public int topics;
+
+  private File tempDir;
+  private Store store;
+  private Job job;
+  private FilterUtils filterUtils;
+  private List<URI> files;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    tempDir = Files.createTempDirectory(ProfilingFilterBenchmark.class.getSimpleName()).toFile();
+    store = new CacheStore(tempDir, new XMLUtils());
+    job = new Job(tempDir, store);
+    final URI base = tempDir.toURI();
+    files = SyntheticCorpus.create(topics, store, base).topics(base);
+
+    final Map<FilterKey, Action> filterMap = Map.of(
+      new FilterKey(QName.valueOf("platform"), "windows"),
+      EXCLUDE,
+      new FilterKey(QName.valueOf("audience"), null),
+      EXCLUDE,
+      new FilterKey(QName.valueOf("audience"), "expert"),
+      INCLUDE,
+      new FilterKey(QName.valueOf("props"), "linux"),
+      EXCLUDE
+    );
+    filterUtils = new FilterUtils(false, filterMap, null, null);
+    filterUtils.setLogger(new TestUtils.TestLogger());
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    TestUtils.forceDelete(tempDir);
+  }
+
+  @Benchmark
+  public void filter(final Blackhole blackhole) throws DITAOTException {
+    for (final URI file : files) {
+      final ProfilingFilter filter = new ProfilingFilter(true);
+      filter.setLogger(new TestUtils.TestLogger());
+      filter.setJob(job);
+      filter.setFilterUtils(filterUtils);
+      filter.setCurrentFile(file);
+      filter.setContentHandler(new DefaultHandler());
+      store.transform(file, filter);
+      blackhole.consume(filter.hasElementOutput());
+    }
+  }
+}
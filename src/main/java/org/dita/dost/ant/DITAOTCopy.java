@@ -13,20 +13,40 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.apache.tools.ant.BuildException;
+import org.apache.tools.ant.Project;
 import org.apache.tools.ant.Task;
+import org.apache.tools.ant.types.EnumeratedAttribute;
+import org.apache.tools.ant.types.Resource;
+import org.apache.tools.ant.types.ResourceCollection;
+import org.apache.tools.ant.types.resources.FileProvider;
+import org.apache.tools.ant.types.resources.FileResource;
 import org.apache.tools.ant.util.FileUtils;
+import org.apache.tools.ant.util.FileNameMapper;
 import org.dita.dost.util.Job;
+import org.dita.dost.util.Job.Flag;
 
 /**
- * Class description goes here.
+ * Copy task for resource files.
+ *
+ * <p>Files are copied with NIO, optionally in parallel. Target files with the same size and modification time as the
+ * source file are not copied again. In link mode, target files are created as hard links to the source files when
+ * possible and copied otherwise.</p>
  *
  * @author Wu, Zhi Qiang
  */
@@ -37,6 +57,19 @@ public final class DITAOTCopy extends Task {
   private String relativePaths = null;
   /** Destination directory */
   private File destDir = null;
+  private final List<ResourceCollection> resources = new ArrayList<>();
+  private FileNameMapper mapper = null;
+  private boolean failOnError = true;
+  private boolean parallel = false;
+  private Mode mode = Mode.COPY;
+
+  private enum Mode {
+    COPY,
+    LINK,
+  }
+
+  /** Copy operation from source resource to target file. */
+  private record CopyEntry(Resource src, File dest) {}
 
   /**
    * Default Constructor.
@@ -78,12 +111,60 @@ public final class DITAOTCopy extends Task {
     }
   }
 
+  /**
+   * Add resources to copy.
+   * @param rc resource collection
+   * @since 4.1
+   */
+  public void add(final ResourceCollection rc) {
+    resources.add(rc);
+  }
+
+  /**
+   * Set mapper for nested resources.
+   * @param fileNameMapper file name mapper
+   * @since 4.1
+   */
+  public void add(final FileNameMapper fileNameMapper) {
+    if (mapper != null) {
+      throw new BuildException("Only one mapper allowed");
+    }
+    mapper = fileNameMapper;
+  }
+
+  /**
+   * Set whether to fail the build on copy errors.
+   * @param failOnError fail on error, defaults to {@code true}
+   * @since 4.1
+   */
+  public void setFailonerror(final boolean failOnError) {
+    this.failOnError = failOnError;
+  }
+
+  /**
+   * Set whether to copy files in parallel.
+   * @param parallel copy in parallel, defaults to {@code false}
+   * @since 4.1
+   */
+  public void setParallel(final boolean parallel) {
+    this.parallel = parallel;
+  }
+
+  /**
+   * Set copy mode.
+   * @param mode {@code copy} to copy files, {@code link} to create hard links when possible
+   * @since 4.1
+   */
+  public void setMode(final ModeAttribute mode) {
+    this.mode = Mode.valueOf(mode.getValue().toUpperCase());
+  }
+
   /**
    * @see org.apache.tools.ant.Task#execute()
    */
   @Override
   public void execute() throws BuildException {
-    if (includes == null && includesFile == null) {
+    if (includes == null && includesFile == null && resources.isEmpty()) {
       return;
     }
     if (destDir == null) {
@@ -99,15 +180,24 @@ public final class DITAOTCopy extends Task {
       }
     }
 
+    final List<CopyEntry> entries;
     try {
-      final FileUtils fileUtils = FileUtils.newFileUtils();
+      entries = getCopyEntries();
+    } catch (final IOException e) {
+      throw new BuildException(e.getMessage(), e);
+    }
+    copy(entries);
+  }
+
+  private List<CopyEntry> getCopyEntries() throws IOException {
+    final List<CopyEntry> res = new ArrayList<>();
+    if (includes != null || includesFile != null) {
       final List<String> incs = getIncludes();
       if (relativePaths == null) {
         for (final String inc : incs) {
           final File srcFile = new File(inc);
           if (srcFile.exists()) {
-            final File destFile = new File(destDir, srcFile.getName());
-            fileUtils.copyFile(srcFile, destFile);
+            res.add(new CopyEntry(new FileResource(srcFile), new File(destDir, srcFile.getName())));
           }
         }
       } else {
@@ -122,19 +212,129 @@ public final class DITAOTCopy extends Task {
             }
           }
           if (srcFile.exists() && destFile != null) {
-            fileUtils.copyFile(srcFile, destFile);
+            res.add(new CopyEntry(new FileResource(srcFile), destFile));
           }
         }
       }
-    } catch (final IOException e) {
-      throw new BuildException(e.getMessage(), e);
     }
+    for (final ResourceCollection rc : resources) {
+      for (final Resource r : rc) {
+        if (r.isDirectory()) {
+          continue;
+        }
+        final String[] names = mapper != null ? mapper.mapFileName(r.getName()) : new String[] { r.getName() };
+        if (names == null || names.length == 0) {
+          continue;
+        }
+        res.add(new CopyEntry(r, FileUtils.getFileUtils().resolveFile(destDir, names[0])));
+      }
+    }
+    return res;
+  }
+
+  private void copy(final List<CopyEntry> entries) {
+    final AtomicInteger copied = new AtomicInteger();
+    final AtomicInteger linked = new AtomicInteger();
+    final AtomicInteger skipped = new AtomicInteger();
+    final AtomicLong bytes = new AtomicLong();
+    final Queue<String> errors = new ConcurrentLinkedQueue<>();
+    final long start = System.nanoTime();
+    try {
+      final Stream<CopyEntry> stream = parallel ? entries.parallelStream() : entries.stream();
+      stream.forEach(entry -> {
+        try {
+          switch (copy(entry)) {
+            case COPIED -> {
+              copied.incrementAndGet();
+              bytes.addAndGet(entry.dest.length());
+            }
+            case LINKED -> linked.incrementAndGet();
+            case SKIPPED -> skipped.incrementAndGet();
+            case MISSING -> errors.add("Unable to copy " + entry.src + ", resource does not exist");
+          }
+        } catch (final IOException e) {
+          if (failOnError) {
+            throw new UncheckedIOException(e);
+          }
+          errors.add("Failed to copy " + entry.src + " to " + entry.dest + ": " + e.getMessage());
+        }
+      });
+    } catch (final UncheckedIOException e) {
+      throw new BuildException("Failed to copy files to " + destDir + ": " + e.getCause().getMessage(), e.getCause());
+    }
+    final long duration = Math.max(System.nanoTime() - start, 1);
+    errors.forEach(msg -> log(msg, Project.MSG_WARN));
+    if (copied.get() > 0 || linked.get() > 0) {
+      log(
+        String.format(
+          "Copied %d files (%d bytes, %d bytes/s), linked %d files to %s",
+          copied.get(),
+          bytes.get(),
+          bytes.get() * 1_000_000_000L / duration,
+          linked.get(),
+          destDir
+        ),
+        Project.MSG_INFO
+      );
+    }
+    if (skipped.get() > 0) {
+      log("Skipped " + skipped.get() + " unchanged files", Project.MSG_VERBOSE);
+    }
+  }
+
+  private enum Result {
+    COPIED,
+    LINKED,
+    SKIPPED,
+    MISSING,
+  }
+
+  private Result copy(final CopyEntry entry) throws IOException {
+    if (!entry.src.isExists()) {
+      return Result.MISSING;
+    }
+    final Path dest = entry.dest.toPath();
+    Files.createDirectories(dest.getParent());
+    final FileProvider fp = entry.src.as(FileProvider.class);
+    if (fp == null) {
+      try (InputStream in = entry.src.getInputStream()) {
+        Files.copy(in, dest, StandardCopyOption.REPLACE_EXISTING);
+      }
+      return Result.COPIED;
+    }
+    final Path src = fp.getFile().toPath();
+    if (isUnchanged(src, dest)) {
+      return Result.SKIPPED;
+    }
+    if (mode == Mode.LINK) {
+      try {
+        Files.deleteIfExists(dest);
+        Files.createLink(dest, src);
+        return Result.LINKED;
+      } catch (final IOException | UnsupportedOperationException e) {
+        // Fall back to copy, e.g. when source and target are on different file systems
+      }
+    }
+    Files.copy(src, dest, StandardCopyOption.REPLACE_EXISTING);
+    Files.setLastModifiedTime(dest, Files.getLastModifiedTime(src));
+    return Result.COPIED;
+  }
+
+  /** Test if target file has the same size and modification time as the source file. */
+  private static boolean isUnchanged(final Path src, final Path dest) throws IOException {
+    if (!Files.isRegularFile(dest)) {
+      return false;
+    }
+    return (
+      Files.size(src) == Files.size(dest) &&
+      Files.getLastModifiedTime(src).toMillis() == Files.getLastModifiedTime(dest).toMillis()
+    );
   }
 
   private List<String> getIncludes() throws IOException {
     if (includes == null && includesFile == null) {
       final Job job = getProject().getReference(ANT_REFERENCE_JOB);
-      return job.getFileInfo(fi -> fi.isFlagImage).stream().map(fi -> fi.file.toString()).collect(Collectors.toList());
+      return job.getFileInfo(Flag.FLAG_IMAGE).stream().map(fi -> fi.file.toString()).collect(Collectors.toList());
     }
     if (includesFile != null) {
       final List<String> res = new ArrayList<>();
@@ -151,4 +351,12 @@ public final class DITAOTCopy extends Task {
       return Arrays.asList(includes.split(COMMA));
     }
   }
+
+  public static class ModeAttribute extends EnumeratedAttribute {
+
+    @Override
+    public String[] getValues() {
+      return Arrays.stream(Mode.values()).map(t -> t.toString().toLowerCase()).toArray(String[]::new);
+    }
+  }
 }
@@ -31,15 +31,20 @@ import org.dita.dost.log.DITAOTAntLogger;
 import org.dita.dost.log.MessageUtils;
 import org.dita.dost.module.AbstractPipelineModule;
 import org.dita.dost.module.ModuleFactory;
+import org.dita.dost.module.ModuleMetrics;
 import org.dita.dost.module.XmlFilterModule;
 import org.dita.dost.module.XmlFilterModule.FilterPair;
 import org.dita.dost.module.XsltModule;
 import org.dita.dost.pipeline.PipelineHashIO;
+import org.dita.dost.reader.GrammarPoolManager;
+import org.dita.dost.store.CacheStore;
 import org.dita.dost.store.Store;
 import org.dita.dost.store.StreamStore;
 import org.dita.dost.util.Constants;
 import org.dita.dost.util.Job;
 import org.dita.dost.util.Job.FileInfo;
+import org.dita.dost.util.StylesheetCache;
+import org.dita.dost.util.XMLGrammarPoolImplUtils;
 import org.dita.dost.util.XMLUtils;
 import org.dita.dost.writer.AbstractXMLFilter;
 
@@ -170,6 +175,7 @@ public final class ExtensibleAntInvoker extends Task {
 
     final Job job = getJob(getProject());
     final XMLUtils xmlUtils = getXmlUtils();
+    final ModuleMetrics metrics = getMetrics(getProject());
 
     try {
       for (final ModuleElem m : modules) {
@@ -184,13 +190,82 @@ public final class ExtensibleAntInvoker extends Task {
         mod.setLogger(logger);
         mod.setJob(job);
         mod.setXmlUtils(xmlUtils);
-        mod.execute(pipelineInput);
+        try (ModuleMetrics.ModuleTimer timer = metrics.startModule(getModuleName(mod), job.getStore(), xmlUtils)) {
+          mod.setMetrics(timer.getMetrics());
+          mod.execute(pipelineInput);
+        }
         long end = System.currentTimeMillis();
         logger.debug("{0} processing took {1} ms", mod.getClass().getSimpleName(), end - start);
+        if (job.getStore() instanceof final CacheStore cacheStore) {
+          logger.debug(
+            "Memory store: {0} hits, {1} misses, {2} evictions, {3} bytes",
+            cacheStore.getHitCount(),
+            cacheStore.getMissCount(),
+            cacheStore.getEvictionCount(),
+            cacheStore.getSize()
+          );
+        }
+        if (
+          GrammarPoolManager.getGrammarPool() instanceof final XMLGrammarPoolImplUtils grammarPool &&
+          grammarPool.getMissCount() > 0
+        ) {
+          logger.debug(
+            "Grammar pool: {0} hits, {1} misses, {2} ms load time saved",
+            grammarPool.getHitCount(),
+            grammarPool.getMissCount(),
+            grammarPool.getSavedTime()
+          );
+        }
+        final StylesheetCache stylesheetCache = xmlUtils.getStylesheetCache();
+        if (stylesheetCache.getMissCount() > 0) {
+          logger.debug(
+            "Stylesheet cache: {0} hits, {1} misses",
+            stylesheetCache.getHitCount(),
+            stylesheetCache.getMissCount()
+          );
+        }
       }
     } catch (final DITAOTException e) {
       throw new BuildException("Failed to run pipeline: " + e.getMessage(), e);
     }
+    if (metrics.isEnabled()) {
+      final File outputDir = toFile(getProject().getProperty("output.dir"));
+      if (outputDir != null) {
+        try {
+          metrics.write(outputDir);
+        } catch (final IOException e) {
+          logger.error("Failed to write module metrics: " + e.getMessage(), e);
+        }
+      }
+    }
+  }
+
+  private String getModuleName(final AbstractPipelineModule mod) {
+    final Target target = getOwningTarget();
+    return target != null && target.getName() != null && !target.getName().isEmpty()
+      ? target.getName() + "/" + mod.getClass().getSimpleName()
+      : mod.getClass().getSimpleName();
+  }
+
+  /**
+   * Get module metrics collector from Ant project reference or create new. Metrics are collected only when Ant
+   * property {@code metrics} is {@code true}.
+   *
+   * @param project Ant project
+   * @return metrics collector
+   */
+  static ModuleMetrics getMetrics(final Project project) {
+    if (!Boolean.parseBoolean(project.getProperty(ANT_METRICS))) {
+      return ModuleMetrics.disabled();
+    }
+    synchronized (project) {
+      ModuleMetrics metrics = project.getReference(ANT_REFERENCE_METRICS);
+      if (metrics == null) {
+        metrics = new ModuleMetrics();
+        project.addReference(ANT_REFERENCE_METRICS, metrics);
+      }
+      return metrics;
+    }
   }
 
   private AbstractPipelineModule getPipelineModule(final ModuleElem m, final PipelineHashIO pipelineInput)
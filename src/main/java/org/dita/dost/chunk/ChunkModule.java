@@ -21,6 +21,7 @@ import static org.dita.dost.util.FileUtils.replaceExtension;
 import static org.dita.dost.util.URLUtils.*;
 import static org.dita.dost.util.XMLUtils.*;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.util.*;
@@ -39,6 +40,8 @@ import org.dita.dost.pipeline.AbstractPipelineOutput;
 import org.dita.dost.util.DitaUtils;
 import org.dita.dost.util.Job.FileInfo;
 import org.dita.dost.util.Job.FileInfo.Builder;
+import org.dita.dost.util.Job.Flag;
+import org.dita.dost.util.ReferenceIndex;
 import org.dita.dost.util.URLUtils;
 import org.w3c.dom.*;
 
@@ -54,7 +57,7 @@ public class ChunkModule extends AbstractPipelineModuleImpl {
   public AbstractPipelineOutput execute(final AbstractPipelineInput input) throws DITAOTException {
     init(input);
     try {
-      final FileInfo in = job.getFileInfo(fi -> fi.isInput).iterator().next();
+      final FileInfo in = job.getInputFileInfo();
       final URI mapFile = job.tempDirURI.resolve(in.uri);
       logger.info("Processing {0}", mapFile);
       final Document mapDoc = getInputMap(mapFile);
@@ -93,13 +96,14 @@ public class ChunkModule extends AbstractPipelineModuleImpl {
       rewriteMap.putAll(splitRewriteMap);
       final Map<URI, URI> rewriteMapAll = Collections.unmodifiableMap(rewriteMap);
 
-      final Collection<FileInfo> topics = job.getFileInfo(DitaUtils::isDitaFormat);
+      final Collection<FileInfo> topics = getLinkingTopics(rewriteMapAll.keySet());
       (parallel ? topics.parallelStream() : topics.stream()).forEach(fi -> {
           try {
             final URI uri = job.tempDirURI.resolve(fi.uri);
             final Document doc = job.getStore().getDocument(uri);
-            rewriteTopicLinks(doc, uri, rewriteMapAll);
-            job.getStore().writeDocument(doc, uri);
+            if (rewriteTopicLinks(doc, uri, rewriteMapAll)) {
+              job.getStore().writeDocument(doc, uri);
+            }
           } catch (IOException e) {
             throw new RuntimeException(e);
           }
@@ -108,24 +112,57 @@ public class ChunkModule extends AbstractPipelineModuleImpl {
   }
 
   /**
-   * Rewrite link in a topic.
+   * Get topics that may link to rewritten targets. Topics not in the reverse reference index and topics with conref
+   * or keyref may contain links not in the index. If conref push is used, all topics are returned.
+   *
+   * @param targets absolute rewritten target URIs
+   * @return topics whose links need to be rewritten
    */
-  private void rewriteTopicLinks(final Document doc, final URI src, final Map<URI, URI> rewriteMap) {
+  private Collection<FileInfo> getLinkingTopics(final Set<URI> targets) {
+    final Collection<FileInfo> topics = job.getFileInfo(DitaUtils::isDitaFormat);
+    final URI indexFile = new File(job.tempDir, FILE_NAME_REFERENCE_INDEX).toURI();
+    if (!job.getStore().exists(indexFile) || !job.getFileInfo(Flag.CONREF_PUSH).isEmpty()) {
+      return topics;
+    }
+    final ReferenceIndex index;
+    try {
+      index = ReferenceIndex.read(job.getStore(), indexFile);
+    } catch (IOException e) {
+      logger.warn("Failed to read reference index, rewriting links in all topics: " + e.getMessage());
+      return topics;
+    }
+    final Set<URI> linking = index.getReferencingFiles(
+      targets.stream().map(target -> job.tempDirURI.relativize(target)).collect(Collectors.toList())
+    );
+    final List<FileInfo> res = topics
+      .stream()
+      .filter(fi -> linking.contains(fi.uri) || fi.hasConref || fi.hasKeyref || !index.isIndexed(fi.uri))
+      .collect(Collectors.toList());
+    logger.debug("Rewriting links in {0} of {1} topics", res.size(), topics.size());
+    return res;
+  }
+
+  /**
+   * Rewrite link in a topic. Only links to rewritten targets are changed, other links keep their original form
+   * regardless of whether the topic was selected by the reverse reference index.
+   *
+   * @return {@code true} if any link was rewritten, otherwise {@code false}
+   */
+  private boolean rewriteTopicLinks(final Document doc, final URI src, final Map<URI, URI> rewriteMap) {
+    boolean changed = false;
     final List<Element> elements = toList(doc.getDocumentElement().getElementsByTagName("*"));
     for (Element link : elements) {
       if (TOPIC_LINK.matches(link) || TOPIC_XREF.matches(link)) {
         final URI href = URLUtils.toURI(link.getAttribute(ATTRIBUTE_NAME_HREF));
-        final URI abs = src.resolve(href);
-        final URI rewrite = rewriteMap.get(abs);
+        final URI rewrite = rewriteMap.get(src.resolve(href));
         if (rewrite != null) {
           final URI rel = getRelativePath(src.resolve("."), rewrite);
           link.setAttribute(ATTRIBUTE_NAME_HREF, rel.toString());
-        } else {
-          final URI rel = getRelativePath(src.resolve("."), abs);
-          link.setAttribute(ATTRIBUTE_NAME_HREF, rel.toString());
+          changed = true;
         }
       }
     }
+    return changed;
   }
 
   /**
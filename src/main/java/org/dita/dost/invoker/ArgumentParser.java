@@ -117,6 +117,12 @@ final class ArgumentParser {
           return new InstallArguments().parse(arguments);
         case "uninstall":
           return new UninstallArguments().parse(arguments);
+        case "daemon":
+          // --daemon is a conversion option
+          if (subcommand.equals("daemon")) {
+            return new DaemonArguments().parse(arguments);
+          }
+          break;
       }
     }
     return new ConversionArguments().parse(arguments);
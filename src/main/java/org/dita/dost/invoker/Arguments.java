@@ -77,6 +77,10 @@ abstract class Arguments {
   boolean justPrintDiagnostics;
   final Map<String, Object> definedProps = new HashMap<>();
   int repeat = 1;
+  /**
+   * Number of project deliverables to run concurrently.
+   */
+  int parallelDeliverables = 1;
 
   Arguments() {
     useColor = getUseColor();
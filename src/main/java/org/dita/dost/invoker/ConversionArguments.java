@@ -83,6 +83,11 @@ public class ConversionArguments extends Arguments {
    */
   File projectFile;
 
+  /**
+   * Port of daemon to submit conversion to, {@code null} to run conversion in this process.
+   */
+  Integer daemonPort;
+
   public final List<String> inputs = new ArrayList<>();
   private final List<String> resources = new ArrayList<>();
 
@@ -147,6 +152,10 @@ public class ConversionArguments extends Arguments {
         handleArgResource(arg, args, ARGUMENTS.get(getArgumentName(arg)));
       } else if (isLongForm(arg, "-repeat")) {
         handleArgRepeat(arg, args);
+      } else if (isLongForm(arg, "-parallel-deliverables")) {
+        handleArgParallelDeliverables(arg, args);
+      } else if (isLongForm(arg, "-daemon")) {
+        handleArgDaemon(arg);
       } else if (ARGUMENTS.containsKey(getArgumentName(arg))) {
         definedProps.putAll(handleParameterArg(arg, args, ARGUMENTS.get(getArgumentName(arg))));
       } else if (getPluginArguments().containsKey(getArgumentName(arg))) {
@@ -322,6 +331,32 @@ public class ConversionArguments extends Arguments {
     repeat = Integer.parseInt(entry.getValue());
   }
 
+  /**
+   * Handle the --parallel-deliverables argument.
+   */
+  private void handleArgParallelDeliverables(final String arg, final Deque<String> args) {
+    final Map.Entry<String, String> entry = parse(arg, args);
+    if (entry.getValue() == null) {
+      throw new BuildException("You must specify number of deliverables to run in parallel");
+    }
+    try {
+      parallelDeliverables = Integer.parseInt(entry.getValue());
+    } catch (final NumberFormatException e) {
+      throw new BuildException("Unrecognized parallel deliverables value: " + entry.getValue());
+    }
+    if (parallelDeliverables < 1) {
+      throw new BuildException("Parallel deliverables value must be at least 1");
+    }
+  }
+
+  /**
+   * Handle the --daemon argument. Port is optional and can only be given in {@code --daemon=<port>} form.
+   */
+  private void handleArgDaemon(final String arg) {
+    final int posEq = arg.indexOf('=');
+    daemonPort = posEq != -1 ? DaemonArguments.parsePort(arg.substring(posEq + 1)) : Daemon.DEFAULT_PORT;
+  }
+
   /**
    * Handle the --nice argument.
    */
@@ -384,6 +419,7 @@ public class ConversionArguments extends Arguments {
       .usage(locale.getString("conversion.usage.input"))
       .usage(locale.getString("conversion.usage.project"))
       //                .usage("dita --propertyfile=<file> [options]")
+      .subcommands("daemon", locale.getString("conversion.subcommand.daemon"))
       .subcommands("deliverables", locale.getString("conversion.subcommand.deliverables"))
       .subcommands("install", locale.getString("conversion.subcommand.install"))
       .subcommands("plugins", locale.getString("conversion.subcommand.plugins"))
@@ -398,7 +434,9 @@ public class ConversionArguments extends Arguments {
       .options("o", "output", "dir", locale.getString("conversion.option.output"));
     if (!compact) {
       buf
+        .options(null, "daemon", "port", locale.getString("conversion.option.daemon"))
         .options("l", "logfile", "file", locale.getString("conversion.option.logfile"))
+        .options(null, "parallel-deliverables", "num", locale.getString("conversion.option.parallel_deliverables"))
         .options(null, "propertyfile", "file", locale.getString("conversion.option.propertyfile"))
         .options(null, "repeat", "num", locale.getString("conversion.option.repeat"))
         .options("t", "temp", "dir", locale.getString("conversion.option.temp"));
@@ -0,0 +1,385 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.invoker;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Long-running conversion server. The daemon keeps a warm JVM with loaded plug-in configuration, catalogs and
+ * grammar caches, and runs conversions submitted by {@link DaemonClient}.
+ *
+ * <p>The daemon listens only on the loopback interface. Clients authenticate with a random token that the daemon
+ * writes into a file readable only by the current user.</p>
+ *
+ * <p>Protocol: the client sends the token, a command, the command line arguments and the resolved deliverable
+ * properties. The daemon replies with a sequence of frames, each a type byte followed by a length-prefixed
+ * payload. Standard output and error frames are streamed while the build runs and an exit frame ends the reply.</p>
+ *
+ * @since 4.1
+ */
+final class Daemon {
+
+  static final int DEFAULT_PORT = 7373;
+
+  static final String COMMAND_BUILD = "build";
+  static final String COMMAND_STOP = "stop";
+
+  static final byte FRAME_OUT = 1;
+  static final byte FRAME_ERR = 2;
+  static final byte FRAME_EXIT = 3;
+
+  private static final int MAX_STRING_LENGTH = 16 * 1024 * 1024;
+
+  /**
+   * Conversion request.
+   *
+   * @param args command line arguments
+   * @param properties resolved properties of each deliverable
+   * @param out standard output of the client
+   * @param err standard error of the client
+   * @param threadOut routing of {@link System#out} to current thread
+   * @param threadErr routing of {@link System#err} to current thread
+   */
+  record Request(
+    List<String> args,
+    List<Map<String, Object>> properties,
+    PrintStream out,
+    PrintStream err,
+    Main.ThreadOutputStream threadOut,
+    Main.ThreadOutputStream threadErr
+  ) {}
+
+  /** Conversion runner. */
+  @FunctionalInterface
+  interface Build {
+    /**
+     * Run conversion.
+     *
+     * @param request conversion request
+     * @return exit code
+     */
+    int run(Request request);
+  }
+
+  private final int port;
+  private final File tokenFile;
+  private final Build build;
+  private final ExecutorService executor;
+  private final CountDownLatch stopped = new CountDownLatch(1);
+  private ServerSocket serverSocket;
+  private String token;
+  private Main.ThreadOutputStream threadOut;
+  private Main.ThreadOutputStream threadErr;
+  private PrintStream savedOut;
+  private PrintStream savedErr;
+
+  /**
+   * Create new daemon.
+   *
+   * @param port TCP port to listen, {@code 0} to use any free port
+   * @param tokenFile file to write authentication token to
+   * @param parallelBuilds number of conversions to run concurrently
+   * @param build conversion runner
+   */
+  Daemon(final int port, final File tokenFile, final int parallelBuilds, final Build build) {
+    this.port = port;
+    this.tokenFile = tokenFile;
+    this.build = build;
+    this.executor = Executors.newFixedThreadPool(parallelBuilds);
+  }
+
+  /**
+   * Get token file for daemon port.
+   *
+   * @param port TCP port
+   * @return token file in user's home directory
+   */
+  static File getTokenFile(final int port) {
+    return new File(System.getProperty("user.home"), ".dita" + File.separator + "daemon-" + port + ".token");
+  }
+
+  /**
+   * Start listening for connections.
+   *
+   * @throws IOException if binding to port or writing token file failed
+   */
+  synchronized void start() throws IOException {
+    serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+    token = HexFormat.of().formatHex(generateToken());
+    writeToken();
+
+    savedOut = System.out;
+    savedErr = System.err;
+    threadOut = new Main.ThreadOutputStream(savedOut);
+    threadErr = new Main.ThreadOutputStream(savedErr);
+    System.setOut(new PrintStream(threadOut, true));
+    System.setErr(new PrintStream(threadErr, true));
+
+    final Thread acceptor = new Thread(this::accept, "dita-daemon");
+    acceptor.setDaemon(true);
+    acceptor.start();
+  }
+
+  private void writeToken() throws IOException {
+    final Path file = tokenFile.toPath().toAbsolutePath();
+    final Path dir = file.getParent();
+    final Path tmp;
+    if (file.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+      // create with restricted permissions so that the token is never readable by other users
+      Files.createDirectories(dir, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+      tmp =
+        Files.createTempFile(
+          dir,
+          file.getFileName().toString(),
+          ".tmp",
+          PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------"))
+        );
+    } else {
+      System.err.println(
+        "Warning: File system does not support POSIX permissions, access to " + file + " is not restricted"
+      );
+      Files.createDirectories(dir);
+      tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+    }
+    try {
+      Files.writeString(tmp, token, StandardCharsets.UTF_8);
+      Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+
+  /**
+   * Get port the daemon listens to.
+   */
+  int getPort() {
+    return serverSocket.getLocalPort();
+  }
+
+  /**
+   * Block until daemon has been stopped.
+   */
+  void await() throws InterruptedException {
+    stopped.await();
+  }
+
+  /**
+   * Stop listening and wait for running conversions to finish.
+   */
+  synchronized void stop() {
+    if (stopped.getCount() == 0) {
+      return;
+    }
+    try {
+      serverSocket.close();
+    } catch (final IOException e) {
+      // Ignore
+    }
+    executor.shutdown();
+    try {
+      executor.awaitTermination(1, TimeUnit.HOURS);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    System.setOut(savedOut);
+    System.setErr(savedErr);
+    tokenFile.delete();
+    stopped.countDown();
+  }
+
+  private void accept() {
+    while (!serverSocket.isClosed()) {
+      try {
+        final Socket socket = serverSocket.accept();
+        executor.submit(() -> handle(socket));
+      } catch (final SocketException e) {
+        // Server socket closed
+      } catch (final IOException e) {
+        savedErr.println("Failed to accept connection: " + e.getMessage());
+      }
+    }
+  }
+
+  private static byte[] generateToken() {
+    final byte[] res = new byte[16];
+    new SecureRandom().nextBytes(res);
+    return res;
+  }
+
+  private void handle(final Socket socket) {
+    try (
+      socket;
+      DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+      DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))
+    ) {
+      // reject before reading anything longer than the token from an unauthenticated client
+      final byte[] expectedToken = token.getBytes(StandardCharsets.UTF_8);
+      if (in.readInt() != expectedToken.length) {
+        writeExit(out, 1);
+        return;
+      }
+      final byte[] clientToken = new byte[expectedToken.length];
+      in.readFully(clientToken);
+      if (!MessageDigest.isEqual(expectedToken, clientToken)) {
+        writeExit(out, 1);
+        return;
+      }
+      final String command = readString(in);
+      switch (command) {
+        case COMMAND_STOP -> {
+          writeExit(out, 0);
+          new Thread(this::stop, "dita-daemon-stop").start();
+        }
+        case COMMAND_BUILD -> {
+          final List<String> args = readArguments(in);
+          final List<Map<String, Object>> properties = readProperties(in);
+          final PrintStream buildOut = new PrintStream(new FrameOutputStream(out, FRAME_OUT), true);
+          final PrintStream buildErr = new PrintStream(new FrameOutputStream(out, FRAME_ERR), true);
+          final OutputStream prevOut = threadOut.set(buildOut);
+          final OutputStream prevErr = threadErr.set(buildErr);
+          int exitCode = 1;
+          try {
+            exitCode = build.run(new Request(args, properties, buildOut, buildErr, threadOut, threadErr));
+          } catch (final RuntimeException e) {
+            e.printStackTrace(buildErr);
+          } finally {
+            threadOut.set(prevOut);
+            threadErr.set(prevErr);
+          }
+          buildOut.flush();
+          buildErr.flush();
+          writeExit(out, exitCode);
+        }
+        default -> writeExit(out, 1);
+      }
+    } catch (final IOException e) {
+      savedErr.println("Failed to process request: " + e.getMessage());
+    }
+  }
+
+  private static void writeExit(final DataOutputStream out, final int exitCode) throws IOException {
+    synchronized (out) {
+      out.writeByte(FRAME_EXIT);
+      out.writeInt(exitCode);
+      out.flush();
+    }
+  }
+
+  static List<String> readArguments(final DataInputStream in) throws IOException {
+    final int size = in.readInt();
+    final List<String> args = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      args.add(readString(in));
+    }
+    return args;
+  }
+
+  static void writeArguments(final DataOutputStream out, final List<String> args) throws IOException {
+    out.writeInt(args.size());
+    for (final String arg : args) {
+      writeString(out, arg);
+    }
+  }
+
+  static List<Map<String, Object>> readProperties(final DataInputStream in) throws IOException {
+    final int size = in.readInt();
+    final List<Map<String, Object>> res = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      final int entries = in.readInt();
+      final Map<String, Object> props = new HashMap<>();
+      for (int j = 0; j < entries; j++) {
+        props.put(readString(in), readString(in));
+      }
+      res.add(props);
+    }
+    return res;
+  }
+
+  static void writeProperties(final DataOutputStream out, final List<Map<String, Object>> properties)
+    throws IOException {
+    out.writeInt(properties.size());
+    for (final Map<String, Object> props : properties) {
+      out.writeInt(props.size());
+      for (final Map.Entry<String, Object> e : props.entrySet()) {
+        writeString(out, e.getKey());
+        writeString(out, String.valueOf(e.getValue()));
+      }
+    }
+  }
+
+  static String readString(final DataInputStream in) throws IOException {
+    final int length = in.readInt();
+    if (length < 0 || length > MAX_STRING_LENGTH) {
+      throw new IOException("Invalid string length " + length);
+    }
+    final byte[] buf = new byte[length];
+    in.readFully(buf);
+    return new String(buf, StandardCharsets.UTF_8);
+  }
+
+  static void writeString(final DataOutputStream out, final String value) throws IOException {
+    final byte[] buf = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(buf.length);
+    out.write(buf);
+  }
+
+  /**
+   * Output stream that writes data as typed frames into a shared connection.
+   */
+  private static final class FrameOutputStream extends OutputStream {
+
+    private final DataOutputStream out;
+    private final byte type;
+
+    FrameOutputStream(final DataOutputStream out, final byte type) {
+      this.out = out;
+      this.type = type;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+      write(new byte[] { (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+      if (len == 0) {
+        return;
+      }
+      synchronized (out) {
+        out.writeByte(type);
+        out.writeInt(len);
+        out.write(b, off, len);
+      }
+    }
+
+    @Override
+    public void flush() throws IOException {
+      synchronized (out) {
+        out.flush();
+      }
+    }
+  }
+}
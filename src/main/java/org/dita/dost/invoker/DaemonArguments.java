@@ -0,0 +1,100 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.invoker;
+
+import static org.dita.dost.invoker.Main.locale;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Map;
+import org.apache.tools.ant.BuildException;
+
+/**
+ * Daemon subcommand arguments.
+ *
+ * @since 4.1
+ */
+class DaemonArguments extends Arguments {
+
+  int port = Daemon.DEFAULT_PORT;
+  boolean stop;
+  /**
+   * Number of conversions to run concurrently.
+   */
+  int parallelBuilds = 1;
+
+  @Override
+  DaemonArguments parse(final String[] arguments) {
+    final Deque<String> args = new ArrayDeque<>(Arrays.asList(arguments));
+    while (!args.isEmpty()) {
+      final String arg = args.pop();
+      if (arg.equals("daemon")) {
+        // ignore
+      } else if (isLongForm(arg, "-port")) {
+        port = parsePort(parse(arg, args).getValue());
+      } else if (isLongForm(arg, "-stop")) {
+        stop = true;
+      } else if (isLongForm(arg, "-parallel-builds")) {
+        handleArgParallelBuilds(arg, args);
+      } else {
+        parseCommonOptions(arg, args);
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Parse TCP port number.
+   */
+  static int parsePort(final String value) {
+    if (value == null) {
+      throw new BuildException("You must specify daemon port");
+    }
+    final int port;
+    try {
+      port = Integer.parseInt(value);
+    } catch (final NumberFormatException e) {
+      throw new BuildException("Unrecognized daemon port value: " + value);
+    }
+    if (port < 1 || port > 65535) {
+      throw new BuildException("Daemon port is out of the range 1-65535");
+    }
+    return port;
+  }
+
+  /**
+   * Handle the --parallel-builds argument.
+   */
+  private void handleArgParallelBuilds(final String arg, final Deque<String> args) {
+    final Map.Entry<String, String> entry = parse(arg, args);
+    if (entry.getValue() == null) {
+      throw new BuildException("You must specify number of builds to run in parallel");
+    }
+    try {
+      parallelBuilds = Integer.parseInt(entry.getValue());
+    } catch (final NumberFormatException e) {
+      throw new BuildException("Unrecognized parallel builds value: " + entry.getValue());
+    }
+    if (parallelBuilds < 1) {
+      throw new BuildException("Parallel builds value must be at least 1");
+    }
+  }
+
+  @Override
+  void printUsage(final boolean compact) {
+    UsageBuilder
+      .builder(compact)
+      .usage(locale.getString("daemon.usage"))
+      .options(null, "port", "port", locale.getString("daemon.option.port"))
+      .options(null, "parallel-builds", "num", locale.getString("daemon.option.parallel_builds"))
+      .options(null, "stop", null, locale.getString("daemon.option.stop"))
+      .print();
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.invoker;
+
+import static org.dita.dost.invoker.Daemon.*;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import org.apache.tools.ant.BuildException;
+
+/**
+ * Client that submits conversions to a running {@link Daemon}.
+ *
+ * @since 4.1
+ */
+final class DaemonClient {
+
+  private final int port;
+  private final File tokenFile;
+
+  /**
+   * Create new client.
+   *
+   * @param port daemon TCP port
+   * @param tokenFile daemon authentication token file
+   */
+  DaemonClient(final int port, final File tokenFile) {
+    this.port = port;
+    this.tokenFile = tokenFile;
+  }
+
+  /**
+   * Submit conversion to daemon and copy its output into local streams.
+   *
+   * @param args command line arguments
+   * @param properties resolved properties of each deliverable
+   * @param out stream for standard output
+   * @param err stream for standard error
+   * @return conversion exit code
+   * @throws BuildException if connecting to daemon failed
+   */
+  int build(
+    final List<String> args,
+    final List<Map<String, Object>> properties,
+    final OutputStream out,
+    final OutputStream err
+  ) {
+    return send(
+      COMMAND_BUILD,
+      dataOut -> {
+        writeArguments(dataOut, args);
+        writeProperties(dataOut, properties);
+      },
+      out,
+      err
+    );
+  }
+
+  /**
+   * Ask daemon to stop after running conversions have finished.
+   *
+   * @return exit code
+   * @throws BuildException if connecting to daemon failed
+   */
+  int stop() {
+    return send(COMMAND_STOP, dataOut -> {}, OutputStream.nullOutputStream(), OutputStream.nullOutputStream());
+  }
+
+  private int send(final String command, final Body body, final OutputStream out, final OutputStream err) {
+    final String token;
+    try {
+      token = Files.readString(tokenFile.toPath(), StandardCharsets.UTF_8).trim();
+    } catch (final IOException e) {
+      throw new BuildException("Daemon is not running on port " + port + ": " + tokenFile + " not found");
+    }
+    try (
+      Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+      DataOutputStream dataOut = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+      DataInputStream dataIn = new DataInputStream(new BufferedInputStream(socket.getInputStream()))
+    ) {
+      writeString(dataOut, token);
+      writeString(dataOut, command);
+      body.write(dataOut);
+      dataOut.flush();
+      return readReply(dataIn, out, err);
+    } catch (final IOException e) {
+      throw new BuildException("Failed to connect to daemon on port " + port + ": " + e.getMessage(), e);
+    }
+  }
+
+  private static int readReply(final DataInputStream in, final OutputStream out, final OutputStream err)
+    throws IOException {
+    final byte[] buf = new byte[8192];
+    while (true) {
+      final byte type = in.readByte();
+      if (type == FRAME_EXIT) {
+        out.flush();
+        err.flush();
+        return in.readInt();
+      }
+      final OutputStream dst = type == FRAME_ERR ? err : out;
+      int remaining = in.readInt();
+      while (remaining > 0) {
+        final int len = in.read(buf, 0, Math.min(buf.length, remaining));
+        if (len == -1) {
+          throw new EOFException();
+        }
+        dst.write(buf, 0, len);
+        remaining -= len;
+      }
+      dst.flush();
+    }
+  }
+
+  @FunctionalInterface
+  private interface Body {
+    void write(DataOutputStream out) throws IOException;
+  }
+}
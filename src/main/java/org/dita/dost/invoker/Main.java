@@ -42,6 +42,10 @@ import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.apache.tools.ant.*;
@@ -108,6 +112,16 @@ public class Main extends org.apache.tools.ant.Main implements AntMain {
    */
   private final Vector<String> targets = new Vector<>();
 
+  /**
+   * Per-thread routing of standard output when deliverables are run in parallel or in a daemon, otherwise {@code null}.
+   */
+  private volatile ThreadOutputStream threadOut;
+
+  /**
+   * Per-thread routing of standard error when deliverables are run in parallel or in a daemon, otherwise {@code null}.
+   */
+  private volatile ThreadOutputStream threadErr;
+
   /**
    * Set of properties that can be used by tasks.
    */
@@ -212,6 +226,38 @@ public class Main extends org.apache.tools.ant.Main implements AntMain {
       }
     }
 
+    if (this.args instanceof final DaemonArguments daemonArgs) {
+      exit(runDaemon(daemonArgs, coreLoader));
+      return;
+    }
+
+    // expect the worst
+    int exitCode = 1;
+    try {
+      if (this.args instanceof final ConversionArguments conversionArgs && conversionArgs.daemonPort != null) {
+        exitCode = submitBuild(conversionArgs.daemonPort, args);
+      } else {
+        exitCode = build(coreLoader, out, err);
+      }
+    } catch (final BuildException be) {
+      printMessage(be);
+    } finally {
+      handleLogfile();
+    }
+    exit(exitCode);
+  }
+
+  /**
+   * Executes the builds, repeating them if requested.
+   *
+   * @param coreLoader The classloader to use to find core classes. May be
+   *                   <code>null</code>, in which case the system classloader is
+   *                   used.
+   * @param logOut     Stream to use for logging.
+   * @param logErr     Stream to use for logging error messages.
+   * @return exit code
+   */
+  private int build(final ClassLoader coreLoader, final PrintStream logOut, final PrintStream logErr) {
     // expect the worst
     int exitCode = 1;
     try {
@@ -219,9 +265,7 @@ public class Main extends org.apache.tools.ant.Main implements AntMain {
       for (int i = 0; i < this.args.repeat; i++) {
         final long start = System.currentTimeMillis();
         try {
-          for (Map<String, Object> props : projectProps) {
-            runBuild(coreLoader, props);
-          }
+          runBuilds(coreLoader, logOut, logErr);
           exitCode = 0;
         } catch (final ExitStatusException ese) {
           exitCode = ese.getStatus();
@@ -238,16 +282,93 @@ public class Main extends org.apache.tools.ant.Main implements AntMain {
         }
       }
     } catch (final BuildException be) {
-      if (err != System.err) {
-        printMessage(be);
-      }
+      // already reported by build listeners to the configured log
     } catch (final Throwable exc) {
       exc.printStackTrace();
       printMessage(exc);
-    } finally {
-      handleLogfile();
     }
-    exit(exitCode);
+    return exitCode;
+  }
+
+  /**
+   * Run daemon or stop a running daemon.
+   *
+   * @param daemonArgs daemon arguments
+   * @param coreLoader The classloader to use to find core classes. May be
+   *                   <code>null</code>, in which case the system classloader is
+   *                   used.
+   * @return exit code
+   */
+  private int runDaemon(final DaemonArguments daemonArgs, final ClassLoader coreLoader) {
+    final File tokenFile = Daemon.getTokenFile(daemonArgs.port);
+    try {
+      if (daemonArgs.stop) {
+        return new DaemonClient(daemonArgs.port, tokenFile).stop();
+      }
+      final Daemon daemon = new Daemon(
+        daemonArgs.port,
+        tokenFile,
+        daemonArgs.parallelBuilds,
+        request -> new Main().runDaemonBuild(coreLoader, request)
+      );
+      daemon.start();
+      Runtime.getRuntime().addShutdownHook(new Thread(daemon::stop));
+      System.out.println(String.format(locale.getString("daemon.started"), daemon.getPort()));
+      daemon.await();
+      return 0;
+    } catch (final BuildException e) {
+      printMessage(e);
+      return 1;
+    } catch (final IOException e) {
+      printErrorMessage("Failed to start daemon: " + e.getMessage());
+      return 1;
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return 1;
+    }
+  }
+
+  /**
+   * Run conversion submitted to daemon. Deliverable properties have been resolved by the client, command line
+   * arguments are only used for logging and build options.
+   *
+   * @param coreLoader The classloader to use to find core classes. May be
+   *                   <code>null</code>, in which case the system classloader is
+   *                   used.
+   * @param request    conversion request
+   * @return exit code
+   */
+  private int runDaemonBuild(final ClassLoader coreLoader, final Daemon.Request request) {
+    try {
+      args = argumentParser.processArgs(request.args().toArray(new String[0]));
+    } catch (final BuildException e) {
+      printMessage(e);
+      return 1;
+    }
+    if (!(args instanceof ConversionArguments) || args.buildFile == null) {
+      printErrorMessage("Unsupported daemon request: " + String.join(" ", request.args()));
+      return 1;
+    }
+    projectProps = request.properties();
+    buildFile = FileUtils.getFileUtils().normalize(args.buildFile.getAbsolutePath());
+    threadOut = request.threadOut();
+    threadErr = request.threadErr();
+    return build(coreLoader, request.out(), request.err());
+  }
+
+  /**
+   * Submit conversion to daemon.
+   *
+   * @param port      daemon port
+   * @param arguments command line arguments
+   * @return exit code
+   */
+  private int submitBuild(final int port, final String[] arguments) {
+    final List<String> forwarded = new ArrayList<>(Arrays.asList(arguments));
+    if (!args.useColor) {
+      forwarded.add("--no-color");
+    }
+    return new DaemonClient(port, Daemon.getTokenFile(port)).build(forwarded, projectProps, out, err);
   }
 
   /**
@@ -310,6 +431,11 @@ public class Main extends org.apache.tools.ant.Main implements AntMain {
       return;
     }
 
+    if (args instanceof DaemonArguments) {
+      readyToRun = true;
+      return;
+    }
+
     final File integratorFile = findBuildFile(System.getProperty("dita.dir"), "integrator.xml");
     if (args instanceof PluginsArguments) {
       printPlugins();
@@ -656,6 +782,109 @@ public class Main extends org.apache.tools.ant.Main implements AntMain {
     return file;
   }
 
+  /**
+   * Executes the builds for all deliverables.
+   *
+   * @param coreLoader The classloader to use to find core classes. May be
+   *                   <code>null</code>, in which case the system classloader is
+   *                   used.
+   * @param logOut     Stream to use for logging.
+   * @param logErr     Stream to use for logging error messages.
+   * @throws BuildException if a build fails
+   */
+  private void runBuilds(final ClassLoader coreLoader, final PrintStream logOut, final PrintStream logErr)
+    throws BuildException {
+    if (args.parallelDeliverables > 1 && projectProps.size() > 1) {
+      runBuildsParallel(coreLoader, logOut);
+    } else {
+      for (Map<String, Object> props : projectProps) {
+        runBuild(coreLoader, props, logOut, logErr);
+      }
+    }
+  }
+
+  /**
+   * Executes the builds for deliverables concurrently. Deliverables that write into the same output directory are
+   * run one after the other in the same worker. Log output of each worker is buffered and written out in deliverable
+   * order after the worker has finished. Output written directly to standard streams by threads other than the
+   * worker threads is not buffered.
+   *
+   * @param coreLoader The classloader to use to find core classes. May be
+   *                   <code>null</code>, in which case the system classloader is
+   *                   used.
+   * @param logOut     Stream to write buffered log output to.
+   * @throws BuildException if a build fails
+   */
+  private void runBuildsParallel(final ClassLoader coreLoader, final PrintStream logOut) throws BuildException {
+    final Collection<List<Map<String, Object>>> groups = projectProps
+      .stream()
+      .collect(
+        Collectors.groupingBy(
+          props -> String.valueOf(props.get(ANT_OUTPUT_DIR)),
+          LinkedHashMap::new,
+          Collectors.toList()
+        )
+      )
+      .values();
+
+    final PrintStream savedErr = System.err;
+    final PrintStream savedOut = System.out;
+    final boolean routed = threadOut != null;
+    if (!routed) {
+      threadOut = new ThreadOutputStream(savedOut);
+      threadErr = new ThreadOutputStream(savedErr);
+      System.setOut(new PrintStream(threadOut, true));
+      System.setErr(new PrintStream(threadErr, true));
+    }
+    final ExecutorService executor = Executors.newFixedThreadPool(Math.min(args.parallelDeliverables, groups.size()));
+    try {
+      final List<Map.Entry<Future<?>, ByteArrayOutputStream>> builds = new ArrayList<>();
+      for (final List<Map<String, Object>> group : groups) {
+        final ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        final Future<?> build = executor.submit(() -> {
+          final PrintStream log = new PrintStream(buf, true);
+          for (Map<String, Object> props : group) {
+            runBuild(coreLoader, props, log, log);
+          }
+        });
+        builds.add(pair(build, buf));
+      }
+
+      RuntimeException error = null;
+      for (Map.Entry<Future<?>, ByteArrayOutputStream> build : builds) {
+        try {
+          build.getKey().get();
+        } catch (final ExecutionException e) {
+          if (e.getCause() instanceof Error cause) {
+            throw cause;
+          }
+          if (error == null) {
+            error = e.getCause() instanceof RuntimeException cause
+              ? cause
+              : new BuildException(e.getCause().getMessage(), e.getCause());
+          }
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new BuildException("Interrupted while waiting for deliverables", e);
+        } finally {
+          logOut.write(build.getValue().toByteArray(), 0, build.getValue().size());
+          logOut.flush();
+        }
+      }
+      if (error != null) {
+        throw error;
+      }
+    } finally {
+      executor.shutdownNow();
+      if (!routed) {
+        System.setOut(savedOut);
+        System.setErr(savedErr);
+        threadOut = null;
+        threadErr = null;
+      }
+    }
+  }
+
   /**
    * Executes the build. If the constructor for this instance failed (e.g.
    * returned after issuing a warning), this method returns immediately.
@@ -664,21 +893,32 @@ public class Main extends org.apache.tools.ant.Main implements AntMain {
    *                     <code>null</code>, in which case the system classloader is
    *                     used.
    * @param definedProps Set of properties that can be used by tasks.
+   * @param logOut       Stream to use for logging.
+   * @param logErr       Stream to use for logging error messages.
    * @throws BuildException if the build fails
    */
-  private void runBuild(final ClassLoader coreLoader, Map<String, Object> definedProps) throws BuildException {
+  private void runBuild(
+    final ClassLoader coreLoader,
+    final Map<String, Object> definedProps,
+    final PrintStream logOut,
+    final PrintStream logErr
+  ) throws BuildException {
     final Project project = new Project();
     project.setCoreLoader(coreLoader);
 
     Throwable error = null;
 
     try {
-      addBuildListeners(project);
+      addBuildListeners(project, logOut, logErr);
       addInputHandler(project);
 
       final PrintStream savedErr = System.err;
       final PrintStream savedOut = System.out;
       final InputStream savedIn = System.in;
+      final ThreadOutputStream routedOut = threadOut;
+      final ThreadOutputStream routedErr = threadErr;
+      OutputStream prevOut = null;
+      OutputStream prevErr = null;
 
       // SecurityManager can not be installed here for backwards
       // compatibility reasons (PD). Needs to be loaded prior to
@@ -688,9 +928,14 @@ public class Main extends org.apache.tools.ant.Main implements AntMain {
         if (args.allowInput) {
           project.setDefaultInputStream(System.in);
         }
-        System.setIn(new DemuxInputStream(project));
-        System.setOut(new PrintStream(new DemuxOutputStream(project, false)));
-        System.setErr(new PrintStream(new DemuxOutputStream(project, true)));
+        if (routedOut != null) {
+          prevOut = routedOut.set(new DemuxOutputStream(project, false));
+          prevErr = routedErr.set(new DemuxOutputStream(project, true));
+        } else {
+          System.setIn(new DemuxInputStream(project));
+          System.setOut(new PrintStream(new DemuxOutputStream(project, false)));
+          System.setErr(new PrintStream(new DemuxOutputStream(project, true)));
+        }
 
         project.fireBuildStarted();
 
@@ -733,17 +978,24 @@ public class Main extends org.apache.tools.ant.Main implements AntMain {
         ProjectHelper.configureProject(project, buildFile);
 
         // make sure that we have a target to execute
-        if (targets.size() == 0) {
-          if (project.getDefaultTarget() != null) {
-            targets.addElement(project.getDefaultTarget());
+        synchronized (targets) {
+          if (targets.size() == 0) {
+            if (project.getDefaultTarget() != null) {
+              targets.addElement(project.getDefaultTarget());
+            }
           }
         }
 
         project.executeTargets(targets);
       } finally {
-        System.setOut(savedOut);
-        System.setErr(savedErr);
-        System.setIn(savedIn);
+        if (routedOut != null) {
+          routedOut.set(prevOut);
+          routedErr.set(prevErr);
+        } else {
+          System.setOut(savedOut);
+          System.setErr(savedErr);
+          System.setIn(savedIn);
+        }
       }
     } catch (final RuntimeException | Error exc) {
       error = exc;
@@ -774,8 +1026,21 @@ public class Main extends org.apache.tools.ant.Main implements AntMain {
    */
   @Override
   protected void addBuildListeners(final Project project) {
+    addBuildListeners(project, out, err);
+  }
+
+  /**
+   * Adds the listeners specified in the command line arguments, along with
+   * the default listener, to the specified project.
+   *
+   * @param project The project to add listeners to. Must not be
+   *                <code>null</code>.
+   * @param logOut  Stream to use for logging.
+   * @param logErr  Stream to use for logging error messages.
+   */
+  private void addBuildListeners(final Project project, final PrintStream logOut, final PrintStream logErr) {
     // Add the default listener
-    project.addBuildListener(createLogger());
+    project.addBuildListener(createLogger(logOut, logErr));
 
     if (args.listeners != null) {
       for (String className : args.listeners) {
@@ -816,9 +1081,11 @@ public class Main extends org.apache.tools.ant.Main implements AntMain {
   /**
    * Creates the default build logger for sending build events to the ant log.
    *
+   * @param logOut Stream to use for logging.
+   * @param logErr Stream to use for logging error messages.
    * @return the logger instance for this build.
    */
-  private BuildLogger createLogger() {
+  private BuildLogger createLogger(final PrintStream logOut, final PrintStream logErr) {
     BuildLogger logger;
     if (args.loggerClassname != null) {
       try {
@@ -835,8 +1102,8 @@ public class Main extends org.apache.tools.ant.Main implements AntMain {
     }
 
     logger.setMessageOutputLevel(args.msgOutputLevel);
-    logger.setOutputPrintStream(out);
-    logger.setErrorPrintStream(err);
+    logger.setOutputPrintStream(logOut);
+    logger.setErrorPrintStream(logErr);
     logger.setEmacsMode(args.emacsMode);
 
     return logger;
@@ -850,4 +1117,53 @@ public class Main extends org.apache.tools.ant.Main implements AntMain {
   private void printVersion() throws BuildException {
     System.out.println(String.format(locale.getString("version"), Configuration.configuration.get("otversion")));
   }
+
+  /**
+   * Output stream that writes to a thread specific stream, or to a default stream if the current thread has none.
+   */
+  static final class ThreadOutputStream extends OutputStream {
+
+    private final OutputStream defaultOut;
+    private final ThreadLocal<OutputStream> threadOut = new ThreadLocal<>();
+
+    ThreadOutputStream(final OutputStream defaultOut) {
+      this.defaultOut = defaultOut;
+    }
+
+    /**
+     * Set stream for current thread.
+     *
+     * @param out stream for current thread, {@code null} to use default stream
+     * @return previous stream for current thread, may be {@code null}
+     */
+    OutputStream set(final OutputStream out) {
+      final OutputStream prev = threadOut.get();
+      if (out != null) {
+        threadOut.set(out);
+      } else {
+        threadOut.remove();
+      }
+      return prev;
+    }
+
+    private OutputStream get() {
+      final OutputStream out = threadOut.get();
+      return out != null ? out : defaultOut;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+      get().write(b);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+      get().write(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+      get().flush();
+    }
+  }
 }
@@ -0,0 +1,246 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.log;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.event.Level;
+import org.slf4j.helpers.MarkerIgnoringBase;
+
+/**
+ * Logger proxy that can record warnings and errors logged by the current thread, so that they can be reported again
+ * when a cached result is reused.
+ *
+ * @since 4.1
+ */
+public final class RecordingLogger extends MarkerIgnoringBase implements DITAOTLogger {
+
+  /**
+   * Recorded message.
+   *
+   * @param level message level, either {@link Level#WARN} or {@link Level#ERROR}
+   * @param message formatted message
+   */
+  public record Message(Level level, String message) {}
+
+  private final DITAOTLogger logger;
+  private final ThreadLocal<List<Message>> recording = new ThreadLocal<>();
+
+  /**
+   * Construct a new logger that forwards messages to another logger.
+   *
+   * @param logger logger to forward messages to
+   */
+  public RecordingLogger(final DITAOTLogger logger) {
+    this.logger = logger;
+  }
+
+  /**
+   * Start recording warnings and errors logged by the current thread.
+   */
+  public void startRecording() {
+    recording.set(new ArrayList<>());
+  }
+
+  /**
+   * Stop recording messages logged by the current thread.
+   *
+   * @return recorded messages in log order
+   */
+  public List<Message> stopRecording() {
+    final List<Message> res = recording.get();
+    recording.remove();
+    return res != null ? List.copyOf(res) : List.of();
+  }
+
+  /**
+   * Log recorded messages again.
+   *
+   * @param messages recorded messages
+   */
+  public void replay(final List<Message> messages) {
+    for (final Message message : messages) {
+      if (message.level() == Level.ERROR) {
+        logger.error(message.message());
+      } else {
+        logger.warn(message.message());
+      }
+    }
+  }
+
+  private void record(final Level level, final String message) {
+    final List<Message> messages = recording.get();
+    if (messages != null) {
+      messages.add(new Message(level, message));
+    }
+  }
+
+  @Override
+  public boolean isTraceEnabled() {
+    return logger.isTraceEnabled();
+  }
+
+  @Override
+  public void trace(final String msg) {
+    logger.trace(msg);
+  }
+
+  @Override
+  public void trace(final String format, final Object arg) {
+    logger.trace(format, arg);
+  }
+
+  @Override
+  public void trace(final String format, final Object arg1, final Object arg2) {
+    logger.trace(format, arg1, arg2);
+  }
+
+  @Override
+  public void trace(final String format, final Object... arguments) {
+    logger.trace(format, arguments);
+  }
+
+  @Override
+  public void trace(final String msg, final Throwable t) {
+    logger.trace(msg, t);
+  }
+
+  @Override
+  public boolean isDebugEnabled() {
+    return logger.isDebugEnabled();
+  }
+
+  @Override
+  public void debug(final String msg) {
+    logger.debug(msg);
+  }
+
+  @Override
+  public void debug(final String format, final Object arg) {
+    logger.debug(format, arg);
+  }
+
+  @Override
+  public void debug(final String format, final Object arg1, final Object arg2) {
+    logger.debug(format, arg1, arg2);
+  }
+
+  @Override
+  public void debug(final String format, final Object... arguments) {
+    logger.debug(format, arguments);
+  }
+
+  @Override
+  public void debug(final String msg, final Throwable t) {
+    logger.debug(msg, t);
+  }
+
+  @Override
+  public boolean isInfoEnabled() {
+    return logger.isInfoEnabled();
+  }
+
+  @Override
+  public void info(final String msg) {
+    logger.info(msg);
+  }
+
+  @Override
+  public void info(final String format, final Object arg) {
+    logger.info(format, arg);
+  }
+
+  @Override
+  public void info(final String format, final Object arg1, final Object arg2) {
+    logger.info(format, arg1, arg2);
+  }
+
+  @Override
+  public void info(final String format, final Object... arguments) {
+    logger.info(format, arguments);
+  }
+
+  @Override
+  public void info(final String msg, final Throwable t) {
+    logger.info(msg, t);
+  }
+
+  @Override
+  public boolean isWarnEnabled() {
+    return logger.isWarnEnabled();
+  }
+
+  @Override
+  public void warn(final String msg) {
+    record(Level.WARN, msg);
+    logger.warn(msg);
+  }
+
+  @Override
+  public void warn(final String format, final Object arg) {
+    record(Level.WARN, MessageFormat.format(format, arg));
+    logger.warn(format, arg);
+  }
+
+  @Override
+  public void warn(final String format, final Object arg1, final Object arg2) {
+    record(Level.WARN, MessageFormat.format(format, arg1, arg2));
+    logger.warn(format, arg1, arg2);
+  }
+
+  @Override
+  public void warn(final String format, final Object... arguments) {
+    record(Level.WARN, MessageFormat.format(format, arguments));
+    logger.warn(format, arguments);
+  }
+
+  @Override
+  public void warn(final String msg, final Throwable t) {
+    record(Level.WARN, msg);
+    logger.warn(msg, t);
+  }
+
+  @Override
+  public boolean isErrorEnabled() {
+    return logger.isErrorEnabled();
+  }
+
+  @Override
+  public void error(final String msg) {
+    record(Level.ERROR, msg);
+    logger.error(msg);
+  }
+
+  @Override
+  public void error(final String format, final Object arg) {
+    record(Level.ERROR, arg instanceof Throwable ? format : MessageFormat.format(format, arg));
+    logger.error(format, arg);
+  }
+
+  @Override
+  public void error(final String format, final Object arg1, final Object arg2) {
+    record(
+      Level.ERROR,
+      arg2 instanceof Throwable ? MessageFormat.format(format, arg1) : MessageFormat.format(format, arg1, arg2)
+    );
+    logger.error(format, arg1, arg2);
+  }
+
+  @Override
+  public void error(final String format, final Object... arguments) {
+    record(Level.ERROR, MessageFormat.format(format, arguments));
+    logger.error(format, arguments);
+  }
+
+  @Override
+  public void error(final String msg, final Throwable t) {
+    record(Level.ERROR, msg);
+    logger.error(msg, t);
+  }
+}
@@ -69,4 +69,12 @@ public interface AbstractPipelineModule {
   default void setProcessingPipe(List<XmlFilterModule.FilterPair> pipe) {}
 
   void setParallel(boolean parallel);
+
+  /**
+   * Set metrics collector for module.
+   *
+   * @param metrics metrics collector
+   * @since 4.1
+   */
+  default void setMetrics(ModuleMetrics metrics) {}
 }
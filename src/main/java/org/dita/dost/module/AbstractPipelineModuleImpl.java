@@ -26,6 +26,7 @@ public abstract class AbstractPipelineModuleImpl implements AbstractPipelineModu
   protected Job job;
   protected XMLUtils xmlUtils;
   protected boolean parallel;
+  protected ModuleMetrics metrics = ModuleMetrics.disabled();
   Predicate<FileInfo> fileInfoFilter;
   List<XmlFilterModule.FilterPair> filters;
 
@@ -62,4 +63,9 @@ public abstract class AbstractPipelineModuleImpl implements AbstractPipelineModu
   public void setParallel(boolean parallel) {
     this.parallel = parallel;
   }
+
+  @Override
+  public void setMetrics(final ModuleMetrics metrics) {
+    this.metrics = metrics;
+  }
 }
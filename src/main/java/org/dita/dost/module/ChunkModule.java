@@ -67,7 +67,7 @@ public final class ChunkModule extends AbstractPipelineModuleImpl {
     }
 
     try {
-      final Job.FileInfo in = job.getFileInfo(fi -> fi.isInput).iterator().next();
+      final Job.FileInfo in = job.getInputFileInfo();
       final File mapFile = new File(job.tempDirURI.resolve(in.uri));
       if (transtype.equals(INDEX_TYPE_ECLIPSEHELP) && isEclipseMap(mapFile.toURI())) {
         for (final FileInfo f : job.getFileInfo()) {
@@ -311,22 +311,26 @@ public final class ChunkModule extends AbstractPipelineModuleImpl {
       // FIXME
       final FileInfo ff = job.getOrCreateFileInfo(stripFragment(file));
       ff.format = ATTR_FORMAT_VALUE_DITA;
+      job.add(ff);
     }
     for (final URI file : ditamapList) {
       final FileInfo ff = job.getOrCreateFileInfo(file);
       ff.format = ATTR_FORMAT_VALUE_DITAMAP;
+      job.add(ff);
     }
 
     for (final URI file : chunkedDitamapSet) {
       final FileInfo f = job.getOrCreateFileInfo(file);
       f.format = ATTR_FORMAT_VALUE_DITAMAP;
       f.isResourceOnly = false;
+      job.add(f);
     }
     for (final URI file : chunkedTopicSet) {
       // FIXME
       final FileInfo f = job.getOrCreateFileInfo(stripFragment(file));
       f.format = ATTR_FORMAT_VALUE_DITA;
       f.isResourceOnly = false;
+      job.add(f);
     }
 
     try {
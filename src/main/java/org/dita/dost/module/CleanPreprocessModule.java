@@ -29,6 +29,7 @@ import net.sf.saxon.s9api.*;
 import net.sf.saxon.trans.UncheckedXPathException;
 import org.apache.commons.io.FileUtils;
 import org.dita.dost.exception.DITAOTException;
+import org.dita.dost.exception.UncheckedDITAOTException;
 import org.dita.dost.pipeline.AbstractPipelineOutput;
 import org.dita.dost.util.CatalogUtils;
 import org.dita.dost.util.Job;
@@ -51,9 +52,6 @@ public class CleanPreprocessModule extends AbstractPipelineModuleImpl {
 
   private static final String PARAM_USE_RESULT_FILENAME = "use-result-filename";
 
-  private final LinkFilter filter = new LinkFilter();
-  private final MapCleanFilter mapFilter = new MapCleanFilter();
-
   private boolean useResultFilename;
   private XsltTransformer rewriteTransformer;
   private RewriteRule rewriteClass;
@@ -98,10 +96,6 @@ public class CleanPreprocessModule extends AbstractPipelineModuleImpl {
           }
         })
         .orElse(null);
-
-    filter.setLogger(logger);
-
-    mapFilter.setLogger(logger);
   }
 
   @Override
@@ -121,35 +115,30 @@ public class CleanPreprocessModule extends AbstractPipelineModuleImpl {
       final Collection<FileInfo> rewritten = rewrite(original);
       // move temp files and update links
       final Job tempJob = new Job(job, emptyMap(), rewritten);
-      filter.setJob(tempJob);
-      mapFilter.setJob(tempJob);
-      for (final FileInfo fi : rewritten) {
-        try {
-          assert !fi.result.isAbsolute();
-          if (fi.format != null && (fi.format.equals("coderef") || fi.format.equals("image"))) {
-            logger.debug("Skip format " + fi.format);
-          } else {
-            final File srcFile = new File(job.tempDirURI.resolve(fi.uri));
-            if (job.getStore().exists(srcFile.toURI())) {
-              final File destFile = new File(job.tempDirURI.resolve(fi.result));
-              final List<XMLFilter> processingPipe = getProcessingPipe(fi, srcFile, destFile);
-              if (!processingPipe.isEmpty()) {
-                logger.info("Processing " + srcFile.toURI() + " to " + destFile.toURI());
-                job.getStore().transform(srcFile.toURI(), destFile.toURI(), processingPipe);
-                if (!srcFile.equals(destFile)) {
-                  logger.debug("Deleting " + srcFile.toURI());
-                  FileUtils.deleteQuietly(srcFile);
-                }
-              } else if (!srcFile.equals(destFile)) {
-                logger.info("Moving " + srcFile.toURI() + " to " + destFile.toURI());
-                FileUtils.moveFile(srcFile, destFile);
+      final Collection<URI> conflicts = getConflicts(rewritten);
+      for (final URI conflict : conflicts) {
+        logger.warn("Multiple files are moved to " + job.tempDirURI.resolve(conflict));
+      }
+      final boolean parallelMove = parallel && conflicts.isEmpty();
+      final List<FileInfo> results;
+      try {
+        results =
+          (parallelMove ? rewritten.parallelStream() : rewritten.stream())
+            .map(fi -> {
+              try {
+                return processFile(fi, base, tempJob);
+              } catch (final DITAOTException e) {
+                throw new UncheckedDITAOTException(e);
               }
-            }
-          }
-          final FileInfo res = FileInfo.builder(fi).uri(fi.result).result(base.resolve(fi.result)).build();
+            })
+            .collect(Collectors.toList());
+      } catch (final UncheckedDITAOTException e) {
+        throw e.getDITAOTException();
+      }
+      // update job in rewrite order
+      for (final FileInfo res : results) {
+        if (res != null) {
           job.add(res);
-        } catch (final IOException e) {
-          logger.error("Failed to clean " + job.tempDirURI.resolve(fi.uri) + ": " + e.getMessage(), e);
         }
       }
     }
@@ -158,7 +147,7 @@ public class CleanPreprocessModule extends AbstractPipelineModuleImpl {
     job.setInputDir(base);
 
     // start map
-    final FileInfo start = job.getFileInfo(f -> f.isInput).iterator().next();
+    final FileInfo start = job.getInputFileInfo();
     if (start != null) {
       job.setInputMap(start.uri);
     }
@@ -172,6 +161,73 @@ public class CleanPreprocessModule extends AbstractPipelineModuleImpl {
     return null;
   }
 
+  /**
+   * Move or rewrite temporary file to its result location.
+   *
+   * @param fi file info with temporary file and relative result
+   * @param base common base directory
+   * @param tempJob job with rewritten results, used by link rewriting
+   * @return file info for the moved file, {@code null} if moving failed
+   */
+  private FileInfo processFile(final FileInfo fi, final URI base, final Job tempJob) throws DITAOTException {
+    try {
+      assert !fi.result.isAbsolute();
+      if (isSkipped(fi)) {
+        logger.debug("Skip format " + fi.format);
+      } else {
+        final File srcFile = new File(job.tempDirURI.resolve(fi.uri));
+        if (job.getStore().exists(srcFile.toURI())) {
+          final File destFile = new File(job.tempDirURI.resolve(fi.result));
+          final List<XMLFilter> processingPipe = getProcessingPipe(fi, srcFile, destFile, tempJob);
+          if (!processingPipe.isEmpty()) {
+            logger.info("Processing " + srcFile.toURI() + " to " + destFile.toURI());
+            job.getStore().transform(srcFile.toURI(), destFile.toURI(), processingPipe);
+            if (!srcFile.equals(destFile)) {
+              logger.debug("Deleting " + srcFile.toURI());
+              FileUtils.deleteQuietly(srcFile);
+            }
+          } else if (!srcFile.equals(destFile)) {
+            logger.info("Moving " + srcFile.toURI() + " to " + destFile.toURI());
+            FileUtils.moveFile(srcFile, destFile);
+          }
+        }
+      }
+      return FileInfo.builder(fi).uri(fi.result).result(base.resolve(fi.result)).build();
+    } catch (final IOException e) {
+      logger.error("Failed to clean " + job.tempDirURI.resolve(fi.uri) + ": " + e.getMessage(), e);
+      return null;
+    }
+  }
+
+  private static boolean isSkipped(final FileInfo fi) {
+    return fi.format != null && (fi.format.equals("coderef") || fi.format.equals("image"));
+  }
+
+  /**
+   * Get target paths that are written by more than one file, or that are the temporary file of another file.
+   * Files with conflicting targets depend on processing order and cannot be moved concurrently.
+   *
+   * @param fis file infos with relative results
+   * @return conflicting target paths relative to temporary directory
+   */
+  @VisibleForTesting
+  Collection<URI> getConflicts(final Collection<FileInfo> fis) {
+    final Set<URI> sources = new HashSet<>();
+    for (final FileInfo fi : fis) {
+      if (!isSkipped(fi) && !fi.uri.equals(fi.result)) {
+        sources.add(fi.uri);
+      }
+    }
+    final Set<URI> targets = new HashSet<>();
+    final Set<URI> res = new LinkedHashSet<>();
+    for (final FileInfo fi : fis) {
+      if (!isSkipped(fi) && (!targets.add(fi.result) || (!fi.uri.equals(fi.result) && sources.contains(fi.result)))) {
+        res.add(fi.result);
+      }
+    }
+    return res;
+  }
+
   private Collection<FileInfo> rewrite(final Collection<FileInfo> fis) throws DITAOTException {
     if (rewriteClass != null) {
       return rewriteClass.rewrite(fis);
@@ -216,7 +272,7 @@ public class CleanPreprocessModule extends AbstractPipelineModuleImpl {
   @VisibleForTesting
   URI getBaseDir() {
     final Collection<FileInfo> fis = job.getFileInfo();
-    URI baseDir = job.getFileInfo(fi -> fi.isInput).iterator().next().result.resolve(".");
+    URI baseDir = job.getInputFileInfo().result.resolve(".");
     for (final FileInfo fi : fis) {
       if (fi.result != null) {
         final URI res = fi.result.resolve(".");
@@ -268,24 +324,27 @@ public class CleanPreprocessModule extends AbstractPipelineModuleImpl {
     return null;
   }
 
-  private void init() {
-    filter.setJob(job);
-    filter.setLogger(logger);
-
-    mapFilter.setJob(job);
-    mapFilter.setLogger(logger);
-  }
-
-  private List<XMLFilter> getProcessingPipe(final FileInfo fi, final File srcFile, final File destFile) {
+  private List<XMLFilter> getProcessingPipe(
+    final FileInfo fi,
+    final File srcFile,
+    final File destFile,
+    final Job tempJob
+  ) {
     final List<XMLFilter> res = new ArrayList<>();
 
     if (fi.format == null || fi.format.equals(ATTR_FORMAT_VALUE_DITA) || fi.format.equals(ATTR_FORMAT_VALUE_DITAMAP)) {
+      final LinkFilter filter = new LinkFilter();
+      filter.setJob(tempJob);
+      filter.setLogger(logger);
       filter.setCurrentFile(srcFile.toURI());
       filter.setDestFile(destFile.toURI());
       res.add(filter);
     }
 
     if (fi.format != null && fi.format.equals(ATTR_FORMAT_VALUE_DITAMAP)) {
+      final MapCleanFilter mapFilter = new MapCleanFilter();
+      mapFilter.setJob(tempJob);
+      mapFilter.setLogger(logger);
       res.add(mapFilter);
     }
 
@@ -83,7 +83,7 @@ public final class CopyToModule extends AbstractPipelineModuleImpl {
    * Process start map to read copy-to map and write unique topic references.
    */
   private void processMap() throws DITAOTException {
-    final URI in = job.tempDirURI.resolve(job.getFileInfo(fi -> fi.isInput).iterator().next().uri);
+    final URI in = job.tempDirURI.resolve(job.getInputFileInfo().uri);
 
     final List<XMLFilter> pipe = getProcessingPipe(in);
 
@@ -159,7 +159,7 @@ public final class CopyToModule extends AbstractPipelineModuleImpl {
       if (job.getStore().exists(targetFile)) {
         logger.warn(MessageUtils.getMessage("DOTX064W", copytoTarget.getPath()).toString());
       } else {
-        final FileInfo input = job.getFileInfo(fi -> fi.isInput).iterator().next();
+        final FileInfo input = job.getInputFileInfo();
         final URI inputMapInTemp = job.tempDirURI.resolve(input.uri);
         copyFileWithPIReplaced(srcFile, targetFile, copytoTarget, inputMapInTemp);
         // add new file info into job
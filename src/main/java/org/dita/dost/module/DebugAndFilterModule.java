@@ -8,6 +8,7 @@
  */
 package org.dita.dost.module;
 
+import static javax.xml.XMLConstants.XML_NS_URI;
 import static org.dita.dost.reader.GenListModuleReader.ROOT_URI;
 import static org.dita.dost.reader.GenListModuleReader.isFormatDita;
 import static org.dita.dost.util.Configuration.Mode;
@@ -22,14 +23,24 @@ import static org.dita.dost.util.URLUtils.toFile;
 import static org.dita.dost.util.XMLUtils.close;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.xml.namespace.QName;
 import org.dita.dost.exception.DITAOTException;
 import org.dita.dost.exception.DITAOTXMLErrorHandler;
+import org.dita.dost.exception.UncheckedDITAOTException;
+import org.dita.dost.log.RecordingLogger;
 import org.dita.dost.module.reader.TempFileNameScheme;
 import org.dita.dost.pipeline.AbstractPipelineInput;
 import org.dita.dost.pipeline.AbstractPipelineOutput;
@@ -43,6 +54,7 @@ import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 import org.xml.sax.*;
 import org.xml.sax.ext.LexicalHandler;
+import org.xml.sax.helpers.DefaultHandler;
 
 /**
  * DebugAndFilterModule implement the second step in preprocess. It will insert debug
@@ -76,6 +88,16 @@ public final class DebugAndFilterModule extends SourceReaderModule {
   private TypeFilter typeFilter;
   private TopicFragmentFilter topicFragmentFilter;
   private TempFileNameScheme tempFileNameScheme;
+  /** Incremental build cache, {@code null} if incremental processing is disabled. */
+  private IncrementalCache incrementalCache;
+  /** Logger that records diagnostics of processed files, {@code null} if incremental processing is disabled. */
+  private RecordingLogger recordingLogger;
+  /** Digest of configuration and file set that affect processing of every file. */
+  private String configurationDigest;
+  /** Reference index used to find the dependencies of a file, {@code null} if incremental processing is disabled. */
+  private ReferenceIndex referenceIndex;
+  /** Content digests of dependency files. */
+  private Map<URI, String> dependencyDigests;
 
   @Override
   public void setJob(final Job job) {
@@ -97,12 +119,31 @@ public final class DebugAndFilterModule extends SourceReaderModule {
       readArguments(input);
       init();
 
-      job
+      final List<FileInfo> fis = job
         .getFileInfo()
         .stream()
         .filter(f -> isFormatDita(f.format) || ATTR_FORMAT_VALUE_DITAMAP.equals(f.format))
-        .forEach(this::processFile);
+        .collect(Collectors.toList());
+      if (parallel) {
+        processFilesParallel(fis);
+      } else {
+        for (final FileInfo f : fis) {
+          final ModuleMetrics.Timer timer = metrics.startFile(f.src);
+          try (timer) {
+            f.format = processFile(f);
+            job.add(f);
+          }
+        }
+      }
 
+      if (incrementalCache != null) {
+        incrementalCache.write();
+        logger.info(
+          "Incremental build reused {0} unchanged files and processed {1} files",
+          incrementalCache.getHitCount(),
+          incrementalCache.getMissCount()
+        );
+      }
       job.write();
     } catch (final RuntimeException e) {
       throw e;
@@ -114,11 +155,96 @@ public final class DebugAndFilterModule extends SourceReaderModule {
     return null;
   }
 
-  private void processFile(final FileInfo f) {
+  /**
+   * Process files concurrently. Each file is processed with a forked module that has its own parser, subject scheme
+   * reader and filters. Resolved file formats are stored into the job in file order after all files have been
+   * processed, so that every file sees the same job state.
+   *
+   * @param fis files to process
+   */
+  private void processFilesParallel(final List<FileInfo> fis) throws DITAOTException {
+    final Pool<XMLReader> readers = new Pool<>(() -> {
+      try {
+        return createXmlReader();
+      } catch (final SAXException e) {
+        throw new UncheckedDITAOTException(new DITAOTException(e));
+      }
+    });
+    final List<String> formats;
+    try {
+      formats =
+        fis
+          .parallelStream()
+          .map(f -> {
+            final DebugAndFilterModule fork = fork(readers.borrowObject());
+            final ModuleMetrics.Timer timer = metrics.startFile(f.src);
+            try (timer) {
+              return fork.processFile(f);
+            } finally {
+              readers.returnObject(fork.reader);
+            }
+          })
+          .collect(Collectors.toList());
+    } catch (final UncheckedDITAOTException e) {
+      throw e.getDITAOTException();
+    }
+    for (int i = 0; i < fis.size(); i++) {
+      final FileInfo f = fis.get(i);
+      f.format = formats.get(i);
+      job.add(f);
+    }
+  }
+
+  /**
+   * Create a module that shares configuration with this module but has its own per-file state.
+   *
+   * @param reader XML reader for the fork
+   * @return forked module
+   */
+  private DebugAndFilterModule fork(final XMLReader reader) {
+    final DebugAndFilterModule fork = new DebugAndFilterModule();
+    fork.logger = logger;
+    fork.job = job;
+    fork.xmlUtils = xmlUtils;
+    fork.filters = filters;
+    fork.metrics = metrics;
+    fork.reader = reader;
+    fork.processor = processor;
+    fork.validate = validate;
+    fork.gramcache = gramcache;
+    fork.processingMode = processingMode;
+    fork.genDebugInfo = genDebugInfo;
+    fork.setSystemId = setSystemId;
+    fork.profilingEnabled = profilingEnabled;
+    fork.transtype = transtype;
+    fork.ditavalFile = ditavalFile;
+    fork.resources = resources;
+    fork.dic = dic;
+    fork.baseFilterUtils = baseFilterUtils;
+    fork.tempFileNameScheme = tempFileNameScheme;
+    fork.incrementalCache = incrementalCache;
+    fork.recordingLogger = recordingLogger;
+    fork.configurationDigest = configurationDigest;
+    fork.referenceIndex = referenceIndex;
+    fork.dependencyDigests = dependencyDigests;
+    fork.subjectSchemeReader = new SubjectSchemeReader();
+    fork.subjectSchemeReader.setLogger(logger);
+    fork.subjectSchemeReader.setJob(job);
+    fork.initFilters();
+    return fork;
+  }
+
+  /**
+   * Process a single file.
+   *
+   * @param f file to process
+   * @return resolved format of the file
+   */
+  private String processFile(final FileInfo f) {
     currentFile = f.src;
     if (f.src == null || !exists(f.src) || !f.src.equals(f.result)) {
       logger.warn("Ignoring a copy-to file " + f.result);
-      return;
+      return f.format;
     } else if (f.uri.isAbsolute() && !f.uri.toString().startsWith(job.tempDirURI.toString())) {
       //The file is outside the temp dir, we cannot write to itself
       throw new RuntimeException("Cannot write outside of the temporary files folder: " + f.uri);
@@ -145,6 +271,55 @@ public final class DebugAndFilterModule extends SourceReaderModule {
       filterUtils = baseFilterUtils.refine(subjectSchemeReader.getSubjectSchemeMap());
     }
 
+    final String digest = incrementalCache != null ? getDigest(f, schemaSet) : null;
+    if (digest != null) {
+      final IncrementalCache.Entry entry = incrementalCache.get(f.src, digest);
+      if (entry != null) {
+        logger.debug("Reusing unchanged " + f.src);
+        try {
+          final String content = relocate(
+            Files.readString(incrementalCache.getSnapshot(digest).toPath(), StandardCharsets.UTF_8),
+            new File(entry.tempDir().resolve(f.uri)),
+            outputFile
+          );
+          try (OutputStream out = job.getStore().getOutputStream(outputFile.toURI())) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+          }
+          recordingLogger.replay(entry.messages());
+          return entry.format();
+        } catch (final IOException e) {
+          logger.warn("Failed to read incremental build cache: " + e.getMessage());
+        }
+      }
+    }
+
+    if (digest == null) {
+      return processFile(f, outputFile);
+    }
+    final String format;
+    final List<RecordingLogger.Message> messages;
+    recordingLogger.startRecording();
+    try {
+      format = processFile(f, outputFile);
+    } finally {
+      messages = recordingLogger.stopRecording();
+    }
+    try (InputStream result = job.getStore().getInputStream(outputFile.toURI())) {
+      incrementalCache.put(f.src, new IncrementalCache.Entry(digest, format, job.tempDirURI, messages), result);
+    } catch (final IOException e) {
+      logger.warn("Failed to write incremental build cache: " + e.getMessage());
+    }
+    return format;
+  }
+
+  /**
+   * Parse and filter a single file.
+   *
+   * @param f file to process
+   * @param outputFile output file
+   * @return resolved format of the file
+   */
+  private String processFile(final FileInfo f, final File outputFile) {
     InputSource in = null;
     try {
       reader.setErrorHandler(new DITAOTXMLErrorHandler(currentFile.toString(), logger));
@@ -183,16 +358,242 @@ public final class DebugAndFilterModule extends SourceReaderModule {
       }
     }
 
-    if (isFormatDita(f.format)) {
+    String format = f.format;
+    if (isFormatDita(format)) {
       if (typeFilter.getDitaClass() == null) {
-        f.format = ATTR_FORMAT_VALUE_DITA;
+        format = ATTR_FORMAT_VALUE_DITA;
       } else {
         if (MAP_MAP.matches(typeFilter.getDitaClass())) {
-          f.format = ATTR_FORMAT_VALUE_DITAMAP;
+          format = ATTR_FORMAT_VALUE_DITAMAP;
         } else {
-          f.format = ATTR_FORMAT_VALUE_DITA;
+          format = ATTR_FORMAT_VALUE_DITA;
+        }
+      }
+    }
+
+    return format;
+  }
+
+  /**
+   * Rewrite working directory processing instructions of a cached file written to another temporary directory.
+   *
+   * @param content cached file content
+   * @param src output file the cached content was written to
+   * @param dst current output file
+   * @return relocated file content
+   */
+  static String relocate(final String content, final File src, final File dst) {
+    if (src.equals(dst)) {
+      return content;
+    }
+    // workdir processing instructions that contain a directory path, regardless of the instruction target
+    final Matcher m = Pattern.compile("<\\?([\\w.-]+) " + Pattern.quote(getWorkdir(src)) + "\\?>").matcher(content);
+    return m
+      .replaceAll(r -> Matcher.quoteReplacement("<?" + r.group(1) + " " + getWorkdir(dst) + "?>"))
+      .replace(
+        "<?" + PI_WORKDIR_TARGET_URI + " " + src.toURI().resolve(".") + "?>",
+        "<?" + PI_WORKDIR_TARGET_URI + " " + dst.toURI().resolve(".") + "?>"
+      );
+  }
+
+  private static String getWorkdir(final File outputFile) {
+    if (!OS_NAME.toLowerCase().contains(OS_NAME_WINDOWS)) {
+      return outputFile.getParentFile().getAbsolutePath();
+    } else {
+      return UNIX_SEPARATOR + outputFile.getParentFile().getAbsolutePath();
+    }
+  }
+
+  /**
+   * Get digest of source file and everything its processed output depends on.
+   *
+   * @param f file to process
+   * @param schemaSet subject schemes that apply to the file, may be {@code null}
+   * @return digest, {@code null} if source cannot be read or its dependencies are not known
+   */
+  private String getDigest(final FileInfo f, final Set<URI> schemaSet) {
+    // conref and keyref targets are not in the reference index
+    if (f.hasConref || f.hasKeyref) {
+      return null;
+    }
+    final Set<URI> dependencies = referenceIndex.getTargets(f.uri);
+    if (dependencies == null) {
+      return null;
+    }
+    final IncrementalCache.Digest digest = new IncrementalCache.Digest()
+      .update(configurationDigest)
+      .update(f.src.toString())
+      .update(f.uri.toString())
+      .update(f.format);
+    try {
+      try (InputStream in = f.src.toURL().openStream()) {
+        digest.update(in);
+      }
+      if (schemaSet != null) {
+        for (final URI schema : new TreeSet<>(schemaSet)) {
+          final URI scheme = job.tempDirURI.resolve(schema.getPath() + SUBJECT_SCHEME_EXTENSION);
+          digest.update(scheme.toString());
+          try (InputStream in = job.getStore().getInputStream(scheme)) {
+            digest.update(in);
+          }
         }
       }
+      for (final URI dependency : new TreeSet<>(dependencies)) {
+        digest.update(dependency.toString()).update(getDependencyDigest(dependency));
+      }
+    } catch (final IOException e) {
+      logger.debug("Unable to compute digest for " + f.src + ": " + e.getMessage());
+      return null;
+    }
+    return digest.digest();
+  }
+
+  /**
+   * Get content digest of a dependency file.
+   *
+   * @param dependency temporary file URI relative to temporary directory
+   * @return digest of source file content, {@code null} if dependency is not in the job
+   */
+  private String getDependencyDigest(final URI dependency) throws IOException {
+    final String cached = dependencyDigests.get(dependency);
+    if (cached != null) {
+      return cached;
+    }
+    final FileInfo fi = job.getFileInfo(dependency);
+    if (fi == null || fi.src == null || !exists(fi.src)) {
+      return null;
+    }
+    final String res;
+    try (InputStream in = fi.src.toURL().openStream()) {
+      res = new IncrementalCache.Digest().update(in).digest();
+    }
+    dependencyDigests.put(dependency, res);
+    return res;
+  }
+
+  /**
+   * Get digest of configuration shared by all processed files. Any change to the file set invalidates all files,
+   * because link rewriting and validation look up other files in the job.
+   */
+  private String getConfigurationDigest() throws IOException {
+    final IncrementalCache.Digest digest = new IncrementalCache.Digest()
+      .update(Configuration.configuration.get("otversion"))
+      .update(transtype)
+      .update(Boolean.toString(profilingEnabled))
+      .update(Boolean.toString(genDebugInfo))
+      .update(Boolean.toString(validate))
+      .update(Boolean.toString(setSystemId))
+      .update(processingMode.name())
+      .update(job.getProperty("temp-file-name-scheme"))
+      .update(String.valueOf(job.getInputFile()))
+      .update(String.valueOf(job.getInputDir()));
+    for (final XmlFilterModule.FilterPair pair : filters != null ? filters : List.<XmlFilterModule.FilterPair>of()) {
+      digest.update(pair.filterClass.getName()).update(new TreeMap<>(pair.params).toString());
+    }
+    if (profilingEnabled && job.getStore().exists(ditavalFile.toURI())) {
+      try (InputStream in = job.getStore().getInputStream(ditavalFile.toURI())) {
+        digest.update(in);
+      }
+    }
+    updateCatalog(digest, CatalogUtils.getCatalog(), new HashSet<>());
+    final List<FileInfo> fs = new ArrayList<>(job.getFileInfo());
+    fs.sort(Comparator.comparing(fi -> fi.uri));
+    for (final FileInfo fi : fs) {
+      digest
+        .update(String.valueOf(fi.src))
+        .update(fi.uri.toString())
+        .update(String.valueOf(fi.result))
+        .update(fi.format);
+    }
+    return digest.digest();
+  }
+
+  /**
+   * Add catalog, catalogs it delegates to, and identities of the grammar files they map to the digest. Grammar files
+   * are identified by their size and modification time.
+   *
+   * @param digest digest to update
+   * @param catalog absolute catalog URI
+   * @param visited catalogs already added
+   */
+  private void updateCatalog(final IncrementalCache.Digest digest, final URI catalog, final Set<URI> visited)
+    throws IOException {
+    if (!visited.add(catalog)) {
+      return;
+    }
+    digest.update(catalog.toString());
+    final File catalogFile = toFile(catalog);
+    if (catalogFile == null || !catalogFile.exists()) {
+      return;
+    }
+    try (InputStream in = new FileInputStream(catalogFile)) {
+      digest.update(in);
+    }
+    final CatalogHandler handler = new CatalogHandler(catalog);
+    try {
+      final XMLReader catalogReader = XMLUtils.getXMLReader();
+      try {
+        catalogReader.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+      } catch (final SAXNotRecognizedException | SAXNotSupportedException e) {
+        // ignore
+      }
+      catalogReader.setContentHandler(handler);
+      catalogReader.parse(new InputSource(catalog.toString()));
+    } catch (final SAXException e) {
+      throw new IOException("Failed to read catalog " + catalog + ": " + e.getMessage(), e);
+    }
+    for (final URI target : handler.targets) {
+      digest.update(target.toString());
+      final File targetFile = toFile(target);
+      if (targetFile != null) {
+        digest.update(Long.toString(targetFile.length())).update(Long.toString(targetFile.lastModified()));
+      }
+    }
+    for (final URI next : handler.catalogs) {
+      updateCatalog(digest, next, visited);
+    }
+  }
+
+  /** Collect grammar file and delegate catalog URIs from an OASIS XML catalog. */
+  private static final class CatalogHandler extends DefaultHandler {
+
+    private final Deque<URI> base = new ArrayDeque<>();
+    final List<URI> targets = new ArrayList<>();
+    final List<URI> catalogs = new ArrayList<>();
+
+    CatalogHandler(final URI catalog) {
+      base.push(catalog);
+    }
+
+    @Override
+    public void startElement(final String uri, final String localName, final String qName, final Attributes atts) {
+      final String xmlBase = atts.getValue(XML_NS_URI, "base");
+      final URI current = xmlBase != null ? base.peek().resolve(URLUtils.toURI(xmlBase)) : base.peek();
+      base.push(current);
+      switch (localName) {
+        case "nextCatalog", "delegatePublic", "delegateSystem", "delegateURI" -> add(
+          catalogs,
+          current,
+          atts,
+          "catalog"
+        );
+        default -> {
+          add(targets, current, atts, "uri");
+          add(targets, current, atts, "rewritePrefix");
+        }
+      }
+    }
+
+    @Override
+    public void endElement(final String uri, final String localName, final String qName) {
+      base.pop();
+    }
+
+    private static void add(final List<URI> res, final URI base, final Attributes atts, final String name) {
+      final String value = atts.getValue(name);
+      if (value != null) {
+        res.add(base.resolve(URLUtils.toURI(value)));
+      }
     }
   }
 
@@ -226,6 +627,15 @@ public final class DebugAndFilterModule extends SourceReaderModule {
     }
 
     initFilters();
+
+    if (incrementalCache != null) {
+      configurationDigest = getConfigurationDigest();
+      referenceIndex = ReferenceIndex.read(
+        job.getStore(),
+        new File(job.tempDir, FILE_NAME_REFERENCE_INDEX).toURI()
+      );
+      dependencyDigests = new ConcurrentHashMap<>();
+    }
   }
 
   /**
@@ -320,6 +730,15 @@ public final class DebugAndFilterModule extends SourceReaderModule {
     genDebugInfo = Boolean.parseBoolean(input.getAttribute(ANT_INVOKER_EXT_PARAM_GENERATE_DEBUG_ATTR));
     final String mode = input.getAttribute(ANT_INVOKER_EXT_PARAM_PROCESSING_MODE);
     processingMode = mode != null ? Mode.valueOf(mode.toUpperCase()) : Mode.LAX;
+    final String incrementalDir = input.getAttribute(ANT_INVOKER_EXT_PARAM_INCREMENTAL_DIR);
+    if (incrementalDir != null) {
+      incrementalCache = IncrementalCache.open(new File(incrementalDir), job.getInputFile() + " " + job.getOutputDir());
+      recordingLogger = new RecordingLogger(logger);
+      logger = recordingLogger;
+    } else {
+      incrementalCache = null;
+      recordingLogger = null;
+    }
 
     if (input.getAttribute(ANT_INVOKER_PARAM_RESOURCES) != null) {
       resources =
@@ -12,6 +12,7 @@ import static org.dita.dost.util.Constants.*;
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -19,6 +20,7 @@ import java.util.function.Predicate;
 import org.dita.dost.exception.DITAOTException;
 import org.dita.dost.pipeline.AbstractPipelineInput;
 import org.dita.dost.pipeline.AbstractPipelineOutput;
+import org.dita.dost.util.ImageMetadataCache;
 import org.dita.dost.util.Job.FileInfo;
 import org.dita.dost.util.Pool;
 import org.dita.dost.writer.ImageMetadataFilter;
@@ -48,19 +50,20 @@ final class ImageMetadataModule extends AbstractPipelineModuleImpl {
     if (logger == null) {
       throw new IllegalStateException("Logger not set");
     }
-    final Collection<FileInfo> images = job.getFileInfo(f ->
-      ATTR_FORMAT_VALUE_IMAGE.equals(f.format) || ATTR_FORMAT_VALUE_HTML.equals(f.format)
-    );
+    final Collection<FileInfo> images = new ArrayList<>(job.getFileInfoByFormat(ATTR_FORMAT_VALUE_IMAGE));
+    images.addAll(job.getFileInfoByFormat(ATTR_FORMAT_VALUE_HTML));
     if (!images.isEmpty()) {
       final File outputDir = new File(input.getAttribute(ANT_INVOKER_EXT_PARAM_OUTPUTDIR));
       final Predicate<FileInfo> filter = fileInfoFilter != null
         ? fileInfoFilter
         : f -> !f.isResourceOnly && ATTR_FORMAT_VALUE_DITA.equals(f.format);
       final Map<URI, Attributes> cache = new ConcurrentHashMap<>();
+      final String cacheDir = input.getAttribute(ANT_INVOKER_EXT_PARAM_IMAGE_METADATA_CACHE_DIR);
+      final ImageMetadataCache metadataCache = cacheDir != null ? ImageMetadataCache.open(new File(cacheDir)) : null;
 
       if (parallel) {
         final Pool<ImageMetadataFilter> pool = new Pool<>(() -> {
-          final ImageMetadataFilter writer = new ImageMetadataFilter(outputDir, job, cache);
+          final ImageMetadataFilter writer = new ImageMetadataFilter(outputDir, job, cache, metadataCache);
           writer.setLogger(logger);
           writer.setJob(job);
           return writer;
@@ -79,7 +82,7 @@ final class ImageMetadataModule extends AbstractPipelineModuleImpl {
             }
           });
       } else {
-        final ImageMetadataFilter writer = new ImageMetadataFilter(outputDir, job, cache);
+        final ImageMetadataFilter writer = new ImageMetadataFilter(outputDir, job, cache, metadataCache);
         writer.setLogger(logger);
         writer.setJob(job);
         for (final FileInfo f : job.getFileInfo(filter)) {
@@ -89,6 +92,15 @@ final class ImageMetadataModule extends AbstractPipelineModuleImpl {
 
       storeImageFormat(cache.keySet(), outputDir);
 
+      if (metadataCache != null) {
+        logger.debug("Read " + metadataCache.getHitCount() + " images from image metadata cache");
+        try {
+          metadataCache.write();
+        } catch (IOException e) {
+          logger.warn("Failed to write image metadata cache: " + e.getMessage());
+        }
+      }
+
       try {
         job.write();
       } catch (IOException e) {
@@ -87,7 +87,7 @@ public class IndexTermExtractModule extends AbstractPipelineModuleImpl {
     final String encoding = input.getAttribute(ANT_INVOKER_EXT_PARAM_ENCODING);
     final String indextype = input.getAttribute(ANT_INVOKER_EXT_PARAM_INDEXTYPE);
     final String indexclass = input.getAttribute(ANT_INVOKER_EXT_PARAM_INDEXCLASS);
-    final FileInfo in = job.getFileInfo(fi -> fi.isInput).iterator().next();
+    final FileInfo in = job.getInputFileInfo();
     inputMap = new File(job.tempDirURI.resolve(in.uri));
     targetExt = input.getAttribute(ANT_INVOKER_EXT_PARAM_TARGETEXT);
 
@@ -127,7 +127,7 @@ public class IndexTermExtractModule extends AbstractPipelineModuleImpl {
     final DitamapIndexTermReader ditamapIndexTermReader = new DitamapIndexTermReader(indexTermCollection, true);
     ditamapIndexTermReader.setLogger(logger);
 
-    final FileInfo fileInfo = job.getFileInfo(f -> f.isInput).iterator().next();
+    final FileInfo fileInfo = job.getInputFileInfo();
     final URI tempInputMap = job.tempDirURI.resolve(fileInfo.uri);
     for (final URI aTopicList : topicList) {
       URI target;
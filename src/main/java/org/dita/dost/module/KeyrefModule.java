@@ -35,13 +35,16 @@ import net.sf.saxon.s9api.streams.Predicates;
 import net.sf.saxon.serialize.SerializationProperties;
 import net.sf.saxon.trans.XPathException;
 import org.dita.dost.exception.DITAOTException;
+import org.dita.dost.exception.UncheckedDITAOTException;
 import org.dita.dost.module.reader.TempFileNameScheme;
 import org.dita.dost.pipeline.AbstractPipelineInput;
 import org.dita.dost.pipeline.AbstractPipelineOutput;
 import org.dita.dost.reader.KeyrefReader;
 import org.dita.dost.util.Job;
+import org.dita.dost.util.Job.Flag;
 import org.dita.dost.util.KeyDef;
 import org.dita.dost.util.KeyScope;
+import org.dita.dost.util.LayeredMap;
 import org.dita.dost.writer.ConkeyrefFilter;
 import org.dita.dost.writer.KeyrefPaser;
 import org.dita.dost.writer.TopicFragmentFilter;
@@ -100,7 +103,7 @@ final class KeyrefModule extends AbstractPipelineModuleImpl {
       final KeyrefReader reader = new KeyrefReader();
       reader.setLogger(logger);
       reader.setXmlUtils(xmlUtils);
-      final Job.FileInfo in = job.getFileInfo(fi -> fi.isInput).iterator().next();
+      final Job.FileInfo in = job.getInputFileInfo();
       final URI mapFile = in.uri;
       final XdmNode doc = readMap(in);
       logger.info("Reading " + job.tempDirURI.resolve(mapFile));
@@ -109,26 +112,11 @@ final class KeyrefModule extends AbstractPipelineModuleImpl {
       final KeyScope startScope = reader.getKeyDefinition();
 
       // Read resources maps
-      final Collection<FileInfo> resourceFis = job.getFileInfo(fi ->
-        fi.isInputResource && Objects.equals(fi.format, ATTR_FORMAT_VALUE_DITAMAP)
+      final Collection<FileInfo> resourceFis = job.getFileInfo(
+        Flag.INPUT_RESOURCE,
+        fi -> Objects.equals(fi.format, ATTR_FORMAT_VALUE_DITAMAP)
       );
-      final KeyScope rootScope = resourceFis
-        .stream()
-        .map(fi -> {
-          try {
-            final XdmNode d = readMap(fi);
-            logger.info("Reading " + job.tempDirURI.resolve(fi.uri));
-            final KeyrefReader r = new KeyrefReader();
-            r.setLogger(logger);
-            r.read(job.tempDirURI.resolve(fi.uri), d);
-            final KeyScope s = r.getKeyDefinition();
-            writeMap(fi, d);
-            return s;
-          } catch (DITAOTException e) {
-            throw new RuntimeException(e);
-          }
-        })
-        .reduce(startScope, KeyScope::merge);
+      final KeyScope rootScope = readResourceMaps(resourceFis).stream().reduce(startScope, KeyScope::merge);
       final List<ResolveTask> jobs = collectProcessingTopics(in, resourceFis, rootScope, doc);
 
       (parallel ? jobs.stream().parallel() : jobs.stream()).filter(r -> r.out != null).forEach(this::processFile);
@@ -240,24 +228,62 @@ final class KeyrefModule extends AbstractPipelineModuleImpl {
   }
 
   KeyScope rewriteScopeTargets(KeyScope scope, Map<URI, URI> rewrites) {
-    final Map<String, KeyDef> newKeys = new HashMap<>();
-    for (Map.Entry<String, KeyDef> key : scope.keyDefinition().entrySet()) {
-      final KeyDef oldKey = key.getValue();
-      URI href = oldKey.href;
-      if (href != null && rewrites.containsKey(stripFragment(href))) {
-        href = setFragment(rewrites.get(stripFragment(href)), href.getFragment());
-      }
-      final KeyDef newKey = new KeyDef(oldKey.keys, href, oldKey.scope, oldKey.format, oldKey.source, oldKey.element);
-      newKeys.put(key.getKey(), newKey);
-    }
+    return rewriteScopeTargets(scope, rewrites, new IdentityHashMap<>());
+  }
+
+  private KeyScope rewriteScopeTargets(
+    final KeyScope scope,
+    final Map<URI, URI> rewrites,
+    final Map<Map<String, KeyDef>, Map<String, KeyDef>> rewritten
+  ) {
     return new KeyScope(
       scope.id(),
       scope.name(),
-      newKeys,
-      scope.childScopes().stream().map(c -> rewriteScopeTargets(c, rewrites)).collect(Collectors.toList())
+      rewriteKeyDefinitions(scope.keyDefinition(), rewrites, rewritten),
+      scope
+        .childScopes()
+        .stream()
+        .map(c -> rewriteScopeTargets(c, rewrites, rewritten))
+        .collect(Collectors.toList())
     );
   }
 
+  /**
+   * Rewrite key definition targets. Layered key definitions are rewritten per layer, so that rewritten scopes share
+   * rewritten parent key definitions.
+   */
+  private Map<String, KeyDef> rewriteKeyDefinitions(
+    final Map<String, KeyDef> keys,
+    final Map<URI, URI> rewrites,
+    final Map<Map<String, KeyDef>, Map<String, KeyDef>> rewritten
+  ) {
+    final Map<String, KeyDef> cached = rewritten.get(keys);
+    if (cached != null) {
+      return cached;
+    }
+    final Map<String, KeyDef> newKeys;
+    if (keys instanceof final LayeredMap<String, KeyDef> layered) {
+      newKeys =
+        new LayeredMap<>(
+          rewriteKeyDefinitions(layered.local(), rewrites, rewritten),
+          rewriteKeyDefinitions(layered.parent(), rewrites, rewritten)
+        );
+    } else {
+      newKeys = new HashMap<>();
+      for (Map.Entry<String, KeyDef> key : keys.entrySet()) {
+        final KeyDef oldKey = key.getValue();
+        URI href = oldKey.href;
+        if (href != null && rewrites.containsKey(stripFragment(href))) {
+          href = setFragment(rewrites.get(stripFragment(href)), href.getFragment());
+        }
+        final KeyDef newKey = new KeyDef(oldKey.keys, href, oldKey.scope, oldKey.format, oldKey.source, oldKey.element);
+        newKeys.put(key.getKey(), newKey);
+      }
+    }
+    rewritten.put(keys, newKeys);
+    return newKeys;
+  }
+
   /**
    * Tuple class for key reference processing info.
    */
@@ -506,6 +532,39 @@ final class KeyrefModule extends AbstractPipelineModuleImpl {
     }
   }
 
+  /**
+   * Read and resolve resource maps. Maps are read concurrently when parallel processing is enabled.
+   *
+   * @param resourceFis resource maps
+   * @return key scopes of resource maps in the same order as the resource maps
+   */
+  private List<KeyScope> readResourceMaps(final Collection<FileInfo> resourceFis) throws DITAOTException {
+    try {
+      return (parallel ? resourceFis.parallelStream() : resourceFis.stream())
+        .map(fi -> {
+          try {
+            return readResourceMap(fi);
+          } catch (final DITAOTException e) {
+            throw new UncheckedDITAOTException(e);
+          }
+        })
+        .collect(Collectors.toList());
+    } catch (final UncheckedDITAOTException e) {
+      throw e.getDITAOTException();
+    }
+  }
+
+  private KeyScope readResourceMap(final FileInfo fi) throws DITAOTException {
+    final XdmNode doc = readMap(fi);
+    logger.info("Reading " + job.tempDirURI.resolve(fi.uri));
+    final KeyrefReader reader = new KeyrefReader();
+    reader.setLogger(logger);
+    reader.read(job.tempDirURI.resolve(fi.uri), doc);
+    final KeyScope scope = reader.getKeyDefinition();
+    writeMap(fi, doc);
+    return scope;
+  }
+
   private XdmNode readMap(final FileInfo input) throws DITAOTException {
     try {
       final URI in = job.tempDirURI.resolve(input.uri);
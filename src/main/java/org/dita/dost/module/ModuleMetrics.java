@@ -0,0 +1,460 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.module;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+import org.dita.dost.reader.GrammarPoolManager;
+import org.dita.dost.store.AbstractStore;
+import org.dita.dost.store.CacheStore;
+import org.dita.dost.store.Store;
+import org.dita.dost.util.XMLGrammarPoolImplUtils;
+import org.dita.dost.util.XMLUtils;
+
+/**
+ * Timing, allocation and I/O metrics of pipeline modules.
+ *
+ * <p>Modules are measured by the pipeline invoker, and modules that process files one by one can measure each file
+ * with {@link #startFile(URI)} of the module scoped collector returned by {@link ModuleTimer#getMetrics()}. Wall
+ * time, CPU time and allocated bytes are measured for the threads doing the work. Bytes read and written, documents
+ * parsed and cache hits are measured from the {@link Store} and XML caches and are only available per module; file
+ * measurements leave them out. Grammar pool and stylesheet cache hits are counted by caches shared by the whole JVM,
+ * so module cache hits also include hits of other builds running concurrently in the same JVM. Each measurement is
+ * also emitted as a JFR event when a flight recording with the event enabled is running.</p>
+ *
+ * @since 4.1
+ */
+public final class ModuleMetrics {
+
+  public static final String FILE_NAME_JSON = "metrics.json";
+  public static final String FILE_NAME_CSV = "metrics.csv";
+
+  private static final ModuleMetrics DISABLED = new ModuleMetrics(false);
+  private static final Timer NOOP = () -> {};
+  private static final ModuleTimer NOOP_MODULE = new ModuleTimer() {
+    @Override
+    public void close() {}
+
+    @Override
+    public ModuleMetrics getMetrics() {
+      return DISABLED;
+    }
+  };
+
+  /**
+   * Measurement of a module or a single file.
+   *
+   * @param module module name
+   * @param file processed file, {@code null} for module measurements
+   * @param wallTimeNanos elapsed time in nanoseconds
+   * @param cpuTimeNanos CPU time in nanoseconds
+   * @param allocatedBytes bytes allocated in heap
+   * @param bytesRead bytes read by store, {@code null} for file measurements
+   * @param bytesWritten bytes written by store, {@code null} for file measurements
+   * @param documentsParsed documents parsed by store, {@code null} for file measurements
+   * @param cacheHits memory store, grammar pool, and stylesheet cache hits, {@code null} for file measurements. Grammar
+   *     pool and stylesheet cache hits are JVM-wide.
+   */
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  public record Sample(
+    String module,
+    URI file,
+    long wallTimeNanos,
+    long cpuTimeNanos,
+    long allocatedBytes,
+    Long bytesRead,
+    Long bytesWritten,
+    Long documentsParsed,
+    Long cacheHits
+  ) {}
+
+  /** Running measurement. */
+  @FunctionalInterface
+  public interface Timer extends AutoCloseable {
+    /** Stop measurement and record sample. */
+    @Override
+    void close();
+  }
+
+  /** Running module measurement. */
+  public interface ModuleTimer extends Timer {
+    /**
+     * Get collector that attributes file measurements to this module. Concurrently running modules each have their
+     * own collector.
+     *
+     * @return module scoped collector
+     */
+    ModuleMetrics getMetrics();
+  }
+
+  private final boolean enabled;
+  private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+  private final List<Sample> modules;
+  private final List<Sample> files;
+  /** Module file measurements are attributed to, {@code null} if not module scoped. */
+  private final ModuleTimerImpl module;
+
+  /**
+   * Create new enabled metrics collector.
+   */
+  public ModuleMetrics() {
+    this(true);
+  }
+
+  private ModuleMetrics(final boolean enabled) {
+    this.enabled = enabled;
+    this.modules = Collections.synchronizedList(new ArrayList<>());
+    this.files = Collections.synchronizedList(new ArrayList<>());
+    this.module = null;
+  }
+
+  private ModuleMetrics(final ModuleMetrics parent, final ModuleTimerImpl module) {
+    this.enabled = parent.enabled;
+    this.modules = parent.modules;
+    this.files = parent.files;
+    this.module = module;
+  }
+
+  /**
+   * Get metrics collector that does not measure anything.
+   *
+   * @return disabled collector
+   */
+  public static ModuleMetrics disabled() {
+    return DISABLED;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Start measuring a module. Enables I/O counting in the store.
+   *
+   * @param module module name
+   * @param store store used by the module
+   * @param xmlUtils XML utilities used by the module
+   * @return running measurement
+   */
+  public ModuleTimer startModule(final String module, final Store store, final XMLUtils xmlUtils) {
+    if (!enabled) {
+      return NOOP_MODULE;
+    }
+    return new ModuleTimerImpl(module, store, xmlUtils);
+  }
+
+  /**
+   * Start measuring processing of a single file in the module this collector is scoped to. Nothing is measured if
+   * the collector is not module scoped.
+   *
+   * @param file processed file
+   * @return running measurement
+   */
+  public Timer startFile(final URI file) {
+    if (!enabled || module == null) {
+      return NOOP;
+    }
+    return new FileTimer(module, file);
+  }
+
+  /**
+   * Get module measurements in completion order.
+   */
+  public List<Sample> getModules() {
+    synchronized (modules) {
+      return List.copyOf(modules);
+    }
+  }
+
+  /**
+   * Get file measurements in completion order.
+   */
+  public List<Sample> getFiles() {
+    synchronized (files) {
+      return List.copyOf(files);
+    }
+  }
+
+  /**
+   * Write report as JSON and CSV files.
+   *
+   * @param dir output directory
+   */
+  public void write(final File dir) throws IOException {
+    Files.createDirectories(dir.toPath());
+    writeJson(new File(dir, FILE_NAME_JSON));
+    writeCsv(new File(dir, FILE_NAME_CSV));
+  }
+
+  void writeJson(final File dst) throws IOException {
+    final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    mapper.writeValue(dst, Map.of("modules", getModules(), "files", getFiles()));
+  }
+
+  void writeCsv(final File dst) throws IOException {
+    try (Writer out = Files.newBufferedWriter(dst.toPath(), StandardCharsets.UTF_8)) {
+      out.write(
+        "module,file,wall-time-ns,cpu-time-ns,allocated-bytes,bytes-read,bytes-written,documents-parsed,cache-hits\n"
+      );
+      for (final Sample sample : getModules()) {
+        writeCsv(out, sample);
+      }
+      for (final Sample sample : getFiles()) {
+        writeCsv(out, sample);
+      }
+    }
+  }
+
+  private static void writeCsv(final Writer out, final Sample sample) throws IOException {
+    out.write(escapeCsv(sample.module()));
+    out.write(',');
+    out.write(sample.file() != null ? escapeCsv(sample.file().toString()) : "");
+    for (final Long value : new Long[] {
+      sample.wallTimeNanos(),
+      sample.cpuTimeNanos(),
+      sample.allocatedBytes(),
+      sample.bytesRead(),
+      sample.bytesWritten(),
+      sample.documentsParsed(),
+      sample.cacheHits(),
+    }) {
+      out.write(',');
+      if (value != null) {
+        out.write(Long.toString(value));
+      }
+    }
+    out.write('\n');
+  }
+
+  private static String escapeCsv(final String value) {
+    if (value.indexOf(',') != -1 || value.indexOf('"') != -1 || value.indexOf('\n') != -1) {
+      return '"' + value.replace("\"", "\"\"") + '"';
+    }
+    return value;
+  }
+
+  private long getCpuTime() {
+    return threadMXBean.isCurrentThreadCpuTimeSupported() ? threadMXBean.getCurrentThreadCpuTime() : 0L;
+  }
+
+  private long getAllocatedBytes() {
+    if (threadMXBean instanceof final com.sun.management.ThreadMXBean sunThreadMXBean) {
+      final long allocated = sunThreadMXBean.getCurrentThreadAllocatedBytes();
+      return allocated != -1 ? allocated : 0L;
+    }
+    return 0L;
+  }
+
+  /**
+   * Counters that are shared between threads. Grammar pool and stylesheet cache counters are shared between all
+   * builds in the JVM.
+   */
+  private record Counters(long bytesRead, long bytesWritten, long documentsParsed, long cacheHits) {
+    static Counters of(final Store store, final XMLUtils xmlUtils) {
+      long bytesRead = 0;
+      long bytesWritten = 0;
+      long documentsParsed = 0;
+      long cacheHits = 0;
+      if (store instanceof final AbstractStore abstractStore) {
+        bytesRead = abstractStore.getBytesRead();
+        bytesWritten = abstractStore.getBytesWritten();
+        documentsParsed = abstractStore.getDocumentsParsed();
+      }
+      if (store instanceof final CacheStore cacheStore) {
+        cacheHits += cacheStore.getHitCount();
+      }
+      if (GrammarPoolManager.getGrammarPool() instanceof final XMLGrammarPoolImplUtils grammarPool) {
+        cacheHits += grammarPool.getHitCount();
+      }
+      if (xmlUtils != null) {
+        cacheHits += xmlUtils.getStylesheetCache().getHitCount();
+      }
+      return new Counters(bytesRead, bytesWritten, documentsParsed, cacheHits);
+    }
+  }
+
+  private final class ModuleTimerImpl implements ModuleTimer {
+
+    private final String module;
+    private final Store store;
+    private final XMLUtils xmlUtils;
+    private final Thread thread = Thread.currentThread();
+    private final ModuleEvent event = new ModuleEvent();
+    private final long startTime = System.nanoTime();
+    private final long startCpuTime = getCpuTime();
+    private final long startAllocatedBytes = getAllocatedBytes();
+    private final Counters startCounters;
+    /** CPU time of files processed in other threads. */
+    private final LongAdder workerCpuTime = new LongAdder();
+    /** Allocated bytes of files processed in other threads. */
+    private final LongAdder workerAllocatedBytes = new LongAdder();
+
+    private final ModuleMetrics metrics = new ModuleMetrics(ModuleMetrics.this, this);
+
+    ModuleTimerImpl(final String module, final Store store, final XMLUtils xmlUtils) {
+      this.module = module;
+      this.store = store;
+      this.xmlUtils = xmlUtils;
+      if (store instanceof final AbstractStore abstractStore) {
+        abstractStore.setMetricsEnabled(true);
+      }
+      this.startCounters = Counters.of(store, xmlUtils);
+      event.begin();
+    }
+
+    @Override
+    public ModuleMetrics getMetrics() {
+      return metrics;
+    }
+
+    @Override
+    public void close() {
+      final Counters endCounters = Counters.of(store, xmlUtils);
+      final Sample sample = new Sample(
+        module,
+        null,
+        System.nanoTime() - startTime,
+        getCpuTime() - startCpuTime + workerCpuTime.sum(),
+        getAllocatedBytes() - startAllocatedBytes + workerAllocatedBytes.sum(),
+        endCounters.bytesRead() - startCounters.bytesRead(),
+        endCounters.bytesWritten() - startCounters.bytesWritten(),
+        endCounters.documentsParsed() - startCounters.documentsParsed(),
+        endCounters.cacheHits() - startCounters.cacheHits()
+      );
+      modules.add(sample);
+      event.end();
+      if (event.shouldCommit()) {
+        event.module = module;
+        event.cpuTime = sample.cpuTimeNanos();
+        event.allocatedBytes = sample.allocatedBytes();
+        event.bytesRead = sample.bytesRead();
+        event.bytesWritten = sample.bytesWritten();
+        event.documentsParsed = sample.documentsParsed();
+        event.cacheHits = sample.cacheHits();
+        event.commit();
+      }
+    }
+  }
+
+  private final class FileTimer implements Timer {
+
+    private final ModuleTimerImpl module;
+    private final URI file;
+    private final FileEvent event = new FileEvent();
+    private final long startTime = System.nanoTime();
+    private final long startCpuTime = getCpuTime();
+    private final long startAllocatedBytes = getAllocatedBytes();
+
+    FileTimer(final ModuleTimerImpl module, final URI file) {
+      this.module = module;
+      this.file = file;
+      event.begin();
+    }
+
+    @Override
+    public void close() {
+      final Sample sample = new Sample(
+        module.module,
+        file,
+        System.nanoTime() - startTime,
+        getCpuTime() - startCpuTime,
+        getAllocatedBytes() - startAllocatedBytes,
+        null,
+        null,
+        null,
+        null
+      );
+      files.add(sample);
+      if (Thread.currentThread() != module.thread) {
+        module.workerCpuTime.add(sample.cpuTimeNanos());
+        module.workerAllocatedBytes.add(sample.allocatedBytes());
+      }
+      event.end();
+      if (event.shouldCommit()) {
+        event.module = module.module;
+        event.file = String.valueOf(file);
+        event.cpuTime = sample.cpuTimeNanos();
+        event.allocatedBytes = sample.allocatedBytes();
+        event.commit();
+      }
+    }
+  }
+
+  @Name("org.dita.dost.Module")
+  @Label("Module")
+  @Description("Pipeline module execution")
+  @Category("DITA-OT")
+  static final class ModuleEvent extends Event {
+
+    @Label("Module")
+    String module;
+
+    @Label("CPU Time")
+    @Timespan
+    long cpuTime;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocatedBytes;
+
+    @Label("Bytes Read")
+    @DataAmount
+    long bytesRead;
+
+    @Label("Bytes Written")
+    @DataAmount
+    long bytesWritten;
+
+    @Label("Documents Parsed")
+    long documentsParsed;
+
+    @Label("Cache Hits")
+    long cacheHits;
+  }
+
+  @Name("org.dita.dost.File")
+  @Label("File")
+  @Description("Pipeline module processing of a single file")
+  @Category("DITA-OT")
+  static final class FileEvent extends Event {
+
+    @Label("Module")
+    String module;
+
+    @Label("File")
+    String file;
+
+    @Label("CPU Time")
+    @Timespan
+    long cpuTime;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocatedBytes;
+  }
+}
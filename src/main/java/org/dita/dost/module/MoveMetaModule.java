@@ -31,6 +31,7 @@ import org.dita.dost.reader.MapMetaReader;
 import org.dita.dost.util.CatalogUtils;
 import org.dita.dost.util.ChainedURIResolver;
 import org.dita.dost.util.Job.FileInfo;
+import org.dita.dost.util.Job.Flag;
 import org.dita.dost.writer.DitaMapMetaWriter;
 import org.dita.dost.writer.DitaMetaWriter;
 import org.w3c.dom.Element;
@@ -55,7 +56,7 @@ final class MoveMetaModule extends AbstractPipelineModuleImpl {
    */
   @Override
   public AbstractPipelineOutput execute(final AbstractPipelineInput input) throws DITAOTException {
-    final Collection<FileInfo> fis = job.getFileInfo(fi -> fi.isInput);
+    final Collection<FileInfo> fis = job.getFileInfo(Flag.INPUT);
     if (!fis.isEmpty()) {
       final Map<URI, Map<String, Element>> mapSet = getMapMetadata(fis);
       pushMetadata(mapSet);
@@ -53,6 +53,18 @@ abstract class SourceReaderModule extends AbstractPipelineModuleImpl {
    * @throws SAXException if parser configuration failed
    */
   void initXmlReader() throws SAXException {
+    reader = createXmlReader();
+    processor = xmlUtils.getProcessor();
+  }
+
+  /**
+   * Create a new XML reader for parsing DITA documents.
+   *
+   * @return configured XML reader
+   * @throws SAXException if parser configuration failed
+   */
+  XMLReader createXmlReader() throws SAXException {
+    final XMLReader reader;
     if (parserMap.containsKey(ATTR_FORMAT_VALUE_DITA)) {
       reader = XMLReaderFactory.createXMLReader(parserMap.get(ATTR_FORMAT_VALUE_DITA));
       final Map<String, Boolean> features = parserFeatures.getOrDefault(ATTR_FORMAT_VALUE_DITA, emptyMap());
@@ -91,7 +103,7 @@ abstract class SourceReaderModule extends AbstractPipelineModuleImpl {
     final Resolver catalogResolver = CatalogUtils.getCatalogResolver();
     reader.setEntityResolver(catalogResolver);
 
-    processor = xmlUtils.getProcessor();
+    return reader;
   }
 
   /**
@@ -24,7 +24,7 @@ import org.xml.sax.XMLFilter;
 
 /**
  * Map processes topics through XML filters. Filters are reused and should reset internal state on
- * {@code startDocument} event.
+ * {@code startDocument} event. Files that no filter applies to are not processed.
  */
 public final class XmlFilterModule extends AbstractPipelineModuleImpl {
 
@@ -41,29 +41,31 @@ public final class XmlFilterModule extends AbstractPipelineModuleImpl {
       fis
         .stream()
         .parallel()
-        .forEach(f -> {
-          final URI file = job.tempDirURI.resolve(f.uri);
-          logger.info("Processing " + file);
-          try {
-            job.getStore().transform(file, getProcessingPipe(f));
-          } catch (final DITAOTException e) {
-            logger.error("Failed to process XML filter: " + e.getMessage(), e);
-          }
-        });
+        .forEach(this::processFile);
     } else {
       for (final FileInfo f : fis) {
-        final URI file = job.tempDirURI.resolve(f.uri);
-        logger.info("Processing " + file);
-        try {
-          job.getStore().transform(file, getProcessingPipe(f));
-        } catch (final DITAOTException e) {
-          logger.error("Failed to process XML filter: " + e.getMessage(), e);
-        }
+        processFile(f);
       }
     }
     return null;
   }
 
+  private void processFile(final FileInfo f) {
+    final URI file = job.tempDirURI.resolve(f.uri);
+    final List<XMLFilter> pipe = getProcessingPipe(f);
+    if (pipe.isEmpty()) {
+      logger.debug("Skip " + file + ", no filters apply");
+      return;
+    }
+    logger.info("Processing " + file);
+    final ModuleMetrics.Timer timer = metrics.startFile(file);
+    try (timer) {
+      job.getStore().transform(file, pipe);
+    } catch (final DITAOTException e) {
+      logger.error("Failed to process XML filter: " + e.getMessage(), e);
+    }
+  }
+
   /**
    * Get pipe line filters
    *
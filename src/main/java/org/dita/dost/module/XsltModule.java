@@ -34,6 +34,7 @@ import org.dita.dost.pipeline.AbstractPipelineOutput;
 import org.dita.dost.util.CatalogUtils;
 import org.dita.dost.util.ChainedURIResolver;
 import org.dita.dost.util.Job;
+import org.dita.dost.util.StylesheetCache;
 import org.xmlresolver.Resolver;
 
 /**
@@ -102,7 +103,16 @@ public final class XsltModule extends AbstractPipelineModuleImpl {
     xsltCompiler.setErrorReporter(toErrorReporter(logger));
     logger.info("Loading stylesheet " + style.getSystemId());
     try {
-      templates = xsltCompiler.compile(style);
+      if (catalog instanceof XMLCatalog) {
+        templates = xsltCompiler.compile(style);
+      } else {
+        final StylesheetCache stylesheetCache = xmlUtils.getStylesheetCache();
+        final int hits = stylesheetCache.getHitCount();
+        templates = stylesheetCache.get(style, xsltCompiler, job.tempDir);
+        if (stylesheetCache.getHitCount() > hits) {
+          logger.debug("Reusing compiled stylesheet " + style.getSystemId());
+        }
+      }
     } catch (SaxonApiException e) {
       throw new RuntimeException("Failed to compile stylesheet '" + style.getSystemId() + "': " + e.getMessage(), e);
     }
@@ -121,13 +131,16 @@ public final class XsltModule extends AbstractPipelineModuleImpl {
                 return null;
               }
               final XsltTransformer transformer = getTransformer();
-              if (in.equals(out)) {
-                final File tmp = new File(out.getAbsolutePath() + FILE_EXTENSION_TEMP);
-                transform(in, tmp, transformer);
-                return pair(tmp, out);
-              } else {
-                transform(in, out, transformer);
-                return null;
+              final ModuleMetrics.Timer timer = metrics.startFile(in.toURI());
+              try (timer) {
+                if (in.equals(out)) {
+                  final File tmp = new File(out.getAbsolutePath() + FILE_EXTENSION_TEMP);
+                  transform(in, tmp, transformer);
+                  return pair(tmp, out);
+                } else {
+                  transform(in, out, transformer);
+                  return null;
+                }
               }
             } catch (DITAOTException e) {
               throw new UncheckedDITAOTException(e);
@@ -204,7 +217,10 @@ public final class XsltModule extends AbstractPipelineModuleImpl {
       logger.info("Loading stylesheet " + style.getSystemId());
       t = getTransformer();
     }
-    transform(in, out, t);
+    final ModuleMetrics.Timer timer = metrics.startFile(in.toURI());
+    try (timer) {
+      transform(in, out, t);
+    }
   }
 
   private void transform(final File in, final File out, final XsltTransformer t) throws DITAOTException {
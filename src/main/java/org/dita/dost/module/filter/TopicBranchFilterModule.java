@@ -53,7 +53,7 @@ public final class TopicBranchFilterModule extends AbstractBranchFilterModule {
 
   @Override
   public AbstractPipelineOutput execute(final AbstractPipelineInput input) throws DITAOTException {
-    final FileInfo in = job.getFileInfo(fi -> fi.isInput).iterator().next();
+    final FileInfo in = job.getInputFileInfo();
     processMap(in.uri);
 
     addFlagImagesSetToProperties(job, relFlagImagesSet);
@@ -24,6 +24,8 @@ import java.net.URI;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.function.Consumer;
@@ -34,6 +36,7 @@ import javax.xml.namespace.QName;
 import org.apache.commons.io.FileUtils;
 import org.apache.xerces.xni.grammars.XMLGrammarPool;
 import org.dita.dost.exception.DITAOTException;
+import org.dita.dost.exception.UncheckedDITAOTException;
 import org.dita.dost.log.MessageUtils;
 import org.dita.dost.module.AbstractPipelineModuleImpl;
 import org.dita.dost.pipeline.AbstractPipelineInput;
@@ -112,6 +115,8 @@ public abstract class AbstractReaderModule extends AbstractPipelineModuleImpl {
   /** Subject scheme usage. Key is absolute file path, value is set of applicable subject schemes. */
   private final Map<URI, Set<URI>> schemeDictionary = new HashMap<>();
   private final Map<URI, URI> copyTo = new ConcurrentHashMap<>();
+  /** Local references. Key is absolute source file path, value maps absolute targets to element positions. */
+  private final Map<URI, Map<URI, List<Integer>>> references = new ConcurrentHashMap<>();
   Mode processingMode;
   /** Generate {@code xtrf} and {@code xtrc} attributes */
   boolean genDebugInfo;
@@ -174,16 +179,23 @@ public abstract class AbstractReaderModule extends AbstractPipelineModuleImpl {
   void initFilters() {
     tempFileNameScheme.setBaseDir(job.getInputDir());
 
+    if (profilingEnabled) {
+      filterUtils = parseFilterFile();
+    }
+
+    createFilters();
+  }
+
+  /**
+   * Create filters used to parse a single file at a time.
+   */
+  void createFilters() {
     listFilter = new GenListModuleReader();
     listFilter.setLogger(logger);
     listFilter.setPrimaryDitamap(rootFile);
     listFilter.setJob(job);
     listFilter.setFormatFilter(formatFilter);
 
-    if (profilingEnabled) {
-      filterUtils = parseFilterFile();
-    }
-
     keydefFilter = new KeydefFilter();
     keydefFilter.setLogger(logger);
     keydefFilter.setCurrentFile(rootFile);
@@ -195,7 +207,7 @@ public abstract class AbstractReaderModule extends AbstractPipelineModuleImpl {
     ditaWriterFilter.setTempFileNameScheme(tempFileNameScheme);
     ditaWriterFilter.setLogger(logger);
     ditaWriterFilter.setJob(job);
-    ditaWriterFilter.setEntityResolver(reader.getEntityResolver());
+    ditaWriterFilter.setEntityResolver(CatalogUtils.getCatalogResolver());
 
     topicFragmentFilter = new TopicFragmentFilter(ATTRIBUTE_NAME_CONREF, ATTRIBUTE_NAME_CONREFEND);
   }
@@ -207,7 +219,21 @@ public abstract class AbstractReaderModule extends AbstractPipelineModuleImpl {
    * @throws SAXException parsing exception
    */
   void initXMLReader(final boolean validate) throws SAXException {
-    reader = XMLUtils.getXMLReader();
+    if (!validate) {
+      logger.warn(MessageUtils.getMessage("DOTJ037W").toString());
+    }
+    reader = createXMLReader(validate);
+  }
+
+  /**
+   * Create new xml reader used for pipeline parsing.
+   *
+   * @param validate whether validate input file
+   * @return configured XML reader
+   * @throws SAXException parsing exception
+   */
+  private XMLReader createXMLReader(final boolean validate) throws SAXException {
+    final XMLReader reader = XMLUtils.getXMLReader();
     reader.setFeature(FEATURE_NAMESPACE, true);
     reader.setFeature(FEATURE_NAMESPACE_PREFIX, true);
     if (validate) {
@@ -217,8 +243,6 @@ public abstract class AbstractReaderModule extends AbstractPipelineModuleImpl {
       } catch (final SAXNotRecognizedException e) {
         // Not Xerces, ignore exception
       }
-    } else {
-      logger.warn(MessageUtils.getMessage("DOTJ037W").toString());
     }
     if (gramcache) {
       final XMLGrammarPool grammarPool = GrammarPoolManager.getGrammarPool();
@@ -232,6 +256,7 @@ public abstract class AbstractReaderModule extends AbstractPipelineModuleImpl {
       }
     }
     reader.setEntityResolver(CatalogUtils.getCatalogResolver());
+    return reader;
   }
 
   void parseInputParameters(final AbstractPipelineInput input) {
@@ -316,6 +341,10 @@ public abstract class AbstractReaderModule extends AbstractPipelineModuleImpl {
   }
 
   void processWaitList() throws DITAOTException {
+    if (parallel) {
+      processWaitListParallel();
+      return;
+    }
     for (
       Map.Entry<URI, Reference> entry = waitList.pollFirstEntry();
       entry != null;
@@ -325,6 +354,130 @@ public abstract class AbstractReaderModule extends AbstractPipelineModuleImpl {
     }
   }
 
+  /**
+   * Process wait list in parallel. Queued files are read concurrently, each file with a forked reader that has its
+   * own filters and result collections. Fork results are merged back in the same order the serial crawl reads files,
+   * always taking the first file in the wait list, so the crawl result does not depend on read completion order.
+   * Files queued by a merged fork are read while earlier files are merged.
+   */
+  private void processWaitListParallel() throws DITAOTException {
+    final Pool<XMLReader> readers = new Pool<>(() -> {
+      try {
+        return createXMLReader(validate);
+      } catch (final SAXException e) {
+        throw new UncheckedDITAOTException(new DITAOTException(e));
+      }
+    });
+    final Map<URI, CompletableFuture<AbstractReaderModule>> reads = new HashMap<>();
+    try {
+      for (final Reference ref : waitList.values()) {
+        reads.put(ref.filename, CompletableFuture.supplyAsync(() -> readFork(ref, readers)));
+      }
+      for (
+        Map.Entry<URI, Reference> entry = waitList.pollFirstEntry();
+        entry != null;
+        entry = waitList.pollFirstEntry()
+      ) {
+        doneList.add(entry.getKey().normalize());
+        final AbstractReaderModule fork = reads.remove(entry.getKey()).join();
+        merge(fork);
+        for (final Reference ref : fork.waitList.values()) {
+          if (waitList.containsKey(ref.filename) && !reads.containsKey(ref.filename)) {
+            final Reference queued = waitList.get(ref.filename);
+            reads.put(ref.filename, CompletableFuture.supplyAsync(() -> readFork(queued, readers)));
+          }
+        }
+      }
+    } catch (final CompletionException e) {
+      if (e.getCause() instanceof final UncheckedDITAOTException cause) {
+        throw cause.getDITAOTException();
+      } else if (e.getCause() instanceof final RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    } finally {
+      // Wait for reads of files that were not merged, so they do not outlive the crawl
+      CompletableFuture.allOf(reads.values().toArray(new CompletableFuture[0])).handle((res, t) -> null).join();
+    }
+  }
+
+  private AbstractReaderModule readFork(final Reference ref, final Pool<XMLReader> readers) {
+    final AbstractReaderModule fork = fork();
+    fork.reader = readers.borrowObject();
+    try {
+      fork.readFile(ref, null);
+    } catch (final DITAOTException e) {
+      throw new UncheckedDITAOTException(e);
+    } finally {
+      readers.returnObject(fork.reader);
+      fork.reader = null;
+    }
+    return fork;
+  }
+
+  /**
+   * Create a reader that shares configuration with this module but collects results of a single file.
+   *
+   * @return new reader module
+   */
+  private AbstractReaderModule fork() {
+    final AbstractReaderModule fork;
+    try {
+      fork = getClass().getDeclaredConstructor().newInstance();
+    } catch (final ReflectiveOperationException e) {
+      throw new RuntimeException(e);
+    }
+    fork.setLogger(logger);
+    fork.setJob(job);
+    fork.setXmlUtils(xmlUtils);
+    fork.baseInputDir = baseInputDir;
+    fork.validate = validate;
+    fork.gramcache = gramcache;
+    fork.tempFileNameScheme = tempFileNameScheme;
+    fork.rootFile = rootFile;
+    fork.resources = resources;
+    fork.processingMode = processingMode;
+    fork.genDebugInfo = genDebugInfo;
+    fork.transtype = transtype;
+    fork.filterUtils = filterUtils;
+    fork.createFilters();
+    return fork;
+  }
+
+  /**
+   * Merge results of a forked reader into this module.
+   *
+   * @param fork forked reader that has read a single file
+   */
+  private void merge(final AbstractReaderModule fork) {
+    fork.fileinfos.forEach(fileinfos::putIfAbsent);
+    fullTopicSet.addAll(fork.fullTopicSet);
+    fullMapSet.addAll(fork.fullMapSet);
+    hrefTopicSet.addAll(fork.hrefTopicSet);
+    conrefSet.addAll(fork.conrefSet);
+    coderefSet.addAll(fork.coderefSet);
+    formatSet.addAll(fork.formatSet);
+    htmlSet.putAll(fork.htmlSet);
+    hrefTargetSet.addAll(fork.hrefTargetSet);
+    conrefTargetSet.addAll(fork.conrefTargetSet);
+    nonConrefCopytoTargetSet.addAll(fork.nonConrefCopytoTargetSet);
+    coderefTargetSet.addAll(fork.coderefTargetSet);
+    failureList.addAll(fork.failureList);
+    outDitaFilesSet.addAll(fork.outDitaFilesSet);
+    conrefpushSet.addAll(fork.conrefpushSet);
+    keyrefSet.addAll(fork.keyrefSet);
+    schemeSet.addAll(fork.schemeSet);
+    for (final Map.Entry<URI, Set<URI>> e : fork.schemeDictionary.entrySet()) {
+      schemeDictionary.computeIfAbsent(e.getKey(), k -> new HashSet<>()).addAll(e.getValue());
+    }
+    copyTo.putAll(fork.copyTo);
+    references.putAll(fork.references);
+    listFilter.merge(fork.listFilter);
+    for (final Reference ref : fork.waitList.values()) {
+      addToWaitList(ref);
+    }
+  }
+
   /**
    * Get pipe line filters
    *
@@ -520,6 +673,7 @@ public abstract class AbstractReaderModule extends AbstractPipelineModuleImpl {
     nonConrefCopytoTargetSet.addAll(nonConrefCopytoTargets);
     coderefTargetSet.addAll(listFilter.getCoderefTargets());
     outDitaFilesSet.addAll(listFilter.getOutDitaFilesSet());
+    references.put(currentFile, new LinkedHashMap<>(listFilter.getReferences()));
 
     // Generate topic-scheme dictionary
     final Set<URI> schemeSet = listFilter.getSchemeSet();
@@ -807,6 +961,7 @@ public abstract class AbstractReaderModule extends AbstractPipelineModuleImpl {
       final FileInfo fi = job.getFileInfo(f);
       if (!fi.isResourceOnly) {
         fi.isInputResource = true;
+        job.add(fi);
       }
     }
 
@@ -823,6 +978,12 @@ public abstract class AbstractReaderModule extends AbstractPipelineModuleImpl {
       throw new DITAOTException("Failed to serialize job configuration files: " + e.getMessage(), e);
     }
 
+    try {
+      writeReferenceIndex();
+    } catch (final IOException e) {
+      throw new DITAOTException("Failed to serialize reference index: " + e.getMessage(), e);
+    }
+
     try {
       final SubjectSchemeReader subjectSchemeReader = new SubjectSchemeReader();
       subjectSchemeReader.setLogger(logger);
@@ -840,6 +1001,42 @@ public abstract class AbstractReaderModule extends AbstractPipelineModuleImpl {
     }
   }
 
+  /**
+   * Add references of read files to reverse reference index. Source and target paths are converted to temporary
+   * file paths, references to files not in the job are ignored.
+   */
+  private void writeReferenceIndex() throws IOException {
+    final Map<URI, URI> tempFiles = new HashMap<>();
+    for (final FileInfo fi : job.getFileInfo()) {
+      if (fi.src != null) {
+        tempFiles.put(fi.src, fi.uri);
+      }
+    }
+    for (final FileInfo fi : job.getFileInfo()) {
+      if (fi.result != null) {
+        tempFiles.put(fi.result, fi.uri);
+      }
+    }
+    final URI indexFile = new File(job.tempDir, FILE_NAME_REFERENCE_INDEX).toURI();
+    final ReferenceIndex index = ReferenceIndex.read(job.getStore(), indexFile);
+    for (final Map.Entry<URI, Map<URI, List<Integer>>> file : references.entrySet()) {
+      final URI source = tempFiles.get(file.getKey());
+      if (source == null) {
+        continue;
+      }
+      final Map<URI, List<Integer>> refs = new HashMap<>();
+      for (final Map.Entry<URI, List<Integer>> ref : file.getValue().entrySet()) {
+        final URI target = tempFiles.get(ref.getKey());
+        if (target != null) {
+          refs.computeIfAbsent(target, k -> new ArrayList<>()).addAll(ref.getValue());
+        }
+      }
+      refs.values().forEach(Collections::sort);
+      index.put(source, refs);
+    }
+    index.write(job.getStore(), indexFile);
+  }
+
   /** Filter copy-to where target is used directly. */
   private Map<URI, URI> filterConflictingCopyTo(
     final Map<URI, URI> copyTo,
@@ -25,7 +25,6 @@ import org.dita.dost.writer.DebugFilter;
 import org.dita.dost.writer.NormalizeFilter;
 import org.dita.dost.writer.ProfilingFilter;
 import org.dita.dost.writer.ValidationFilter;
-import org.xml.sax.SAXException;
 import org.xml.sax.XMLFilter;
 
 /**
@@ -64,8 +63,8 @@ public final class MapReaderModule extends AbstractReaderModule {
   }
 
   @Override
-  void init() throws SAXException {
-    super.init();
+  void createFilters() {
+    super.createFilters();
     listFilter.setForceType(MAP_MAP);
   }
 
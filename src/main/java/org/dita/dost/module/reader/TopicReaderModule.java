@@ -152,7 +152,7 @@ public final class TopicReaderModule extends AbstractReaderModule {
   }
 
   private Document getMapDocument() throws SAXException {
-    final FileInfo fi = job.getFileInfo(f -> f.isInput).iterator().next();
+    final FileInfo fi = job.getInputFileInfo();
     if (fi == null || isFormatDita(fi.format)) {
       return null;
     }
@@ -167,7 +167,7 @@ public final class TopicReaderModule extends AbstractReaderModule {
 
   @Override
   public void readStartFile() throws DITAOTException {
-    final FileInfo fi = job.getFileInfo(f -> f.isInput).iterator().next();
+    final FileInfo fi = job.getInputFileInfo();
     final URI rootFile = job.getInputFile();
     if (fi == null) {
       addToWaitList(new Reference(rootFile, getFormatFromPath(rootFile)));
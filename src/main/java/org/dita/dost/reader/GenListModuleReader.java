@@ -136,6 +136,10 @@ public final class GenListModuleReader extends AbstractXMLFilter {
    * are subject scheme map paths, both relative to base directory. A key {@link #ROOT_URI} contains all subject scheme maps.
    */
   private final Map<URI, Set<URI>> schemeRelationGraph = new LinkedHashMap<>();
+  /** Local href and copy-to targets without fragment to positions of referring elements in document order. */
+  private final Map<URI, List<Integer>> references = new LinkedHashMap<>();
+  /** Position of current element in document order. */
+  private int elementPosition;
   private boolean isRootElement = true;
   private DitaClass rootClass = null;
   private Predicate<String> formatFilter;
@@ -307,6 +311,15 @@ public final class GenListModuleReader extends AbstractXMLFilter {
     return coderefTargetSet;
   }
 
+  /**
+   * Get local references in current file. Same file references use the current file as target.
+   *
+   * @return absolute reference targets without fragment mapped to positions of referring elements in document order
+   */
+  public Map<URI, List<Integer>> getReferences() {
+    return references;
+  }
+
   /**
    * Set current file absolute path
    *
@@ -360,6 +373,21 @@ public final class GenListModuleReader extends AbstractXMLFilter {
     return nonTopicrefReferenceSet;
   }
 
+  /**
+   * Merge results that are retained over {@link #reset()} from another reader. Used when files are read
+   * with separate reader instances and the results have to be combined.
+   *
+   * @param other reader to merge results from
+   */
+  public void merge(final GenListModuleReader other) {
+    resourceOnlySet.addAll(other.resourceOnlySet);
+    normalProcessingRoleSet.addAll(other.normalProcessingRoleSet);
+    nonTopicrefReferenceSet.addAll(other.nonTopicrefReferenceSet);
+    for (final Map.Entry<URI, Set<URI>> e : other.schemeRelationGraph.entrySet()) {
+      schemeRelationGraph.computeIfAbsent(e.getKey(), k -> new LinkedHashSet<>()).addAll(e.getValue());
+    }
+  }
+
   /**
    * Reset the internal variables.
    */
@@ -384,6 +412,8 @@ public final class GenListModuleReader extends AbstractXMLFilter {
     processRoleStack.clear();
     isRootElement = true;
     rootClass = null;
+    references.clear();
+    elementPosition = 0;
     // Don't clean resourceOnlySet, normalProcessingRoleSet, or nonTopicrefReferenceSet
   }
 
@@ -425,6 +455,11 @@ public final class GenListModuleReader extends AbstractXMLFilter {
         case "http", "https", "ftp", "ftps", "sftp", "mailto" -> scope = ATTR_SCOPE_VALUE_EXTERNAL;
       }
     }
+    elementPosition++;
+    if (!ATTR_SCOPE_VALUE_EXTERNAL.equals(scope) && !ATTR_SCOPE_VALUE_PEER.equals(scope)) {
+      addReference(href);
+      addReference(toURI(atts.getValue(ATTRIBUTE_NAME_COPY_TO)));
+    }
     if (
       href != null &&
       href.getPath() != null &&
@@ -531,9 +566,9 @@ public final class GenListModuleReader extends AbstractXMLFilter {
 
   private void handleSubjectScheme(final Attributes atts) {
     final URI href = toURI(atts.getValue(ATTRIBUTE_NAME_HREF));
-    final String classValue = atts.getValue(ATTRIBUTE_NAME_CLASS);
+    final DitaClass cls = DitaClass.getInstance(atts);
     // Generate Scheme relationship graph
-    if (SUBJECTSCHEME_SUBJECTSCHEME.matches(classValue)) {
+    if (SUBJECTSCHEME_SUBJECTSCHEME.matches(cls)) {
       // Make it easy to do the BFS later.
       final URI key = ROOT_URI;
       final Set<URI> children = schemeRelationGraph.containsKey(key)
@@ -542,7 +577,7 @@ public final class GenListModuleReader extends AbstractXMLFilter {
       children.add(currentFile);
       schemeRelationGraph.put(key, children);
       schemeRefSet.add(currentFile);
-    } else if (SUBJECTSCHEME_SCHEMEREF.matches(classValue)) {
+    } else if (SUBJECTSCHEME_SCHEMEREF.matches(cls)) {
       if (href != null) {
         final URI key = currentFile;
         final Set<URI> children = schemeRelationGraph.containsKey(key)
@@ -584,6 +619,16 @@ public final class GenListModuleReader extends AbstractXMLFilter {
     getContentHandler().endDocument();
   }
 
+  private void addReference(final URI ref) {
+    if (ref == null || (ref.isAbsolute() && !ref.getScheme().equals("file"))) {
+      return;
+    }
+    final URI target = ref.getPath() == null || ref.getPath().isEmpty()
+      ? stripFragment(currentFile)
+      : stripFragment(currentDir.resolve(ref));
+    references.computeIfAbsent(target, k -> new ArrayList<>()).add(elementPosition);
+  }
+
   /**
    * Parse the input attributes for needed information.
    *
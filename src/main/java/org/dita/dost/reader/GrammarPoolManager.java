@@ -7,33 +7,54 @@
  */
 package org.dita.dost.reader;
 
+import java.io.File;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.xerces.xni.grammars.XMLGrammarPool;
+import org.dita.dost.util.CatalogUtils;
 import org.ditang.relaxng.defaults.pool.RNGDefaultsEnabledSynchronizedXMLGrammarPoolImpl;
 
 /**
  * Manages creation and access to a master Xerces grammar pool.
- * The grammar pool is managed as a ThreadLocal variable so it can
- * be used across Ant task invocations.
+ * The grammar pool is shared by all threads in the process so it can
+ * be used across Ant task invocations, parallel module workers, and builds.
+ * A separate pool is kept for each catalog, because the catalog determines
+ * which grammar a public or system ID resolves to. A pool is replaced
+ * when its catalog file has been modified.
  */
 public final class GrammarPoolManager {
 
-  private static final ThreadLocal<XMLGrammarPool> grammarPool = new ThreadLocal<>();
+  private static final Map<URI, CatalogPool> grammarPools = new ConcurrentHashMap<>();
+
+  private GrammarPoolManager() {}
 
   /**
-   * Get grammar pool
+   * Get grammar pool for the current catalog.
    *
    * @return grammar pool instance
    */
   public static XMLGrammarPool getGrammarPool() {
-    XMLGrammarPool pool = grammarPool.get();
-    if (pool == null) {
-      try {
-        pool = new RNGDefaultsEnabledSynchronizedXMLGrammarPoolImpl();
-        grammarPool.set(pool);
-      } catch (final Exception e) {
-        System.out.println("Failed to create Xerces grammar pool for caching DTDs and schemas");
-      }
+    return grammarPools
+      .compute(
+        CatalogUtils.getCatalog(),
+        (catalog, pool) -> {
+          final long modified = getLastModified(catalog);
+          if (pool != null && pool.modified == modified) {
+            return pool;
+          }
+          return new CatalogPool(new RNGDefaultsEnabledSynchronizedXMLGrammarPoolImpl(), modified);
+        }
+      )
+      .pool;
+  }
+
+  private static long getLastModified(final URI catalog) {
+    if (catalog != null && "file".equals(catalog.getScheme())) {
+      return new File(catalog).lastModified();
     }
-    return pool;
+    return 0L;
   }
+
+  private record CatalogPool(XMLGrammarPool pool, long modified) {}
 }
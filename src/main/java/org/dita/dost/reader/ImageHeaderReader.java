@@ -0,0 +1,231 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.reader;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import org.dita.dost.writer.ImageMetadataFilter.Dimensions;
+
+/**
+ * Reader for bitmap image dimensions from image file headers. PNG, JPEG and GIF images are supported. Only the
+ * header of the image is read, image data is not decoded. Resolution is calculated the same way as from the ImageIO
+ * standard metadata format.
+ *
+ * @since 4.1
+ */
+public final class ImageHeaderReader {
+
+  private static final float MM_TO_INCH = 25.4f;
+  private static final byte[] PNG_SIGNATURE = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+  private static final int PNG_IHDR = 0x49484452;
+  private static final int PNG_PHYS = 0x70485973;
+  private static final int PNG_IDAT = 0x49444154;
+  private static final int PNG_IEND = 0x49454E44;
+  private static final int PNG_UNIT_METER = 1;
+  private static final int JPEG_APP0 = 0xE0;
+  private static final int JPEG_SOS = 0xDA;
+  private static final int JPEG_EOI = 0xD9;
+  private static final int JFIF_UNIT_INCH = 1;
+  private static final int GIF_EXTENSION = 0x21;
+  private static final int GIF_IMAGE_DESCRIPTOR = 0x2C;
+
+  private ImageHeaderReader() {}
+
+  /**
+   * Read image dimensions from image header.
+   *
+   * @param in image input stream, will not be closed
+   * @return image dimensions, {@code null} if image format is not supported or the header is not valid
+   */
+  public static Dimensions read(final InputStream in) throws IOException {
+    final DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+    try {
+      final byte[] magic = new byte[PNG_SIGNATURE.length];
+      data.readFully(magic);
+      if (startsWith(magic, PNG_SIGNATURE)) {
+        return readPng(data);
+      } else if ((magic[0] & 0xFF) == 0xFF && (magic[1] & 0xFF) == 0xD8) {
+        return readJpeg(data, magic);
+      } else if (startsWith(magic, "GIF87a".getBytes(StandardCharsets.US_ASCII))) {
+        return readGif(data);
+      } else if (startsWith(magic, "GIF89a".getBytes(StandardCharsets.US_ASCII))) {
+        return readGif(data);
+      }
+      return null;
+    } catch (final EOFException e) {
+      return null;
+    }
+  }
+
+  private static boolean startsWith(final byte[] buf, final byte[] prefix) {
+    for (int i = 0; i < prefix.length; i++) {
+      if (buf[i] != prefix[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static Dimensions readPng(final DataInputStream in) throws IOException {
+    Dimensions dimensions = null;
+    while (true) {
+      final int length = in.readInt();
+      final int type = in.readInt();
+      if (length < 0) {
+        return null;
+      }
+      if (type == PNG_IHDR) {
+        if (length < 8) {
+          return null;
+        }
+        dimensions = new Dimensions();
+        dimensions.width = Integer.toString(in.readInt());
+        dimensions.height = Integer.toString(in.readInt());
+        skip(in, length - 8);
+      } else if (dimensions == null) {
+        // IHDR must be the first chunk
+        return null;
+      } else if (type == PNG_PHYS) {
+        if (length < 9) {
+          return null;
+        }
+        final int x = in.readInt();
+        final int y = in.readInt();
+        final int unit = in.readUnsignedByte();
+        if (unit == PNG_UNIT_METER) {
+          dimensions.horizontalDpi = Integer.toString(Math.round(MM_TO_INCH / (1000.0F / x)));
+          dimensions.verticalDpi = Integer.toString(Math.round(MM_TO_INCH / (1000.0F / y)));
+        }
+        skip(in, length - 9);
+      } else if (type == PNG_IDAT || type == PNG_IEND) {
+        return dimensions;
+      } else {
+        skip(in, length);
+      }
+      // CRC
+      skip(in, 4);
+    }
+  }
+
+  private static Dimensions readJpeg(final DataInputStream in, final byte[] magic) throws IOException {
+    final PushbackInputStream buf = new PushbackInputStream(in, magic.length);
+    buf.unread(magic, 2, magic.length - 2);
+    final DataInputStream data = new DataInputStream(buf);
+    String horizontalDpi = null;
+    String verticalDpi = null;
+    boolean jfif = false;
+    while (true) {
+      if (data.readUnsignedByte() != 0xFF) {
+        return null;
+      }
+      int marker = data.readUnsignedByte();
+      while (marker == 0xFF) {
+        marker = data.readUnsignedByte();
+      }
+      if (marker == 0x01 || (marker >= 0xD0 && marker <= 0xD7)) {
+        // markers without a segment
+        continue;
+      }
+      if (marker == JPEG_SOS || marker == JPEG_EOI) {
+        return null;
+      }
+      final int length = data.readUnsignedShort() - 2;
+      if (length < 0) {
+        return null;
+      }
+      if (isStartOfFrame(marker)) {
+        if (length < 5) {
+          return null;
+        }
+        data.readUnsignedByte();
+        final Dimensions dimensions = new Dimensions();
+        dimensions.height = Integer.toString(data.readUnsignedShort());
+        dimensions.width = Integer.toString(data.readUnsignedShort());
+        dimensions.horizontalDpi = horizontalDpi;
+        dimensions.verticalDpi = verticalDpi;
+        return dimensions;
+      } else if (marker == JPEG_APP0 && !jfif && length >= 12) {
+        final byte[] id = new byte[5];
+        data.readFully(id);
+        if (startsWith(id, "JFIF\0".getBytes(StandardCharsets.US_ASCII))) {
+          jfif = true;
+          data.readUnsignedShort();
+          final int unit = data.readUnsignedByte();
+          final int x = data.readUnsignedShort();
+          final int y = data.readUnsignedShort();
+          if (unit != 0) {
+            final float scale = unit == JFIF_UNIT_INCH ? MM_TO_INCH : 10.0F;
+            horizontalDpi = Integer.toString(Math.round(MM_TO_INCH / (scale / x)));
+            verticalDpi = Integer.toString(Math.round(MM_TO_INCH / (scale / y)));
+          }
+          skip(data, length - 12);
+        } else {
+          skip(data, length - 5);
+        }
+      } else {
+        skip(data, length);
+      }
+    }
+  }
+
+  /** Test if marker is start of frame, excluding DHT, JPG and DAC markers. */
+  private static boolean isStartOfFrame(final int marker) {
+    return marker >= 0xC0 && marker <= 0xCF && marker != 0xC4 && marker != 0xC8 && marker != 0xCC;
+  }
+
+  private static Dimensions readGif(final DataInputStream in) throws IOException {
+    // logical screen size is ignored, dimensions are those of the first image
+    skip(in, 2);
+    final int flags = in.readUnsignedByte();
+    in.readUnsignedByte();
+    in.readUnsignedByte();
+    if ((flags & 0x80) != 0) {
+      skip(in, 3L * (1 << ((flags & 0x07) + 1)));
+    }
+    while (true) {
+      final int block = in.readUnsignedByte();
+      if (block == GIF_EXTENSION) {
+        in.readUnsignedByte();
+        int size;
+        while ((size = in.readUnsignedByte()) != 0) {
+          skip(in, size);
+        }
+      } else if (block == GIF_IMAGE_DESCRIPTOR) {
+        skip(in, 4);
+        final Dimensions dimensions = new Dimensions();
+        dimensions.width = Integer.toString(readUnsignedShortLE(in));
+        dimensions.height = Integer.toString(readUnsignedShortLE(in));
+        return dimensions;
+      } else {
+        return null;
+      }
+    }
+  }
+
+  private static int readUnsignedShortLE(final DataInputStream in) throws IOException {
+    final int low = in.readUnsignedByte();
+    final int high = in.readUnsignedByte();
+    return (high << 8) | low;
+  }
+
+  private static void skip(final DataInputStream in, final long n) throws IOException {
+    long remaining = n;
+    while (remaining > 0) {
+      final long skipped = in.skip(remaining);
+      if (skipped <= 0) {
+        if (in.read() == -1) {
+          throw new EOFException();
+        }
+        remaining--;
+      } else {
+        remaining -= skipped;
+      }
+    }
+  }
+}
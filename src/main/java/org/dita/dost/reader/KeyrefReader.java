@@ -40,6 +40,7 @@ import org.dita.dost.log.MessageUtils;
 import org.dita.dost.util.Job;
 import org.dita.dost.util.KeyDef;
 import org.dita.dost.util.KeyScope;
+import org.dita.dost.util.LayeredMap;
 import org.dita.dost.util.XMLUtils;
 
 /**
@@ -164,11 +165,8 @@ public final class KeyrefReader implements AbstractReader {
     XdmNode elem = root;
     while (elem != null) {
       res.append(elem.getNodeName()).append('[');
-      int position = 0;
-      for (XdmNode n = elem; n != null; position++) {
-        n = n.select(precedingSibling().first()).findFirst().orElse(null);
-      }
-      res.append(Integer.toString(position)).append(']');
+      final long position = elem.select(precedingSibling()).count() + 1;
+      res.append(position).append(']');
       final XdmNode p = elem.getParent();
       if (p != null && p.getNodeKind() == XdmNodeKind.ELEMENT) {
         elem = p;
@@ -286,7 +284,7 @@ public final class KeyrefReader implements AbstractReader {
   }
 
   /**
-   * Inherit parent keys to child key scopes.
+   * Inherit parent keys to child key scopes. Child scope keys are layered over parent keys instead of copying them.
    */
   private KeyScope inheritParentKeys(final KeyScope rootScope) {
     return inheritParentKeys(rootScope, Collections.emptyMap());
@@ -296,9 +294,13 @@ public final class KeyrefReader implements AbstractReader {
     if (parent.keySet().isEmpty() && current.childScopes().isEmpty()) {
       return current;
     } else {
-      final Map<String, KeyDef> resKeys = new HashMap<>();
-      resKeys.putAll(current.keyDefinition());
-      resKeys.putAll(parent);
+      final Map<String, KeyDef> local = new HashMap<>();
+      for (final Map.Entry<String, KeyDef> e : current.keyDefinition().entrySet()) {
+        if (!parent.containsKey(e.getKey())) {
+          local.put(e.getKey(), e.getValue());
+        }
+      }
+      final Map<String, KeyDef> resKeys = new LayeredMap<>(local, parent);
       final List<KeyScope> resChildren = new ArrayList<>();
       for (final KeyScope child : current.childScopes()) {
         final KeyScope resChild = inheritParentKeys(child, resKeys);
@@ -312,17 +314,122 @@ public final class KeyrefReader implements AbstractReader {
    * Resolve intermediate key references.
    */
   private KeyScope resolveIntermediate(final KeyScope scope) {
-    final Map<String, KeyDef> keys = new HashMap<>(scope.keyDefinition());
-    for (final Map.Entry<String, KeyDef> e : scope.keyDefinition().entrySet()) {
-      final KeyDef res = resolveIntermediate(scope, e.getValue(), Collections.singletonList(e.getValue()));
-      keys.put(e.getKey(), res);
+    return resolveIntermediate(scope, null);
+  }
+
+  /**
+   * Resolve intermediate key references. If scope keys are layered over parent scope keys, only local keys and
+   * inherited keys whose key reference chain ends in a local key are resolved, other keys are shared with the resolved
+   * parent scope.
+   *
+   * @param scope key scope with inherited keys
+   * @param parent resolved parent scope, {@code null} if not available
+   */
+  private KeyScope resolveIntermediate(final KeyScope scope, final ResolvedScope parent) {
+    final Map<String, KeyDef> keys = scope.keyDefinition();
+    final Map<String, KeyDef> local = new HashMap<>();
+    final Map<String, List<String>> unresolved = new HashMap<>();
+    final ResolvedScope resolved;
+    if (
+      parent != null && keys instanceof final LayeredMap<String, KeyDef> layered && layered.parent() == parent.source
+    ) {
+      for (final Map.Entry<String, KeyDef> e : layered.local().entrySet()) {
+        resolveIntermediate(scope, e.getKey(), e.getValue(), local, unresolved);
+      }
+      for (final String target : layered.local().keySet()) {
+        for (final String key : parent.getUnresolved(target)) {
+          resolveIntermediate(scope, key, keys.get(key), local, unresolved);
+        }
+      }
+      resolved = new ResolvedScope(keys, new LayeredMap<>(local, parent.keys), local, unresolved, parent);
+    } else {
+      for (final Map.Entry<String, KeyDef> e : keys.entrySet()) {
+        resolveIntermediate(scope, e.getKey(), e.getValue(), local, unresolved);
+      }
+      resolved = new ResolvedScope(keys, local, local, unresolved, null);
     }
     final List<KeyScope> children = new ArrayList<>();
     for (final KeyScope child : scope.childScopes()) {
-      final KeyScope resolvedChild = resolveIntermediate(child);
+      final KeyScope resolvedChild = resolveIntermediate(child, resolved);
       children.add(resolvedChild);
     }
-    return new KeyScope(scope.id(), scope.name(), keys, children);
+    return new KeyScope(scope.id(), scope.name(), resolved.keys, children);
+  }
+
+  private void resolveIntermediate(
+    final KeyScope scope,
+    final String key,
+    final KeyDef keyDef,
+    final Map<String, KeyDef> resolved,
+    final Map<String, List<String>> unresolved
+  ) {
+    resolved.put(key, resolveIntermediate(scope, keyDef, Collections.singletonList(keyDef)));
+    final String target = getUnresolvedTarget(scope, keyDef);
+    if (target != null) {
+      unresolved.computeIfAbsent(target, k -> new ArrayList<>()).add(key);
+    }
+  }
+
+  /**
+   * Get key reference target that is not defined at the end of a key reference chain.
+   *
+   * @return undefined key name, {@code null} if chain has no undefined keys
+   */
+  private String getUnresolvedTarget(final KeyScope scope, final KeyDef keyDef) {
+    final Set<KeyDef> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+    KeyDef current = keyDef;
+    while (visited.add(current)) {
+      final String keyref = current.element.attribute(ATTRIBUTE_NAME_KEYREF);
+      if (keyref == null || keyref.trim().isEmpty()) {
+        return null;
+      }
+      final KeyDef next = scope.keyDefinition().get(keyref);
+      if (next == null) {
+        return keyref;
+      }
+      current = next;
+    }
+    return null;
+  }
+
+  /**
+   * Resolved key scope.
+   *
+   * @param source key definitions before resolution
+   * @param keys resolved key definitions
+   * @param local key definitions resolved in this scope
+   * @param unresolved undefined key reference targets to keys in this scope whose chain ends in the target
+   * @param parent resolved parent scope, {@code null} if keys are not layered
+   */
+  private record ResolvedScope(
+    Map<String, KeyDef> source,
+    Map<String, KeyDef> keys,
+    Map<String, KeyDef> local,
+    Map<String, List<String>> unresolved,
+    ResolvedScope parent
+  ) {
+    /** Get keys whose key reference chain ends in an undefined target. */
+    List<String> getUnresolved(final String target) {
+      final List<String> res = new ArrayList<>();
+      for (ResolvedScope scope = this; scope != null; scope = scope.parent) {
+        for (final String key : scope.unresolved.getOrDefault(target, Collections.emptyList())) {
+          if (isDefinedIn(scope, key)) {
+            res.add(key);
+          }
+        }
+      }
+      return res;
+    }
+
+    /** Test if key has been resolved in ancestor scope and not in a scope between this and the ancestor. */
+    private boolean isDefinedIn(final ResolvedScope ancestor, final String key) {
+      for (ResolvedScope scope = this; scope != ancestor; scope = scope.parent) {
+        if (scope.local.containsKey(key)) {
+          return false;
+        }
+      }
+      return true;
+    }
   }
 
   private KeyDef resolveIntermediate(final KeyScope scope, final KeyDef keyDef, final List<KeyDef> circularityTracker) {
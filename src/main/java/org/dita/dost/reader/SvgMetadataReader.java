@@ -16,7 +16,7 @@ import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
 /**
- * Reader for SVG dimension metadata.
+ * Reader for SVG dimension metadata. Dimensions are read from the root element.
  */
 public class SvgMetadataReader extends AbstractXMLReader {
 
@@ -25,16 +25,37 @@ public class SvgMetadataReader extends AbstractXMLReader {
   private static final String SVG_ELEM = "svg";
   private static final String SVG_NS = "http://www.w3.org/2000/svg";
 
+  private final boolean stopAfterRoot;
   private ImageMetadataFilter.Dimensions dimensions;
+  private boolean rootRead;
+
+  public SvgMetadataReader() {
+    this(false);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param stopAfterRoot stop parsing by throwing {@link RootElementReadException} after the root element has been read
+   * @since 4.1
+   */
+  public SvgMetadataReader(final boolean stopAfterRoot) {
+    this.stopAfterRoot = stopAfterRoot;
+  }
 
   @Override
   public void startDocument() throws SAXException {
     dimensions = new ImageMetadataFilter.Dimensions();
+    rootRead = false;
   }
 
   @Override
   public void startElement(final String uri, final String localName, final String qName, final Attributes atts)
     throws SAXException {
+    if (rootRead) {
+      return;
+    }
+    rootRead = true;
     if (
       SVG_NS.equals(uri) &&
       (SVG_ELEM.equals(localName) || SVG_ELEM.equals(qName) || (qName != null && qName.startsWith(SVG_ELEM + ":")))
@@ -42,12 +63,29 @@ public class SvgMetadataReader extends AbstractXMLReader {
       dimensions.width = atts.getValue(WIDTH_ATTR);
       dimensions.height = atts.getValue(HEIGHT_ATTR);
     }
+    if (stopAfterRoot) {
+      throw new RootElementReadException();
+    }
   }
 
   public ImageMetadataFilter.Dimensions getDimensions() {
     return dimensions;
   }
 
+  /**
+   * Exception thrown to stop parsing after the root element.
+   *
+   * @since 4.1
+   */
+  public static final class RootElementReadException extends SAXException {
+
+    private static final long serialVersionUID = 4565623813156064233L;
+
+    private RootElementReadException() {
+      super("Root element read");
+    }
+  }
+
   public static class EmptyEntityResolver implements EntityResolver {
 
     @Override
@@ -14,10 +14,17 @@ import static org.dita.dost.util.URLUtils.toURI;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import javax.xml.transform.Source;
+import javax.xml.transform.stream.StreamSource;
 import net.sf.saxon.s9api.XsltTransformer;
+import org.apache.commons.io.input.ProxyInputStream;
+import org.apache.commons.io.output.ProxyOutputStream;
 import org.dita.dost.exception.DITAOTException;
 import org.dita.dost.util.XMLUtils;
 import org.xml.sax.XMLFilter;
@@ -32,6 +39,10 @@ public abstract class AbstractStore implements Store {
   protected final XMLUtils xmlUtils;
   public final File tempDir;
   public final URI tempDirUri;
+  private final LongAdder bytesRead = new LongAdder();
+  private final LongAdder bytesWritten = new LongAdder();
+  private final LongAdder documentsParsed = new LongAdder();
+  private volatile boolean metricsEnabled;
 
   //    final TransformerFactory tf;
 
@@ -63,6 +74,111 @@ public abstract class AbstractStore implements Store {
     return f.toString().startsWith(tempDirUri.toString());
   }
 
+  /**
+   * Enable counting of bytes read and written and documents parsed. Counting is disabled by default, because it
+   * requires reading file sizes.
+   *
+   * @param metricsEnabled {@code true} to enable counting
+   * @since 4.1
+   */
+  public void setMetricsEnabled(final boolean metricsEnabled) {
+    this.metricsEnabled = metricsEnabled;
+  }
+
+  /**
+   * Get number of bytes read from files.
+   *
+   * @return bytes read
+   * @since 4.1
+   */
+  public long getBytesRead() {
+    return bytesRead.sum();
+  }
+
+  /**
+   * Get number of bytes written to files.
+   *
+   * @return bytes written
+   * @since 4.1
+   */
+  public long getBytesWritten() {
+    return bytesWritten.sum();
+  }
+
+  /**
+   * Get number of documents parsed from files by the store. Sources returned by {@link #getSource(URI)} are not
+   * counted, because the caller may not parse them.
+   *
+   * @return parsed document count
+   * @since 4.1
+   */
+  public long getDocumentsParsed() {
+    return documentsParsed.sum();
+  }
+
+  /**
+   * Record file that will be parsed.
+   *
+   * @param src absolute file URI
+   */
+  void countParse(final URI src) {
+    if (!metricsEnabled) {
+      return;
+    }
+    documentsParsed.increment();
+    if ("file".equals(src.getScheme())) {
+      bytesRead.add(new File(setFragment(src, null)).length());
+    }
+  }
+
+  /**
+   * Record file that has been written.
+   *
+   * @param dst absolute file URI
+   */
+  void countWrite(final URI dst) {
+    if (metricsEnabled && "file".equals(dst.getScheme())) {
+      bytesWritten.add(new File(setFragment(dst, null)).length());
+    }
+  }
+
+  /**
+   * Record source that will be parsed. Only stream sources are parsed from files.
+   *
+   * @param source source to parse
+   */
+  void countParse(final Source source) {
+    if (metricsEnabled && source instanceof StreamSource && source.getSystemId() != null) {
+      countParse(toURI(source.getSystemId()));
+    }
+  }
+
+  InputStream countRead(final InputStream in) {
+    if (!metricsEnabled) {
+      return in;
+    }
+    return new ProxyInputStream(in) {
+      @Override
+      protected void afterRead(final int n) {
+        if (n > 0) {
+          bytesRead.add(n);
+        }
+      }
+    };
+  }
+
+  OutputStream countWrite(final OutputStream out) {
+    if (!metricsEnabled) {
+      return out;
+    }
+    return new ProxyOutputStream(out) {
+      @Override
+      protected void beforeWrite(final int n) {
+        bytesWritten.add(n);
+      }
+    };
+  }
+
   //    @Override
   //    public void transform(final URI src, final ContentHandler dst) throws DITAOTException {
   //        try {
@@ -14,11 +14,16 @@ import static org.dita.dost.util.URLUtils.toURI;
 
 import java.io.*;
 import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import javax.xml.transform.Source;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamSource;
+import net.sf.saxon.dom.DocumentWrapper;
 import net.sf.saxon.dom.NodeOverNodeInfo;
 import net.sf.saxon.event.PipelineConfiguration;
 import net.sf.saxon.event.Receiver;
@@ -31,10 +36,12 @@ import net.sf.saxon.s9api.*;
 import net.sf.saxon.serialize.SerializationProperties;
 import net.sf.saxon.trans.UncheckedXPathException;
 import net.sf.saxon.trans.XPathException;
+import net.sf.saxon.tree.tiny.TinyTree;
 import net.sf.saxon.tree.wrapper.RebasedDocument;
 import org.dita.dost.exception.DITAOTException;
 import org.dita.dost.util.XMLUtils;
 import org.w3c.dom.Document;
+import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.xml.sax.ContentHandler;
 import org.xml.sax.InputSource;
@@ -44,63 +51,110 @@ import org.xml.sax.helpers.XMLFilterImpl;
 
 /**
  * DOM and memory based store, backed up by a disk store.
+ *
+ * <p>The store can be given a memory budget. When the estimated size of cached entries exceeds the budget,
+ * least recently used entries are spilled to the disk store and read from there on demand.</p>
  */
 public class CacheStore extends AbstractStore implements Store {
 
+  /** Configuration property for memory budget in bytes. */
+  public static final String CONF_MAX_BYTES = "store.cache.max-bytes";
+  /** Estimated size of a single node in a parsed document, in bytes. */
+  private static final int NODE_SIZE = 64;
+
   private final StreamStore fallback;
+  /** Cached entries. Entries are kept in access order and guarded by this store only if the memory is bounded. */
   private final Map<URI, Entry> cache;
+  /** Memory budget in bytes. */
+  private final long maxBytes;
+  /** Whether memory budget is set. */
+  private final boolean bounded;
+  /** Estimated size of cached entries in bytes. */
+  private long currentBytes;
+  /** Entries that have been evicted to disk store. */
+  private final Set<URI> spilled = ConcurrentHashMap.newKeySet();
+  /** Entries that have been evicted but not yet written to disk store. Guarded by this store. */
+  private final Map<URI, Entry> spilling = new HashMap<>();
+  /** Lock that serializes writing evicted entries to disk store. */
+  private final Object spillLock = new Object();
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder missCount = new LongAdder();
+  private final LongAdder evictionCount = new LongAdder();
 
   public CacheStore(final File tempDir, final XMLUtils xmlUtils) {
+    this(tempDir, xmlUtils, Long.MAX_VALUE);
+  }
+
+  /**
+   * Create new store with a memory budget.
+   *
+   * @param tempDir temporary directory
+   * @param xmlUtils XML utilities
+   * @param maxBytes memory budget in bytes, {@link Long#MAX_VALUE} for unbounded
+   * @since 4.1
+   */
+  public CacheStore(final File tempDir, final XMLUtils xmlUtils, final long maxBytes) {
     super(tempDir, xmlUtils);
+    if (maxBytes <= 0) {
+      throw new IllegalArgumentException("Memory budget " + maxBytes + " must be positive");
+    }
     fallback = new StreamStore(tempDir, xmlUtils);
-    this.cache = new HashMap<>();
+    this.maxBytes = maxBytes;
+    this.bounded = maxBytes != Long.MAX_VALUE;
+    this.cache = bounded ? new LinkedHashMap<>(16, 0.75f, true) : new ConcurrentHashMap<>();
   }
 
   @Override
   public void delete(final URI file) throws IOException {
     final URI f = file.normalize();
     if (isTempFile(f)) {
-      if (cache.containsKey(f)) {
-        remove(f);
+      if (remove(f) != null) {
         return;
       }
     }
     cacheMiss(f);
+    spilled.remove(f);
     fallback.delete(file);
   }
 
   @Override
   public void copy(final URI src, final URI dst) throws IOException {
-    if (cache.containsKey(src)) {
-      final URI s = toAbsolute(src);
-      final Entry entry = get(s);
-      final URI d = toAbsolute(dst);
+    final URI s = toAbsolute(src);
+    final URI d = toAbsolute(dst);
+    final Entry entry = get(s);
+    if (entry != null) {
       put(d, entry);
       return;
     }
     cacheMiss(src);
     fallback.copy(src, dst);
+    if (spilled.contains(s)) {
+      spilled.add(d);
+    }
   }
 
   @Override
   public void move(final URI src, final URI dst) throws IOException {
     if (LOG) System.err.println("Cache move: " + src + " -> " + dst);
-    if (cache.containsKey(src)) {
-      final URI s = toAbsolute(src);
-      final URI d = toAbsolute(dst);
-      final Entry remove = remove(s);
+    final URI s = toAbsolute(src);
+    final URI d = toAbsolute(dst);
+    final Entry remove = remove(s);
+    if (remove != null) {
       final Entry wrap = rebase(remove, d);
       put(d, wrap);
       return;
     }
     cacheMiss(src);
     fallback.move(src, dst);
+    if (spilled.remove(s)) {
+      spilled.add(d);
+    }
   }
 
   @Override
   public boolean exists(final URI path) {
     final URI f = stripFragment(toAbsolute(path)).normalize();
-    if (cache.containsKey(f)) {
+    if (peek(f) != null) {
       return true;
     }
     return fallback.exists(f);
@@ -109,12 +163,74 @@ public class CacheStore extends AbstractStore implements Store {
   @Override
   public long getLastModified(final URI path) {
     final URI f = stripFragment(toAbsolute(path)).normalize();
-    if (cache.containsKey(f)) {
-      return cache.get(f).lastModified;
+    final Entry entry = peek(f);
+    if (entry != null) {
+      return entry.lastModified;
     }
     return fallback.getLastModified(f);
   }
 
+  /**
+   * Get number of reads served from memory.
+   *
+   * @return hit count
+   * @since 4.1
+   */
+  public long getHitCount() {
+    return hitCount.sum();
+  }
+
+  /**
+   * Get number of temporary file reads not served from memory.
+   *
+   * @return miss count
+   * @since 4.1
+   */
+  public long getMissCount() {
+    return missCount.sum();
+  }
+
+  /**
+   * Get number of entries spilled to disk to stay within memory budget.
+   *
+   * @return eviction count
+   * @since 4.1
+   */
+  public long getEvictionCount() {
+    return evictionCount.sum();
+  }
+
+  @Override
+  public void setMetricsEnabled(final boolean metricsEnabled) {
+    super.setMetricsEnabled(metricsEnabled);
+    fallback.setMetricsEnabled(metricsEnabled);
+  }
+
+  @Override
+  public long getBytesRead() {
+    return fallback.getBytesRead();
+  }
+
+  @Override
+  public long getBytesWritten() {
+    return fallback.getBytesWritten();
+  }
+
+  @Override
+  public long getDocumentsParsed() {
+    return fallback.getDocumentsParsed();
+  }
+
+  /**
+   * Get estimated size of entries held in memory.
+   *
+   * @return size in bytes
+   * @since 4.1
+   */
+  public synchronized long getSize() {
+    return currentBytes;
+  }
+
   @Override
   public Source resolve(final String href, final String base) throws TransformerException {
     final URI b = toAbsolute(toURI(base));
@@ -124,10 +240,11 @@ public class CacheStore extends AbstractStore implements Store {
     final URI f = b.resolve(h).normalize();
     if (LOG) System.err.println("Cache resolve: " + f);
     if (isTempFile(f)) {
-      if (cache.containsKey(f)) {
-        final Entry entry = get(f);
+      final Entry entry = get(f);
+      if (entry != null) {
         return toSource(entry, f);
       }
+      cacheMiss(f);
     }
     return fallback.resolve(href, base);
   }
@@ -138,8 +255,8 @@ public class CacheStore extends AbstractStore implements Store {
     final URI f = getUri(path).normalize();
     if (LOG) System.err.println("Cache getSource: " + f);
     if (isTempFile(f)) {
-      if (cache.containsKey(f)) {
-        final Entry entry = get(f);
+      final Entry entry = get(f);
+      if (entry != null) {
         return toSource(entry, f);
       }
       cacheMiss(f);
@@ -152,8 +269,8 @@ public class CacheStore extends AbstractStore implements Store {
     final URI f = toAbsolute(path);
     if (LOG) System.err.println("getImmutableDocument:" + f);
     if (isTempFile(f)) {
-      if (cache.containsKey(f)) {
-        final Entry entry = cache.get(f);
+      final Entry entry = get(f);
+      if (entry != null) {
         if (entry.doc != null) {
           return entry.doc;
         } else if (entry.node != null) {
@@ -183,8 +300,8 @@ public class CacheStore extends AbstractStore implements Store {
     final URI f = toAbsolute(path);
     if (LOG) System.err.println("getImmutableNode:" + f);
     if (isTempFile(f)) {
-      if (cache.containsKey(f)) {
-        final Entry entry = cache.get(f);
+      final Entry entry = get(f);
+      if (entry != null) {
         if (entry.node != null) {
           return entry.node;
         } else if (entry.doc != null) {
@@ -197,6 +314,7 @@ public class CacheStore extends AbstractStore implements Store {
             source.setSystemId(f.toString());
             final XdmNode node = xmlUtils.getProcessor().newDocumentBuilder().build(source);
             put(f, new Entry(entry.doc, node, entry.bytes));
+            return node;
           } catch (SaxonApiException e) {
             throw new IOException(e);
           }
@@ -214,8 +332,8 @@ public class CacheStore extends AbstractStore implements Store {
     final URI f = toAbsolute(path);
     if (LOG) System.err.println("getDocument:" + f);
     if (isTempFile(f)) {
-      if (cache.containsKey(f)) {
-        final Entry entry = get(f);
+      final Entry entry = get(f);
+      if (entry != null) {
         if (entry.doc != null) {
           return (Document) entry.doc.cloneNode(true);
         } else if (entry.node != null) {
@@ -313,9 +431,10 @@ public class CacheStore extends AbstractStore implements Store {
   public void transform(final URI src, final ContentHandler dst) throws DITAOTException {
     final URI f = src.normalize();
     if (isTempFile(f)) {
-      if (cache.containsKey(f)) {
+      final Entry entry = get(f);
+      if (entry != null) {
         try {
-          final Source source = getSource(src);
+          final Source source = toSource(entry, f);
           final Receiver receiver = getReceiver(dst);
           Sender.send(source, receiver, new ParseOptions());
         } catch (final RuntimeException e) {
@@ -325,6 +444,7 @@ public class CacheStore extends AbstractStore implements Store {
         }
         return;
       }
+      cacheMiss(f);
     }
     fallback.transform(src, dst);
   }
@@ -338,6 +458,7 @@ public class CacheStore extends AbstractStore implements Store {
         final ContentHandler serializer = getContentHandler(src);
         final ContentHandler pipe = getPipe(filters, serializer);
         final Receiver receiver = getReceiver(pipe);
+        fallback.countParse(source);
         Sender.send(source, receiver, new ParseOptions());
         // getDestination will handle save to cache
       } catch (IOException | XPathException | SaxonApiException e) {
@@ -385,6 +506,7 @@ public class CacheStore extends AbstractStore implements Store {
       result = getDestination(dst);
       result.setDestinationBaseURI(src);
       transformer.setDestination(result);
+      fallback.countParse(source);
       transformer.transform();
     } catch (final UncheckedXPathException e) {
       throw new DITAOTException("Failed to transform document", e);
@@ -416,6 +538,7 @@ public class CacheStore extends AbstractStore implements Store {
       transformer.setSource(source);
       result = getDestination(dst);
       transformer.setDestination(result);
+      fallback.countParse(source);
       transformer.transform();
     } catch (final UncheckedXPathException e) {
       throw new DITAOTException("Failed to transform document", e);
@@ -436,8 +559,8 @@ public class CacheStore extends AbstractStore implements Store {
   public InputStream getInputStream(final URI path) throws IOException {
     final URI f = path.normalize();
     if (isTempFile(f)) {
-      if (cache.containsKey(f)) {
-        final Entry entry = cache.get(f);
+      final Entry entry = get(f);
+      if (entry != null) {
         if (entry.bytes != null) {
           return new ByteArrayInputStream(entry.bytes);
         } else if (entry.node != null) {
@@ -446,7 +569,7 @@ public class CacheStore extends AbstractStore implements Store {
             final Serializer serializer = xmlUtils.getProcessor().newSerializer(buf);
             serializer.serializeNode(source);
             final byte[] bytes = buf.toByteArray();
-            cache.put(f, new Entry(entry.doc, entry.node, bytes));
+            put(f, new Entry(entry.doc, entry.node, bytes));
             return new ByteArrayInputStream(bytes);
           } catch (SaxonApiException e) {
             throw new IOException(e);
@@ -457,13 +580,14 @@ public class CacheStore extends AbstractStore implements Store {
             final Serializer serializer = xmlUtils.getProcessor().newSerializer(buf);
             serializer.serializeNode(source);
             final byte[] bytes = buf.toByteArray();
-            cache.put(f, new Entry(entry.doc, entry.node, bytes));
+            put(f, new Entry(entry.doc, entry.node, bytes));
             return new ByteArrayInputStream(bytes);
           } catch (SaxonApiException e) {
             throw new IOException(e);
           }
         }
       }
+      cacheMiss(f);
     }
     return fallback.getInputStream(path);
   }
@@ -517,6 +641,7 @@ public class CacheStore extends AbstractStore implements Store {
   private void cacheMiss(final URI f) {
     //        System.err.println("Cache miss: " + f);
     //        throw new IllegalStateException("Cache miss: " + f);
+    missCount.increment();
   }
 
   private Entry put(URI path, Entry entry) {
@@ -529,11 +654,203 @@ public class CacheStore extends AbstractStore implements Store {
       final Document doc = entry.doc;
       assert doc.getBaseURI() != null && !doc.getBaseURI().isEmpty();
     }
-    return cache.put(path, entry);
+    if (!bounded) {
+      return cache.put(path, entry);
+    }
+    final long size = estimateSize(entry);
+    final Entry prev;
+    final List<Map.Entry<URI, Entry>> victims;
+    synchronized (this) {
+      spilling.remove(path);
+      if (spilled.remove(path)) {
+        try {
+          Files.deleteIfExists(Paths.get(path));
+        } catch (final IOException e) {
+          throw new UncheckedIOException("Failed to delete spilled " + path + ": " + e.getMessage(), e);
+        }
+      }
+      prev = cache.put(path, entry.withSize(size));
+      currentBytes += size - (prev != null ? prev.size : 0L);
+      victims = evict();
+    }
+    spill(victims);
+    return prev;
+  }
+
+  /**
+   * Select least recently used entries to spill to disk store until estimated size is within memory budget.
+   * The most recently used entry is always retained. Selected entries are moved to pending spills, so they can be
+   * read until they have been written.
+   *
+   * @return entries to spill
+   */
+  private List<Map.Entry<URI, Entry>> evict() {
+    if (currentBytes <= maxBytes) {
+      return List.of();
+    }
+    final List<Map.Entry<URI, Entry>> victims = new ArrayList<>();
+    final Iterator<Map.Entry<URI, Entry>> it = cache.entrySet().iterator();
+    while (currentBytes > maxBytes && cache.size() > 1) {
+      final Map.Entry<URI, Entry> eldest = it.next();
+      it.remove();
+      currentBytes -= eldest.getValue().size;
+      spilling.put(eldest.getKey(), eldest.getValue());
+      victims.add(Map.entry(eldest.getKey(), eldest.getValue()));
+    }
+    return victims;
+  }
+
+  /**
+   * Write evicted entries to disk store without holding the store lock. Entries that were replaced or removed while
+   * waiting to be written are skipped, and their files are removed if they were written.
+   *
+   * @param victims entries to spill
+   */
+  private void spill(final List<Map.Entry<URI, Entry>> victims) {
+    if (victims.isEmpty()) {
+      return;
+    }
+    synchronized (spillLock) {
+      for (final Map.Entry<URI, Entry> victim : victims) {
+        final URI path = victim.getKey();
+        final Entry entry = victim.getValue();
+        synchronized (this) {
+          if (spilling.get(path) != entry) {
+            continue;
+          }
+        }
+        try {
+          write(path, entry);
+        } catch (final UncheckedIOException e) {
+          synchronized (this) {
+            spilling.remove(path, entry);
+          }
+          throw e;
+        }
+        final boolean stale;
+        synchronized (this) {
+          if (spilling.remove(path, entry)) {
+            spilled.add(path);
+            stale = false;
+          } else {
+            stale = !spilling.containsKey(path);
+          }
+        }
+        if (stale) {
+          try {
+            Files.deleteIfExists(Paths.get(path));
+          } catch (final IOException e) {
+            throw new UncheckedIOException("Failed to delete spilled " + path + ": " + e.getMessage(), e);
+          }
+        }
+        evictionCount.increment();
+      }
+    }
+  }
+
+  private void write(final URI path, final Entry entry) {
+    if (LOG) System.err.println("Cache spill: " + path);
+    try {
+      Files.createDirectories(Paths.get(path).getParent());
+      if (entry.bytes != null) {
+        try (OutputStream out = fallback.getOutputStream(path)) {
+          out.write(entry.bytes);
+        }
+      } else if (entry.node != null) {
+        fallback.writeDocument(entry.node, path);
+      } else if (entry.doc != null) {
+        fallback.writeDocument(entry.doc, path);
+      } else {
+        throw new IllegalArgumentException();
+      }
+      new File(path).setLastModified(entry.lastModified);
+    } catch (final IOException e) {
+      throw new UncheckedIOException("Failed to spill " + path + ": " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Estimate memory used by cache entry.
+   *
+   * @param entry cache entry
+   * @return estimated size in bytes
+   */
+  private static long estimateSize(final Entry entry) {
+    long size = 0L;
+    if (entry.bytes != null) {
+      size += entry.bytes.length;
+    }
+    if (entry.node != null) {
+      size += estimateSize(entry.node.getUnderlyingNode().getTreeInfo());
+    } else if (entry.doc != null) {
+      size += estimateSize(entry.doc);
+    }
+    return size;
+  }
+
+  private static long estimateSize(TreeInfo treeInfo) {
+    if (treeInfo instanceof RebasedDocument) {
+      treeInfo = ((RebasedDocument) treeInfo).getUnderlyingTree();
+    }
+    if (treeInfo instanceof final TinyTree tinyTree) {
+      return (
+        (long) (tinyTree.getNumberOfNodes() + tinyTree.getNumberOfAttributes()) * NODE_SIZE +
+        tinyTree.getCharacterBuffer().length() * 2L
+      );
+    } else if (treeInfo instanceof final DocumentWrapper documentWrapper) {
+      return estimateSize(documentWrapper.docNode);
+    }
+    return NODE_SIZE;
+  }
+
+  private static long estimateSize(final Node node) {
+    long size = NODE_SIZE;
+    final String value = node.getNodeValue();
+    if (value != null) {
+      size += value.length() * 2L;
+    }
+    final NamedNodeMap attrs = node.getAttributes();
+    if (attrs != null) {
+      for (int i = 0; i < attrs.getLength(); i++) {
+        size += estimateSize(attrs.item(i));
+      }
+    }
+    for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+      size += estimateSize(child);
+    }
+    return size;
+  }
+
+  /**
+   * Get cache entry without updating statistics.
+   *
+   * @param s absolute URI
+   * @return cached entry, {@code null} if not cached
+   */
+  private Entry peek(URI s) {
+    if (!bounded) {
+      return cache.get(s);
+    }
+    synchronized (this) {
+      final Entry entry = cache.get(s);
+      return entry != null ? entry : spilling.get(s);
+    }
   }
 
   private Entry get(URI s) {
-    final Entry entry = cache.get(s);
+    final Entry entry;
+    if (!bounded) {
+      entry = cache.get(s);
+    } else {
+      synchronized (this) {
+        final Entry cached = cache.get(s);
+        entry = cached != null ? cached : spilling.get(s);
+      }
+    }
+    if (entry == null) {
+      return null;
+    }
+    hitCount.increment();
     if (entry.node != null) {
       final XdmNode node = entry.node;
       assert node.getBaseURI() != null && !node.getBaseURI().toString().isEmpty();
@@ -546,7 +863,10 @@ public class CacheStore extends AbstractStore implements Store {
   }
 
   private Entry remove(URI f) {
-    final Entry entry = cache.remove(f);
+    final Entry entry = bounded ? removeBounded(f) : cache.remove(f);
+    if (entry == null) {
+      return null;
+    }
     if (entry.node != null) {
       final XdmNode node = entry.node;
       assert node.getBaseURI() != null && !node.getBaseURI().toString().isEmpty();
@@ -558,6 +878,15 @@ public class CacheStore extends AbstractStore implements Store {
     return entry;
   }
 
+  private synchronized Entry removeBounded(URI f) {
+    final Entry cached = cache.remove(f);
+    if (cached != null) {
+      currentBytes -= cached.size;
+      return cached;
+    }
+    return spilling.remove(f);
+  }
+
   private Entry rebase(final Entry remove, final URI d) {
     XdmNode node = null;
     Document doc = null;
@@ -636,16 +965,29 @@ public class CacheStore extends AbstractStore implements Store {
     private final XdmNode node;
     private final byte[] bytes;
     private final long lastModified;
+    /** Estimated size in bytes. */
+    private final long size;
 
     private Entry(final Document doc, final XdmNode node, final byte[] bytes) {
-      this(doc, node, bytes, System.currentTimeMillis());
+      this(doc, node, bytes, System.currentTimeMillis(), 0L);
     }
 
-    private Entry(final Document doc, final XdmNode node, final byte[] bytes, final long lastModified) {
+    private Entry(
+      final Document doc,
+      final XdmNode node,
+      final byte[] bytes,
+      final long lastModified,
+      final long size
+    ) {
       this.doc = doc;
       this.node = node;
       this.bytes = bytes;
       this.lastModified = lastModified;
+      this.size = size;
+    }
+
+    private Entry withSize(final long size) {
+      return size == this.size ? this : new Entry(doc, node, bytes, lastModified, size);
     }
   }
 }
@@ -8,6 +8,9 @@
 
 package org.dita.dost.store;
 
+import static org.dita.dost.store.CacheStore.CONF_MAX_BYTES;
+import static org.dita.dost.util.Configuration.configuration;
+
 import java.io.File;
 import org.dita.dost.util.XMLUtils;
 
@@ -40,6 +43,19 @@ public class CacheStoreBuilder implements StoreBuilder {
 
   @Override
   public Store build() {
+    final String maxBytes = configuration.get(CONF_MAX_BYTES);
+    if (maxBytes != null && !maxBytes.isBlank()) {
+      final long value;
+      try {
+        value = Long.parseLong(maxBytes.trim());
+      } catch (final NumberFormatException e) {
+        throw new IllegalArgumentException(
+          "Invalid " + CONF_MAX_BYTES + " value '" + maxBytes + "', expected positive number of bytes",
+          e
+        );
+      }
+      return new CacheStore(tempDir, xmlUtils, value);
+    }
     return new CacheStore(tempDir, xmlUtils);
   }
 }
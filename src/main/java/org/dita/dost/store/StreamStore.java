@@ -18,6 +18,7 @@ import java.io.*;
 import java.net.URI;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
 import java.util.Objects;
@@ -37,6 +38,7 @@ import org.dita.dost.util.XMLUtils;
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
 import org.xml.sax.*;
+import org.xml.sax.ext.LexicalHandler;
 
 /**
  * Stream based XML I/O
@@ -57,6 +59,7 @@ public class StreamStore extends AbstractStore implements Store {
 
   @Override
   public XdmNode getImmutableNode(final URI path) throws IOException {
+    countParse(path);
     try {
       return xmlUtils.getProcessor().newDocumentBuilder().build(new StreamSource(path.toString()));
     } catch (SaxonApiException e) {
@@ -67,6 +70,7 @@ public class StreamStore extends AbstractStore implements Store {
   @Override
   public Document getDocument(final URI path) throws IOException {
     if (LOG) System.err.println("  getDocument:" + path);
+    countParse(path);
     try {
       return XMLUtils.getDocumentBuilder().parse(path.toString());
     } catch (final Exception e) {
@@ -108,6 +112,7 @@ public class StreamStore extends AbstractStore implements Store {
         throw new IOException(e);
       }
     }
+    countWrite(dst);
   }
 
   @Override
@@ -133,9 +138,13 @@ public class StreamStore extends AbstractStore implements Store {
       throw new IllegalArgumentException("Only file URI scheme supported: " + input);
     }
 
+    countParse(input);
     try {
       final XMLReader xmlReader = XMLUtils.getXMLReader();
       xmlReader.setContentHandler(contentHandler);
+      if (contentHandler instanceof LexicalHandler) {
+        xmlReader.setProperty("http://xml.org/sax/properties/lexical-handler", contentHandler);
+      }
       xmlReader.parse(input.toString());
     } catch (SAXException | IOException e) {
       throw new DITAOTException(e);
@@ -188,6 +197,7 @@ public class StreamStore extends AbstractStore implements Store {
 
       final InputSource inputSource = new InputSource(input.toString());
 
+      countParse(input);
       reader.parse(inputSource);
     } catch (final RuntimeException e) {
       throw e;
@@ -200,6 +210,7 @@ public class StreamStore extends AbstractStore implements Store {
         throw new DITAOTException("Failed to transform " + input + ": " + e.getMessage(), e);
       }
     }
+    countWrite(output);
   }
 
   @Override
@@ -232,6 +243,7 @@ public class StreamStore extends AbstractStore implements Store {
       transformer.setSource(source);
       result = getDestination(dst);
       transformer.setDestination(result);
+      countParse(source);
       transformer.transform();
     } catch (final UncheckedXPathException e) {
       throw new DITAOTException("Failed to transform document", e);
@@ -246,6 +258,7 @@ public class StreamStore extends AbstractStore implements Store {
         throw new DITAOTException("Failed to transform document", e);
       }
     }
+    countWrite(dst);
   }
 
   @VisibleForTesting
@@ -352,6 +365,7 @@ public class StreamStore extends AbstractStore implements Store {
     if (isTempFile(f)) {
       if (exists(f)) {
         if (LOG) System.err.println("  resolve: " + f);
+        countParse(f);
         return new StreamSource(f.toString());
       } else {
         return EmptySource.getInstance();
@@ -365,13 +379,13 @@ public class StreamStore extends AbstractStore implements Store {
     final URI f = getUri(path);
     if (isTempFile(f)) {
       if (LOG) System.err.println("  getInputStream:" + f);
-      return new FileInputStream(toFile(f));
+      return countRead(new FileInputStream(toFile(f)));
     } else if ("file".equals(path.getScheme())) {
       if (LOG) System.err.println("  getInputStream:" + path);
-      return new FileInputStream(toFile(path));
+      return countRead(new FileInputStream(toFile(path)));
     } else {
       if (LOG) System.err.println("  getInputStream:" + f);
-      return f.toURL().openStream();
+      return countRead(f.toURL().openStream());
     }
   }
 
@@ -380,10 +394,12 @@ public class StreamStore extends AbstractStore implements Store {
     final URI f = getUri(path);
     if (isTempFile(f)) {
       if (LOG) System.err.println("  getOutputStream:" + f);
-      return Files.newOutputStream(Paths.get(f));
+      final Path file = Paths.get(f);
+      Files.createDirectories(file.getParent());
+      return countWrite(Files.newOutputStream(file));
     } else if ("file".equals(path.getScheme())) {
       if (LOG) System.err.println("  getOutputStream:" + path);
-      return Files.newOutputStream(Paths.get(path));
+      return countWrite(Files.newOutputStream(Paths.get(path)));
     } else {
       if (LOG) System.err.println("  getOutputStream:" + f);
       throw new UnsupportedOperationException("Unable to write to " + f);
@@ -11,6 +11,7 @@ package org.dita.dost.util;
 import static org.dita.dost.util.Constants.FILE_NAME_CATALOG;
 
 import java.io.File;
+import java.net.URI;
 import org.xmlresolver.Resolver;
 import org.xmlresolver.ResolverFeature;
 import org.xmlresolver.XMLResolverConfiguration;
@@ -54,10 +55,7 @@ public final class CatalogUtils {
       //            manager.setIgnoreMissingProperties(true);
       //            manager.setUseStaticCatalog(false); // We'll use a private catalog.
       //            manager.setPreferPublic(true);
-      final File catalogFilePath = new File(
-        ditaDir,
-        Configuration.pluginResourceDirs.get("org.dita.base") + File.separator + FILE_NAME_CATALOG
-      );
+      final File catalogFilePath = getCatalogFile();
       //            manager.setCatalogFiles(catalogFilePath.toURI().toASCIIString());
       //manager.setVerbosity(10);
       //            catalogResolver = new CatalogResolver(manager);
@@ -72,4 +70,22 @@ public final class CatalogUtils {
 
     return catalogResolver;
   }
+
+  /**
+   * Get catalog file used by the catalog resolver.
+   *
+   * @return absolute catalog file URI
+   * @since 4.1
+   */
+  public static synchronized URI getCatalog() {
+    return getCatalogFile().toURI();
+  }
+
+  private static File getCatalogFile() {
+    final File catalogFile = new File(
+      ditaDir,
+      Configuration.pluginResourceDirs.get("org.dita.base") + File.separator + FILE_NAME_CATALOG
+    );
+    return catalogFile.getAbsoluteFile();
+  }
 }
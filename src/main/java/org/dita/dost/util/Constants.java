@@ -1409,6 +1409,8 @@ public final class Constants {
   //store the scheme files refered by a scheme file in the form of Map<String Set<String>>
   /** Constant for generated property file name(subrelation.xml).*/
   public static final String FILE_NAME_SUBJECT_RELATION = "subrelation.xml";
+  /** Constant for generated reverse reference index file name(references.xml).*/
+  public static final String FILE_NAME_REFERENCE_INDEX = "references.xml";
   /** Constant for generated DITAVAL file name(ditaot.generated.ditaval).*/
   public static final String FILE_NAME_MERGED_DITAVAL = "ditaot.generated.ditaval";
 
@@ -1489,6 +1491,10 @@ public final class Constants {
   public static final String ANT_INVOKER_EXT_PARAN_FORCE_UNIQUE = "force-unique";
   public static final String ANT_INVOKER_EXT_PARAM_GENERATE_DEBUG_ATTR = "generate-debug-attributes";
   public static final String ANT_INVOKER_EXT_PARAM_PROCESSING_MODE = "processing-mode";
+  /** Directory for incremental build cache. @since 4.1 */
+  public static final String ANT_INVOKER_EXT_PARAM_INCREMENTAL_DIR = "incremental-dir";
+  /** Directory for image metadata cache. @since 4.1 */
+  public static final String ANT_INVOKER_EXT_PARAM_IMAGE_METADATA_CACHE_DIR = "image-metadata-cache-dir";
   /**Constants for line separator.*/
   public static final String LINE_SEPARATOR = System.getProperty("line.separator");
 
@@ -1697,8 +1703,12 @@ public final class Constants {
   /** Project reference name for XML utils object. */
   public static final String ANT_REFERENCE_XML_UTILS = "xmlutils";
   public static final String ANT_REFERENCE_STORE = "store";
+  /** Project reference name for module metrics collector. */
+  public static final String ANT_REFERENCE_METRICS = "metrics";
   /** Temporary directory Ant property name. */
   public static final String ANT_TEMP_DIR = "dita.temp.dir";
+  /** Module metrics Ant property name. */
+  public static final String ANT_METRICS = "metrics";
 
   /** OASIS catalog file namespace. */
   public static final String OASIS_CATALOG_NAMESPACE = "urn:oasis:names:tc:entity:xmlns:xml:catalog";
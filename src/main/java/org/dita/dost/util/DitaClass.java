@@ -10,8 +10,10 @@ package org.dita.dost.util;
 import static org.dita.dost.util.Constants.*;
 
 import com.google.common.annotations.VisibleForTesting;
+import java.util.BitSet;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import net.sf.saxon.s9api.XdmNode;
@@ -39,6 +41,9 @@ public final class DitaClass {
   );
 
   private static final Map<String, DitaClass> cache = new ConcurrentHashMap<>();
+  /** Interned moduleElem/type pair IDs. */
+  private static final Map<String, Integer> typeIds = new ConcurrentHashMap<>();
+  private static final AtomicInteger nextTypeId = new AtomicInteger();
 
   /** ModuleElem/type pair for the most specialized type, with a single preceding and following space character. */
   public final String matcher;
@@ -48,6 +53,10 @@ public final class DitaClass {
   private final String stringValue;
   /** Does this class value use valid DITA class syntax */
   private boolean validDitaClass = false;
+  /** Type ID of the most specialized type. */
+  private final int typeId;
+  /** Type IDs of the specialization hierarchy. */
+  private final BitSet types;
 
   // Constructors
 
@@ -68,6 +77,16 @@ public final class DitaClass {
     }
     stringValue = sb.toString();
     validDitaClass = VALID_DITA_CLASS.matcher(stringValue).matches();
+    typeId = getTypeId(last);
+    types = new BitSet();
+    // first token is either the +/- prefix or not preceded by a space in the normalized value
+    for (int i = 1; i < tokens.length; i++) {
+      types.set(getTypeId(tokens[i]));
+    }
+  }
+
+  private static int getTypeId(final String type) {
+    return typeIds.computeIfAbsent(type, t -> nextTypeId.getAndIncrement());
   }
 
   /**
@@ -79,7 +98,13 @@ public final class DitaClass {
     if (cls == null) {
       return null;
     }
-    return cache.computeIfAbsent(WHITESPACE.matcher(cls).replaceAll(" "), DitaClass::new);
+    final DitaClass cached = cache.get(cls);
+    if (cached != null) {
+      return cached;
+    }
+    final DitaClass res = cache.computeIfAbsent(WHITESPACE.matcher(cls).replaceAll(" "), DitaClass::new);
+    cache.putIfAbsent(cls, res);
+    return res;
   }
 
   /**
@@ -152,11 +177,13 @@ public final class DitaClass {
    * @return {@code true} if given class matches this class, otherwise {@code false}
    */
   public boolean matches(final DitaClass cls) {
-    return cls != null && cls.toString().contains(matcher);
+    return cls != null && cls.types.get(typeId);
   }
 
   /**
-   * Test if given DITA class string matches this DITA class.
+   * Test if given DITA class string matches this DITA class. Callers that test the same class string against
+   * multiple DITA classes should resolve it once with {@link #getInstance(String)} and use
+   * {@link #matches(DitaClass)}.
    *
    * @param classString DITA element class string
    * @return {@code true} if given class matches this class, otherwise {@code false}
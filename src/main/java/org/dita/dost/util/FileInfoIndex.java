@@ -0,0 +1,121 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.util;
+
+import java.net.URI;
+import java.util.*;
+import org.dita.dost.util.Job.FileInfo;
+import org.dita.dost.util.Job.Flag;
+
+/**
+ * Secondary indexes of job file info objects. Each file info gets an integer slot and flag and format indexes are
+ * bit sets of slots, so queries do not scan all files. Slots depend on the order file infos were added in, so query
+ * results are returned in temporary file URI order to be independent of it.
+ */
+final class FileInfoIndex {
+
+  private final List<FileInfo> slots = new ArrayList<>();
+  private final Map<URI, Integer> ids = new HashMap<>();
+  private final BitSet free = new BitSet();
+  private final Map<Flag, BitSet> flags = new EnumMap<>(Flag.class);
+  private final Map<String, BitSet> formats = new HashMap<>();
+
+  FileInfoIndex() {
+    for (final Flag flag : Flag.values()) {
+      flags.put(flag, new BitSet());
+    }
+  }
+
+  /**
+   * Add or replace file info.
+   *
+   * @param fi file info to index
+   */
+  synchronized void add(final FileInfo fi) {
+    remove(fi.uri);
+    final int id;
+    if (free.isEmpty()) {
+      id = slots.size();
+      slots.add(fi);
+    } else {
+      id = free.nextSetBit(0);
+      free.clear(id);
+      slots.set(id, fi);
+    }
+    ids.put(fi.uri, id);
+    for (final Map.Entry<Flag, BitSet> e : flags.entrySet()) {
+      if (e.getKey().test(fi)) {
+        e.getValue().set(id);
+      }
+    }
+    formats.computeIfAbsent(fi.format, k -> new BitSet()).set(id);
+  }
+
+  /**
+   * Remove file info.
+   *
+   * @param uri temporary file URI of file info to remove
+   */
+  synchronized void remove(final URI uri) {
+    final Integer id = ids.remove(uri);
+    if (id == null) {
+      return;
+    }
+    final FileInfo old = slots.set(id, null);
+    free.set(id);
+    for (final BitSet bits : flags.values()) {
+      bits.clear(id);
+    }
+    final BitSet format = formats.get(old.format);
+    if (format != null && format.get(id)) {
+      format.clear(id);
+    } else {
+      // format was changed after add without re-adding
+      formats.values().forEach(bits -> bits.clear(id));
+    }
+  }
+
+  /** Remove all file infos. */
+  synchronized void clear() {
+    slots.clear();
+    ids.clear();
+    free.clear();
+    flags.values().forEach(BitSet::clear);
+    formats.clear();
+  }
+
+  synchronized List<FileInfo> get(final Flag flag) {
+    return get(flags.get(flag));
+  }
+
+  synchronized FileInfo getFirst(final Flag flag) {
+    final BitSet bits = flags.get(flag);
+    FileInfo res = null;
+    for (int id = bits.nextSetBit(0); id >= 0; id = bits.nextSetBit(id + 1)) {
+      final FileInfo fi = slots.get(id);
+      if (res == null || fi.uri.compareTo(res.uri) < 0) {
+        res = fi;
+      }
+    }
+    return res;
+  }
+
+  synchronized List<FileInfo> getByFormat(final String format) {
+    final BitSet bits = formats.get(format);
+    return bits != null ? get(bits) : Collections.emptyList();
+  }
+
+  private List<FileInfo> get(final BitSet bits) {
+    final List<FileInfo> res = new ArrayList<>(bits.cardinality());
+    for (int id = bits.nextSetBit(0); id >= 0; id = bits.nextSetBit(id + 1)) {
+      res.add(slots.get(id));
+    }
+    res.sort(Comparator.comparing(fi -> fi.uri));
+    return res;
+  }
+}
@@ -19,6 +19,7 @@ import com.google.common.collect.Sets;
 import java.io.IOException;
 import java.net.URI;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -49,17 +50,29 @@ public final class FilterUtils {
   public static final FilterKey DEFAULT = new FilterKey(QName.valueOf(DEFAULT_ACTION), null);
 
   private static final String FLAG_STYLE_PREFIX = "flag__style--";
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+  /** Maximum number of memoized decisions per decision type. */
+  private static final int MAX_CACHE_SIZE = 10_000;
 
   private DITAOTLogger logger;
   /** Actions for filter keys. */
   private final Map<FilterKey, Action> filterMap;
   /** Set of filter keys for which an error has already been thrown. */
-  private final Set<FilterKey> notMappingRules = new HashSet<>();
+  private final Set<FilterKey> notMappingRules = ConcurrentHashMap.newKeySet();
   private boolean logMissingAction;
   private final String foregroundConflictColor;
   private final String backgroundConflictColor;
   private Set<QName> filterAttributes;
   private Set<QName> flagAttributes;
+  /** Filter map compiled into per attribute rules. */
+  private final Map<QName, AttributeRules> rules;
+  private final boolean defaultExclude;
+  private QName[] filterAttributeNames;
+  private QName[] flagAttributeNames;
+  /** Memoized exclusion decisions by profiling attribute values. */
+  private final Map<Profile, Boolean> excludeCache = new ConcurrentHashMap<>();
+  /** Memoized flags by flagging attribute values. */
+  private final Map<Profile, Set<Flag>> flagCache = new ConcurrentHashMap<>();
 
   public FilterUtils(
     final Map<FilterKey, Action> filterMap,
@@ -70,8 +83,12 @@ public final class FilterUtils {
     this.filterMap = new HashMap<>(filterMap);
     this.foregroundConflictColor = foregroundConflictColor;
     this.backgroundConflictColor = backgroundConflictColor;
-    filterAttributes = getProfileAttributes(Configuration.configuration.get("filter-attributes"));
-    flagAttributes = getFlaggingAttributes(Configuration.configuration.get("flag-attributes"));
+    this.rules = compile(this.filterMap);
+    this.defaultExclude = this.filterMap.get(DEFAULT) instanceof Exclude;
+    setAttributes(
+      getProfileAttributes(Configuration.configuration.get("filter-attributes")),
+      getFlaggingAttributes(Configuration.configuration.get("flag-attributes"))
+    );
   }
 
   /**
@@ -109,8 +126,12 @@ public final class FilterUtils {
     this.filterMap = dfm;
     this.foregroundConflictColor = foregroundConflictColor;
     this.backgroundConflictColor = backgroundConflictColor;
-    filterAttributes = getProfileAttributes(Configuration.configuration.get("filter-attributes"));
-    flagAttributes = getFlaggingAttributes(Configuration.configuration.get("flag-attributes"));
+    this.rules = compile(this.filterMap);
+    this.defaultExclude = this.filterMap.get(DEFAULT) instanceof Exclude;
+    setAttributes(
+      getProfileAttributes(Configuration.configuration.get("filter-attributes")),
+      getFlaggingAttributes(Configuration.configuration.get("flag-attributes"))
+    );
   }
 
   @VisibleForTesting
@@ -123,8 +144,61 @@ public final class FilterUtils {
     Set<QName> flagAttributes
   ) {
     this(isPrintType, filterMap, foregroundConflictColor, backgroundConflictColor);
-    this.filterAttributes = Sets.union(this.filterAttributes, filterAttributes);
-    this.flagAttributes = Sets.union(this.flagAttributes, flagAttributes);
+    setAttributes(
+      ImmutableSet.copyOf(Sets.union(this.filterAttributes, filterAttributes)),
+      ImmutableSet.copyOf(Sets.union(this.flagAttributes, flagAttributes))
+    );
+  }
+
+  private void setAttributes(final Set<QName> filterAttributes, final Set<QName> flagAttributes) {
+    this.filterAttributes = filterAttributes;
+    this.flagAttributes = flagAttributes;
+    this.filterAttributeNames = filterAttributes.toArray(new QName[0]);
+    this.flagAttributeNames = flagAttributes.toArray(new QName[0]);
+  }
+
+  /**
+   * Compile filter map into per attribute lookup tables.
+   *
+   * @param filterMap actions for filter keys
+   * @return rules by attribute name
+   */
+  private static Map<QName, AttributeRules> compile(final Map<FilterKey, Action> filterMap) {
+    final Map<QName, Map<String, Action>> values = new HashMap<>();
+    final Map<QName, Action> defaults = new HashMap<>();
+    for (final Map.Entry<FilterKey, Action> e : filterMap.entrySet()) {
+      final FilterKey key = e.getKey();
+      if (key.value == null) {
+        defaults.put(key.attribute, e.getValue());
+      } else {
+        values.computeIfAbsent(key.attribute, k -> new HashMap<>()).put(key.value, e.getValue());
+      }
+    }
+    final Map<QName, AttributeRules> res = new HashMap<>();
+    for (final QName attribute : Sets.union(values.keySet(), defaults.keySet())) {
+      res.put(attribute, new AttributeRules(values.getOrDefault(attribute, emptyMap()), defaults.get(attribute)));
+    }
+    return res;
+  }
+
+  /**
+   * Get action for attribute value.
+   *
+   * @return action, {@code null} if not defined
+   */
+  private Action getAction(final QName attName, final String value) {
+    final AttributeRules r = rules.get(attName);
+    return r != null ? r.values.get(value) : null;
+  }
+
+  /**
+   * Get default action for attribute.
+   *
+   * @return action, {@code null} if not defined
+   */
+  private Action getDefaultAction(final QName attName) {
+    final AttributeRules r = rules.get(attName);
+    return r != null ? r.defaultAction : null;
   }
 
   public void setLogger(final DITAOTLogger logger) {
@@ -177,7 +251,22 @@ public final class FilterUtils {
     if (filterMap.isEmpty()) {
       return emptySet();
     }
+    final Profile profile = getProfile(atts, flagAttributeNames, extProps);
+    if (profile == null) {
+      return emptySet();
+    }
+    final Set<Flag> cached = flagCache.get(profile);
+    if (cached != null) {
+      return cached;
+    }
+    final Set<Flag> res = Collections.unmodifiableSet(computeFlags(atts, extProps));
+    if (flagCache.size() < MAX_CACHE_SIZE) {
+      flagCache.put(profile, res);
+    }
+    return res;
+  }
 
+  private Set<Flag> computeFlags(final Attributes atts, final QName[][] extProps) {
     final Set<Flag> res = new HashSet<>();
     for (final QName attr : flagAttributes) {
       final String value = atts.getValue(attr.getNamespaceURI(), attr.getLocalPart());
@@ -201,7 +290,7 @@ public final class FilterUtils {
           propValue = getLabelValue(propName, atts.getValue(current.getNamespaceURI(), current.getLocalPart()));
         }
         if (propValue != null) {
-          res.addAll(extCheckFlag(propList, Arrays.asList(propValue.split("\\s+"))));
+          res.addAll(extCheckFlag(propList, Arrays.asList(WHITESPACE.split(propValue))));
         }
       }
     }
@@ -267,9 +356,9 @@ public final class FilterUtils {
     final List<Flag> res = new ArrayList<>();
     for (final QName attName : propList) {
       for (final String attSubValue : attValue) {
-        Action filterAction = filterMap.get(new FilterKey(attName, attSubValue));
+        Action filterAction = getAction(attName, attSubValue);
         if (filterAction == null) {
-          filterAction = filterMap.get(new FilterKey(attName, null));
+          filterAction = getDefaultAction(attName);
         }
         if (filterAction instanceof Flag) {
           res.add((Flag) filterAction);
@@ -306,7 +395,22 @@ public final class FilterUtils {
     if (filterMap.isEmpty()) {
       return false;
     }
+    final Profile profile = getProfile(atts, filterAttributeNames, extProps);
+    if (profile == null) {
+      return false;
+    }
+    final Boolean cached = excludeCache.get(profile);
+    if (cached != null) {
+      return cached;
+    }
+    final boolean res = computeNeedExclude(atts, extProps);
+    if (excludeCache.size() < MAX_CACHE_SIZE) {
+      excludeCache.put(profile, res);
+    }
+    return res;
+  }
 
+  private boolean computeNeedExclude(final Attributes atts, final QName[][] extProps) {
     for (final QName attr : filterAttributes) {
       final String value = atts.getValue(attr.getNamespaceURI(), attr.getLocalPart());
       if (value != null) {
@@ -331,7 +435,7 @@ public final class FilterUtils {
           final QName current = propList[propListIndex];
           propValue = getLabelValue(propName, atts.getValue(current.getNamespaceURI(), current.getLocalPart()));
         }
-        if (propValue != null && extCheckExclude(propList, Arrays.asList(propValue.split("\\s+")))) {
+        if (propValue != null && extCheckExclude(propList, Arrays.asList(WHITESPACE.split(propValue)))) {
           return true;
         }
       }
@@ -339,6 +443,41 @@ public final class FilterUtils {
     return false;
   }
 
+  /**
+   * Collect values of attributes that decisions depend on.
+   *
+   * @param atts attributes
+   * @param attrs profiling attributes
+   * @param extProps {@code props} attribute specializations
+   * @return profiling attribute values, {@code null} if no attribute has a value
+   */
+  private static Profile getProfile(final Attributes atts, final QName[] attrs, final QName[][] extProps) {
+    int size = attrs.length;
+    if (extProps != null) {
+      for (final QName[] propList : extProps) {
+        size += propList.length;
+      }
+    }
+    final String[] values = new String[size];
+    boolean found = false;
+    int i = 0;
+    for (final QName attr : attrs) {
+      final String value = atts.getValue(attr.getNamespaceURI(), attr.getLocalPart());
+      found |= value != null;
+      values[i++] = value;
+    }
+    if (extProps != null) {
+      for (final QName[] propList : extProps) {
+        for (final QName attr : propList) {
+          final String value = atts.getValue(attr.getNamespaceURI(), attr.getLocalPart());
+          found |= value != null;
+          values[i++] = value;
+        }
+      }
+    }
+    return found ? new Profile(extProps, values) : null;
+  }
+
   private final Pattern groupPattern = Pattern.compile("(\\w+)\\((.*?)\\)");
 
   /**
@@ -361,17 +500,17 @@ public final class FilterUtils {
         final QName k = QName.valueOf(m.group(1));
         if (res.containsKey(k)) {
           final List<String> l = new ArrayList<>(res.get(k));
-          l.addAll(Arrays.asList(v.trim().split("\\s+")));
+          l.addAll(Arrays.asList(WHITESPACE.split(v.trim())));
           res.put(k, l);
         } else {
-          res.put(k, Arrays.asList(v.trim().split("\\s+")));
+          res.put(k, Arrays.asList(WHITESPACE.split(v.trim())));
         }
       }
       previousEnd = m.end();
     }
     buf.append(value.substring(previousEnd));
     if (!buf.toString().trim().isEmpty()) {
-      res.put(null, Arrays.asList(buf.toString().trim().split("\\s+")));
+      res.put(null, Arrays.asList(WHITESPACE.split(buf.toString().trim())));
     }
     return res;
   }
@@ -415,12 +554,11 @@ public final class FilterUtils {
       boolean hasNonExcludeAction = false;
       boolean hasExcludeAction = false;
       for (final String attSubValue : attValue) {
-        final FilterKey filterKey = new FilterKey(attName, attSubValue);
-        final Action filterAction = filterMap.get(filterKey);
+        final Action filterAction = getAction(attName, attSubValue);
         // no action will be considered as 'not exclude'
         if (filterAction == null) {
           // check Specified DefaultAction mapping this attribute's name
-          final Action defaultAction = filterMap.get(new FilterKey(attName, null));
+          final Action defaultAction = getDefaultAction(attName);
           if (defaultAction != null) {
             if (defaultAction instanceof Exclude) {
               hasExcludeAction = true;
@@ -468,8 +606,7 @@ public final class FilterUtils {
   }
 
   private boolean isDefaultExclude() {
-    final Action defaultAction = filterMap.get(DEFAULT);
-    return defaultAction != null && defaultAction instanceof Exclude;
+    return defaultExclude;
   }
 
   /**
@@ -482,14 +619,13 @@ public final class FilterUtils {
       return;
     }
     for (final String attSubValue : attValue) {
-      final FilterKey filterKey = new FilterKey(attName, attSubValue);
-      final Action filterAction = filterMap.get(filterKey);
       if (
-        filterAction == null &&
+        getAction(attName, attSubValue) == null &&
         logMissingAction &&
         filterMap.get(DEFAULT) == null &&
-        filterMap.get(new FilterKey(attName, null)) == null
+        getDefaultAction(attName) == null
       ) {
+        final FilterKey filterKey = new FilterKey(attName, attSubValue);
         if (!alreadyShowed(filterKey)) {
           logger.info(MessageUtils.getMessage("DOTJ031I", filterKey.toString()).toString());
         }
@@ -498,11 +634,7 @@ public final class FilterUtils {
   }
 
   private boolean alreadyShowed(final FilterKey notMappingKey) {
-    if (!notMappingRules.contains(notMappingKey)) {
-      notMappingRules.add(notMappingKey);
-      return false;
-    }
-    return true;
+    return !notMappingRules.add(notMappingKey);
   }
 
   /**
@@ -523,6 +655,39 @@ public final class FilterUtils {
     }
   }
 
+  /**
+   * Compiled rules for a single attribute.
+   *
+   * @param values actions for attribute values
+   * @param defaultAction action for attribute values without rules, may be {@code null}
+   */
+  private record AttributeRules(Map<String, Action> values, Action defaultAction) {}
+
+  /**
+   * Profiling attribute values of an element. Values are in the order of profiling attributes followed by
+   * {@code props} attribute specializations.
+   */
+  private record Profile(QName[][] extProps, String[] values) {
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Profile other)) {
+        return false;
+      }
+      return (
+        Arrays.equals(values, other.values) &&
+        (extProps == other.extProps || Arrays.deepEquals(extProps, other.extProps))
+      );
+    }
+
+    @Override
+    public int hashCode() {
+      return Arrays.hashCode(values);
+    }
+  }
+
   // Subject scheme support
 
   /**
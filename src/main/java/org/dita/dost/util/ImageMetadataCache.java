@@ -0,0 +1,268 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.util;
+
+import java.io.*;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Persistent cache of image metadata.
+ *
+ * <p>The cache directory contains a single file that maps local image files to their dimensions. An entry is valid as
+ * long as the size and modification time of the image file are unchanged. The cache file is merged with entries
+ * written by other builds when it's written, so the same directory can be shared between builds and deliverables.</p>
+ *
+ * @since 4.1
+ */
+public final class ImageMetadataCache {
+
+  static final String FILE_NAME = "image-metadata.xml";
+
+  private static final String ELEMENT_IMAGES = "images";
+  private static final String ELEMENT_IMAGE = "image";
+  private static final String ATTRIBUTE_SRC = "src";
+  private static final String ATTRIBUTE_SIZE = "size";
+  private static final String ATTRIBUTE_MODIFIED = "modified";
+  private static final String ATTRIBUTE_WIDTH = "width";
+  private static final String ATTRIBUTE_HEIGHT = "height";
+  private static final String ATTRIBUTE_HORIZONTAL_DPI = "horizontal-dpi";
+  private static final String ATTRIBUTE_VERTICAL_DPI = "vertical-dpi";
+
+  /**
+   * Cache entry.
+   *
+   * @param size image file size
+   * @param modified image file modification time
+   * @param width image width, may be {@code null}
+   * @param height image height, may be {@code null}
+   * @param horizontalDpi horizontal resolution, may be {@code null}
+   * @param verticalDpi vertical resolution, may be {@code null}
+   */
+  public record Entry(
+    long size,
+    long modified,
+    String width,
+    String height,
+    String horizontalDpi,
+    String verticalDpi
+  ) {}
+
+  private final File file;
+  private final Map<URI, Entry> entries;
+  private final Map<URI, Entry> added = new ConcurrentHashMap<>();
+  private final AtomicInteger hits = new AtomicInteger();
+
+  private ImageMetadataCache(final File file, final Map<URI, Entry> entries) {
+    this.file = file;
+    this.entries = entries;
+  }
+
+  /**
+   * Open cache directory. Missing or unreadable cache file results in an empty cache.
+   *
+   * @param dir cache directory
+   * @return cache
+   */
+  public static ImageMetadataCache open(final File dir) {
+    final File file = new File(dir, FILE_NAME);
+    return new ImageMetadataCache(file, new ConcurrentHashMap<>(read(file)));
+  }
+
+  private static Map<URI, Entry> read(final File file) {
+    final Map<URI, Entry> res = new HashMap<>();
+    if (file.exists()) {
+      try {
+        final XMLReader parser = XMLUtils.getXMLReader();
+        parser.setContentHandler(new CacheHandler(res));
+        parser.parse(new InputSource(file.toURI().toString()));
+      } catch (final IOException | SAXException | RuntimeException e) {
+        res.clear();
+      }
+    }
+    return res;
+  }
+
+  /**
+   * Get cached metadata for image file.
+   *
+   * @param src absolute image URI
+   * @return cache entry, {@code null} if image is not a local file or the image has changed since it was cached
+   */
+  public Entry get(final URI src) {
+    final Entry entry = entries.get(src);
+    if (entry != null) {
+      final File f = toFile(src);
+      if (f != null && f.length() == entry.size() && f.lastModified() == entry.modified()) {
+        hits.incrementAndGet();
+        return entry;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Add image metadata to cache. Images that are not local files are ignored.
+   *
+   * @param src absolute image URI
+   * @param width image width, may be {@code null}
+   * @param height image height, may be {@code null}
+   * @param horizontalDpi horizontal resolution, may be {@code null}
+   * @param verticalDpi vertical resolution, may be {@code null}
+   */
+  public void put(
+    final URI src,
+    final String width,
+    final String height,
+    final String horizontalDpi,
+    final String verticalDpi
+  ) {
+    final File f = toFile(src);
+    if (f != null && f.exists()) {
+      final Entry entry = new Entry(f.length(), f.lastModified(), width, height, horizontalDpi, verticalDpi);
+      entries.put(src, entry);
+      added.put(src, entry);
+    }
+  }
+
+  private static File toFile(final URI src) {
+    if (src == null || !"file".equals(src.getScheme())) {
+      return null;
+    }
+    try {
+      return new File(src);
+    } catch (final IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Write cache file if entries have been added. Entries written by other builds after this cache was opened are
+   * retained.
+   */
+  public void write() throws IOException {
+    if (added.isEmpty()) {
+      return;
+    }
+    final Path dir = file.getParentFile().toPath();
+    Files.createDirectories(dir);
+    final Map<URI, Entry> merged = read(file);
+    merged.putAll(added);
+    final Path tmp = Files.createTempFile(dir, FILE_NAME, ".tmp");
+    try {
+      try (
+        Writer outStream = new BufferedWriter(
+          new OutputStreamWriter(Files.newOutputStream(tmp), StandardCharsets.UTF_8)
+        )
+      ) {
+        write(outStream, merged);
+      }
+      try {
+        Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (final AtomicMoveNotSupportedException e) {
+        Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+
+  private static void write(final Writer outStream, final Map<URI, Entry> entries) throws IOException {
+    XMLStreamWriter out = null;
+    try {
+      out = XMLOutputFactory.newInstance().createXMLStreamWriter(outStream);
+      out.writeStartDocument();
+      out.writeStartElement(ELEMENT_IMAGES);
+      for (final Map.Entry<URI, Entry> e : entries.entrySet()) {
+        final Entry entry = e.getValue();
+        out.writeStartElement(ELEMENT_IMAGE);
+        out.writeAttribute(ATTRIBUTE_SRC, e.getKey().toString());
+        out.writeAttribute(ATTRIBUTE_SIZE, Long.toString(entry.size()));
+        out.writeAttribute(ATTRIBUTE_MODIFIED, Long.toString(entry.modified()));
+        writeAttribute(out, ATTRIBUTE_WIDTH, entry.width());
+        writeAttribute(out, ATTRIBUTE_HEIGHT, entry.height());
+        writeAttribute(out, ATTRIBUTE_HORIZONTAL_DPI, entry.horizontalDpi());
+        writeAttribute(out, ATTRIBUTE_VERTICAL_DPI, entry.verticalDpi());
+        out.writeEndElement();
+      }
+      out.writeEndElement();
+      out.writeEndDocument();
+    } catch (final XMLStreamException e) {
+      throw new IOException("Failed to serialize image metadata cache: " + e.getMessage());
+    } finally {
+      if (out != null) {
+        try {
+          out.close();
+        } catch (final XMLStreamException e) {
+          throw new IOException("Failed to close file: " + e.getMessage());
+        }
+      }
+    }
+  }
+
+  private static void writeAttribute(final XMLStreamWriter out, final String name, final String value)
+    throws XMLStreamException {
+    if (value != null) {
+      out.writeAttribute(name, value);
+    }
+  }
+
+  /** Number of images read from cache. */
+  public int getHitCount() {
+    return hits.get();
+  }
+
+  /** Number of images added to cache. */
+  public int getAddedCount() {
+    return added.size();
+  }
+
+  private static final class CacheHandler extends DefaultHandler {
+
+    private final Map<URI, Entry> entries;
+
+    CacheHandler(final Map<URI, Entry> entries) {
+      this.entries = entries;
+    }
+
+    @Override
+    public void startElement(final String ns, final String localName, final String qName, final Attributes atts) {
+      final String n = localName != null && !localName.isEmpty() ? localName : qName;
+      if (ELEMENT_IMAGE.equals(n)) {
+        entries.put(
+          URI.create(atts.getValue(ATTRIBUTE_SRC)),
+          new Entry(
+            Long.parseLong(atts.getValue(ATTRIBUTE_SIZE)),
+            Long.parseLong(atts.getValue(ATTRIBUTE_MODIFIED)),
+            atts.getValue(ATTRIBUTE_WIDTH),
+            atts.getValue(ATTRIBUTE_HEIGHT),
+            atts.getValue(ATTRIBUTE_HORIZONTAL_DPI),
+            atts.getValue(ATTRIBUTE_VERTICAL_DPI)
+          )
+        );
+      }
+    }
+  }
+}
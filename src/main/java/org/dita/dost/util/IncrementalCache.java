@@ -0,0 +1,385 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.util;
+
+import java.io.*;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import org.dita.dost.log.RecordingLogger;
+import org.slf4j.event.Level;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Persistent cache of preprocessed files for incremental builds.
+ *
+ * <p>The cache directory contains a manifest for each input and output directory that maps source files to a content
+ * digest, the resolved format and the warnings and errors reported while processing them, and a snapshot of the
+ * processed file for every digest. The digest is expected to cover everything the processed output depends on, so a
+ * matching digest means the snapshot can be reused as is. Snapshots are shared between manifests and are removed
+ * once no manifest refers to them.</p>
+ *
+ * @since 4.1
+ */
+public final class IncrementalCache {
+
+  static final String FILE_NAME_MANIFEST_PREFIX = "manifest-";
+  static final String FILE_NAME_MANIFEST_SUFFIX = ".xml";
+  static final String DIR_NAME_FILES = "files";
+
+  private static final String ELEMENT_MANIFEST = "manifest";
+  private static final String ELEMENT_FILE = "file";
+  private static final String ATTRIBUTE_SRC = "src";
+  private static final String ATTRIBUTE_DIGEST = "digest";
+  private static final String ATTRIBUTE_FORMAT = "format";
+  private static final String ATTRIBUTE_TEMP_DIR = "temp-dir";
+  private static final String ELEMENT_MESSAGE = "message";
+  private static final String ATTRIBUTE_LEVEL = "level";
+
+  /**
+   * Manifest entry.
+   *
+   * @param digest digest of source file and its dependencies
+   * @param format processed file format
+   * @param tempDir temporary directory the snapshot was written to
+   * @param messages warnings and errors reported while processing the file
+   */
+  public record Entry(String digest, String format, URI tempDir, List<RecordingLogger.Message> messages) {}
+
+  private final File dir;
+  private final File filesDir;
+  private final File manifest;
+  private final long created = System.currentTimeMillis();
+  private final Map<URI, Entry> previous;
+  private final Map<URI, Entry> current = new ConcurrentHashMap<>();
+  private final AtomicInteger hits = new AtomicInteger();
+  private final AtomicInteger misses = new AtomicInteger();
+
+  private IncrementalCache(final File dir, final File manifest, final Map<URI, Entry> previous) {
+    this.dir = dir;
+    this.filesDir = new File(dir, DIR_NAME_FILES);
+    this.manifest = manifest;
+    this.previous = previous;
+  }
+
+  /**
+   * Open cache directory. Missing or unreadable manifest results in an empty cache.
+   *
+   * @param dir cache directory
+   * @param key key of the manifest to use, e.g. input file and output directory of the deliverable
+   * @return cache
+   */
+  public static IncrementalCache open(final File dir, final String key) {
+    final File manifest = new File(
+      dir,
+      FILE_NAME_MANIFEST_PREFIX + new Digest().update(key).digest() + FILE_NAME_MANIFEST_SUFFIX
+    );
+    return new IncrementalCache(dir, manifest, readManifest(manifest));
+  }
+
+  private static Map<URI, Entry> readManifest(final File manifest) {
+    final Map<URI, Entry> res = new ConcurrentHashMap<>();
+    if (manifest.exists()) {
+      try {
+        final XMLReader parser = XMLUtils.getXMLReader();
+        parser.setContentHandler(new ManifestHandler(res));
+        parser.parse(new InputSource(manifest.toURI().toString()));
+      } catch (final IOException | SAXException | RuntimeException e) {
+        res.clear();
+      }
+    }
+    return res;
+  }
+
+  /**
+   * Get cached processed file content.
+   *
+   * @param src source file URI
+   * @param digest current digest of source file and its dependencies
+   * @return manifest entry, or {@code null} if the file has to be processed
+   */
+  public Entry get(final URI src, final String digest) {
+    final Entry entry = previous.get(src);
+    if (entry != null && entry.digest().equals(digest) && getSnapshot(digest).exists()) {
+      hits.incrementAndGet();
+      current.put(src, entry);
+      return entry;
+    }
+    misses.incrementAndGet();
+    return null;
+  }
+
+  /**
+   * Get snapshot file for digest.
+   *
+   * @param digest content digest
+   * @return snapshot file
+   */
+  public File getSnapshot(final String digest) {
+    return new File(filesDir, digest + ".xml");
+  }
+
+  /**
+   * Add processed file content to cache.
+   *
+   * @param src source file URI
+   * @param entry manifest entry
+   * @param in processed file content
+   */
+  public void put(final URI src, final Entry entry, final InputStream in) throws IOException {
+    Files.createDirectories(filesDir.toPath());
+    final Path tmp = Files.createTempFile(filesDir.toPath(), entry.digest(), ".tmp");
+    try {
+      Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+      Files.move(tmp, getSnapshot(entry.digest()).toPath(), StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+    current.put(src, entry);
+  }
+
+  /**
+   * Write manifest of files used in this build and delete snapshots no longer referenced by any manifest.
+   */
+  public void write() throws IOException {
+    Files.createDirectories(dir.toPath());
+    final Path tmp = Files.createTempFile(dir.toPath(), manifest.getName(), ".tmp");
+    try {
+      try (Writer outStream = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+        writeManifest(outStream);
+      }
+      Files.move(tmp, manifest.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+    deleteUnusedSnapshots();
+  }
+
+  private void writeManifest(final Writer outStream) throws IOException {
+    XMLStreamWriter out = null;
+    try {
+      out = XMLOutputFactory.newInstance().createXMLStreamWriter(outStream);
+      out.writeStartDocument();
+      out.writeStartElement(ELEMENT_MANIFEST);
+      for (final Map.Entry<URI, Entry> e : current.entrySet()) {
+        out.writeStartElement(ELEMENT_FILE);
+        out.writeAttribute(ATTRIBUTE_SRC, e.getKey().toString());
+        out.writeAttribute(ATTRIBUTE_DIGEST, e.getValue().digest());
+        if (e.getValue().format() != null) {
+          out.writeAttribute(ATTRIBUTE_FORMAT, e.getValue().format());
+        }
+        out.writeAttribute(ATTRIBUTE_TEMP_DIR, e.getValue().tempDir().toString());
+        for (final RecordingLogger.Message message : e.getValue().messages()) {
+          out.writeStartElement(ELEMENT_MESSAGE);
+          out.writeAttribute(ATTRIBUTE_LEVEL, message.level().name());
+          out.writeCharacters(message.message());
+          out.writeEndElement();
+        }
+        out.writeEndElement();
+      }
+      out.writeEndElement();
+      out.writeEndDocument();
+    } catch (final XMLStreamException e) {
+      throw new IOException("Failed to serialize manifest file: " + e.getMessage());
+    } finally {
+      if (out != null) {
+        try {
+          out.close();
+        } catch (final XMLStreamException e) {
+          throw new IOException("Failed to close file: " + e.getMessage());
+        }
+      }
+    }
+  }
+
+  /**
+   * Delete snapshots that no manifest refers to. Snapshots written after this cache was opened are retained, because
+   * they may belong to a concurrent build that has not written its manifest yet.
+   */
+  private void deleteUnusedSnapshots() throws IOException {
+    if (!filesDir.exists()) {
+      return;
+    }
+    final Set<String> used = current
+      .values()
+      .stream()
+      .map(Entry::digest)
+      .collect(Collectors.toCollection(HashSet::new));
+    try (
+      Stream<Path> manifests = Files.list(dir.toPath()).filter(p -> isManifest(p) && !p.equals(manifest.toPath()))
+    ) {
+      for (final Path other : manifests.toList()) {
+        readManifest(other.toFile()).values().forEach(e -> used.add(e.digest()));
+      }
+    }
+    try (Stream<Path> snapshots = Files.list(filesDir.toPath())) {
+      for (final Path snapshot : snapshots.toList()) {
+        final String name = snapshot.getFileName().toString();
+        if (
+          name.endsWith(".xml") &&
+          !used.contains(name.substring(0, name.length() - 4)) &&
+          Files.getLastModifiedTime(snapshot).toMillis() < created
+        ) {
+          Files.deleteIfExists(snapshot);
+        }
+      }
+    }
+  }
+
+  private static boolean isManifest(final Path file) {
+    final String name = file.getFileName().toString();
+    return name.startsWith(FILE_NAME_MANIFEST_PREFIX) && name.endsWith(FILE_NAME_MANIFEST_SUFFIX);
+  }
+
+  /** Number of files reused from cache. */
+  public int getHitCount() {
+    return hits.get();
+  }
+
+  /** Number of files not found in cache. */
+  public int getMissCount() {
+    return misses.get();
+  }
+
+  /**
+   * Incremental SHA-256 digest.
+   */
+  public static final class Digest {
+
+    private final MessageDigest digest;
+
+    public Digest() {
+      try {
+        digest = MessageDigest.getInstance("SHA-256");
+      } catch (final NoSuchAlgorithmException e) {
+        throw new RuntimeException(e);
+      }
+    }
+
+    /**
+     * Add string value to digest.
+     *
+     * @param value value, may be {@code null}
+     * @return this digest
+     */
+    public Digest update(final String value) {
+      final byte[] bytes = String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+      updateLength(bytes.length);
+      digest.update(bytes);
+      return this;
+    }
+
+    /**
+     * Add stream contents to digest.
+     *
+     * @param in input stream, will not be closed
+     * @return this digest
+     */
+    public Digest update(final InputStream in) throws IOException {
+      final byte[] buf = new byte[8192];
+      long length = 0;
+      int len;
+      while ((len = in.read(buf)) != -1) {
+        digest.update(buf, 0, len);
+        length += len;
+      }
+      updateLength(length);
+      return this;
+    }
+
+    private void updateLength(final long length) {
+      for (int i = 56; i >= 0; i -= 8) {
+        digest.update((byte) (length >>> i));
+      }
+    }
+
+    /**
+     * Complete digest computation.
+     *
+     * @return digest as lower-case hex string
+     */
+    public String digest() {
+      return HexFormat.of().formatHex(digest.digest());
+    }
+  }
+
+  private static final class ManifestHandler extends DefaultHandler {
+
+    private final Map<URI, Entry> entries;
+    private final StringBuilder buf = new StringBuilder();
+    private Attributes file;
+    private List<RecordingLogger.Message> messages;
+    private Level level;
+
+    ManifestHandler(final Map<URI, Entry> entries) {
+      this.entries = entries;
+    }
+
+    @Override
+    public void startElement(final String ns, final String localName, final String qName, final Attributes atts) {
+      final String n = localName != null && !localName.isEmpty() ? localName : qName;
+      if (ELEMENT_FILE.equals(n)) {
+        file = new AttributesImpl(atts);
+        messages = new ArrayList<>();
+      } else if (ELEMENT_MESSAGE.equals(n)) {
+        level = Level.valueOf(atts.getValue(ATTRIBUTE_LEVEL));
+        buf.setLength(0);
+      }
+    }
+
+    @Override
+    public void characters(final char[] ch, final int start, final int length) {
+      if (level != null) {
+        buf.append(ch, start, length);
+      }
+    }
+
+    @Override
+    public void endElement(final String ns, final String localName, final String qName) {
+      final String n = localName != null && !localName.isEmpty() ? localName : qName;
+      if (ELEMENT_FILE.equals(n)) {
+        entries.put(
+          URI.create(file.getValue(ATTRIBUTE_SRC)),
+          new Entry(
+            file.getValue(ATTRIBUTE_DIGEST),
+            file.getValue(ATTRIBUTE_FORMAT),
+            URI.create(file.getValue(ATTRIBUTE_TEMP_DIR)),
+            List.copyOf(messages)
+          )
+        );
+        file = null;
+      } else if (ELEMENT_MESSAGE.equals(n)) {
+        messages.add(new RecordingLogger.Message(level, buf.toString()));
+        level = null;
+      }
+    }
+  }
+}
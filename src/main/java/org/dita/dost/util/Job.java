@@ -11,12 +11,16 @@ import static org.dita.dost.util.Configuration.configuration;
 import static org.dita.dost.util.Constants.*;
 import static org.dita.dost.util.URLUtils.*;
 
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.common.io.CountingOutputStream;
 import java.io.*;
 import java.lang.reflect.Field;
 import java.net.URI;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -122,12 +126,36 @@ public final class Job {
     }
   }
 
+  /** Binary job state is rewritten when appended changes have grown it by this factor. */
+  private static final int STATE_COMPACTION_FACTOR = 2;
+
+  /** Interner for file info URIs shared by all jobs, equal URIs in file info objects are the same instance. */
+  private static final Interner<URI> uriInterner = Interners.newWeakInterner();
+  /** Interner for file info formats shared by all jobs. */
+  private static final Interner<String> formatInterner = Interners.newWeakInterner();
+
   private final Map<String, Object> prop;
   public final File tempDir;
   public final URI tempDirURI;
   private final File jobFile;
+  private final File stateFile;
   private final Map<URI, FileInfo> files = new ConcurrentHashMap<>();
+  private final FileInfoIndex index = new FileInfoIndex();
   private long lastModified;
+  /** Identity of the XML job file as last written, {@code null} if not known. */
+  private JobStateFile.Stamp stamp;
+  /** Properties as last read or written, {@code null} if not known. */
+  private Map<String, Object> savedProp;
+  /** Whether file infos have been marked as saved by this job since they were last read or written. */
+  private boolean tracked;
+  /** Token that file infos saved by this job are marked with. */
+  private final Object saveToken = new Object();
+  /** URIs of file infos removed since the job was last read or written. */
+  private final Set<URI> removedFiles = ConcurrentHashMap.newKeySet();
+  /** Length of binary job state, negative if state file is not consistent with the XML job file. */
+  private long stateLength = -1;
+  /** Length of binary job state after it was last read or fully written. */
+  private long stateBaseLength;
   private final Store store;
 
   /**
@@ -147,6 +175,7 @@ public final class Job {
     final URI tmpDirUri = tempDir.toURI();
     tempDirURI = tmpDirUri.toString().endsWith("/") ? tmpDirUri : URI.create(tmpDirUri + "/");
     jobFile = new File(tempDir, JOB_FILE);
+    stateFile = new File(tempDir, JobStateFile.FILE_NAME);
     prop = new HashMap<>();
     read();
     for (Map.Entry<String, String> e : configuration.entrySet()) {
@@ -161,8 +190,10 @@ public final class Job {
     this.store = job.store;
     this.tempDirURI = tempDir.toURI();
     this.jobFile = new File(tempDir, JOB_FILE);
+    this.stateFile = new File(tempDir, JobStateFile.FILE_NAME);
     this.prop = prop;
     this.files.putAll(files.stream().collect(Collectors.toMap(fi -> fi.uri, Function.identity())));
+    this.files.values().forEach(index::add);
   }
 
   public Store getStore() {
@@ -179,7 +210,7 @@ public final class Job {
 
   /**
    * Read temporary configuration files. If configuration files are not found,
-   * assume an empty job object is being created.
+   * assume an empty job object is being created. Binary job state is used if it is consistent with the XML job file.
    *
    * @throws IOException if reading configuration files failed
    * @throws IllegalStateException if configuration files are missing
@@ -187,11 +218,16 @@ public final class Job {
   private void read() throws IOException {
     lastModified = getStore().getLastModified(jobFile.toURI());
     if (getStore().exists(jobFile.toURI())) {
-      try (final InputStream in = new FileInputStream(jobFile)) {
-        getStore().transform(jobFile.toURI(), new JobHandler(prop, files));
-      } catch (final DITAOTException e) {
-        throw new IOException("Failed to read job file: " + e.getMessage());
+      if (!readState()) {
+        try {
+          getStore().transform(jobFile.toURI(), new JobHandler(prop, files));
+        } catch (final DITAOTException e) {
+          throw new IOException("Failed to read job file: " + e.getMessage());
+        }
       }
+      index.clear();
+      files.values().forEach(index::add);
+      snapshot();
     } else {
       // defaults
       prop.put(PROPERTY_GENERATE_COPY_OUTER, Generate.NOT_GENERATEOUTTER.toString());
@@ -200,6 +236,75 @@ public final class Job {
     }
   }
 
+  /**
+   * Read binary job state. The state is only used if the modification time and length of the XML job file match the
+   * ones committed with the state. The XML job file contents are not read.
+   *
+   * @return {@code true} if state was read, {@code false} if state file is missing or not consistent with the XML
+   *         job file
+   */
+  private boolean readState() {
+    final JobStateFile.State state;
+    try {
+      state = JobStateFile.read(stateFile.toPath());
+    } catch (final IOException e) {
+      return false;
+    }
+    if (state == null || state.stamp.modified() != lastModified) {
+      return false;
+    }
+    try {
+      stamp = readStamp();
+    } catch (final IOException e) {
+      return false;
+    }
+    if (!stamp.equals(state.stamp)) {
+      return false;
+    }
+    prop.putAll(state.prop);
+    files.putAll(state.files);
+    stateLength = state.length;
+    stateBaseLength = state.length;
+    return true;
+  }
+
+  /**
+   * Read identity of the XML job file. The length is read from the file system if the job file there is the one
+   * seen by the store, otherwise it is counted from the store contents.
+   */
+  private JobStateFile.Stamp readStamp() throws IOException {
+    if (jobFile.lastModified() == lastModified) {
+      return new JobStateFile.Stamp(lastModified, jobFile.length());
+    }
+    try (InputStream in = getStore().getInputStream(jobFile.toURI())) {
+      return new JobStateFile.Stamp(lastModified, in.transferTo(OutputStream.nullOutputStream()));
+    }
+  }
+
+  /** Store copy of current properties and mark file infos as saved for change tracking. */
+  private void snapshot() {
+    savedProp = copyProperties();
+    for (final FileInfo fi : files.values()) {
+      fi.markSaved(saveToken);
+    }
+    removedFiles.clear();
+    tracked = true;
+  }
+
+  private Map<String, Object> copyProperties() {
+    final Map<String, Object> props = new HashMap<>(prop.size() * 2);
+    for (final Map.Entry<String, Object> e : prop.entrySet()) {
+      if (e.getValue() instanceof final Set<?> s) {
+        props.put(e.getKey(), new HashSet<>(s));
+      } else if (e.getValue() instanceof final Map<?, ?> m) {
+        props.put(e.getKey(), new HashMap<>(m));
+      } else {
+        props.put(e.getKey(), e.getValue());
+      }
+    }
+    return props;
+  }
+
   public static final class JobHandler extends DefaultHandler {
 
     private final Map<String, Object> prop;
@@ -249,11 +354,8 @@ public final class Job {
           } else {
             i = new FileInfo(src, toURI(path), path);
           }
-          i.result = toURI(atts.getValue(ATTRIBUTE_RESULT));
-          if (i.result == null) {
-            i.result = src;
-          }
-          i.format = atts.getValue(ATTRIBUTE_FORMAT);
+          i.result = internResult(i.src, toURI(atts.getValue(ATTRIBUTE_RESULT)));
+          i.format = internFormat(atts.getValue(ATTRIBUTE_FORMAT));
           try {
             for (Map.Entry<String, Field> e : attrToFieldMap.entrySet()) {
               e.getValue().setBoolean(i, Boolean.parseBoolean(atts.getValue(e.getKey())));
@@ -295,16 +397,55 @@ public final class Job {
   }
 
   /**
-   * Store job into temporary configuration files.
+   * Store job into temporary configuration files. Nothing is written if the job has not changed since it was last
+   * read or written. Binary job state is updated with changed records only. A file info is changed if its fields
+   * differ from when it was last saved by this job.
    *
    * @throws IOException if writing configuration files failed
    */
-  public void write() throws IOException {
-    try (
-      Writer outStream = new BufferedWriter(
-        new OutputStreamWriter(getStore().getOutputStream(jobFile.toURI()), StandardCharsets.UTF_8)
-      )
+  public synchronized void write() throws IOException {
+    final boolean propChanged = savedProp == null || !savedProp.equals(prop);
+    final List<FileInfo> changed = new ArrayList<>();
+    for (final FileInfo fi : files.values()) {
+      if (!tracked || !fi.isSaved(saveToken)) {
+        changed.add(fi);
+      }
+    }
+    final List<URI> removed = !tracked
+      ? List.of()
+      : removedFiles.stream().filter(uri -> !files.containsKey(uri)).collect(Collectors.toList());
+    final boolean stale = isStale();
+    if (
+      tracked &&
+      !propChanged &&
+      changed.isEmpty() &&
+      removed.isEmpty() &&
+      !stale &&
+      getStore().exists(jobFile.toURI())
     ) {
+      if (stateLength < 0) {
+        writeState(null, List.of(), List.of(), false);
+      }
+      return;
+    }
+    writeXml();
+    writeState(propChanged ? prop : null, changed, removed, tracked && !stale);
+    if (!tracked) {
+      snapshot();
+    } else {
+      if (propChanged) {
+        savedProp = copyProperties();
+      }
+      for (final FileInfo fi : changed) {
+        fi.markSaved(saveToken);
+      }
+      removedFiles.clear();
+    }
+  }
+
+  private void writeXml() throws IOException {
+    final CountingOutputStream counter = new CountingOutputStream(getStore().getOutputStream(jobFile.toURI()));
+    try (Writer outStream = new BufferedWriter(new OutputStreamWriter(counter, StandardCharsets.UTF_8))) {
       XMLStreamWriter out = null;
       try {
         out = XMLOutputFactory.newInstance().createXMLStreamWriter(outStream);
@@ -324,6 +465,43 @@ public final class Job {
       throw new IOException("Failed to write file: " + e.getMessage());
     }
     lastModified = getStore().getLastModified(jobFile.toURI());
+    stamp = new JobStateFile.Stamp(lastModified, counter.getCount());
+  }
+
+  /**
+   * Write binary job state. Failure to write is not fatal, because readers fall back to the XML job file.
+   *
+   * @param changedProp changed properties, {@code null} if not changed
+   * @param changed changed file infos
+   * @param removed removed file info URIs
+   * @param append {@code true} to append changes to existing state, {@code false} to rewrite all state
+   */
+  private void writeState(
+    final Map<String, Object> changedProp,
+    final Collection<FileInfo> changed,
+    final Collection<URI> removed,
+    final boolean append
+  ) {
+    final Path path = stateFile.toPath();
+    try {
+      if (stamp == null) {
+        stamp = readStamp();
+      }
+      if (
+        append &&
+        stateLength >= 0 &&
+        stateLength < STATE_COMPACTION_FACTOR * stateBaseLength &&
+        Files.exists(path) &&
+        Files.size(path) == stateLength
+      ) {
+        stateLength = JobStateFile.write(path, stateLength, changedProp, changed, removed, stamp);
+      } else {
+        stateLength = JobStateFile.write(path, -1, prop, files.values(), List.of(), stamp);
+        stateBaseLength = stateLength;
+      }
+    } catch (final IOException e) {
+      stateLength = -1;
+    }
   }
 
   public Document serialize() throws IOException {
@@ -408,9 +586,47 @@ public final class Job {
 
   /**
    * Add file info. If file info with the same file already exists, it will be replaced.
+   *
+   * <p>File infos are indexed by flags and format when they are added. A file info whose flags or format are
+   * modified after it was added must be added again, otherwise {@link #getFileInfo(Flag)},
+   * {@link #getFileInfoByFormat(String)} and {@link #getInputFileInfo()} return results based on the old values.</p>
    */
   public void add(final FileInfo fileInfo) {
-    files.put(fileInfo.uri, fileInfo);
+    fileInfo.src = intern(fileInfo.src);
+    fileInfo.result = internResult(fileInfo.src, fileInfo.result);
+    fileInfo.format = internFormat(fileInfo.format);
+    synchronized (index) {
+      files.put(fileInfo.uri, fileInfo);
+      index.add(fileInfo);
+    }
+  }
+
+  /**
+   * Get canonical instance of a file info URI.
+   *
+   * @param uri URI, may be {@code null}
+   * @return canonical URI instance, {@code null} if argument was {@code null}
+   */
+  private static URI intern(final URI uri) {
+    return uri != null ? uriInterner.intern(uri) : null;
+  }
+
+  /**
+   * Get canonical instance of a result URI. Result that is equal to source is the source instance.
+   *
+   * @param src canonical source URI, may be {@code null}
+   * @param result result URI, may be {@code null}
+   * @return canonical result URI, source if result was {@code null}
+   */
+  static URI internResult(final URI src, final URI result) {
+    if (result == null || result.equals(src)) {
+      return src;
+    }
+    return intern(result);
+  }
+
+  static String internFormat(final String format) {
+    return format != null ? formatInterner.intern(format) : null;
   }
 
   /**
@@ -419,7 +635,13 @@ public final class Job {
    * @return removed file info, {@code null} if not found
    */
   public FileInfo remove(final FileInfo fileInfo) {
-    return files.remove(fileInfo.uri);
+    synchronized (index) {
+      index.remove(fileInfo.uri);
+      if (tracked) {
+        removedFiles.add(fileInfo.uri);
+      }
+      return files.remove(fileInfo.uri);
+    }
   }
 
   /**
@@ -540,6 +762,51 @@ public final class Job {
     return files.values().stream().filter(filter).collect(Collectors.toList());
   }
 
+  /**
+   * Get file info objects with a flag set. Uses a maintained index instead of scanning all file info objects.
+   *
+   * @param flag flag file info object must have set
+   * @return file info objects with the flag set in temporary file URI order, may be empty
+   * @since 4.1
+   */
+  public Collection<FileInfo> getFileInfo(final Flag flag) {
+    return index.get(flag);
+  }
+
+  /**
+   * Get file info objects with a flag set that pass the filter.
+   *
+   * @param flag flag file info object must have set
+   * @param filter filter file info object must pass
+   * @return file info objects with the flag set that pass the filter in temporary file URI order, may be empty
+   * @since 4.1
+   */
+  public Collection<FileInfo> getFileInfo(final Flag flag, final Predicate<FileInfo> filter) {
+    return index.get(flag).stream().filter(filter).collect(Collectors.toList());
+  }
+
+  /**
+   * Get file info objects with a format. Uses a maintained index instead of scanning all file info objects.
+   *
+   * @param format file format, may be {@code null}
+   * @return file info objects with the format in temporary file URI order, may be empty
+   * @since 4.1
+   */
+  public Collection<FileInfo> getFileInfoByFormat(final String format) {
+    return index.getByFormat(format);
+  }
+
+  /**
+   * Get input file info object, i.e. the processing root. If multiple file infos are marked as input, the first in
+   * temporary file URI order is returned.
+   *
+   * @return input file info object, {@code null} if not found
+   * @since 4.1
+   */
+  public FileInfo getInputFileInfo() {
+    return index.getFirst(Flag.INPUT);
+  }
+
   /**
    * Get file info object
    *
@@ -595,7 +862,46 @@ public final class Job {
   }
 
   /**
-   * File info object.
+   * Indexed file info flags.
+   *
+   * @since 4.1
+   */
+  public enum Flag {
+    HAS_CONREF(fi -> fi.hasConref),
+    CHUNKED(fi -> fi.isChunked),
+    HAS_LINK(fi -> fi.hasLink),
+    RESOURCE_ONLY(fi -> fi.isResourceOnly),
+    TARGET(fi -> fi.isTarget),
+    CONREF_PUSH(fi -> fi.isConrefPush),
+    HAS_KEYREF(fi -> fi.hasKeyref),
+    HAS_CODEREF(fi -> fi.hasCoderef),
+    SUBJECT_SCHEME(fi -> fi.isSubjectScheme),
+    SUBTARGET(fi -> fi.isSubtarget),
+    FLAG_IMAGE(fi -> fi.isFlagImage),
+    OUT_DITA(fi -> fi.isOutDita),
+    INPUT(fi -> fi.isInput),
+    INPUT_RESOURCE(fi -> fi.isInputResource);
+
+    private final Predicate<FileInfo> test;
+
+    Flag(final Predicate<FileInfo> test) {
+      this.test = test;
+    }
+
+    /**
+     * Test if flag is set in file info.
+     *
+     * @param fi file info to test
+     * @return {@code true} if flag is set, otherwise {@code false}
+     */
+    public boolean test(final FileInfo fi) {
+      return test.test(fi);
+    }
+  }
+
+  /**
+   * File info object. Changes to fields of a file info that has been added to a job must be followed by
+   * {@link Job#add(FileInfo)} to update job indexes.
    */
   public static final class FileInfo {
 
@@ -640,16 +946,43 @@ public final class Job {
 
     FileInfo(final URI src, final URI uri, final File file) {
       if (uri == null && file == null) throw new IllegalArgumentException(new NullPointerException());
-      this.src = src;
-      this.uri = uri != null ? uri : toURI(file);
+      this.src = intern(src);
+      this.uri = intern(uri != null ? uri : toURI(file));
       this.file = uri != null ? toFile(uri) : file;
-      this.result = src;
+      this.result = this.src;
+    }
+
+    /** Token of the job that last saved this file info, {@code null} if not saved. */
+    private Object savedBy;
+    private URI savedSrc;
+    private URI savedResult;
+    private String savedFormat;
+    private int savedFlags;
+
+    /** Record current field values as saved by a job. */
+    void markSaved(final Object token) {
+      savedBy = token;
+      savedSrc = src;
+      savedResult = result;
+      savedFormat = format;
+      savedFlags = JobStateFile.getFlags(this);
+    }
+
+    /** Test if field values are unchanged since they were saved by a job. */
+    boolean isSaved(final Object token) {
+      return (
+        savedBy == token &&
+        Objects.equals(savedSrc, src) &&
+        Objects.equals(savedResult, result) &&
+        Objects.equals(savedFormat, format) &&
+        savedFlags == JobStateFile.getFlags(this)
+      );
     }
 
     FileInfo(final URI uri) {
       if (uri == null) throw new IllegalArgumentException(new NullPointerException());
       this.src = null;
-      this.uri = uri;
+      this.uri = intern(uri);
       this.file = toFile(uri);
       this.result = src;
     }
@@ -958,10 +1291,8 @@ public final class Job {
           throw new IllegalStateException("uri and file may not be null");
         }
         final FileInfo fi = new FileInfo(src, uri, file);
-        if (result != null) {
-          fi.result = result;
-        }
-        fi.format = format;
+        fi.result = internResult(fi.src, result);
+        fi.format = internFormat(format);
         fi.hasConref = hasConref;
         fi.isChunked = isChunked;
         fi.hasLink = hasLink;
@@ -0,0 +1,383 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.util;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import org.dita.dost.util.Job.FileInfo;
+
+/**
+ * Binary job state file. The file is an append-only log of property and file info records, where each batch of
+ * records is terminated by a commit record that holds the modification time and length of the XML job file written
+ * with it.
+ * Readers replay committed records and ignore anything after the last commit, so a state file that is inconsistent
+ * with the XML job file can be detected and discarded.
+ *
+ * <p>The binary state is a cache of the XML job file and only contains what the XML serialization contains.</p>
+ */
+final class JobStateFile {
+
+  static final String FILE_NAME = ".job.bin";
+
+  private static final int MAGIC = 0x444A4F42;
+  private static final int VERSION = 3;
+  private static final int HEADER_LENGTH = 8;
+  /** Files smaller than this are read into heap instead of memory mapped. */
+  private static final long MAP_THRESHOLD = 64 * 1024;
+
+  private static final byte RECORD_PROPERTIES = 1;
+  private static final byte RECORD_FILE = 2;
+  private static final byte RECORD_REMOVE = 3;
+  private static final byte RECORD_COMMIT = 4;
+
+  private static final byte VALUE_STRING = 1;
+  private static final byte VALUE_SET = 2;
+  private static final byte VALUE_MAP = 3;
+
+  private static final int NULL_LENGTH = -1;
+  /** String length marker for result URI that is equal to source URI. */
+  private static final int SAME_AS_SRC_LENGTH = -2;
+
+  private static final int HAS_CONREF = 1;
+  private static final int IS_CHUNKED = 1 << 1;
+  private static final int HAS_LINK = 1 << 2;
+  private static final int IS_RESOURCE_ONLY = 1 << 3;
+  private static final int IS_TARGET = 1 << 4;
+  private static final int IS_CONREF_PUSH = 1 << 5;
+  private static final int HAS_KEYREF = 1 << 6;
+  private static final int HAS_CODEREF = 1 << 7;
+  private static final int IS_SUBJECT_SCHEME = 1 << 8;
+  private static final int IS_SUBTARGET = 1 << 9;
+  private static final int IS_FLAG_IMAGE = 1 << 10;
+  private static final int IS_OUT_DITA = 1 << 11;
+  private static final int IS_INPUT = 1 << 12;
+
+  private JobStateFile() {
+    throw new AssertionError();
+  }
+
+  /**
+   * XML job file identity.
+   *
+   * @param modified modification time
+   * @param length length in bytes
+   */
+  record Stamp(long modified, long length) {}
+
+  /** Committed job state. */
+  static final class State {
+
+    /** Job properties. */
+    final Map<String, Object> prop = new HashMap<>();
+    /** File infos by temporary file URI. */
+    final Map<URI, FileInfo> files = new HashMap<>();
+    /** XML job file identity of the last commit. */
+    Stamp stamp;
+    /** Length of committed data in bytes. */
+    long length;
+  }
+
+  /**
+   * Read committed state. Large files are memory mapped.
+   *
+   * @param file state file
+   * @return committed state, {@code null} if file does not exist or it has no committed state
+   * @throws IOException if reading the file failed
+   */
+  static State read(final Path file) throws IOException {
+    final ByteBuffer buf;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      final long size = channel.size();
+      if (size < HEADER_LENGTH) {
+        return null;
+      } else if (size >= MAP_THRESHOLD) {
+        buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      } else {
+        buf = ByteBuffer.allocate((int) size);
+        while (buf.hasRemaining() && channel.read(buf) != -1) {}
+        buf.flip();
+      }
+    } catch (final NoSuchFileException e) {
+      return null;
+    }
+    if (buf.getInt() != MAGIC || buf.getInt() != VERSION) {
+      return null;
+    }
+    final State state = new State();
+    Map<String, Object> pendingProp = null;
+    final Map<URI, FileInfo> pendingFiles = new HashMap<>();
+    final Set<URI> pendingRemoved = new HashSet<>();
+    try {
+      while (buf.hasRemaining()) {
+        switch (buf.get()) {
+          case RECORD_PROPERTIES -> pendingProp = readProperties(buf);
+          case RECORD_FILE -> {
+            final FileInfo fi = readFileInfo(buf);
+            pendingRemoved.remove(fi.uri);
+            pendingFiles.put(fi.uri, fi);
+          }
+          case RECORD_REMOVE -> {
+            final URI uri = URI.create(readString(buf));
+            pendingFiles.remove(uri);
+            pendingRemoved.add(uri);
+          }
+          case RECORD_COMMIT -> {
+            state.stamp = new Stamp(buf.getLong(), buf.getLong());
+            state.length = buf.position();
+            if (pendingProp != null) {
+              state.prop.clear();
+              state.prop.putAll(pendingProp);
+              pendingProp = null;
+            }
+            state.files.keySet().removeAll(pendingRemoved);
+            state.files.putAll(pendingFiles);
+            pendingRemoved.clear();
+            pendingFiles.clear();
+          }
+          default -> {
+            return state.length != 0 ? state : null;
+          }
+        }
+      }
+    } catch (final BufferUnderflowException | IllegalArgumentException e) {
+      // partially written batch
+    }
+    return state.length != 0 ? state : null;
+  }
+
+  /**
+   * Write a batch of records and commit it.
+   *
+   * @param file state file
+   * @param length length of committed data the batch is appended to, or negative to replace the file
+   * @param prop changed properties, {@code null} if properties have not changed
+   * @param changed changed or added file infos
+   * @param removed removed file info URIs
+   * @param stamp XML job file identity
+   * @return length of committed data after the write
+   * @throws IOException if writing failed
+   */
+  static long write(
+    final Path file,
+    final long length,
+    final Map<String, Object> prop,
+    final Collection<FileInfo> changed,
+    final Collection<URI> removed,
+    final Stamp stamp
+  ) throws IOException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    final DataOutputStream out = new DataOutputStream(bytes);
+    if (length < 0) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+    }
+    if (prop != null) {
+      out.writeByte(RECORD_PROPERTIES);
+      writeProperties(out, prop);
+    }
+    for (final URI uri : removed) {
+      out.writeByte(RECORD_REMOVE);
+      writeString(out, uri.toString());
+    }
+    for (final FileInfo fi : changed) {
+      out.writeByte(RECORD_FILE);
+      writeFileInfo(out, fi);
+    }
+    out.writeByte(RECORD_COMMIT);
+    out.writeLong(stamp.modified());
+    out.writeLong(stamp.length());
+    out.flush();
+
+    Files.createDirectories(file.getParent());
+    try (
+      FileChannel channel = length < 0
+        ? FileChannel.open(
+          file,
+          StandardOpenOption.CREATE,
+          StandardOpenOption.WRITE,
+          StandardOpenOption.TRUNCATE_EXISTING
+        )
+        : FileChannel.open(file, StandardOpenOption.WRITE)
+    ) {
+      final long start = Math.max(length, 0);
+      if (channel.size() > start) {
+        // discard uncommitted data
+        channel.truncate(start);
+      }
+      final ByteBuffer buf = ByteBuffer.wrap(bytes.toByteArray());
+      long position = start;
+      while (buf.hasRemaining()) {
+        position += channel.write(buf, position);
+      }
+      return position;
+    }
+  }
+
+  private static void writeProperties(final DataOutputStream out, final Map<String, Object> prop)
+    throws IOException {
+    final List<Map.Entry<String, Object>> entries = prop
+      .entrySet()
+      .stream()
+      .filter(e -> e.getValue() instanceof String || e.getValue() instanceof Set || e.getValue() instanceof Map)
+      .toList();
+    out.writeInt(entries.size());
+    for (final Map.Entry<String, Object> e : entries) {
+      writeString(out, e.getKey());
+      if (e.getValue() instanceof final String s) {
+        out.writeByte(VALUE_STRING);
+        writeString(out, s);
+      } else if (e.getValue() instanceof final Set<?> s) {
+        out.writeByte(VALUE_SET);
+        out.writeInt(s.size());
+        for (final Object o : s) {
+          writeString(out, o.toString());
+        }
+      } else {
+        final Map<?, ?> m = (Map<?, ?>) e.getValue();
+        out.writeByte(VALUE_MAP);
+        out.writeInt(m.size());
+        for (final Map.Entry<?, ?> o : m.entrySet()) {
+          writeString(out, o.getKey().toString());
+          writeString(out, o.getValue().toString());
+        }
+      }
+    }
+  }
+
+  private static Map<String, Object> readProperties(final ByteBuffer buf) {
+    final int count = buf.getInt();
+    final Map<String, Object> prop = new HashMap<>(count * 2);
+    for (int i = 0; i < count; i++) {
+      final String name = readString(buf);
+      switch (buf.get()) {
+        case VALUE_STRING -> prop.put(name, readString(buf));
+        case VALUE_SET -> {
+          final int size = buf.getInt();
+          final Set<String> set = new HashSet<>(size * 2);
+          for (int j = 0; j < size; j++) {
+            set.add(readString(buf));
+          }
+          prop.put(name, set);
+        }
+        case VALUE_MAP -> {
+          final int size = buf.getInt();
+          final Map<String, String> map = new HashMap<>(size * 2);
+          for (int j = 0; j < size; j++) {
+            map.put(readString(buf), readString(buf));
+          }
+          prop.put(name, map);
+        }
+        default -> throw new IllegalArgumentException("Unsupported property value type");
+      }
+    }
+    return prop;
+  }
+
+  private static void writeFileInfo(final DataOutputStream out, final FileInfo fi) throws IOException {
+    out.writeInt(getFlags(fi));
+    writeString(out, fi.uri.toString());
+    writeString(out, fi.src != null ? fi.src.toString() : null);
+    if (fi.result != null && fi.result.equals(fi.src)) {
+      out.writeInt(SAME_AS_SRC_LENGTH);
+    } else {
+      writeString(out, fi.result != null ? fi.result.toString() : null);
+    }
+    writeString(out, fi.format);
+  }
+
+  private static FileInfo readFileInfo(final ByteBuffer buf) {
+    final int flags = buf.getInt();
+    final URI uri = URI.create(readString(buf));
+    final String src = readString(buf);
+    final FileInfo fi = new FileInfo(src != null ? URI.create(src) : null, uri, null);
+    final int resultLength = buf.getInt(buf.position());
+    if (resultLength == SAME_AS_SRC_LENGTH) {
+      buf.getInt();
+      fi.result = fi.src;
+    } else {
+      final String result = readString(buf);
+      fi.result = Job.internResult(fi.src, result != null ? URI.create(result) : null);
+    }
+    fi.format = Job.internFormat(readString(buf));
+    fi.hasConref = (flags & HAS_CONREF) != 0;
+    fi.isChunked = (flags & IS_CHUNKED) != 0;
+    fi.hasLink = (flags & HAS_LINK) != 0;
+    fi.isResourceOnly = (flags & IS_RESOURCE_ONLY) != 0;
+    fi.isTarget = (flags & IS_TARGET) != 0;
+    fi.isConrefPush = (flags & IS_CONREF_PUSH) != 0;
+    fi.hasKeyref = (flags & HAS_KEYREF) != 0;
+    fi.hasCoderef = (flags & HAS_CODEREF) != 0;
+    fi.isSubjectScheme = (flags & IS_SUBJECT_SCHEME) != 0;
+    fi.isSubtarget = (flags & IS_SUBTARGET) != 0;
+    fi.isFlagImage = (flags & IS_FLAG_IMAGE) != 0;
+    fi.isOutDita = (flags & IS_OUT_DITA) != 0;
+    fi.isInput = (flags & IS_INPUT) != 0;
+    return fi;
+  }
+
+  static int getFlags(final FileInfo fi) {
+    int flags = 0;
+    if (fi.hasConref) flags |= HAS_CONREF;
+    if (fi.isChunked) flags |= IS_CHUNKED;
+    if (fi.hasLink) flags |= HAS_LINK;
+    if (fi.isResourceOnly) flags |= IS_RESOURCE_ONLY;
+    if (fi.isTarget) flags |= IS_TARGET;
+    if (fi.isConrefPush) flags |= IS_CONREF_PUSH;
+    if (fi.hasKeyref) flags |= HAS_KEYREF;
+    if (fi.hasCoderef) flags |= HAS_CODEREF;
+    if (fi.isSubjectScheme) flags |= IS_SUBJECT_SCHEME;
+    if (fi.isSubtarget) flags |= IS_SUBTARGET;
+    if (fi.isFlagImage) flags |= IS_FLAG_IMAGE;
+    if (fi.isOutDita) flags |= IS_OUT_DITA;
+    if (fi.isInput) flags |= IS_INPUT;
+    return flags;
+  }
+
+  private static void writeString(final DataOutputStream out, final String value) throws IOException {
+    if (value == null) {
+      out.writeInt(NULL_LENGTH);
+    } else {
+      final byte[] bytes = value.getBytes(UTF_8);
+      out.writeInt(bytes.length);
+      out.write(bytes);
+    }
+  }
+
+  private static String readString(final ByteBuffer buf) {
+    final int length = buf.getInt();
+    if (length == NULL_LENGTH) {
+      return null;
+    } else if (length < 0) {
+      throw new IllegalArgumentException("Invalid string length " + length);
+    } else if (length > buf.remaining()) {
+      throw new BufferUnderflowException();
+    }
+    final String value;
+    if (buf.hasArray()) {
+      value = new String(buf.array(), buf.arrayOffset() + buf.position(), length, UTF_8);
+    } else {
+      final byte[] bytes = new byte[length];
+      buf.get(buf.position(), bytes);
+      value = new String(bytes, UTF_8);
+    }
+    buf.position(buf.position() + length);
+    return value;
+  }
+}
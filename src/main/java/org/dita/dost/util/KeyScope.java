@@ -13,7 +13,8 @@ import com.google.common.collect.ImmutableList;
 import java.util.*;
 
 /**
- * Immutable key store for keys and child key scopes.
+ * Immutable key store for keys and child key scopes. Key definitions of nested scopes may be a {@link LayeredMap}
+ * that shares the key definitions of the parent scope.
  *
  * @since 2.2
  */
@@ -29,7 +30,7 @@ public record KeyScope(String id, String name, Map<String, KeyDef> keyDefinition
   ) {
     this.id = id;
     this.name = name;
-    this.keyDefinition = unmodifiableMap(keyDefinition);
+    this.keyDefinition = keyDefinition instanceof LayeredMap ? keyDefinition : unmodifiableMap(keyDefinition);
     this.childScopes = List.copyOf(childScopes);
   }
 
@@ -71,13 +72,10 @@ public record KeyScope(String id, String name, Map<String, KeyDef> keyDefinition
         String.format("Scopes should have the same ID: %s != %s", scope1.id, scope2.id)
       );
     }
-    final Map<String, KeyDef> keyDefinition = new HashMap<>();
-    scope1.keyDefinition.forEach(keyDefinition::putIfAbsent);
-    scope2.keyDefinition.forEach(keyDefinition::putIfAbsent);
     return new KeyScope(
       scope1.id,
       scope1.name,
-      unmodifiableMap(keyDefinition),
+      new LayeredMap<>(scope1.keyDefinition, scope2.keyDefinition),
       ImmutableList.<KeyScope>builder().addAll(scope1.childScopes).addAll(scope2.childScopes).build()
     );
   }
@@ -0,0 +1,127 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.util;
+
+import static java.util.Collections.unmodifiableMap;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Immutable map of local entries layered over a parent map. The parent map is shared, not copied, so maps derived
+ * from a common parent use memory proportional to their local entries only. Lookups walk the parent chain; chains
+ * deeper than {@value #MAX_DEPTH} are flattened into a copy to bound lookup cost.
+ *
+ * <p>Parent map must not be modified after it has been layered.</p>
+ *
+ * @param <K> key type
+ * @param <V> value type
+ * @since 4.1
+ */
+public final class LayeredMap<K, V> extends AbstractMap<K, V> {
+
+  static final int MAX_DEPTH = 8;
+
+  private final Map<K, V> local;
+  private final Map<K, V> parent;
+  private final int depth;
+  private final int size;
+  private Set<Map.Entry<K, V>> entrySet;
+
+  /**
+   * Create new layered map.
+   *
+   * @param local local entries that take precedence over parent entries
+   * @param parent parent entries
+   */
+  public LayeredMap(final Map<K, V> local, final Map<K, V> parent) {
+    this.local = unmodifiableMap(new HashMap<>(local));
+    final int parentDepth = parent instanceof final LayeredMap<K, V> l ? l.depth : 0;
+    if (parentDepth >= MAX_DEPTH) {
+      this.parent = unmodifiableMap(new HashMap<>(parent));
+      this.depth = 1;
+    } else {
+      this.parent = parent;
+      this.depth = parentDepth + 1;
+    }
+    int s = this.parent.size();
+    for (final K key : this.local.keySet()) {
+      if (!this.parent.containsKey(key)) {
+        s++;
+      }
+    }
+    this.size = s;
+  }
+
+  /**
+   * Get local entries.
+   *
+   * @return unmodifiable map of local entries
+   */
+  public Map<K, V> local() {
+    return local;
+  }
+
+  /**
+   * Get parent entries.
+   *
+   * @return parent map
+   */
+  public Map<K, V> parent() {
+    return parent;
+  }
+
+  @Override
+  public V get(final Object key) {
+    final V value = local.get(key);
+    if (value != null || local.containsKey(key)) {
+      return value;
+    }
+    return parent.get(key);
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    return local.containsKey(key) || parent.containsKey(key);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public Set<Map.Entry<K, V>> entrySet() {
+    if (entrySet == null) {
+      entrySet =
+        new AbstractSet<>() {
+          @Override
+          public Iterator<Map.Entry<K, V>> iterator() {
+            return Stream
+              .concat(
+                local.entrySet().stream(),
+                parent.entrySet().stream().filter(e -> !local.containsKey(e.getKey()))
+              )
+              .map(e -> (Map.Entry<K, V>) new SimpleImmutableEntry<>(e))
+              .iterator();
+          }
+
+          @Override
+          public int size() {
+            return size;
+          }
+        };
+    }
+    return entrySet;
+  }
+}
@@ -0,0 +1,213 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.util;
+
+import static org.dita.dost.util.URLUtils.toURI;
+
+import java.io.*;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import org.dita.dost.exception.DITAOTException;
+import org.dita.dost.store.Store;
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Reverse reference index. Maps reference targets to the files that refer to them and the positions of the
+ * referring elements in document order. Sources and targets are temporary file URIs relative to the temporary
+ * directory, targets without a fragment.
+ *
+ * <p>Files that have not been indexed may contain any references, e.g. files generated after the index was built.</p>
+ *
+ * @since 4.1
+ */
+public final class ReferenceIndex {
+
+  private static final String ELEMENT_REFERENCES = "references";
+  private static final String ELEMENT_FILE = "file";
+  private static final String ELEMENT_REF = "ref";
+  private static final String ATTRIBUTE_URI = "uri";
+  private static final String ATTRIBUTE_HREF = "href";
+  private static final String ATTRIBUTE_POSITIONS = "positions";
+
+  /** Target to source to element positions. */
+  private final Map<URI, Map<URI, List<Integer>>> targets = new HashMap<>();
+  /** Indexed source files to targets. */
+  private final Map<URI, Set<URI>> sources = new HashMap<>();
+
+  /**
+   * Set references of a source file. Any previous references of the source file are replaced.
+   *
+   * @param source source file
+   * @param references reference targets to positions of referring elements
+   */
+  public synchronized void put(final URI source, final Map<URI, List<Integer>> references) {
+    final Set<URI> old = sources.remove(source);
+    if (old != null) {
+      for (final URI target : old) {
+        final Map<URI, List<Integer>> refs = targets.get(target);
+        refs.remove(source);
+        if (refs.isEmpty()) {
+          targets.remove(target);
+        }
+      }
+    }
+    sources.put(source, new HashSet<>(references.keySet()));
+    for (final Map.Entry<URI, List<Integer>> e : references.entrySet()) {
+      targets.computeIfAbsent(e.getKey(), k -> new HashMap<>()).put(source, List.copyOf(e.getValue()));
+    }
+  }
+
+  /**
+   * Test if source file has been indexed.
+   *
+   * @param source source file
+   * @return {@code true} if references of the source file are known, otherwise {@code false}
+   */
+  public synchronized boolean isIndexed(final URI source) {
+    return sources.containsKey(source);
+  }
+
+  /**
+   * Get targets a source file refers to.
+   *
+   * @param source source file
+   * @return reference targets, {@code null} if source file has not been indexed
+   */
+  public synchronized Set<URI> getTargets(final URI source) {
+    final Set<URI> res = sources.get(source);
+    return res != null ? Collections.unmodifiableSet(new HashSet<>(res)) : null;
+  }
+
+  /**
+   * Get files that refer to a target.
+   *
+   * @param target reference target, fragment is ignored
+   * @return referring files mapped to positions of referring elements in document order
+   */
+  public synchronized Map<URI, List<Integer>> getReferences(final URI target) {
+    final Map<URI, List<Integer>> refs = targets.get(URLUtils.stripFragment(target));
+    return refs != null ? Collections.unmodifiableMap(new HashMap<>(refs)) : Collections.emptyMap();
+  }
+
+  /**
+   * Get files that refer to any of the targets.
+   *
+   * @param targets reference targets, fragments are ignored
+   * @return referring files
+   */
+  public synchronized Set<URI> getReferencingFiles(final Collection<URI> targets) {
+    return targets
+      .stream()
+      .map(URLUtils::stripFragment)
+      .map(this.targets::get)
+      .filter(Objects::nonNull)
+      .flatMap(refs -> refs.keySet().stream())
+      .collect(Collectors.toSet());
+  }
+
+  /**
+   * Read index from store.
+   *
+   * @param store store to read from
+   * @param file absolute index file URI
+   * @return index, empty if index file does not exist
+   * @throws IOException if reading index failed
+   */
+  public static ReferenceIndex read(final Store store, final URI file) throws IOException {
+    final ReferenceIndex index = new ReferenceIndex();
+    if (!store.exists(file)) {
+      return index;
+    }
+    try {
+      store.transform(
+        file,
+        new DefaultHandler() {
+          private URI source;
+          private Map<URI, List<Integer>> references;
+
+          @Override
+          public void startElement(
+            final String ns,
+            final String localName,
+            final String qName,
+            final Attributes atts
+          ) {
+            switch (localName != null && !localName.isEmpty() ? localName : qName) {
+              case ELEMENT_FILE -> {
+                source = toURI(atts.getValue(ATTRIBUTE_URI));
+                references = new HashMap<>();
+              }
+              case ELEMENT_REF -> {
+                final String positions = atts.getValue(ATTRIBUTE_POSITIONS).trim();
+                references.put(
+                  toURI(atts.getValue(ATTRIBUTE_HREF)),
+                  positions.isEmpty()
+                    ? List.of()
+                    : Arrays.stream(positions.split("\\s+")).map(Integer::valueOf).collect(Collectors.toList())
+                );
+              }
+            }
+          }
+
+          @Override
+          public void endElement(final String ns, final String localName, final String qName) {
+            if (ELEMENT_FILE.equals(localName != null && !localName.isEmpty() ? localName : qName)) {
+              index.put(source, references);
+              source = null;
+              references = null;
+            }
+          }
+        }
+      );
+    } catch (final DITAOTException e) {
+      throw new IOException("Failed to read reference index: " + e.getMessage(), e);
+    }
+    return index;
+  }
+
+  /**
+   * Write index to store. Files are written in URI order.
+   *
+   * @param store store to write to
+   * @param file absolute index file URI
+   * @throws IOException if writing index failed
+   */
+  public synchronized void write(final Store store, final URI file) throws IOException {
+    try (
+      Writer writer = new BufferedWriter(new OutputStreamWriter(store.getOutputStream(file), StandardCharsets.UTF_8))
+    ) {
+      final XMLStreamWriter out = XMLOutputFactory.newInstance().createXMLStreamWriter(writer);
+      out.writeStartDocument();
+      out.writeStartElement(ELEMENT_REFERENCES);
+      for (final URI source : new TreeSet<>(sources.keySet())) {
+        out.writeStartElement(ELEMENT_FILE);
+        out.writeAttribute(ATTRIBUTE_URI, source.toString());
+        for (final URI target : new TreeSet<>(sources.get(source))) {
+          out.writeEmptyElement(ELEMENT_REF);
+          out.writeAttribute(ATTRIBUTE_HREF, target.toString());
+          out.writeAttribute(
+            ATTRIBUTE_POSITIONS,
+            targets.get(target).get(source).stream().map(String::valueOf).collect(Collectors.joining(" "))
+          );
+        }
+        out.writeEndElement();
+      }
+      out.writeEndElement();
+      out.writeEndDocument();
+      out.close();
+    } catch (final XMLStreamException e) {
+      throw new IOException("Failed to write reference index: " + e.getMessage(), e);
+    }
+  }
+}
@@ -0,0 +1,295 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.util;
+
+import java.io.*;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.xml.transform.Source;
+import net.sf.saxon.lib.ErrorReporter;
+import net.sf.saxon.lib.ResourceRequest;
+import net.sf.saxon.lib.ResourceResolver;
+import net.sf.saxon.s9api.Processor;
+import net.sf.saxon.s9api.SaxonApiException;
+import net.sf.saxon.s9api.XmlProcessingError;
+import net.sf.saxon.s9api.XsltCompiler;
+import net.sf.saxon.s9api.XsltExecutable;
+import net.sf.saxon.trans.XPathException;
+
+/**
+ * Cache of compiled XSLT stylesheets.
+ *
+ * <p>Stylesheets are keyed by system ID. A cached stylesheet is reused as long as none of the files in its
+ * import and include closure, or the catalog, have been modified since compilation. Stylesheets with a module in a
+ * job temporary directory are not cached, because they are resolved through the store of the job. Compile-time
+ * warnings are recorded and reported again when a cached stylesheet is reused. If an export directory is
+ * set and the Saxon edition supports stylesheet export, compiled stylesheets are also written to disk as SEF files
+ * and loaded from there by a new JVM.</p>
+ *
+ * @since 4.1
+ */
+public final class StylesheetCache {
+
+  private static final String SEF_EXTENSION = ".sef";
+  private static final String DEPENDENCIES_EXTENSION = ".deps";
+
+  private final File exportDir;
+  private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+  private final AtomicInteger hits = new AtomicInteger();
+  private final AtomicInteger misses = new AtomicInteger();
+  private volatile boolean exportSupported;
+
+  /**
+   * Compiled stylesheet, modification times of the files it was compiled from and compile-time warnings.
+   */
+  private record Entry(XsltExecutable executable, Map<URI, Long> dependencies, List<XmlProcessingError> warnings) {
+    boolean isCurrent() {
+      return StylesheetCache.isCurrent(dependencies);
+    }
+  }
+
+  /**
+   * Create new stylesheet cache.
+   *
+   * @param processor processor that compiled stylesheets belong to
+   * @param exportDir directory for exported SEF files, may be {@code null}
+   */
+  public StylesheetCache(final Processor processor, final File exportDir) {
+    this.exportDir = exportDir;
+    this.exportSupported = !"HE".equals(processor.getSaxonEdition());
+  }
+
+  /**
+   * Get compiled stylesheet, compiling it if needed. Stylesheets without a system ID, or with a module that does not
+   * exist in the file system, are not cached.
+   *
+   * @param style stylesheet source
+   * @param compiler compiler to use, must belong to the processor of this cache
+   * @return compiled stylesheet
+   * @throws SaxonApiException if compilation failed
+   */
+  public XsltExecutable get(final Source style, final XsltCompiler compiler) throws SaxonApiException {
+    return get(style, compiler, null);
+  }
+
+  /**
+   * Get compiled stylesheet, compiling it if needed. Stylesheets without a system ID, with a module that does not
+   * exist in the file system, or with a module in the job temporary directory, are not cached.
+   *
+   * @param style stylesheet source
+   * @param compiler compiler to use, must belong to the processor of this cache
+   * @param tempDir job temporary directory, may be {@code null}
+   * @return compiled stylesheet
+   * @throws SaxonApiException if compilation failed
+   */
+  public XsltExecutable get(final Source style, final XsltCompiler compiler, final File tempDir)
+    throws SaxonApiException {
+    final String systemId = style.getSystemId();
+    if (systemId == null) {
+      return compiler.compile(style);
+    }
+    final Entry cached = cache.get(systemId);
+    if (cached != null && cached.isCurrent()) {
+      hits.incrementAndGet();
+      final ErrorReporter errorReporter = compiler.getErrorReporter();
+      if (errorReporter != null) {
+        cached.warnings().forEach(errorReporter::report);
+      }
+      return cached.executable();
+    }
+    misses.incrementAndGet();
+    final Entry loaded = load(systemId, compiler);
+    if (loaded != null) {
+      cache.put(systemId, loaded);
+      return loaded.executable();
+    }
+    final Entry compiled = compile(style, compiler);
+    if (compiled.dependencies().containsValue(0L)) {
+      cache.remove(systemId);
+    } else if (!isInDirectory(compiled.dependencies().keySet(), tempDir)) {
+      cache.put(systemId, compiled);
+      export(systemId, compiled);
+    }
+    return compiled.executable();
+  }
+
+  private Entry compile(final Source style, final XsltCompiler compiler) throws SaxonApiException {
+    final Map<URI, Long> dependencies = new HashMap<>();
+    addDependency(dependencies, toURI(style.getSystemId()));
+    final URI catalog = CatalogUtils.getCatalog();
+    if (new File(catalog).exists()) {
+      addDependency(dependencies, catalog);
+    }
+    final List<XmlProcessingError> warnings = Collections.synchronizedList(new ArrayList<>());
+    final ResourceResolver resolver = compiler.getResourceResolver();
+    final ErrorReporter errorReporter = compiler.getErrorReporter();
+    compiler.setResourceResolver(new RecordingResourceResolver(resolver, dependencies));
+    compiler.setErrorReporter(error -> {
+      if (error.isWarning()) {
+        warnings.add(error);
+      }
+      if (errorReporter != null) {
+        errorReporter.report(error);
+      }
+    });
+    try {
+      return new Entry(compiler.compile(style), dependencies, List.copyOf(warnings));
+    } finally {
+      compiler.setResourceResolver(resolver);
+      compiler.setErrorReporter(errorReporter);
+    }
+  }
+
+  private static boolean isInDirectory(final Collection<URI> files, final File dir) {
+    if (dir == null) {
+      return false;
+    }
+    final Path base = dir.toPath().toAbsolutePath().normalize();
+    for (final URI file : files) {
+      if (new File(file).toPath().toAbsolutePath().normalize().startsWith(base)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Number of stylesheets reused from cache. */
+  public int getHitCount() {
+    return hits.get();
+  }
+
+  /** Number of stylesheets not found in cache. */
+  public int getMissCount() {
+    return misses.get();
+  }
+
+  /** Remove all cached stylesheets from memory. */
+  public void clear() {
+    cache.clear();
+  }
+
+  private static void addDependency(final Map<URI, Long> dependencies, final URI uri) {
+    if (uri != null && "file".equals(uri.getScheme())) {
+      dependencies.put(uri, new File(uri).lastModified());
+    }
+  }
+
+  private static boolean isCurrent(final Map<URI, Long> dependencies) {
+    for (final Map.Entry<URI, Long> dependency : dependencies.entrySet()) {
+      if (new File(dependency.getKey()).lastModified() != dependency.getValue()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static URI toURI(final String uri) {
+    try {
+      return uri != null ? new URI(uri).normalize() : null;
+    } catch (final URISyntaxException e) {
+      return null;
+    }
+  }
+
+  // SEF export
+
+  private File getExportFile(final String systemId, final String extension) {
+    final String name = new IncrementalCache.Digest().update(systemId).digest();
+    return new File(exportDir, name + extension);
+  }
+
+  private Entry load(final String systemId, final XsltCompiler compiler) {
+    if (exportDir == null) {
+      return null;
+    }
+    final File sef = getExportFile(systemId, SEF_EXTENSION);
+    final File deps = getExportFile(systemId, DEPENDENCIES_EXTENSION);
+    if (!sef.exists() || !deps.exists()) {
+      return null;
+    }
+    try {
+      final Map<URI, Long> dependencies = new HashMap<>();
+      final Properties props = new Properties();
+      try (Reader in = Files.newBufferedReader(deps.toPath(), StandardCharsets.UTF_8)) {
+        props.load(in);
+      }
+      for (final String key : props.stringPropertyNames()) {
+        dependencies.put(URI.create(key), Long.parseLong(props.getProperty(key)));
+      }
+      if (!isCurrent(dependencies)) {
+        return null;
+      }
+      return new Entry(compiler.loadExecutablePackage(sef.toURI()), dependencies, List.of());
+    } catch (final IOException | SaxonApiException | RuntimeException e) {
+      return null;
+    }
+  }
+
+  private void export(final String systemId, final Entry entry) {
+    if (exportDir == null || !exportSupported) {
+      return;
+    }
+    final File sef = getExportFile(systemId, SEF_EXTENSION);
+    final File deps = getExportFile(systemId, DEPENDENCIES_EXTENSION);
+    try {
+      Files.createDirectories(exportDir.toPath());
+      final File tmp = File.createTempFile(sef.getName(), ".tmp", exportDir);
+      try {
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(tmp))) {
+          entry.executable().export(out);
+        }
+        final Properties props = new Properties();
+        entry.dependencies().forEach((uri, lastModified) -> props.setProperty(uri.toString(), lastModified.toString()));
+        try (Writer out = Files.newBufferedWriter(deps.toPath(), StandardCharsets.UTF_8)) {
+          props.store(out, systemId);
+        }
+        Files.move(tmp.toPath(), sef.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      } finally {
+        Files.deleteIfExists(tmp.toPath());
+      }
+    } catch (final SaxonApiException e) {
+      // Export requires Saxon-EE, HE is only able to load exported stylesheets
+      exportSupported = false;
+    } catch (final IOException e) {
+      // Ignore, stylesheet is still cached in memory
+    }
+  }
+
+  /**
+   * Resource resolver that records resolved stylesheet modules.
+   */
+  private static final class RecordingResourceResolver implements ResourceResolver {
+
+    private final ResourceResolver delegate;
+    private final Map<URI, Long> dependencies;
+
+    RecordingResourceResolver(final ResourceResolver delegate, final Map<URI, Long> dependencies) {
+      this.delegate = delegate;
+      this.dependencies = dependencies;
+    }
+
+    @Override
+    public synchronized Source resolve(final ResourceRequest request) throws XPathException {
+      final Source res = delegate != null ? delegate.resolve(request) : null;
+      if (res != null && res.getSystemId() != null) {
+        addDependency(dependencies, toURI(res.getSystemId()));
+      } else {
+        addDependency(dependencies, toURI(request.uri));
+      }
+      return res;
+    }
+  }
+}
@@ -8,6 +8,17 @@
  */
 package org.dita.dost.util;
 
+import java.io.File;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.apache.xerces.impl.dtd.DTDGrammar;
+import org.apache.xerces.impl.dtd.XMLEntityDecl;
 import org.apache.xerces.impl.xs.XSDDescription;
 import org.apache.xerces.util.XMLGrammarPoolImpl;
 import org.apache.xerces.xni.grammars.Grammar;
@@ -15,12 +26,34 @@ import org.apache.xerces.xni.grammars.XMLGrammarDescription;
 
 /**
  * Self implemented XML Grammar pool for grammar(schema/dtd) caching.
+ *
+ * <p>The pool is safe to share between threads. Lookups do not lock, only storing or removing a grammar takes
+ * the pool lock. If several threads miss the same grammar at the same time, only the first one loads it and the others
+ * wait for the load to complete.</p>
+ *
+ * <p>A cached grammar is discarded when the grammar file or an external entity declared in it has been modified
+ * since the grammar was loaded. Modification times are checked at most once per
+ * {@link #VALIDATION_INTERVAL_MILLIS}.</p>
+ *
  * @author william
  *
  */
 public class XMLGrammarPoolImplUtils extends XMLGrammarPoolImpl {
 
   private static final Grammar[] INITIAL_GRAMMAR_SET = new Grammar[0];
+  /** Minimum interval between checking modification times of cached grammar files. */
+  protected static final long VALIDATION_INTERVAL_MILLIS = 1000L;
+  /** Maximum time to wait for another thread to load a grammar. */
+  private static final long LOAD_TIMEOUT_SECONDS = 30L;
+
+  private final Map<Key, CachedGrammar> grammars = new ConcurrentHashMap<>();
+  /** Grammar loads in progress, released when the grammar has been stored or the load was abandoned. */
+  private final Map<Object, CountDownLatch> loading = new ConcurrentHashMap<>();
+  /** Grammar load in progress on current thread after a cache miss, or {@code null} if no load in progress. */
+  private final ThreadLocal<PendingLoad> pendingLoad = new ThreadLocal<>();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder savedNanos = new LongAdder();
 
   /** Constructs a grammar pool with a default number of buckets. */
   public XMLGrammarPoolImplUtils() {
@@ -40,6 +73,40 @@ public class XMLGrammarPoolImplUtils extends XMLGrammarPoolImpl {
     return INITIAL_GRAMMAR_SET;
   }
 
+  /**
+   * @see org.apache.xerces.util.XMLGrammarPoolImpl#retrieveGrammar(org.apache.xerces.xni.grammars.XMLGrammarDescription)
+   */
+  @Override
+  public Grammar retrieveGrammar(final XMLGrammarDescription desc) {
+    if (desc instanceof XSDDescription) {
+      // XSD grammars are never cached, so the load would never be completed
+      clearLoadStart();
+      recordMiss();
+      return null;
+    }
+    final Key key = new Key(desc);
+    final CachedGrammar cached = retrieve(key, () -> getCurrent(key));
+    if (cached != null) {
+      recordHit(cached.loadNanos);
+      return cached.grammar;
+    }
+    recordMiss();
+    return null;
+  }
+
+  private CachedGrammar getCurrent(final Key key) {
+    final CachedGrammar cached = grammars.get(key);
+    if (cached != null && !cached.dependencies.isCurrent()) {
+      synchronized (fGrammars) {
+        if (grammars.remove(key, cached)) {
+          super.removeGrammar(cached.grammar.getGrammarDescription());
+        }
+      }
+      return null;
+    }
+    return cached;
+  }
+
   /**
    * @see org.apache.xerces.util.XMLGrammarPoolImpl#putGrammar(org.apache.xerces.xni.grammars.Grammar)
    */
@@ -47,9 +114,193 @@ public class XMLGrammarPoolImplUtils extends XMLGrammarPoolImpl {
   public void putGrammar(Grammar grammar) {
     //Avoid caching any type of XSD grammar
     if (grammar instanceof org.apache.xerces.impl.xs.SchemaGrammar) {
+      clearLoadStart();
+      return;
+    }
+    final Key key = new Key(grammar.getGrammarDescription());
+    final long loadNanos = getLoadTime(key);
+    try {
+      synchronized (fGrammars) {
+        if (fPoolIsLocked) {
+          return;
+        }
+        super.putGrammar(grammar);
+        grammars.put(key, new CachedGrammar(grammar, loadNanos, new Dependencies(getDependencies(grammar))));
+      }
+    } finally {
+      clearLoadStart();
+    }
+  }
+
+  /**
+   * Get files a grammar was loaded from.
+   *
+   * @param grammar grammar
+   * @return grammar file and external entity files declared in it
+   */
+  private static List<URI> getDependencies(final Grammar grammar) {
+    final List<URI> res = new ArrayList<>();
+    final XMLGrammarDescription desc = grammar.getGrammarDescription();
+    addDependency(res, desc.getExpandedSystemId(), null);
+    if (grammar instanceof final DTDGrammar dtd) {
+      final XMLEntityDecl decl = new XMLEntityDecl();
+      for (int i = 0; dtd.getEntityDecl(i, decl); i++) {
+        if (decl.systemId != null && decl.notation == null) {
+          addDependency(res, decl.systemId, decl.baseSystemId);
+        }
+      }
+    }
+    return res;
+  }
+
+  private static void addDependency(final List<URI> res, final String systemId, final String base) {
+    if (systemId == null) {
       return;
     }
-    super.putGrammar(grammar);
+    try {
+      final URI uri = base != null ? new URI(base).resolve(new URI(systemId)) : new URI(systemId);
+      if ("file".equals(uri.getScheme())) {
+        res.add(uri);
+      }
+    } catch (final URISyntaxException | IllegalArgumentException e) {
+      // Ignore, file cannot be checked for modification
+    }
+  }
+
+  /**
+   * @see org.apache.xerces.util.XMLGrammarPoolImpl#getGrammar(org.apache.xerces.xni.grammars.XMLGrammarDescription)
+   */
+  @Override
+  public Grammar getGrammar(final XMLGrammarDescription desc) {
+    final CachedGrammar cached = grammars.get(new Key(desc));
+    return cached != null ? cached.grammar : null;
+  }
+
+  /**
+   * @see org.apache.xerces.util.XMLGrammarPoolImpl#removeGrammar(org.apache.xerces.xni.grammars.XMLGrammarDescription)
+   */
+  @Override
+  public Grammar removeGrammar(final XMLGrammarDescription desc) {
+    synchronized (fGrammars) {
+      super.removeGrammar(desc);
+      final CachedGrammar cached = grammars.remove(new Key(desc));
+      return cached != null ? cached.grammar : null;
+    }
+  }
+
+  /**
+   * @see org.apache.xerces.util.XMLGrammarPoolImpl#containsGrammar(org.apache.xerces.xni.grammars.XMLGrammarDescription)
+   */
+  @Override
+  public boolean containsGrammar(final XMLGrammarDescription desc) {
+    return grammars.containsKey(new Key(desc));
+  }
+
+  /**
+   * @see org.apache.xerces.util.XMLGrammarPoolImpl#clear()
+   */
+  @Override
+  public void clear() {
+    synchronized (fGrammars) {
+      super.clear();
+      grammars.clear();
+    }
+  }
+
+  /**
+   * Look up a cached item. On a cache miss, the current thread becomes responsible for loading the item, unless
+   * another thread is already loading it, in which case the lookup waits for that load to complete. A load started
+   * by the current thread ends when the item is stored or when the thread makes another lookup.
+   *
+   * @param key key of the item
+   * @param cache lookup of current cached item, returns {@code null} if item is not cached
+   * @return cached item, {@code null} if the current thread has to load it
+   */
+  protected <T> T retrieve(final Object key, final Supplier<T> cache) {
+    clearLoadStart();
+    while (true) {
+      final T cached = cache.get();
+      if (cached != null) {
+        return cached;
+      }
+      final CountDownLatch latch = new CountDownLatch(1);
+      final CountDownLatch other = loading.putIfAbsent(key, latch);
+      if (other == null) {
+        pendingLoad.set(new PendingLoad(key, System.nanoTime(), latch));
+        return null;
+      }
+      try {
+        if (!other.await(LOAD_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+          return null;
+        }
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return null;
+      }
+    }
+  }
+
+  /**
+   * Get duration of grammar load on current thread.
+   *
+   * @param key key of the loaded grammar
+   * @return load time in nanoseconds, {@code 0} if no load of the grammar was started
+   */
+  protected long getLoadTime(final Object key) {
+    final PendingLoad load = pendingLoad.get();
+    if (load == null) {
+      return 0L;
+    }
+    return load.key.equals(key) ? System.nanoTime() - load.start : 0L;
+  }
+
+  /** End grammar load on current thread and release threads waiting for it. */
+  protected void clearLoadStart() {
+    final PendingLoad load = pendingLoad.get();
+    if (load != null) {
+      pendingLoad.remove();
+      loading.remove(load.key, load.latch);
+      load.latch.countDown();
+    }
+  }
+
+  /** Record a cache hit for a grammar that took given time to load. */
+  protected void recordHit(final long loadNanos) {
+    hits.increment();
+    savedNanos.add(loadNanos);
+  }
+
+  /** Record a cache miss. */
+  protected void recordMiss() {
+    misses.increment();
+  }
+
+  /**
+   * Get number of grammar lookups served from the pool.
+   *
+   * @since 4.1
+   */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * Get number of grammar lookups not found in the pool.
+   *
+   * @since 4.1
+   */
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /**
+   * Get estimated grammar load time saved by the pool, as the sum of original load times of pool hits.
+   *
+   * @return saved time in milliseconds
+   * @since 4.1
+   */
+  public long getSavedTime() {
+    return savedNanos.sum() / 1_000_000L;
   }
 
   /**
@@ -102,4 +353,73 @@ public class XMLGrammarPoolImplUtils extends XMLGrammarPoolImpl {
       }
     }
   }
+
+  /** Grammar pool key that uses pool grammar description equality. */
+  private final class Key {
+
+    private final XMLGrammarDescription desc;
+    private final int hash;
+
+    Key(final XMLGrammarDescription desc) {
+      this.desc = desc;
+      this.hash = XMLGrammarPoolImplUtils.this.hashCode(desc);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      return (
+        o instanceof final Key other && hash == other.hash && XMLGrammarPoolImplUtils.this.equals(desc, other.desc)
+      );
+    }
+  }
+
+  private record CachedGrammar(Grammar grammar, long loadNanos, Dependencies dependencies) {}
+
+  private record PendingLoad(Object key, long start, CountDownLatch latch) {}
+
+  /**
+   * Modification times of files a cached item was loaded from.
+   */
+  protected static final class Dependencies {
+
+    private final Map<File, Long> files = new HashMap<>();
+    private volatile long checked = System.currentTimeMillis();
+    private volatile boolean current = true;
+
+    /**
+     * Record current modification times of files.
+     *
+     * @param uris file URIs
+     */
+    public Dependencies(final Collection<URI> uris) {
+      for (final URI uri : uris) {
+        final File file = new File(uri);
+        files.put(file, file.lastModified());
+      }
+    }
+
+    /**
+     * Check whether none of the files have been modified since they were recorded.
+     *
+     * @return {@code true} if files have not been modified
+     */
+    public boolean isCurrent() {
+      final long now = System.currentTimeMillis();
+      if (current && now - checked >= VALIDATION_INTERVAL_MILLIS) {
+        checked = now;
+        for (final Map.Entry<File, Long> file : files.entrySet()) {
+          if (file.getKey().lastModified() != file.getValue()) {
+            current = false;
+            break;
+          }
+        }
+      }
+      return current;
+    }
+  }
 }
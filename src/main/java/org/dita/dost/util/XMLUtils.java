@@ -25,6 +25,7 @@ import java.net.URI;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.xml.namespace.QName;
@@ -75,10 +76,34 @@ public final class XMLUtils {
     saxParserFactory.setNamespaceAware(true);
   }
 
+  /** Maximum number of shared processors. */
+  @VisibleForTesting
+  static final int MAX_SHARED_PROCESSORS = 4;
+
+  /** Maximum number of instances that use the same shared processor. */
+  @VisibleForTesting
+  static final int MAX_PROCESSOR_USES = 100;
+
+  /**
+   * Processors and stylesheet caches shared between instances, in least recently used order. Extension functions and
+   * collation resolvers are loaded with the context class loader, so processors are only shared between instances that
+   * use the same catalog and the same context class loader.
+   *
+   * <p>The name pool of a processor only grows, so a shared processor is replaced with a new one after it has been
+   * used by {@link #MAX_PROCESSOR_USES} instances. A long-running process creates an instance for each build, and the
+   * retired processor and its stylesheet cache are released once the builds that use it have finished.</p>
+   */
+  private static final Map<ProcessorKey, SharedProcessor> sharedProcessors = new LinkedHashMap<>(16, 0.75f, true);
+
+  private record ProcessorKey(URI catalog, long catalogModified, ClassLoader classLoader) {}
+
+  private record SharedProcessor(Processor processor, StylesheetCache stylesheetCache, AtomicInteger uses) {}
+
   private DITAOTLogger logger;
   private final Resolver catalogResolver;
   private final Processor processor;
   private final XsltCompiler xsltCompiler;
+  private final StylesheetCache stylesheetCache;
 
   public static final Attributes EMPTY_ATTRIBUTES = new AttributesImpl();
 
@@ -91,17 +116,70 @@ public final class XMLUtils {
 
   public XMLUtils() {
     catalogResolver = CatalogUtils.getCatalogResolver();
+    final SharedProcessor shared = getSharedProcessor(catalogResolver);
+    processor = shared.processor();
+    stylesheetCache = shared.stylesheetCache();
+    xsltCompiler = processor.newXsltCompiler();
+    xsltCompiler.setURIResolver(catalogResolver);
+  }
+
+  private static SharedProcessor getSharedProcessor(final Resolver catalogResolver) {
+    final URI catalog = CatalogUtils.getCatalog();
+    final ProcessorKey key = new ProcessorKey(
+      catalog,
+      new File(catalog).lastModified(),
+      Thread.currentThread().getContextClassLoader()
+    );
+    synchronized (sharedProcessors) {
+      SharedProcessor shared = sharedProcessors.get(key);
+      if (shared != null && shared.uses().incrementAndGet() > MAX_PROCESSOR_USES) {
+        sharedProcessors.remove(key);
+        shared = null;
+      }
+      if (shared == null) {
+        // processors for an earlier version of the catalog will not be used again
+        sharedProcessors
+          .keySet()
+          .removeIf(k -> k.catalog().equals(key.catalog()) && k.classLoader() == key.classLoader());
+        final Processor p = newProcessor(catalogResolver);
+        final String exportDir = Configuration.configuration.get("xslt.cache.dir");
+        shared =
+          new SharedProcessor(
+            p,
+            new StylesheetCache(p, exportDir != null ? new File(exportDir) : null),
+            new AtomicInteger(1)
+          );
+        sharedProcessors.put(key, shared);
+        final Iterator<ProcessorKey> it = sharedProcessors.keySet().iterator();
+        while (sharedProcessors.size() > MAX_SHARED_PROCESSORS && it.hasNext()) {
+          it.next();
+          it.remove();
+        }
+      }
+      return shared;
+    }
+  }
+
+  @VisibleForTesting
+  static void clearSharedProcessors() {
+    synchronized (sharedProcessors) {
+      sharedProcessors.clear();
+    }
+  }
+
+  @VisibleForTesting
+  static int getSharedProcessorCount() {
+    synchronized (sharedProcessors) {
+      return sharedProcessors.size();
+    }
+  }
+
+  private static Processor newProcessor(final Resolver catalogResolver) {
     final net.sf.saxon.Configuration config = net.sf.saxon.Configuration.newConfiguration();
-    //        config.setURIResolver(catalogResolver);
-    //        ResourceResolver rr = catalogResolver;
-    //        CatalogResourceResolver crr = new CatalogResourceResolver(catalogResolver);
-    //        final XMLCatalogAdapter xmlCatalogAdapter = new XMLCatalogAdapter(null);
     config.setResourceResolver(new CatalogResourceResolver(catalogResolver));
     configureSaxonExtensions(config);
     configureSaxonCollationResolvers(config);
-    processor = new Processor(config);
-    xsltCompiler = processor.newXsltCompiler();
-    xsltCompiler.setURIResolver(catalogResolver);
+    return new Processor(config);
   }
 
   /**
@@ -1008,6 +1086,15 @@ public final class XMLUtils {
     return processor;
   }
 
+  /**
+   * Get compiled stylesheet cache shared by instances that use the same catalog.
+   *
+   * @since 4.1
+   */
+  public StylesheetCache getStylesheetCache() {
+    return stylesheetCache;
+  }
+
   public XsltCompiler getXsltCompiler() {
     XsltCompiler res = processor.newXsltCompiler();
     res.setURIResolver(catalogResolver);
@@ -22,6 +22,7 @@ import java.util.*;
 import org.dita.dost.exception.DITAOTException;
 import org.dita.dost.module.ChunkModule.ChunkFilenameGenerator;
 import org.dita.dost.module.reader.TempFileNameScheme;
+import org.dita.dost.util.DitaClass;
 import org.dita.dost.util.Job;
 import org.dita.dost.util.Job.FileInfo;
 import org.dita.dost.util.TopicIdParser;
@@ -271,7 +272,7 @@ public abstract class AbstractChunkTopicParser extends AbstractXMLWriter {
   }
 
   Attributes processAttributes(final Attributes atts) {
-    final String cls = atts.getValue(ATTRIBUTE_NAME_CLASS);
+    final DitaClass cls = DitaClass.getInstance(atts);
     final AttributesImpl resAtts = new AttributesImpl(atts);
 
     final String id = resAtts.getValue(ATTRIBUTE_NAME_ID);
@@ -80,6 +80,7 @@ public final class ConrefPushParser extends AbstractDomFilter {
       if (hasKeyref) {
         f.hasKeyref = true;
       }
+      job.add(f);
       job.write();
     } catch (final RuntimeException e) {
       throw e;
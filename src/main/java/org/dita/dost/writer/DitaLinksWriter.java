@@ -61,7 +61,7 @@ public final class DitaLinksWriter extends AbstractXMLFilter {
   @Override
   public void setJob(final Job job) {
     super.setJob(job);
-    final Job.FileInfo in = job.getFileInfo(fi -> fi.isInput).iterator().next();
+    final Job.FileInfo in = job.getInputFileInfo();
     baseURI = job.tempDir.toURI().resolve(in.uri);
   }
 
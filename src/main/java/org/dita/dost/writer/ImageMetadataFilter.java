@@ -26,7 +26,9 @@ import javax.imageio.ImageIO;
 import javax.imageio.ImageReader;
 import javax.imageio.stream.ImageInputStream;
 import org.dita.dost.exception.DITAOTException;
+import org.dita.dost.reader.ImageHeaderReader;
 import org.dita.dost.reader.SvgMetadataReader;
+import org.dita.dost.util.ImageMetadataCache;
 import org.dita.dost.util.Job;
 import org.dita.dost.util.Job.FileInfo;
 import org.dita.dost.util.XMLUtils;
@@ -54,6 +56,7 @@ public final class ImageMetadataFilter extends AbstractXMLFilter {
   private final String uplevels;
   private int depth = 0;
   private final Map<URI, Attributes> cache;
+  private final ImageMetadataCache metadataCache;
   private final Job job;
   private final XMLReader reader;
   private final SvgMetadataReader svgMetadataReader;
@@ -64,12 +67,31 @@ public final class ImageMetadataFilter extends AbstractXMLFilter {
    * Constructor.
    */
   public ImageMetadataFilter(final File outputDir, final Job job, final Map<URI, Attributes> cache) {
+    this(outputDir, job, cache, null);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param outputDir output directory
+   * @param job job configuration
+   * @param cache image metadata for current build
+   * @param metadataCache persistent image metadata cache, may be {@code null}
+   * @since 4.1
+   */
+  public ImageMetadataFilter(
+    final File outputDir,
+    final Job job,
+    final Map<URI, Attributes> cache,
+    final ImageMetadataCache metadataCache
+  ) {
     this.outputDir = outputDir;
     this.job = job;
     this.tempDir = job.tempDir;
     this.uplevels = job.getProperty("uplevels");
     this.cache = cache;
-    svgMetadataReader = new SvgMetadataReader();
+    this.metadataCache = metadataCache;
+    svgMetadataReader = new SvgMetadataReader(true);
     try {
       reader = XMLUtils.getXMLReader();
     } catch (final SAXException e) {
@@ -174,25 +196,76 @@ public final class ImageMetadataFilter extends AbstractXMLFilter {
   }
 
   private Attributes readMetadata(final URI imgInput) {
+    if (metadataCache != null) {
+      final ImageMetadataCache.Entry entry = metadataCache.get(imgInput);
+      if (entry != null) {
+        logger.debug("Reading cached " + imgInput);
+        final Dimensions dimensions = new Dimensions();
+        dimensions.width = entry.width();
+        dimensions.height = entry.height();
+        dimensions.horizontalDpi = entry.horizontalDpi();
+        dimensions.verticalDpi = entry.verticalDpi();
+        return dimensions.getAttributes();
+      }
+    }
     logger.info("Reading " + imgInput);
     final String mimeType = getMimeType(imgInput);
-    return switch (mimeType) {
-      case "image/svg+xml" -> readSvgMetadata(imgInput);
-      default -> readBitmapMetadata(imgInput);
-    };
+    final Dimensions dimensions =
+      switch (mimeType) {
+        case "image/svg+xml" -> readSvgMetadata(imgInput);
+        default -> readBitmapMetadata(imgInput);
+      };
+    if (dimensions == null) {
+      return EMPTY_ATTR;
+    }
+    if (metadataCache != null) {
+      metadataCache.put(
+        imgInput,
+        dimensions.width,
+        dimensions.height,
+        dimensions.horizontalDpi,
+        dimensions.verticalDpi
+      );
+    }
+    return dimensions.getAttributes();
   }
 
-  private Attributes readSvgMetadata(final URI imgInput) {
+  /**
+   * Read SVG dimensions from root element.
+   *
+   * @return dimensions, {@code null} if reading failed
+   */
+  private Dimensions readSvgMetadata(final URI imgInput) {
     try (final InputStream in = getInputStream(imgInput)) {
       reader.parse(new InputSource(in));
-      return svgMetadataReader.getDimensions().getAttributes();
+    } catch (final SvgMetadataReader.RootElementReadException e) {
+      // root element read
     } catch (final IOException | SAXException e) {
       logger.error("Failed to read image " + imgInput + " metadata: " + e.getMessage(), e);
+      return null;
+    }
+    return svgMetadataReader.getDimensions();
+  }
+
+  /**
+   * Read bitmap dimensions from image header, or with ImageIO for formats not supported by header reading.
+   *
+   * @return dimensions, {@code null} if reading failed
+   */
+  private Dimensions readBitmapMetadata(final URI imgInput) {
+    try (final InputStream in = getInputStream(imgInput)) {
+      final Dimensions dimensions = ImageHeaderReader.read(in);
+      if (dimensions != null) {
+        return dimensions;
+      }
+    } catch (final IOException e) {
+      logger.error("Failed to read image " + imgInput + " metadata: " + e.getMessage(), e);
+      return null;
     }
-    return EMPTY_ATTR;
+    return readImageIOMetadata(imgInput);
   }
 
-  private Attributes readBitmapMetadata(final URI imgInput) {
+  private Dimensions readImageIOMetadata(final URI imgInput) {
     try {
       InputStream in = null;
       ImageReader r = null;
@@ -203,6 +276,7 @@ public final class ImageMetadataFilter extends AbstractXMLFilter {
         final Iterator<ImageReader> i = ImageIO.getImageReaders(iis);
         if (!i.hasNext()) {
           logger.info("Image " + imgInput + " format not supported");
+          return new Dimensions();
         } else {
           r = i.next();
           r.setInput(iis);
@@ -223,7 +297,7 @@ public final class ImageMetadataFilter extends AbstractXMLFilter {
             final int dpi = Math.round(MM_TO_INCH / v);
             dimensions.verticalDpi = Integer.toString(dpi);
           }
-          return dimensions.getAttributes();
+          return dimensions;
         }
       } finally {
         if (r != null) {
@@ -244,7 +318,7 @@ public final class ImageMetadataFilter extends AbstractXMLFilter {
     } catch (final Exception e) {
       logger.error("Failed to read image " + imgInput + " metadata: " + e.getMessage(), e);
     }
-    return EMPTY_ATTR;
+    return null;
   }
 
   private String getMimeType(final URI imgInput) {
@@ -14,6 +14,7 @@ import java.util.Arrays;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import org.dita.dost.util.Configuration;
+import org.dita.dost.util.DitaClass;
 import org.dita.dost.util.XMLUtils;
 import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
@@ -53,7 +54,7 @@ public final class NormalizeFilter extends AbstractXMLFilter {
     }
 
     AttributesImpl res = null;
-    final String cls = atts.getValue(ATTRIBUTE_NAME_CLASS);
+    final DitaClass cls = DitaClass.getInstance(atts);
     if (MAP_MAP.matches(cls)) {
       if (atts.getIndex(ATTRIBUTE_NAME_CASCADE) == -1) {
         if (res == null) {
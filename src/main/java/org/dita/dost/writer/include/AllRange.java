@@ -24,6 +24,36 @@ public class AllRange implements Range {
     return this;
   }
 
+  @Override
+  public void copyLines(final CodeFile codeFile) throws SAXException {
+    copyLines(codeFile, 0, codeFile.getLineCount() - 1, true);
+  }
+
+  /**
+   * Copy lines in an inclusive line range.
+   *
+   * @param codeFile decoded code file
+   * @param start zero-based first line
+   * @param end zero-based last line
+   * @param first first line copied to handler
+   * @return {@code false} if lines were copied, otherwise value of {@code first}
+   */
+  boolean copyLines(final CodeFile codeFile, final int start, final int end, final boolean first)
+    throws SAXException {
+    boolean res = first;
+    final int last = Math.min(end, codeFile.getLineCount() - 1);
+    for (int i = start; i <= last; i++) {
+      if (res) {
+        res = false;
+      } else {
+        handler.characters(CoderefResolver.XML_NEWLINE, 0, CoderefResolver.XML_NEWLINE.length);
+      }
+      final char[] ch = codeFile.getLine(i);
+      handler.characters(ch, 0, ch.length);
+    }
+    return res;
+  }
+
   @Override
   public void copyLines(BufferedReader codeReader) throws IOException, SAXException {
     boolean first = true;
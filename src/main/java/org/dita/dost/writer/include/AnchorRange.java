@@ -25,6 +25,31 @@ public class AnchorRange extends AllRange implements Range {
     include = start != null ? -1 : 1;
   }
 
+  @Override
+  public void copyLines(final CodeFile codeFile) throws SAXException {
+    boolean first = true;
+    int from = 0;
+    while (true) {
+      if (start != null) {
+        final int startLine = codeFile.find(start, from);
+        if (startLine == -1) {
+          return;
+        }
+        from = startLine + 1;
+      }
+      final int endLine = end != null ? codeFile.find(end, from) : -1;
+      if (endLine == -1) {
+        copyLines(codeFile, from, Integer.MAX_VALUE, first);
+        return;
+      }
+      first = copyLines(codeFile, from, endLine - 1, first);
+      if (start == null) {
+        return;
+      }
+      from = endLine + 1;
+    }
+  }
+
   @Override
   public void copyLines(final BufferedReader codeReader) throws IOException, SAXException {
     boolean first = true;
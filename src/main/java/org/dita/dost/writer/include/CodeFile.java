@@ -0,0 +1,138 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.writer.include;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Decoded code file with a line index. Lines are split the same way as {@link java.io.BufferedReader#readLine()}
+ * splits them, and line terminators are not part of the line.
+ *
+ * @since 4.1
+ */
+public final class CodeFile {
+
+  private final String text;
+  private final int[] lineStarts;
+  private final int[] lineEnds;
+  private final int lineCount;
+
+  CodeFile(final String text) {
+    this.text = text;
+    int[] starts = new int[16];
+    int[] ends = new int[16];
+    int count = 0;
+    int start = 0;
+    final int length = text.length();
+    for (int i = 0; i < length; i++) {
+      final char c = text.charAt(i);
+      if (c == '\n' || c == '\r') {
+        if (count == starts.length) {
+          starts = Arrays.copyOf(starts, count * 2);
+          ends = Arrays.copyOf(ends, count * 2);
+        }
+        starts[count] = start;
+        ends[count] = i;
+        count++;
+        if (c == '\r' && i + 1 < length && text.charAt(i + 1) == '\n') {
+          i++;
+        }
+        start = i + 1;
+      }
+    }
+    if (start < length) {
+      if (count == starts.length) {
+        starts = Arrays.copyOf(starts, count + 1);
+        ends = Arrays.copyOf(ends, count + 1);
+      }
+      starts[count] = start;
+      ends[count] = length;
+      count++;
+    }
+    this.lineStarts = starts;
+    this.lineEnds = ends;
+    this.lineCount = count;
+  }
+
+  /**
+   * Read and decode code file.
+   *
+   * @param file code file
+   * @param charset code file charset
+   * @return decoded code file
+   * @throws CharacterCodingException if file is not valid in the given charset
+   */
+  static CodeFile read(final Path file, final Charset charset) throws IOException {
+    final ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file));
+    final String text = charset
+      .newDecoder()
+      .onMalformedInput(CodingErrorAction.REPORT)
+      .onUnmappableCharacter(CodingErrorAction.REPORT)
+      .decode(bytes)
+      .toString();
+    return new CodeFile(text);
+  }
+
+  /** Number of lines. */
+  public int getLineCount() {
+    return lineCount;
+  }
+
+  /** Number of characters, used to estimate memory use. */
+  int length() {
+    return text.length();
+  }
+
+  /**
+   * Get line contents without line terminator.
+   *
+   * @param line zero-based line number
+   * @return line contents
+   */
+  public char[] getLine(final int line) {
+    final char[] ch = new char[lineEnds[line] - lineStarts[line]];
+    text.getChars(lineStarts[line], lineEnds[line], ch, 0);
+    return ch;
+  }
+
+  /**
+   * Find first line that contains a string. The string should not contain line terminators.
+   *
+   * @param s string to search for
+   * @param fromLine zero-based line number to start search from
+   * @return zero-based line number, or {@code -1} if not found
+   */
+  public int find(final String s, final int fromLine) {
+    if (fromLine >= lineCount) {
+      return -1;
+    }
+    int from = lineStarts[fromLine];
+    while (true) {
+      final int i = text.indexOf(s, from);
+      if (i == -1) {
+        return -1;
+      }
+      int line = Arrays.binarySearch(lineStarts, 0, lineCount, i);
+      if (line < 0) {
+        line = -line - 2;
+      }
+      if (i + s.length() <= lineEnds[line]) {
+        return line;
+      }
+      from = i + 1;
+    }
+  }
+}
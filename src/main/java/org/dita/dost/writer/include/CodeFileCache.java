@@ -0,0 +1,95 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.writer.include;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import org.dita.dost.util.Job;
+
+/**
+ * Cache of decoded code files shared by all code reference includes in a build. Entries are valid as long as the size
+ * and modification time of the code file are unchanged. The least recently used entries are evicted when the total
+ * size of cached files exceeds the cache size.
+ */
+final class CodeFileCache {
+
+  /** Maximum total number of cached characters. */
+  static final long DEFAULT_MAX_SIZE = 32 * 1024 * 1024;
+
+  private static final Map<Job, CodeFileCache> caches = new WeakHashMap<>();
+
+  private record Key(Path file, Charset charset) {}
+
+  private record Entry(long size, long modified, CodeFile codeFile) {}
+
+  private final long maxSize;
+  private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long size;
+
+  CodeFileCache(final long maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Get cache for a build.
+   *
+   * @param job build job
+   * @return cache shared by all includes of the job
+   */
+  static synchronized CodeFileCache getInstance(final Job job) {
+    return caches.computeIfAbsent(job, j -> new CodeFileCache(DEFAULT_MAX_SIZE));
+  }
+
+  /**
+   * Get decoded code file, reading it if it's not cached or has changed since it was cached.
+   *
+   * @param file code file
+   * @param charset code file charset
+   * @return decoded code file
+   */
+  CodeFile get(final Path file, final Charset charset) throws IOException {
+    final BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+    final long fileSize = attrs.size();
+    final long modified = attrs.lastModifiedTime().toMillis();
+    final Key key = new Key(file, charset);
+    synchronized (this) {
+      final Entry entry = entries.get(key);
+      if (entry != null && entry.size == fileSize && entry.modified == modified) {
+        return entry.codeFile;
+      }
+    }
+    final CodeFile codeFile = CodeFile.read(file, charset);
+    put(key, new Entry(fileSize, modified, codeFile));
+    return codeFile;
+  }
+
+  private synchronized void put(final Key key, final Entry entry) {
+    final Entry old = entries.remove(key);
+    if (old != null) {
+      size -= old.codeFile.length();
+    }
+    if (entry.codeFile.length() > maxSize) {
+      return;
+    }
+    entries.put(key, entry);
+    size += entry.codeFile.length();
+    final Iterator<Entry> it = entries.values().iterator();
+    while (size > maxSize && it.hasNext()) {
+      size -= it.next().codeFile.length();
+      it.remove();
+    }
+  }
+}
@@ -11,12 +11,10 @@ package org.dita.dost.writer.include;
 import static org.dita.dost.util.Constants.*;
 import static org.dita.dost.util.URLUtils.*;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.net.URI;
 import java.nio.charset.Charset;
 import java.nio.charset.MalformedInputException;
-import java.nio.file.Files;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.dita.dost.exception.DITAOTException;
@@ -30,11 +28,17 @@ import org.xml.sax.ContentHandler;
 
 final class IncludeText {
 
+  /** RFC 5147 line fragment. */
+  private static final Pattern LINE_PATTERN = Pattern.compile("^line=(?:(\\d+)|(\\d+)?,(\\d+)?)$");
+  private static final Pattern LINE_RANGE_PATTERN = Pattern.compile("^line-range\\((\\d+)(?:,\\s*(\\d+))?\\)$");
+  private static final Pattern TOKEN_PATTERN = Pattern.compile("^token=([^,\\s)]*)(?:,\\s*([^,\\s)]+))?$");
+
   private final Job job;
   private final URI currentFile;
   private final ContentHandler contentHandler;
   private final DITAOTLogger logger;
   private final Configuration.Mode processingMode;
+  private final CodeFileCache codeFileCache;
 
   IncludeText(
     Job job,
@@ -48,6 +52,7 @@ final class IncludeText {
     this.contentHandler = contentHandler;
     this.logger = logger;
     this.processingMode = processingMode;
+    this.codeFileCache = CodeFileCache.getInstance(job);
   }
 
   boolean include(final Attributes atts) {
@@ -56,8 +61,8 @@ final class IncludeText {
     final Range range = getRange(hrefValue);
     final File codeFile = getFile(hrefValue);
     if (codeFile != null) {
-      try (BufferedReader codeReader = Files.newBufferedReader(codeFile.toPath(), charset)) {
-        range.copyLines(codeReader);
+      try {
+        range.copyLines(codeFileCache.get(codeFile.toPath(), charset));
       } catch (final MalformedInputException e) {
         final String msg = MessageUtils
           .getMessage("DOTJ084E", codeFile.toURI().toString(), charset.toString())
@@ -101,8 +106,7 @@ final class IncludeText {
 
     final String fragment = uri.getFragment();
     if (fragment != null) {
-      // RFC 5147
-      final Matcher m = Pattern.compile("^line=(?:(\\d+)|(\\d+)?,(\\d+)?)$").matcher(fragment);
+      final Matcher m = LINE_PATTERN.matcher(fragment);
       if (m.matches()) {
         if (m.group(1) != null) {
           start = Integer.parseInt(m.group(1));
@@ -117,7 +121,7 @@ final class IncludeText {
         }
         return new LineNumberRange(start, end).handler(contentHandler);
       } else {
-        final Matcher mc = Pattern.compile("^line-range\\((\\d+)(?:,\\s*(\\d+))?\\)$").matcher(fragment);
+        final Matcher mc = LINE_RANGE_PATTERN.matcher(fragment);
         if (mc.matches()) {
           start = Integer.parseInt(mc.group(1)) - 1;
           if (mc.group(2) != null) {
@@ -125,7 +129,7 @@ final class IncludeText {
           }
           return new LineNumberRange(start, end).handler(contentHandler);
         } else {
-          final Matcher mi = Pattern.compile("^token=([^,\\s)]*)(?:,\\s*([^,\\s)]+))?$").matcher(fragment);
+          final Matcher mi = TOKEN_PATTERN.matcher(fragment);
           if (mi.matches()) {
             if (mi.group(1) != null && mi.group(1).length() != 0) {
               startId = mi.group(1);
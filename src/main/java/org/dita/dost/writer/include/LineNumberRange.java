@@ -23,6 +23,11 @@ public class LineNumberRange extends AllRange implements Range {
     this.end = end;
   }
 
+  @Override
+  public void copyLines(final CodeFile codeFile) throws SAXException {
+    copyLines(codeFile, Math.max(start, 0), end, true);
+  }
+
   @Override
   public void copyLines(final BufferedReader codeReader) throws IOException, SAXException {
     boolean first = true;
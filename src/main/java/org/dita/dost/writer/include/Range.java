@@ -10,6 +10,7 @@ package org.dita.dost.writer.include;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.StringReader;
 import org.xml.sax.ContentHandler;
 import org.xml.sax.SAXException;
 
@@ -21,6 +22,20 @@ public interface Range {
    */
   void copyLines(final BufferedReader codeReader) throws IOException, SAXException;
 
+  /**
+   * Copy lines from decoded code file to target handler
+   *
+   * @param codeFile decoded code file
+   * @since 4.1
+   */
+  default void copyLines(final CodeFile codeFile) throws IOException, SAXException {
+    final StringBuilder buf = new StringBuilder();
+    for (int i = 0; i < codeFile.getLineCount(); i++) {
+      buf.append(codeFile.getLine(i)).append('\n');
+    }
+    copyLines(new BufferedReader(new StringReader(buf.toString())));
+  }
+
   /**
    * Set target handler
    */
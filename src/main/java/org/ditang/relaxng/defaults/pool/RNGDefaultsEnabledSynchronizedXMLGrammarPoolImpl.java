@@ -7,8 +7,11 @@
  */
 package org.ditang.relaxng.defaults.pool;
 
-import java.util.HashMap;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.ditang.relaxng.defaults.RelaxNGDefaultValues;
 
 /**
@@ -23,29 +26,60 @@ public class RNGDefaultsEnabledSynchronizedXMLGrammarPoolImpl
   /**
    * Caches Relax NG default values based on the URL pointing to the RNG schemas.
    */
-  private final Map<String, RelaxNGDefaultValues> rngDefaultValues = new HashMap<>();
+  private final Map<String, CachedDefaults> rngDefaultValues = new ConcurrentHashMap<>();
 
   /**
    * @see org.ditang.relaxng.defaults.pool.RNGDefaultsEnabledGrammarPool#getRngDefaultValues(java.lang.String)
    */
   @Override
-  public synchronized RelaxNGDefaultValues getRngDefaultValues(String systemID) {
-    return rngDefaultValues.get(systemID);
+  public RelaxNGDefaultValues getRngDefaultValues(String systemID) {
+    final CachedDefaults cached = retrieve(systemID, () -> getCurrent(systemID));
+    if (cached != null) {
+      recordHit(cached.loadNanos);
+      return cached.defaults;
+    }
+    recordMiss();
+    return null;
+  }
+
+  private CachedDefaults getCurrent(final String systemID) {
+    final CachedDefaults cached = rngDefaultValues.get(systemID);
+    if (cached != null && !cached.dependencies.isCurrent()) {
+      rngDefaultValues.remove(systemID, cached);
+      return null;
+    }
+    return cached;
   }
 
   /**
    * @see org.ditang.relaxng.defaults.pool.RNGDefaultsEnabledGrammarPool#putRngDefaultValues(java.lang.String, org.ditang.relaxng.defaults.RelaxNGDefaultValues)
    */
   @Override
-  public synchronized void putRngDefaultValues(String systemID, RelaxNGDefaultValues defaults) {
-    rngDefaultValues.put(systemID, defaults);
+  public void putRngDefaultValues(String systemID, RelaxNGDefaultValues defaults) {
+    try {
+      rngDefaultValues.put(systemID, new CachedDefaults(defaults, getLoadTime(systemID), getDependencies(systemID)));
+    } finally {
+      clearLoadStart();
+    }
+  }
+
+  private static Dependencies getDependencies(final String systemID) {
+    try {
+      final URI uri = new URI(systemID);
+      if ("file".equals(uri.getScheme())) {
+        return new Dependencies(List.of(uri));
+      }
+    } catch (final URISyntaxException | IllegalArgumentException e) {
+      // Ignore, file cannot be checked for modification
+    }
+    return new Dependencies(List.of());
   }
 
   /**
    * @see org.apache.xerces.util.XMLGrammarPoolImpl#clear()
    */
   @Override
-  public synchronized void clear() {
+  public void clear() {
     rngDefaultValues.clear();
     super.clear();
   }
@@ -54,7 +88,9 @@ public class RNGDefaultsEnabledSynchronizedXMLGrammarPoolImpl
    * Get the size of the cache.
    * @return The size of the cache.
    */
-  public synchronized int getCacheSize() {
+  public int getCacheSize() {
     return rngDefaultValues.size();
   }
+
+  private record CachedDefaults(RelaxNGDefaultValues defaults, long loadNanos, Dependencies dependencies) {}
 }
@@ -7,6 +7,14 @@ import java.util.List;
 import javax.xml.parsers.DocumentBuilder;
 import org.dita.dost.util.XMLUtils;
 import org.w3c.dom.*;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXNotRecognizedException;
+import org.xml.sax.SAXNotSupportedException;
+import org.xml.sax.XMLFilter;
+import org.xml.sax.ext.LexicalHandler;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.XMLFilterImpl;
 
 /*
 Copyright (c) 2004-2006 by Idiom Technologies, Inc. All rights reserved.
@@ -47,6 +55,9 @@ public class MultilanguagePreprocessor {
 
   private final Configuration configuration;
 
+  /** Text fragment in a single alphabet, or in no configured alphabet. */
+  private record Fragment(Alphabet alphabet, String text) {}
+
   public MultilanguagePreprocessor(final Configuration theTheConfiguration) {
     if (null == theTheConfiguration) {
       throw new IllegalArgumentException("Configuration argument may not be null");
@@ -70,6 +81,17 @@ public class MultilanguagePreprocessor {
     return doc;
   }
 
+  /**
+   * Create streaming preprocessor. Text is split into text fragments the same way as in {@link #process(Document)},
+   * but the document is processed in a single pass without building a DOM.
+   *
+   * @return SAX filter
+   * @since 4.1
+   */
+  public XMLFilter getFilter() {
+    return new MultilanguageFilter();
+  }
+
   private Node[] processCurrNode(final Node theNode, final Document theTargetDocument) {
     if (theNode.getNodeType() == Node.TEXT_NODE) {
       return processTextNode((Text) theNode, theTargetDocument);
@@ -93,38 +115,43 @@ public class MultilanguagePreprocessor {
 
     final String nodeValue = theTextNode.getNodeValue();
     if (null != nodeValue) {
-      int processedPosition = 0;
-
-      Alphabet currentAlphabet = null;
+      for (final Fragment fragment : split(nodeValue)) {
+        resultNodeList.add(createChildNode(fragment.alphabet, theTargetDocument, fragment.text));
+      }
+    }
+    return resultNodeList.toArray(new Node[resultNodeList.size()]);
+  }
 
-      final char[] chars = nodeValue.toCharArray();
-      for (int i = 0; i < chars.length; i++) {
-        final char aChar = chars[i];
-        final Alphabet alphabetForChar = configuration.getAlphabetForChar(aChar);
-        if (null != alphabetForChar && alphabetForChar.equals(currentAlphabet)) {
-          continue;
-        } else if (null == alphabetForChar && null == currentAlphabet) {
-          continue;
-        } else {
-          final String string = nodeValue.substring(processedPosition, i);
+  /**
+   * Split text into fragments by alphabet.
+   *
+   * @param nodeValue text to split
+   * @return text fragments in document order
+   */
+  private List<Fragment> split(final String nodeValue) {
+    final List<Fragment> res = new ArrayList<>();
+    int processedPosition = 0;
 
-          final Node child = createChildNode(currentAlphabet, theTargetDocument, string);
+    Alphabet currentAlphabet = null;
 
-          resultNodeList.add(child);
+    final char[] chars = nodeValue.toCharArray();
+    for (int i = 0; i < chars.length; i++) {
+      final char aChar = chars[i];
+      final Alphabet alphabetForChar = configuration.getAlphabetForChar(aChar);
+      if (null != alphabetForChar && alphabetForChar.equals(currentAlphabet)) {
+        continue;
+      } else if (null == alphabetForChar && null == currentAlphabet) {
+        continue;
+      } else {
+        res.add(new Fragment(currentAlphabet, nodeValue.substring(processedPosition, i)));
 
-          currentAlphabet = alphabetForChar;
+        currentAlphabet = alphabetForChar;
 
-          processedPosition = i;
-        }
+        processedPosition = i;
       }
-      final Node childNode = createChildNode(
-        currentAlphabet,
-        theTargetDocument,
-        nodeValue.substring(processedPosition)
-      );
-      resultNodeList.add(childNode);
     }
-    return resultNodeList.toArray(new Node[resultNodeList.size()]);
+    res.add(new Fragment(currentAlphabet, nodeValue.substring(processedPosition)));
+    return res;
   }
 
   private Node createChildNode(
@@ -147,4 +174,137 @@ public class MultilanguagePreprocessor {
     }
     return child;
   }
+
+  /**
+   * Streaming preprocessor. Character events are buffered until the next markup event, so that each text node is
+   * split as a whole. Comments are passed through to the lexical handler set with the
+   * {@code http://xml.org/sax/properties/lexical-handler} property, or to the content handler if it is a lexical
+   * handler. Like {@link #process(Document)}, only the root element is processed and the document type declaration,
+   * comments and processing instructions outside it are dropped.
+   */
+  private final class MultilanguageFilter extends XMLFilterImpl implements LexicalHandler {
+
+    private static final String LEXICAL_HANDLER_PROPERTY = "http://xml.org/sax/properties/lexical-handler";
+
+    private final StringBuilder buf = new StringBuilder();
+    private int depth = 0;
+    private LexicalHandler lexicalHandler;
+
+    @Override
+    public void setProperty(final String name, final Object value)
+      throws SAXNotRecognizedException, SAXNotSupportedException {
+      if (LEXICAL_HANDLER_PROPERTY.equals(name)) {
+        lexicalHandler = (LexicalHandler) value;
+        super.setProperty(name, this);
+      } else {
+        super.setProperty(name, value);
+      }
+    }
+
+    @Override
+    public Object getProperty(final String name) throws SAXNotRecognizedException, SAXNotSupportedException {
+      if (LEXICAL_HANDLER_PROPERTY.equals(name)) {
+        return lexicalHandler;
+      }
+      return super.getProperty(name);
+    }
+
+    @Override
+    public void startElement(final String uri, final String localName, final String qName, final Attributes atts)
+      throws SAXException {
+      flush();
+      if (depth == 0) {
+        getContentHandler().startPrefixMapping(PREFIX, NAMESPACE_URL);
+      }
+      depth++;
+      super.startElement(uri, localName, qName, atts);
+    }
+
+    @Override
+    public void endElement(final String uri, final String localName, final String qName) throws SAXException {
+      flush();
+      super.endElement(uri, localName, qName);
+      depth--;
+      if (depth == 0) {
+        getContentHandler().endPrefixMapping(PREFIX);
+      }
+    }
+
+    @Override
+    public void characters(final char[] ch, final int start, final int length) {
+      buf.append(ch, start, length);
+    }
+
+    @Override
+    public void ignorableWhitespace(final char[] ch, final int start, final int length) {
+      buf.append(ch, start, length);
+    }
+
+    @Override
+    public void processingInstruction(final String target, final String data) throws SAXException {
+      if (depth > 0) {
+        flush();
+        super.processingInstruction(target, data);
+      }
+    }
+
+    @Override
+    public void endDocument() throws SAXException {
+      flush();
+      super.endDocument();
+    }
+
+    @Override
+    public void startDTD(final String name, final String publicId, final String systemId) {}
+
+    @Override
+    public void endDTD() {}
+
+    @Override
+    public void startEntity(final String name) {}
+
+    @Override
+    public void endEntity(final String name) {}
+
+    @Override
+    public void startCDATA() {}
+
+    @Override
+    public void endCDATA() {}
+
+    @Override
+    public void comment(final char[] ch, final int start, final int length) throws SAXException {
+      final LexicalHandler handler = getLexicalHandler();
+      if (handler != null && depth > 0) {
+        flush();
+        handler.comment(ch, start, length);
+      }
+    }
+
+    private LexicalHandler getLexicalHandler() {
+      if (lexicalHandler != null) {
+        return lexicalHandler;
+      }
+      return getContentHandler() instanceof final LexicalHandler handler ? handler : null;
+    }
+
+    private void flush() throws SAXException {
+      if (buf.isEmpty()) {
+        return;
+      }
+      for (final Fragment fragment : split(buf.toString())) {
+        final char[] text = fragment.text.toCharArray();
+        if (fragment.alphabet != null) {
+          final AttributesImpl atts = new AttributesImpl();
+          atts.addAttribute("", CHAR_SET, CHAR_SET, "CDATA", fragment.alphabet.getName());
+          getContentHandler().startElement(NAMESPACE_URL, TEXT_FRAGMENT, PREFIX + ":" + TEXT_FRAGMENT, atts);
+          getContentHandler().characters(text, 0, text.length);
+          getContentHandler().endElement(NAMESPACE_URL, TEXT_FRAGMENT, PREFIX + ":" + TEXT_FRAGMENT);
+        } else if (text.length > 0) {
+          getContentHandler().characters(text, 0, text.length);
+        }
+      }
+      buf.setLength(0);
+    }
+  }
 }
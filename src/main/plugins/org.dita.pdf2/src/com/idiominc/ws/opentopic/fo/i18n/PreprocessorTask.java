@@ -7,7 +7,7 @@ import java.io.File;
 import java.net.URI;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.transform.URIResolver;
-import javax.xml.transform.dom.DOMSource;
+import net.sf.saxon.s9api.BuildingContentHandler;
 import net.sf.saxon.s9api.XsltCompiler;
 import net.sf.saxon.s9api.XsltExecutable;
 import net.sf.saxon.s9api.XsltTransformer;
@@ -21,6 +21,8 @@ import org.dita.dost.util.ChainedURIResolver;
 import org.dita.dost.util.Job;
 import org.dita.dost.util.XMLUtils;
 import org.w3c.dom.Document;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.XMLFilter;
 
 /*
 Copyright (c) 2004-2006 by Idiom Technologies, Inc. All rights reserved.
@@ -72,10 +74,9 @@ public class PreprocessorTask extends Task {
       final DocumentBuilder documentBuilder = XMLUtils.getDocumentBuilder();
       documentBuilder.setEntityResolver(xmlcatalog);
 
-      final Document doc = job.getStore().getDocument(input);
       final Document conf = documentBuilder.parse(config);
       final MultilanguagePreprocessor preprocessor = new MultilanguagePreprocessor(new Configuration(conf));
-      final Document document = preprocessor.process(doc);
+      final XMLFilter filter = preprocessor.getFilter();
 
       if (style != null) {
         log("Loading stylesheet " + style, Project.MSG_INFO);
@@ -88,11 +89,18 @@ public class PreprocessorTask extends Task {
         final XsltExecutable compile = xsltCompiler.compile(job.getStore().getSource(style));
         final XsltTransformer t = compile.load();
         t.setURIResolver(resolver);
-        t.setSource(new DOMSource(document));
+        final BuildingContentHandler documentHandler = xmlUtils
+          .getProcessor()
+          .newDocumentBuilder()
+          .newBuildingContentHandler();
+        filter.setContentHandler(documentHandler);
+        job.getStore().transform(input, (ContentHandler) filter);
+        t.setInitialContextNode(documentHandler.getDocumentNode());
         t.setDestination(job.getStore().getDestination(output));
         t.transform();
       } else {
-        job.getStore().writeDocument(document, output);
+        filter.setContentHandler(job.getStore().getContentHandler(output));
+        job.getStore().transform(input, (ContentHandler) filter);
       }
     } catch (final RuntimeException e) {
       throw e;
@@ -1,6 +1,9 @@
 package com.idiominc.ws.opentopic.fo.index2;
 
+import java.util.Arrays;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /*
 Copyright (c) 2004-2006 by Idiom Technologies, Inc. All rights reserved.
@@ -41,11 +44,14 @@ public class IndexCollator {
   private com.ibm.icu.text.Collator icu4jCollator = null;
   private java.text.Collator defaultCollator = null;
   private boolean icuCollator = true;
+  /** Collation key cache. */
+  private final Map<String, Key> keys = new ConcurrentHashMap<>();
 
   public IndexCollator(final Locale theLocale) {
     this.defaultCollator = java.text.Collator.getInstance(theLocale);
     try {
-      this.icu4jCollator = com.ibm.icu.text.Collator.getInstance(theLocale);
+      // Frozen collator is thread-safe
+      this.icu4jCollator = com.ibm.icu.text.Collator.getInstance(theLocale).freeze();
     } catch (final NoClassDefFoundError ex) {
       System.out.println("[INFO] IBM ICU4J Collator is not found. Default Java Collator will be used");
       icuCollator = false;
@@ -53,10 +59,51 @@ public class IndexCollator {
   }
 
   public int compare(final Object o1, final Object o2) {
+    if (o1 instanceof String s1 && o2 instanceof String s2) {
+      return getCollationKey(s1).compareTo(getCollationKey(s2));
+    }
     if (icuCollator) {
       return this.icu4jCollator.compare(o1, o2);
     } else {
       return this.defaultCollator.compare(o1, o2);
     }
   }
+
+  /**
+   * Get collation key for a string. Keys are computed once per string and cached.
+   *
+   * @param value string to get key for
+   * @return collation key
+   * @since 4.1
+   */
+  public Key getCollationKey(final String value) {
+    return keys.computeIfAbsent(value, this::createCollationKey);
+  }
+
+  private Key createCollationKey(final String value) {
+    if (icuCollator) {
+      return new Key(icu4jCollator.getCollationKey(value).toByteArray());
+    } else {
+      return new Key(defaultCollator.getCollationKey(value).toByteArray());
+    }
+  }
+
+  /**
+   * Collation key. Comparing keys gives the same result as comparing the source strings with the collator.
+   *
+   * @since 4.1
+   */
+  public static final class Key implements Comparable<Key> {
+
+    private final byte[] bytes;
+
+    private Key(final byte[] bytes) {
+      this.bytes = bytes;
+    }
+
+    @Override
+    public int compareTo(final Key other) {
+      return Arrays.compareUnsigned(bytes, other.bytes);
+    }
+  }
 }
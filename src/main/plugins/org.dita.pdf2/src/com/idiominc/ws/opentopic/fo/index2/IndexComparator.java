@@ -42,7 +42,15 @@ class IndexComparator implements Comparator<IndexEntry> {
   private final IndexCollator Collator;
 
   public IndexComparator(final Locale theLocale) {
-    this.Collator = new IndexCollator(theLocale);
+    this(new IndexCollator(theLocale));
+  }
+
+  /**
+   * @param theCollator collator used to compare sort strings
+   * @since 4.1
+   */
+  public IndexComparator(final IndexCollator theCollator) {
+    this.Collator = theCollator;
   }
 
   public int compare(final IndexEntry o1, final IndexEntry o2) {
@@ -52,6 +60,27 @@ class IndexComparator implements Comparator<IndexEntry> {
     return this.Collator.compare(value1, value2);
   }
 
+  /**
+   * Compute collation keys for index entries and their descendants, so that sorting does not need to compute them.
+   *
+   * @param theIndexEntries index entries, may be {@code null}
+   * @since 4.1
+   */
+  public void prepare(final IndexEntry[] theIndexEntries) {
+    if (theIndexEntries == null) {
+      return;
+    }
+    for (final IndexEntry entry : theIndexEntries) {
+      final String sortString = getSortString(entry);
+      if (sortString != null) {
+        this.Collator.getCollationKey(sortString);
+      }
+      prepare(entry.getChildIndexEntries());
+      prepare(entry.getSeeChildIndexEntries());
+      prepare(entry.getSeeAlsoChildIndexEntries());
+    }
+  }
+
   private String getSortString(final IndexEntry theEntry1) {
     String result;
     if (theEntry1.getSortString() != null) {
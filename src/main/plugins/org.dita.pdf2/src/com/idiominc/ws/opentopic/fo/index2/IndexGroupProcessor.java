@@ -4,8 +4,9 @@ import com.idiominc.ws.opentopic.fo.index2.configuration.ConfigEntry;
 import com.idiominc.ws.opentopic.fo.index2.configuration.IndexConfiguration;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
-import java.util.Map;
+import java.util.stream.IntStream;
 import org.dita.dost.log.DITAOTLogger;
 import org.dita.dost.log.MessageUtils;
 
@@ -46,6 +47,7 @@ See the accompanying LICENSE file for applicable license.
 public final class IndexGroupProcessor {
 
   private DITAOTLogger logger;
+  private boolean parallel = false;
 
   public static final String SPECIAL_CHARACTER_GROUP_KEY = "Specials";
 
@@ -53,6 +55,16 @@ public final class IndexGroupProcessor {
     this.logger = logger;
   }
 
+  /**
+   * Set whether index entries are grouped in parallel.
+   *
+   * @param parallel group in parallel
+   * @since 4.1
+   */
+  public void setParallel(final boolean parallel) {
+    this.parallel = parallel;
+  }
+
   /**
    * Puts index entries to the group they are belongs
    *
@@ -66,8 +78,23 @@ public final class IndexGroupProcessor {
     final IndexConfiguration theIndexConfiguration,
     final Locale theLocale
   ) {
-    final IndexCollator collator = new IndexCollator(theLocale);
+    return process(theIndexEntries, theIndexConfiguration, new IndexCollator(theLocale));
+  }
 
+  /**
+   * Puts index entries to the group they are belongs
+   *
+   * @param theIndexEntries       index entries
+   * @param theIndexConfiguration index configuration
+   * @param collator              collator used to sort and compare index entries
+   * @return groups with sorted index entries inside
+   * @since 4.1
+   */
+  public IndexGroup[] process(
+    final IndexEntry[] theIndexEntries,
+    final IndexConfiguration theIndexConfiguration,
+    final IndexCollator collator
+  ) {
     final ArrayList<MyIndexGroup> result = new ArrayList<>();
 
     final ConfigEntry[] entries = theIndexConfiguration.getEntries();
@@ -103,44 +130,17 @@ public final class IndexGroupProcessor {
         }
          */
 
-    for (int i = 0; i < IndexGroups.length; i++) {
-      final MyIndexGroup group = IndexGroups[i];
-      final ConfigEntry configEntry = group.getConfigEntry();
-
-      final String[] groupMembers = configEntry.getGroupMembers();
-
-      if (groupMembers.length > 0) {
-        //Find entries by comaping first letter with a chars in current config entry
-        for (final String key : new ArrayList<>(indexMap.keySet())) {
-          if (key.length() > 0) {
-            final String value = getValue(indexMap.get(key));
-            //                        final char c = value.charAt(0);
-            if (configEntry.isInRange(value, collator)) {
-              final IndexEntry entry = indexMap.remove(key);
-              group.addEntry(entry);
-            }
-          }
-        }
-      } else {
-        //Get index entries by range specified by two keys
-        final String key1 = configEntry.getKey();
-        String key2 = null;
-        if ((i + 1) < entries.length) {
-          final ConfigEntry nextEntry = entries[i + 1];
-          key2 = nextEntry.getKey();
-        }
-        final String[] indexMapKeys = getIndexKeysOfIndexesInRange(key1, key2, collator, indexMap);
-
-        for (final String mapKey : indexMapKeys) {
-          final IndexEntry entry = indexMap.remove(mapKey);
-          group.addEntry(entry);
-        }
+    //Find group for each entry. Groups are tested in configuration order and the first matching group is used.
+    final List<String> keys = new ArrayList<>(indexMap.keySet());
+    final IntStream keyIndexes = IntStream.range(0, keys.size());
+    final int[] groupIndexes = (parallel ? keyIndexes.parallel() : keyIndexes)
+      .map(k -> findGroup(keys.get(k), getValue(indexMap.get(keys.get(k))), entries, collator))
+      .toArray();
+    for (int k = 0; k < keys.size(); k++) {
+      if (groupIndexes[k] != -1) {
+        final IndexEntry entry = indexMap.remove(keys.get(k));
+        IndexGroups[groupIndexes[k]].addEntry(entry);
       }
-      /*
-            if (group.getEntries().length > 0) {
-                result.add(group);
-            }
-             */
     }
 
     //If some terms remain uncategorized, and a recognized special character
@@ -193,28 +193,44 @@ public final class IndexGroupProcessor {
     }
   }
 
-  private static String[] getIndexKeysOfIndexesInRange(
-    final String theKey1,
-    final String theKey2,
-    final IndexCollator theCollator,
-    final HashMap<String, IndexEntry> theIndexEntryMap
+  /**
+   * Find group for index entry.
+   *
+   * @param key index entry map key
+   * @param value index entry sort value
+   * @param entries group configuration entries
+   * @param collator collator used to compare index entries
+   * @return index of the group, {@code -1} if no group matches
+   */
+  private static int findGroup(
+    final String key,
+    final String value,
+    final ConfigEntry[] entries,
+    final IndexCollator collator
   ) {
-    final ArrayList<String> res = new ArrayList<>();
-    for (final Map.Entry<String, IndexEntry> e : theIndexEntryMap.entrySet()) {
-      final int res1 = theCollator.compare(theKey1, getValue(e.getValue()));
-      if (res1 <= 0) {
-        if (theKey2 == null) {
-          //the right range is not specified
-          res.add(e.getKey());
-          continue;
+    for (int i = 0; i < entries.length; i++) {
+      final ConfigEntry configEntry = entries[i];
+      if (configEntry.getGroupMembers().length > 0) {
+        //Find entries by comaping first letter with a chars in current config entry
+        if (key.length() > 0 && configEntry.isInRange(value, collator)) {
+          return i;
         }
-        final int res2 = theCollator.compare(theKey2, e.getKey());
-        if (res2 > 0) {
-          res.add(e.getKey());
+      } else {
+        //Get index entries by range specified by two keys
+        final String key1 = configEntry.getKey();
+        if (collator.compare(key1, value) <= 0) {
+          if ((i + 1) >= entries.length) {
+            //the right range is not specified
+            return i;
+          }
+          final String key2 = entries[i + 1].getKey();
+          if (collator.compare(key2, key) > 0) {
+            return i;
+          }
         }
       }
     }
-    return res.toArray(new String[0]);
+    return -1;
   }
 
   private static boolean doesStart(final String sourceString, final String[] compStrings) {
@@ -7,10 +7,19 @@ import com.idiominc.ws.opentopic.fo.index2.configuration.IndexConfiguration;
 import com.idiominc.ws.opentopic.fo.index2.util.IndexDitaProcessor;
 import com.idiominc.ws.opentopic.fo.index2.util.IndexStringProcessor;
 import java.util.*;
+import java.util.stream.Stream;
 import javax.xml.parsers.DocumentBuilder;
 import org.dita.dost.log.DITAOTLogger;
 import org.dita.dost.util.XMLUtils;
 import org.w3c.dom.*;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXNotRecognizedException;
+import org.xml.sax.SAXNotSupportedException;
+import org.xml.sax.XMLFilter;
+import org.xml.sax.ext.LexicalHandler;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.XMLFilterImpl;
 
 /*
 Copyright (c) 2004-2006 by Idiom Technologies, Inc. All rights reserved.
@@ -57,6 +66,7 @@ public final class IndexPreprocessor {
   private final IndexDitaProcessor indexDitaProcessor;
   private final IndexGroupProcessor indexGroupProcessor;
   private boolean includeDraft = false;
+  private boolean parallel = false;
   private DITAOTLogger logger;
   private static final String elIndexRangeStartName = "start";
   private static final String elIndexRangeEndName = "end";
@@ -84,6 +94,17 @@ public final class IndexPreprocessor {
     indexGroupProcessor.setLogger(logger);
   }
 
+  /**
+   * Set whether index entries are grouped and sorted in parallel.
+   *
+   * @param parallel process in parallel
+   * @since 4.1
+   */
+  public void setParallel(final boolean parallel) {
+    this.parallel = parallel;
+    indexGroupProcessor.setParallel(parallel);
+  }
+
   /**
    * Process index terms.
    *
@@ -110,22 +131,58 @@ public final class IndexPreprocessor {
     return new IndexPreprocessResult(doc, indexes.toArray(new IndexEntry[0]));
   }
 
+  /**
+   * Create streaming index preprocessor. The document is processed in a single pass: index terms are replaced with
+   * index entries the same way as in {@link #process(Document)}, and index groups are added to the end of the root
+   * element the same way as in {@link #createAndAddIndexGroups(IndexEntry[], IndexConfiguration, Document, Locale)}.
+   * Only index terms are kept in memory.
+   *
+   * @param theConfiguration index configuration
+   * @param theLocale locale used to sort and compare index entries
+   * @return SAX filter
+   * @since 4.1
+   */
+  public XMLFilter getFilter(final IndexConfiguration theConfiguration, final Locale theLocale) {
+    return new IndexFilter(theConfiguration, theLocale);
+  }
+
   public void createAndAddIndexGroups(
     final IndexEntry[] theIndexEntries,
     final IndexConfiguration theConfiguration,
     final Document theDocument,
     final Locale theLocale
   ) {
-    final IndexComparator indexEntryComparator = new IndexComparator(theLocale);
-
-    final IndexGroup[] indexGroups = indexGroupProcessor.process(theIndexEntries, theConfiguration, theLocale);
-
     final Element rootElement = theDocument.getDocumentElement();
+    rootElement.appendChild(createIndexGroups(theIndexEntries, theConfiguration, theDocument, theLocale));
+  }
+
+  private Element createIndexGroups(
+    final IndexEntry[] theIndexEntries,
+    final IndexConfiguration theConfiguration,
+    final Document theDocument,
+    final Locale theLocale
+  ) {
+    final IndexCollator collator = new IndexCollator(theLocale);
+    final IndexComparator indexEntryComparator = new IndexComparator(collator);
+
+    final IndexGroup[] indexGroups = indexGroupProcessor.process(theIndexEntries, theConfiguration, collator);
+
+    //Sort groups before creating nodes, collation keys for descendants are computed in the same pass
+    final Stream<IndexGroup> groups = parallel ? Arrays.stream(indexGroups).parallel() : Arrays.stream(indexGroups);
+    final IndexEntry[][] groupEntries = groups
+      .map(group -> {
+        final IndexEntry[] entries = group.getEntries();
+        indexEntryComparator.prepare(entries);
+        Arrays.sort(entries, indexEntryComparator);
+        return entries;
+      })
+      .toArray(IndexEntry[][]::new);
 
     final Element indexGroupsElement = theDocument.createElementNS(namespace_url, "index.groups");
     indexGroupsElement.setPrefix(prefix);
 
-    for (final IndexGroup group : indexGroups) {
+    for (int i = 0; i < indexGroups.length; i++) {
+      final IndexGroup group = indexGroups[i];
       //Create group element
       final Node groupElement = theDocument.createElementNS(namespace_url, "index.group");
       groupElement.setPrefix(prefix);
@@ -135,7 +192,7 @@ public final class IndexPreprocessor {
       groupLabelElement.appendChild(theDocument.createTextNode(group.getLabel()));
       groupElement.appendChild(groupLabelElement);
 
-      final Node[] entryNodes = transformToNodes(group.getEntries(), theDocument, indexEntryComparator);
+      final Node[] entryNodes = transformToNodes(groupEntries[i], theDocument, indexEntryComparator);
       for (final Node entryNode : entryNodes) {
         groupElement.appendChild(entryNode);
       }
@@ -143,7 +200,7 @@ public final class IndexPreprocessor {
       indexGroupsElement.appendChild(groupElement);
     }
 
-    rootElement.appendChild(indexGroupsElement);
+    return indexGroupsElement;
   }
 
   /**
@@ -406,4 +463,259 @@ public final class IndexPreprocessor {
     indexEntryNode.setPrefix(this.prefix);
     return indexEntryNode;
   }
+
+  /**
+   * Streaming index preprocessor. Index term elements are collected into a DOM fragment and processed when the
+   * element ends, other content is passed through.
+   */
+  private final class IndexFilter extends XMLFilterImpl implements LexicalHandler {
+
+    private static final String LEXICAL_HANDLER_PROPERTY = "http://xml.org/sax/properties/lexical-handler";
+
+    private final IndexConfiguration configuration;
+    private final Locale locale;
+    private final List<IndexEntry> indexEntries = new ArrayList<>();
+    private final Deque<Boolean> excludedDraftSection = new ArrayDeque<>();
+    private final Deque<Boolean> draftElements = new ArrayDeque<>();
+    private Document document;
+    private LexicalHandler lexicalHandler;
+    private int depth;
+    /** Index term element being read, {@code null} if outside index term. */
+    private Element indexTerm;
+    private Node current;
+
+    IndexFilter(final IndexConfiguration configuration, final Locale locale) {
+      this.configuration = configuration;
+      this.locale = locale;
+    }
+
+    @Override
+    public void setProperty(final String name, final Object value)
+      throws SAXNotRecognizedException, SAXNotSupportedException {
+      if (LEXICAL_HANDLER_PROPERTY.equals(name)) {
+        lexicalHandler = (LexicalHandler) value;
+        super.setProperty(name, this);
+      } else {
+        super.setProperty(name, value);
+      }
+    }
+
+    @Override
+    public Object getProperty(final String name) throws SAXNotRecognizedException, SAXNotSupportedException {
+      if (LEXICAL_HANDLER_PROPERTY.equals(name)) {
+        return lexicalHandler;
+      }
+      return super.getProperty(name);
+    }
+
+    @Override
+    public void startDocument() throws SAXException {
+      document = XMLUtils.getDocumentBuilder().newDocument();
+      indexEntries.clear();
+      excludedDraftSection.clear();
+      excludedDraftSection.push(false);
+      draftElements.clear();
+      depth = 0;
+      indexTerm = null;
+      current = null;
+      super.startDocument();
+    }
+
+    @Override
+    public void startElement(final String uri, final String localName, final String qName, final Attributes atts)
+      throws SAXException {
+      if (indexTerm != null) {
+        final Element elem = createElement(uri, qName, atts);
+        current.appendChild(elem);
+        current = elem;
+        return;
+      }
+      if (depth == 0) {
+        getContentHandler().startPrefixMapping(prefix, namespace_url);
+      }
+      if (isIndexTerm(atts) && !excludedDraftSection.peek()) {
+        indexTerm = createElement(uri, qName, atts);
+        current = indexTerm;
+        return;
+      }
+      depth++;
+      final boolean draft = !includeDraft && isDraft(atts);
+      if (draft) {
+        excludedDraftSection.push(true);
+      }
+      draftElements.push(draft);
+      super.startElement(uri, localName, qName, atts);
+    }
+
+    @Override
+    public void endElement(final String uri, final String localName, final String qName) throws SAXException {
+      if (indexTerm != null) {
+        if (current != indexTerm) {
+          current = current.getParentNode();
+          return;
+        }
+        final Node[] nodes = processIndexNode(indexTerm, document, indexEntries::add);
+        indexTerm = null;
+        current = null;
+        for (final Node node : nodes) {
+          write(node);
+        }
+        return;
+      }
+      if (depth == 1) {
+        write(
+          createIndexGroups(indexEntries.toArray(new IndexEntry[0]), configuration, document, locale)
+        );
+      }
+      if (draftElements.pop()) {
+        excludedDraftSection.pop();
+      }
+      super.endElement(uri, localName, qName);
+      depth--;
+      if (depth == 0) {
+        getContentHandler().endPrefixMapping(prefix);
+      }
+    }
+
+    @Override
+    public void characters(final char[] ch, final int start, final int length) throws SAXException {
+      if (indexTerm != null) {
+        current.appendChild(document.createTextNode(new String(ch, start, length)));
+      } else {
+        super.characters(ch, start, length);
+      }
+    }
+
+    @Override
+    public void ignorableWhitespace(final char[] ch, final int start, final int length) throws SAXException {
+      if (indexTerm != null) {
+        current.appendChild(document.createTextNode(new String(ch, start, length)));
+      } else {
+        super.ignorableWhitespace(ch, start, length);
+      }
+    }
+
+    @Override
+    public void processingInstruction(final String target, final String data) throws SAXException {
+      if (indexTerm == null) {
+        super.processingInstruction(target, data);
+      }
+    }
+
+    @Override
+    public void startDTD(final String name, final String publicId, final String systemId) throws SAXException {
+      if (lexicalHandler != null) {
+        lexicalHandler.startDTD(name, publicId, systemId);
+      }
+    }
+
+    @Override
+    public void endDTD() throws SAXException {
+      if (lexicalHandler != null) {
+        lexicalHandler.endDTD();
+      }
+    }
+
+    @Override
+    public void startEntity(final String name) throws SAXException {
+      if (lexicalHandler != null && indexTerm == null) {
+        lexicalHandler.startEntity(name);
+      }
+    }
+
+    @Override
+    public void endEntity(final String name) throws SAXException {
+      if (lexicalHandler != null && indexTerm == null) {
+        lexicalHandler.endEntity(name);
+      }
+    }
+
+    @Override
+    public void startCDATA() throws SAXException {
+      if (lexicalHandler != null && indexTerm == null) {
+        lexicalHandler.startCDATA();
+      }
+    }
+
+    @Override
+    public void endCDATA() throws SAXException {
+      if (lexicalHandler != null && indexTerm == null) {
+        lexicalHandler.endCDATA();
+      }
+    }
+
+    @Override
+    public void comment(final char[] ch, final int start, final int length) throws SAXException {
+      if (lexicalHandler != null && indexTerm == null) {
+        lexicalHandler.comment(ch, start, length);
+      }
+    }
+
+    private boolean isIndexTerm(final Attributes atts) {
+      return (
+        TOPIC_INDEXTERM.matches(atts) ||
+        INDEXING_D_INDEX_SORT_AS.matches(atts) ||
+        INDEXING_D_INDEX_SEE.matches(atts) ||
+        INDEXING_D_INDEX_SEE_ALSO.matches(atts)
+      );
+    }
+
+    private boolean isDraft(final Attributes atts) {
+      return TOPIC_DRAFT_COMMENT.matches(atts) || TOPIC_REQUIRED_CLEANUP.matches(atts);
+    }
+
+    private Element createElement(final String uri, final String qName, final Attributes atts) {
+      final Element elem = document.createElementNS(uri.isEmpty() ? null : uri, qName);
+      for (int i = 0; i < atts.getLength(); i++) {
+        final String attrUri = atts.getURI(i);
+        elem.setAttributeNS(attrUri.isEmpty() ? null : attrUri, atts.getQName(i), atts.getValue(i));
+      }
+      return elem;
+    }
+
+    /** Write DOM node as SAX events. */
+    private void write(final Node node) throws SAXException {
+      switch (node.getNodeType()) {
+        case Node.ELEMENT_NODE -> {
+          final AttributesImpl atts = new AttributesImpl();
+          final NamedNodeMap attrs = node.getAttributes();
+          for (int i = 0; i < attrs.getLength(); i++) {
+            final Node attr = attrs.item(i);
+            final String name = attr.getNodeName();
+            if (!name.equals(XMLNS_ATTRIBUTE) && !name.startsWith(XMLNS_ATTRIBUTE + ":")) {
+              atts.addAttribute(getUri(attr), getLocalName(attr), name, "CDATA", attr.getNodeValue());
+            }
+          }
+          final String uri = getUri(node);
+          final String localName = getLocalName(node);
+          getContentHandler().startElement(uri, localName, node.getNodeName(), atts);
+          for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+            write(child);
+          }
+          getContentHandler().endElement(uri, localName, node.getNodeName());
+        }
+        case Node.TEXT_NODE, Node.CDATA_SECTION_NODE -> {
+          final char[] data = node.getNodeValue().toCharArray();
+          getContentHandler().characters(data, 0, data.length);
+        }
+        case Node.PROCESSING_INSTRUCTION_NODE -> getContentHandler()
+          .processingInstruction(node.getNodeName(), node.getNodeValue());
+        case Node.COMMENT_NODE -> {
+          if (lexicalHandler != null) {
+            final char[] data = node.getNodeValue().toCharArray();
+            lexicalHandler.comment(data, 0, data.length);
+          }
+        }
+        default -> {}
+      }
+    }
+
+    private String getUri(final Node node) {
+      return node.getNamespaceURI() != null ? node.getNamespaceURI() : "";
+    }
+
+    private String getLocalName(final Node node) {
+      return node.getLocalName() != null ? node.getLocalName() : node.getNodeName();
+    }
+  }
 }
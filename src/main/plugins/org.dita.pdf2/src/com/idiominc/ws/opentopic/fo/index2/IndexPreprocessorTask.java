@@ -4,12 +4,14 @@ import static org.dita.dost.util.Constants.*;
 
 import com.idiominc.ws.opentopic.fo.index2.configuration.IndexConfiguration;
 import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Locale;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.sax.SAXSource;
 import javax.xml.transform.stream.StreamResult;
 import org.apache.tools.ant.BuildException;
 import org.apache.tools.ant.Project;
@@ -17,7 +19,12 @@ import org.apache.tools.ant.Task;
 import org.apache.tools.ant.types.XMLCatalog;
 import org.dita.dost.log.DITAOTAntLogger;
 import org.dita.dost.util.XMLUtils;
-import org.w3c.dom.Document;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLFilter;
+import org.xml.sax.XMLReader;
+import org.xml.sax.ext.DefaultHandler2;
 
 /*
 Copyright (c) 2004-2006 by Idiom Technologies, Inc. All rights reserved.
@@ -63,6 +70,7 @@ public class IndexPreprocessorTask extends Task {
   private String locale = "ja";
   private String indexConfig = "";
   private String draft = ARGS_DRAFT_NO;
+  private boolean parallel = false;
   public static boolean failOnError = false;
   public static boolean processingFaild = false;
   private static final String prefix = "opentopic-index";
@@ -80,19 +88,8 @@ public class IndexPreprocessorTask extends Task {
       final DocumentBuilder documentBuilder = XMLUtils.getDocumentBuilder();
       documentBuilder.setEntityResolver(xmlcatalog);
 
-      final Document doc = documentBuilder.parse(input);
-      final IndexPreprocessor preprocessor = new IndexPreprocessor(prefix, namespace_url, this.draft);
-      preprocessor.setLogger(new DITAOTAntLogger(getProject()));
-
-      // Walks through source document and builds an array of IndexEntry and builds
-      // new Document with pre-processed index entries included.
-      final IndexPreprocessResult result = preprocessor.process(doc);
-
-      final Document resultDoc = result.getDocument();
-
       // Parse index configuration from file specified from ANT script
       final IndexConfiguration configuration = IndexConfiguration.parse(documentBuilder.parse(this.indexConfig));
-      final IndexEntry[] indexEntries = result.getIndexEntries();
 
       Locale loc;
       // Split passed locale string to lang and country codes
@@ -101,12 +98,19 @@ public class IndexPreprocessorTask extends Task {
       } else {
         loc = new Locale(this.locale);
       }
-      // Append index groups to the end of document
-      preprocessor.createAndAddIndexGroups(indexEntries, configuration, resultDoc, loc);
 
-      if (processingFaild) {
-        setActiveProjectProperty("ws.runtime.index.preprocess.fail", "true");
+      final IndexPreprocessor preprocessor = new IndexPreprocessor(prefix, namespace_url, this.draft);
+      preprocessor.setLogger(new DITAOTAntLogger(getProject()));
+      preprocessor.setParallel(parallel);
+
+      // Streams through source document, replaces index terms with pre-processed index entries
+      // and appends index groups to the end of document.
+      final XMLFilter filter = preprocessor.getFilter(configuration, loc);
+      filter.setParent(XMLUtils.getXMLReader());
+      if (xmlcatalog != null) {
+        filter.setEntityResolver(xmlcatalog);
       }
+
       // Serialize processed document
       final TransformerFactory transformerFactory = TransformerFactory.newInstance();
       final Transformer transformer = transformerFactory.newTransformer();
@@ -114,24 +118,66 @@ public class IndexPreprocessorTask extends Task {
       transformer.setOutputProperty(OutputKeys.INDENT, "no");
       transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
       transformer.setOutputProperty(OutputKeys.STANDALONE, "yes");
-      if (doc.getDoctype() != null) {
-        if (null != doc.getDoctype().getPublicId()) {
-          transformer.setOutputProperty(OutputKeys.DOCTYPE_PUBLIC, doc.getDoctype().getPublicId());
-        }
-        if (null != doc.getDoctype().getSystemId()) {
-          transformer.setOutputProperty(OutputKeys.DOCTYPE_SYSTEM, doc.getDoctype().getSystemId());
-        }
+      final DoctypeReader doctype = readDoctype();
+      if (doctype.publicId != null) {
+        transformer.setOutputProperty(OutputKeys.DOCTYPE_PUBLIC, doctype.publicId);
+      }
+      if (doctype.systemId != null) {
+        transformer.setOutputProperty(OutputKeys.DOCTYPE_SYSTEM, doctype.systemId);
+      }
+      try (OutputStream out = new FileOutputStream(this.output)) {
+        transformer.transform(new SAXSource(filter, new InputSource(input)), new StreamResult(out));
+      }
+
+      if (processingFaild) {
+        setActiveProjectProperty("ws.runtime.index.preprocess.fail", "true");
       }
-      final FileOutputStream out = new FileOutputStream(this.output);
-      final StreamResult streamResult = new StreamResult(out);
-      transformer.transform(new DOMSource(resultDoc), streamResult);
-      out.close();
     } catch (final Exception e) {
       e.printStackTrace();
       throw new BuildException(e);
     }
   }
 
+  /** Read document type declaration from input. Parsing is stopped at the root element. */
+  private DoctypeReader readDoctype() throws IOException, SAXException {
+    final DoctypeReader handler = new DoctypeReader();
+    final XMLReader reader = XMLUtils.getXMLReader();
+    reader.setContentHandler(handler);
+    reader.setProperty("http://xml.org/sax/properties/lexical-handler", handler);
+    if (xmlcatalog != null) {
+      reader.setEntityResolver(xmlcatalog);
+    }
+    try {
+      reader.parse(new InputSource(input));
+    } catch (final RootElementReached e) {
+      // document type declaration has been read
+    }
+    return handler;
+  }
+
+  private static final class DoctypeReader extends DefaultHandler2 {
+
+    private String publicId;
+    private String systemId;
+
+    @Override
+    public void startDTD(final String name, final String publicId, final String systemId) {
+      this.publicId = publicId;
+      this.systemId = systemId;
+    }
+
+    @Override
+    public void startElement(final String uri, final String localName, final String qName, final Attributes atts)
+      throws SAXException {
+      throw new RootElementReached();
+    }
+  }
+
+  private static final class RootElementReached extends SAXException {
+
+    private static final long serialVersionUID = -4547892337298851302L;
+  }
+
   private void checkParameters() throws BuildException {
     if (null == locale || null == input || null == output || null == indexConfig) {
       throw new BuildException("locale, indexConfig, input, output attributes are required");
@@ -166,6 +212,10 @@ public class IndexPreprocessorTask extends Task {
     this.draft = draftValue;
   }
 
+  public void setParallel(final String parallelValue) {
+    this.parallel = parallelValue.equals("true");
+  }
+
   private void setActiveProjectProperty(final String propertyName, final String propertyValue) {
     final Project activeProject = getProject();
     if (activeProject != null) {
@@ -0,0 +1,105 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package com.idiominc.ws.opentopic.fo.index2;
+
+import com.idiominc.ws.opentopic.fo.index2.configuration.IndexConfiguration;
+import com.idiominc.ws.opentopic.fo.index2.util.IndexStringProcessor;
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.apache.tools.ant.Project;
+import org.dita.dost.log.DITAOTAntLogger;
+import org.dita.dost.util.XMLUtils;
+import org.openjdk.jmh.annotations.*;
+import org.w3c.dom.Document;
+
+/**
+ * Index grouping and sorting over synthetic index terms. Terms are random words from the alphabet of the index
+ * language, a quarter of them with a secondary term. Index configuration is read from {@code cfg/common/index}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@SuppressWarnings("deprecation")
+public class IndexGroupBenchmark {
+
+  private static final Map<String, String> ALPHABETS = Map.of(
+    "en",
+    "abcdefghijklmnopqrstuvwxyz",
+    "de",
+    "abcdefghijklmnopqrstuvwxyzäöüß",
+    "ru",
+    "абвгдеёжзийклмнопрстуфхцчшщъыьэюя",
+    "ja",
+    "あいうえおかきくけこさしすせそたちつてとなにぬねのはひふへほまみむめもやゆよらりるれろわん"
+  );
+
+  @Param({ "en", "de", "ru", "ja" })
+  public String language;
+
+  @Param({ "10000", "50000" })
+  public int terms;
+
+  @Param({ "false", "true" })
+  public boolean parallel;
+
+  private IndexEntry[] entries;
+  private IndexConfiguration configuration;
+  private Locale locale;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    locale = Locale.forLanguageTag(language);
+    final File config = new File("cfg" + File.separator + "common" + File.separator + "index", language + ".xml");
+    configuration = IndexConfiguration.parse(XMLUtils.getDocumentBuilder().parse(config));
+    final String alphabet = ALPHABETS.get(language);
+    final Random random = new Random(terms);
+    final List<IndexEntry> res = new ArrayList<>();
+    for (int i = 0; i < terms; i++) {
+      String term = word(random, alphabet);
+      if (i % 4 == 0) {
+        term = term + IndexPreprocessor.VALUE_SEPARATOR + word(random, alphabet);
+      }
+      res.addAll(Arrays.asList(IndexStringProcessor.processIndexString(term, null)));
+    }
+    entries = res.toArray(new IndexEntry[0]);
+  }
+
+  private static String word(final Random random, final String alphabet) {
+    final int length = 3 + random.nextInt(8);
+    final StringBuilder buf = new StringBuilder(length);
+    for (int i = 0; i < length; i++) {
+      buf.append(alphabet.charAt(random.nextInt(alphabet.length())));
+    }
+    return buf.toString();
+  }
+
+  /** Group index entries. */
+  @Benchmark
+  public IndexGroup[] group() {
+    final IndexGroupProcessor processor = new IndexGroupProcessor();
+    processor.setLogger(new DITAOTAntLogger(new Project()));
+    processor.setParallel(parallel);
+    return processor.process(entries, configuration, locale);
+  }
+
+  /** Group and sort index entries and create index group elements. */
+  @Benchmark
+  public Document groupAndSort() {
+    final IndexPreprocessor preprocessor = new IndexPreprocessor("opentopic-index", "urn:index", "no");
+    preprocessor.setLogger(new DITAOTAntLogger(new Project()));
+    preprocessor.setParallel(parallel);
+    final Document doc = XMLUtils.getDocumentBuilder().newDocument();
+    doc.appendChild(doc.createElement("root"));
+    preprocessor.createAndAddIndexGroups(entries, configuration, doc, locale);
+    return doc;
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package com.idiominc.ws.opentopic.fo.i18n;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.StringWriter;
+import javax.xml.transform.Source;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.sax.SAXSource;
+import javax.xml.transform.stream.StreamResult;
+import org.dita.dost.TestUtils;
+import org.dita.dost.util.XMLUtils;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLFilter;
+
+public class MultilanguagePreprocessorTest {
+
+  private final File resourceDir = TestUtils.getResourceDir(MultilanguagePreprocessorTest.class);
+  private final File src = new File(resourceDir, "topic.xml");
+
+  @ParameterizedTest
+  @ValueSource(strings = { "en", "ja", "ru" })
+  public void getFilter_sameAsProcess(final String language) throws Exception {
+    final File config = new File("cfg" + File.separator + "fo" + File.separator + "i18n", language + ".xml");
+    final MultilanguagePreprocessor preprocessor = new MultilanguagePreprocessor(
+      new Configuration(XMLUtils.getDocumentBuilder().parse(config))
+    );
+
+    final String exp = serialize(new DOMSource(preprocessor.process(XMLUtils.getDocumentBuilder().parse(src))));
+
+    final XMLFilter filter = preprocessor.getFilter();
+    filter.setParent(XMLUtils.getXMLReader());
+    final String act = serialize(new SAXSource(filter, new InputSource(src.toURI().toString())));
+
+    assertEquals(exp, act);
+    assertTrue(act.contains("<!-- inline -->"));
+  }
+
+  private String serialize(final Source source) throws Exception {
+    final StringWriter buf = new StringWriter();
+    TransformerFactory.newInstance().newTransformer().transform(source, new StreamResult(buf));
+    return buf.toString();
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package com.idiominc.ws.opentopic.fo.index2;
+
+import static org.dita.dost.util.Constants.ARGS_DRAFT_NO;
+import static org.dita.dost.util.Constants.ARGS_DRAFT_YES;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.idiominc.ws.opentopic.fo.index2.configuration.IndexConfiguration;
+import java.io.File;
+import java.io.StringWriter;
+import java.util.Locale;
+import java.util.stream.Stream;
+import javax.xml.transform.Source;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.sax.SAXSource;
+import javax.xml.transform.stream.StreamResult;
+import org.dita.dost.TestUtils;
+import org.dita.dost.util.XMLUtils;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLFilter;
+
+public class IndexPreprocessorTest {
+
+  private static final String PREFIX = "opentopic-index";
+  private static final String NAMESPACE = "http://www.idiominc.com/opentopic/index";
+
+  private final File resourceDir = TestUtils.getResourceDir(IndexPreprocessorTest.class);
+  private final File src = new File(resourceDir, "topic.xml");
+
+  static Stream<Arguments> languages() {
+    return Stream
+      .of("en", "ja", "ru")
+      .flatMap(language -> Stream.of(Arguments.of(language, ARGS_DRAFT_NO), Arguments.of(language, ARGS_DRAFT_YES)));
+  }
+
+  @ParameterizedTest
+  @MethodSource("languages")
+  public void getFilter_sameAsProcess(final String language, final String draft) throws Exception {
+    final File config = new File("cfg" + File.separator + "common" + File.separator + "index", language + ".xml");
+    final IndexConfiguration configuration = IndexConfiguration.parse(XMLUtils.getDocumentBuilder().parse(config));
+    final Locale locale = Locale.forLanguageTag(language);
+
+    final IndexPreprocessor domPreprocessor = createPreprocessor(draft);
+    final IndexPreprocessResult result = domPreprocessor.process(XMLUtils.getDocumentBuilder().parse(src));
+    domPreprocessor.createAndAddIndexGroups(result.getIndexEntries(), configuration, result.getDocument(), locale);
+    final String exp = serialize(new DOMSource(result.getDocument()));
+
+    final XMLFilter filter = createPreprocessor(draft).getFilter(configuration, locale);
+    filter.setParent(XMLUtils.getXMLReader());
+    final String act = serialize(new SAXSource(filter, new InputSource(src.toURI().toString())));
+
+    assertEquals(exp, act);
+    assertTrue(act.contains("<!-- comment -->"));
+    assertTrue(act.contains(PREFIX + ":index.groups"));
+  }
+
+  private IndexPreprocessor createPreprocessor(final String draft) {
+    final IndexPreprocessor preprocessor = new IndexPreprocessor(PREFIX, NAMESPACE, draft);
+    preprocessor.setLogger(new TestUtils.TestLogger(false));
+    return preprocessor;
+  }
+
+  private String serialize(final Source source) throws Exception {
+    final StringWriter buf = new StringWriter();
+    TransformerFactory.newInstance().newTransformer().transform(source, new StreamResult(buf));
+    return buf.toString();
+  }
+}
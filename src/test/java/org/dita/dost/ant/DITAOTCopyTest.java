@@ -0,0 +1,189 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.ant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import org.apache.tools.ant.BuildException;
+import org.apache.tools.ant.Project;
+import org.apache.tools.ant.types.EnumeratedAttribute;
+import org.apache.tools.ant.types.FileSet;
+import org.apache.tools.ant.util.GlobPatternMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class DITAOTCopyTest {
+
+  @TempDir
+  private Path tempDir;
+
+  private Project project;
+  private Path src;
+  private Path dest;
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    project = new Project();
+    project.init();
+    src = Files.createDirectories(tempDir.resolve("src"));
+    dest = tempDir.resolve("dest");
+    Files.writeString(src.resolve("a.png"), "a");
+    Files.writeString(Files.createDirectories(src.resolve("sub")).resolve("b.png"), "bb");
+  }
+
+  private DITAOTCopy createTask() {
+    final DITAOTCopy task = new DITAOTCopy();
+    task.setProject(project);
+    task.setTodir(dest.toFile());
+    return task;
+  }
+
+  private FileSet createFileSet() {
+    final FileSet fs = new FileSet();
+    fs.setProject(project);
+    fs.setDir(src.toFile());
+    return fs;
+  }
+
+  @Test
+  public void execute_includes() throws IOException {
+    final DITAOTCopy task = createTask();
+    task.setIncludes(src.resolve("a.png") + "," + src.resolve("sub").resolve("b.png"));
+    task.execute();
+
+    assertEquals("a", Files.readString(dest.resolve("a.png")));
+    assertEquals("bb", Files.readString(dest.resolve("b.png")));
+  }
+
+  @Test
+  public void execute_resources() throws IOException {
+    final DITAOTCopy task = createTask();
+    task.add(createFileSet());
+    task.execute();
+
+    assertEquals("a", Files.readString(dest.resolve("a.png")));
+    assertEquals("bb", Files.readString(dest.resolve("sub").resolve("b.png")));
+    assertEquals(
+      Files.getLastModifiedTime(src.resolve("a.png")).toMillis(),
+      Files.getLastModifiedTime(dest.resolve("a.png")).toMillis()
+    );
+  }
+
+  @Test
+  public void execute_mapper() throws IOException {
+    final DITAOTCopy task = createTask();
+    task.add(createFileSet());
+    final GlobPatternMapper mapper = new GlobPatternMapper();
+    mapper.setFrom("*.png");
+    mapper.setTo("*.jpg");
+    task.add(mapper);
+    task.execute();
+
+    assertEquals("a", Files.readString(dest.resolve("a.jpg")));
+    assertEquals("bb", Files.readString(dest.resolve("sub").resolve("b.jpg")));
+  }
+
+  @Test
+  public void execute_mapperAbsolute() throws IOException {
+    final Path other = tempDir.resolve("other");
+    final DITAOTCopy task = createTask();
+    task.add(createFileSet());
+    final GlobPatternMapper mapper = new GlobPatternMapper();
+    mapper.setFrom("*.png");
+    mapper.setTo(other.toAbsolutePath() + File.separator + "*.jpg");
+    task.add(mapper);
+    task.execute();
+
+    assertEquals("a", Files.readString(other.resolve("a.jpg")));
+    assertEquals("bb", Files.readString(other.resolve("sub").resolve("b.jpg")));
+    assertFalse(Files.exists(dest.resolve("a.jpg")));
+  }
+
+  @Test
+  public void execute_parallel() throws IOException {
+    final DITAOTCopy task = createTask();
+    task.add(createFileSet());
+    task.setParallel(true);
+    task.execute();
+
+    assertEquals("a", Files.readString(dest.resolve("a.png")));
+    assertEquals("bb", Files.readString(dest.resolve("sub").resolve("b.png")));
+  }
+
+  @Test
+  public void execute_unchanged() throws IOException {
+    final DITAOTCopy first = createTask();
+    first.add(createFileSet());
+    first.execute();
+    final Path out = dest.resolve("a.png");
+    // Same size and modification time, so target is assumed to be up to date
+    final FileTime modified = Files.getLastModifiedTime(out);
+    Files.writeString(out, "x");
+    Files.setLastModifiedTime(out, modified);
+
+    final DITAOTCopy second = createTask();
+    second.add(createFileSet());
+    second.execute();
+
+    assertEquals("x", Files.readString(out));
+  }
+
+  @Test
+  public void execute_changed() throws IOException {
+    final DITAOTCopy first = createTask();
+    first.add(createFileSet());
+    first.execute();
+    final Path out = dest.resolve("a.png");
+    Files.writeString(out, "xx");
+
+    final DITAOTCopy second = createTask();
+    second.add(createFileSet());
+    second.execute();
+
+    assertEquals("a", Files.readString(out));
+  }
+
+  @Test
+  public void execute_link() throws IOException {
+    final DITAOTCopy task = createTask();
+    task.add(createFileSet());
+    task.setMode((DITAOTCopy.ModeAttribute) EnumeratedAttribute.getInstance(DITAOTCopy.ModeAttribute.class, "link"));
+    task.execute();
+
+    assertTrue(Files.isSameFile(src.resolve("a.png"), dest.resolve("a.png")));
+    assertTrue(Files.isSameFile(src.resolve("sub").resolve("b.png"), dest.resolve("sub").resolve("b.png")));
+  }
+
+  @Test
+  public void execute_missing() {
+    final DITAOTCopy task = createTask();
+    task.setIncludes(src.resolve("missing.png").toString());
+    task.execute();
+
+    assertFalse(Files.exists(dest.resolve("missing.png")));
+  }
+
+  @Test
+  public void execute_noDestination() {
+    final DITAOTCopy task = new DITAOTCopy();
+    task.setProject(project);
+    task.setIncludes(src.resolve("a.png").toString());
+
+    assertThrows(BuildException.class, task::execute);
+  }
+}
@@ -45,6 +45,7 @@ public class ChunkModuleTest extends AbstractModuleTest {
       Arguments.of("dita", Collections.emptyMap(), 0),
       Arguments.of("combine-empty-ditabase", Collections.emptyMap(), 0),
       Arguments.of("link", Collections.emptyMap(), 0),
+      Arguments.of("link-index", Collections.emptyMap(), 0),
       Arguments.of("uplevels", Collections.emptyMap(), 0),
       Arguments.of("uplevels-dir", Collections.emptyMap(), 0),
       Arguments.of("uplevels-root", Collections.emptyMap(), 0),
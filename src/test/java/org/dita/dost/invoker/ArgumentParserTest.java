@@ -9,6 +9,8 @@
 package org.dita.dost.invoker;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
 import java.util.Collections;
@@ -50,6 +52,31 @@ public class ArgumentParserTest {
     assertEquals(Project.MSG_INFO, act.msgOutputLevel);
   }
 
+  @Test
+  public void daemonSubcommand() {
+    final DaemonArguments act = (DaemonArguments) parser.processArgs(
+      new String[] { "daemon", "--port=8080", "--parallel-builds=2" }
+    );
+    assertEquals(8080, act.port);
+    assertEquals(2, act.parallelBuilds);
+    assertFalse(act.stop);
+  }
+
+  @Test
+  public void daemonSubcommand_stop() {
+    final DaemonArguments act = (DaemonArguments) parser.processArgs(new String[] { "daemon", "--stop" });
+    assertEquals(Daemon.DEFAULT_PORT, act.port);
+    assertTrue(act.stop);
+  }
+
+  @Test
+  public void daemonOption() {
+    final ConversionArguments act = (ConversionArguments) parser.processArgs(
+      new String[] { "-i", "src", "-f", "html5", "--daemon=8080" }
+    );
+    assertEquals(8080, act.daemonPort);
+  }
+
   @Test
   public void reinstallSubcommand() {
     final InstallArguments act = (InstallArguments) parser.processArgs(new String[] { "install" });
@@ -10,8 +10,11 @@ package org.dita.dost.invoker;
 
 import static java.io.File.pathSeparator;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.io.File;
+import org.apache.tools.ant.BuildException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -52,6 +55,59 @@ public class ConversionArgumentsTest {
     assertEquals("html5", arguments.definedProps.get("transtype"));
   }
 
+  @Test
+  public void parallelDeliverables() {
+    arguments.parse(new String[] { "--parallel-deliverables=4" });
+
+    assertEquals(4, arguments.parallelDeliverables);
+  }
+
+  @Test
+  public void parallelDeliverables_separateValue() {
+    arguments.parse(new String[] { "--parallel-deliverables", "2" });
+
+    assertEquals(2, arguments.parallelDeliverables);
+  }
+
+  @Test
+  public void parallelDeliverables_default() {
+    arguments.parse(new String[] { "-i", "foo.dita" });
+
+    assertEquals(1, arguments.parallelDeliverables);
+  }
+
+  @Test
+  public void parallelDeliverables_invalid() {
+    assertThrows(BuildException.class, () -> arguments.parse(new String[] { "--parallel-deliverables=0" }));
+  }
+
+  @Test
+  public void daemon_defaultPort() {
+    arguments.parse(new String[] { "-i", "foo.dita", "--daemon" });
+
+    assertEquals(Daemon.DEFAULT_PORT, arguments.daemonPort);
+    assertEquals("foo.dita", arguments.definedProps.get("args.input"));
+  }
+
+  @Test
+  public void daemon_port() {
+    arguments.parse(new String[] { "--daemon=8080" });
+
+    assertEquals(8080, arguments.daemonPort);
+  }
+
+  @Test
+  public void daemon_default() {
+    arguments.parse(new String[] { "-i", "foo.dita" });
+
+    assertNull(arguments.daemonPort);
+  }
+
+  @Test
+  public void daemon_invalid() {
+    assertThrows(BuildException.class, () -> arguments.parse(new String[] { "--daemon=foo" }));
+  }
+
   @Test
   public void resource_short_multipleOptions() {
     arguments.parse(new String[] { "-r", "foo.dita", "-r", "bar.dita" });
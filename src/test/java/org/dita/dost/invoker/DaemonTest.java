@@ -0,0 +1,137 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.invoker;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import java.util.Map;
+import org.apache.tools.ant.BuildException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class DaemonTest {
+
+  @TempDir
+  private File tmpDir;
+
+  private File tokenFile;
+  private Daemon daemon;
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    tokenFile = new File(tmpDir, "daemon.token");
+    daemon =
+      new Daemon(
+        0,
+        tokenFile,
+        1,
+        request -> {
+          request.out().print("args: " + String.join(" ", request.args()));
+          System.err.print("input: " + request.properties().get(0).get("args.input"));
+          return request.properties().size();
+        }
+      );
+    daemon.start();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    daemon.stop();
+  }
+
+  @Test
+  public void build() {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    final int exitCode = new DaemonClient(daemon.getPort(), tokenFile)
+      .build(List.of("-i", "foo.dita", "-f", "html5"), List.of(Map.of("args.input", "file:/foo.dita")), out, err);
+
+    assertEquals(1, exitCode);
+    assertEquals("args: -i foo.dita -f html5", out.toString(StandardCharsets.UTF_8));
+    assertEquals("input: file:/foo.dita", err.toString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void start_tokenPermissions() throws IOException {
+    assumeTrue(tmpDir.toPath().getFileSystem().supportedFileAttributeViews().contains("posix"));
+    final File nestedTokenFile = new File(tmpDir, "dita" + File.separator + "daemon.token");
+    final Daemon nested = new Daemon(0, nestedTokenFile, 1, request -> 0);
+    nested.start();
+    try {
+      assertEquals(
+        PosixFilePermissions.fromString("rwx------"),
+        Files.getPosixFilePermissions(nestedTokenFile.getParentFile().toPath())
+      );
+      assertEquals(PosixFilePermissions.fromString("rw-------"), Files.getPosixFilePermissions(nestedTokenFile.toPath()));
+      assertEquals(32, Files.readString(nestedTokenFile.toPath()).length());
+      assertArrayEquals(new String[] { "daemon.token" }, nestedTokenFile.getParentFile().list());
+    } finally {
+      nested.stop();
+    }
+  }
+
+  @Test
+  public void build_invalidToken() throws IOException {
+    final File invalidToken = new File(tmpDir, "invalid.token");
+    Files.writeString(invalidToken.toPath(), "invalid");
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    final int exitCode = new DaemonClient(daemon.getPort(), invalidToken).build(List.of(), List.of(), out, out);
+
+    assertEquals(1, exitCode);
+    assertEquals(0, out.size());
+  }
+
+  @Test
+  public void build_tokenTooLong() throws IOException {
+    try (
+      Socket socket = new Socket(InetAddress.getLoopbackAddress(), daemon.getPort());
+      DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+      DataInputStream in = new DataInputStream(socket.getInputStream())
+    ) {
+      socket.setSoTimeout(10_000);
+      // announce a long token without sending it
+      out.writeInt(1024 * 1024);
+      out.flush();
+
+      assertEquals(Daemon.FRAME_EXIT, in.readByte());
+      assertEquals(1, in.readInt());
+    }
+  }
+
+  @Test
+  public void build_notRunning() {
+    final DaemonClient client = new DaemonClient(daemon.getPort(), new File(tmpDir, "missing.token"));
+
+    assertThrows(BuildException.class, () -> client.build(List.of(), List.of(), System.out, System.err));
+  }
+
+  @Test
+  public void stop() throws InterruptedException {
+    assertEquals(0, new DaemonClient(daemon.getPort(), tokenFile).stop());
+
+    daemon.await();
+    assertFalse(tokenFile.exists());
+  }
+}
@@ -12,12 +12,19 @@ import static java.net.URI.create;
 import static org.dita.dost.util.Constants.OS_NAME;
 import static org.dita.dost.util.Constants.OS_NAME_WINDOWS;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import org.dita.dost.TestUtils;
 import org.dita.dost.TestUtils.TestLogger;
@@ -129,6 +136,83 @@ public class CleanPreprocessModuleTest {
     assertEquals(create("file:/foo/bar/"), module.getBaseDir());
   }
 
+  @Test
+  public void getConflicts() {
+    assertEquals(
+      List.of(),
+      List.copyOf(module.getConflicts(List.of(fi("a.dita", "topics/a.dita"), fi("b.dita", "topics/b.dita"))))
+    );
+    assertEquals(List.of(), List.copyOf(module.getConflicts(List.of(fi("a.dita", "a.dita"), fi("b.dita", "b.dita")))));
+    assertEquals(
+      List.of(create("topics/a.dita")),
+      List.copyOf(module.getConflicts(List.of(fi("a.dita", "topics/a.dita"), fi("b.dita", "topics/a.dita"))))
+    );
+    assertEquals(
+      List.of(create("b.dita")),
+      List.copyOf(module.getConflicts(List.of(fi("a.dita", "b.dita"), fi("b.dita", "c.dita"))))
+    );
+    assertEquals(
+      List.of(),
+      List.copyOf(
+        module.getConflicts(
+          List.of(
+            new Builder().uri(create("a.png")).result(create("a.png")).format("image").build(),
+            new Builder().uri(create("b.png")).result(create("a.png")).format("image").build()
+          )
+        )
+      )
+    );
+  }
+
+  private static Job.FileInfo fi(final String uri, final String result) {
+    return new Builder().uri(create(uri)).result(create(result)).format("dita").build();
+  }
+
+  @Test
+  public void execute_parallel() throws Exception {
+    final URI src = new File(tempDir, "src").toURI();
+    job.setInputDir(src);
+    job.add(
+      new Builder()
+        .uri(create("map.ditamap"))
+        .isInput(true)
+        .src(src.resolve("map.ditamap"))
+        .result(src.resolve("map.ditamap"))
+        .format("ditamap")
+        .build()
+    );
+    for (int i = 0; i < 10; i++) {
+      job.add(
+        new Builder()
+          .uri(create("t" + i + ".dita"))
+          .src(src.resolve("topics/topic" + i + ".dita"))
+          .result(src.resolve("topics/topic" + i + ".dita"))
+          .format("dita")
+          .build()
+      );
+      write("t" + i + ".dita", "<topic class='- topic/topic ' id='topic" + i + "'/>");
+    }
+    write("map.ditamap", "<map class='- map/map '><topicref class='- map/topicref ' href='t0.dita'/></map>");
+    module.setXmlUtils(xmlUtils);
+    module.setLogger(new TestLogger());
+    module.setParallel(true);
+    module.setProcessingPipe(Collections.emptyList());
+
+    module.execute(Map.of("use-result-filename", "true"));
+
+    for (int i = 0; i < 10; i++) {
+      assertFalse(new File(tempDir, "t" + i + ".dita").exists());
+      assertTrue(new File(tempDir, "topics" + File.separator + "topic" + i + ".dita").exists());
+      assertNotNull(job.getFileInfo(create("topics/topic" + i + ".dita")));
+    }
+    final String map = Files.readString(new File(tempDir, "map.ditamap").toPath(), StandardCharsets.UTF_8);
+    assertTrue(map.contains("href=\"topics/topic0.dita\""), map);
+  }
+
+  private void write(final String file, final String content) throws IOException {
+    Files.writeString(new File(tempDir, file).toPath(), content, StandardCharsets.UTF_8);
+  }
+
   @Test
   public void RewriteRule_WhenStylesheetNotFound_ShouldThrowException() throws Exception {
     assertThrows(
@@ -16,14 +16,19 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
 import org.dita.dost.TestUtils;
 import org.dita.dost.exception.DITAOTException;
+import org.dita.dost.log.DITAOTLogger;
 import org.dita.dost.pipeline.PipelineHashIO;
 import org.dita.dost.store.StreamStore;
 import org.dita.dost.util.CatalogUtils;
 import org.dita.dost.util.Constants;
 import org.dita.dost.util.Job;
+import org.dita.dost.util.ReferenceIndex;
 import org.dita.dost.util.XMLUtils;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
@@ -165,6 +170,198 @@ public class DebugAndFilterModuleTest {
     }
   }
 
+  @Test
+  public void testIncremental() throws IOException, DITAOTException {
+    final File cacheDir = new File(tempDir, "cache");
+    final File firstTmpDir = new File(tempDir, "first");
+    runIncremental(firstTmpDir, cacheDir);
+    assertEquals(1, cacheDir.listFiles((dir, name) -> name.startsWith("manifest-")).length);
+    final File[] snapshots = new File(cacheDir, "files").listFiles();
+    // xreffin-topic-1.xml has keyrefs and is never reused
+    assertEquals(3, snapshots.length);
+    for (final File snapshot : snapshots) {
+      Files.writeString(snapshot.toPath(), "<!--cached-->", StandardOpenOption.APPEND);
+    }
+
+    final File secondTmpDir = new File(tempDir, "second");
+    runIncremental(secondTmpDir, cacheDir);
+
+    final File topic = new File("topics", "target-topic-a.xml");
+    final String first = Files.readString(new File(firstTmpDir, topic.getPath()).toPath());
+    final String second = Files.readString(new File(secondTmpDir, topic.getPath()).toPath());
+    assertFalse(first.contains("<!--cached-->"));
+    assertEquals(
+      DebugAndFilterModule.relocate(
+        first,
+        new File(firstTmpDir, topic.getPath()).getAbsoluteFile(),
+        new File(secondTmpDir, topic.getPath()).getAbsoluteFile()
+      ) +
+      "<!--cached-->",
+      second
+    );
+    assertTrue(second.contains(secondTmpDir.getAbsolutePath()));
+    assertFalse(second.contains(firstTmpDir.getAbsolutePath()));
+  }
+
+  @Test
+  public void testIncremental_dependencyChanged() throws IOException, DITAOTException {
+    inputDir = new File(tempDir, "input");
+    TestUtils.copy(new File(resourceDir, "input"), inputDir);
+    final File cacheDir = new File(tempDir, "cache");
+    runIncremental(new File(tempDir, "first"), cacheDir);
+    for (final File snapshot : new File(cacheDir, "files").listFiles()) {
+      Files.writeString(snapshot.toPath(), "<!--cached-->", StandardOpenOption.APPEND);
+    }
+    Files.writeString(
+      new File(inputDir, "topics" + File.separator + "target-topic-c.xml").toPath(),
+      "\n",
+      StandardOpenOption.APPEND
+    );
+
+    final File secondTmpDir = new File(tempDir, "second");
+    runIncremental(secondTmpDir, cacheDir);
+
+    assertTrue(readFile(secondTmpDir, "topics", "target-topic-a.xml").endsWith("<!--cached-->"));
+    assertFalse(readFile(secondTmpDir, "topics", "target-topic-c.xml").contains("<!--cached-->"));
+    // map refers to changed topic
+    assertFalse(readFile(secondTmpDir, "maps", "root-map-01.ditamap").contains("<!--cached-->"));
+  }
+
+  @Test
+  public void testIncremental_messagesReplayed() throws IOException, DITAOTException {
+    inputDir = new File(tempDir, "input");
+    TestUtils.copy(new File(resourceDir, "input"), inputDir);
+    final File topic = new File(inputDir, "topics" + File.separator + "target-topic-a.xml");
+    Files.writeString(
+      topic.toPath(),
+      Files
+        .readString(topic.toPath())
+        .replace("<p class=\"- topic/p \">", "<p class=\"- topic/p \" id=\"dup\"/><p class=\"- topic/p \" id=\"dup\">")
+    );
+    final File cacheDir = new File(tempDir, "cache");
+    final TestUtils.CachingLogger firstLogger = new TestUtils.CachingLogger();
+    run(new File(tempDir, "first"), cacheDir, false, firstLogger);
+    for (final File snapshot : new File(cacheDir, "files").listFiles()) {
+      Files.writeString(snapshot.toPath(), "<!--cached-->", StandardOpenOption.APPEND);
+    }
+
+    final File secondTmpDir = new File(tempDir, "second");
+    final TestUtils.CachingLogger secondLogger = new TestUtils.CachingLogger();
+    run(secondTmpDir, cacheDir, false, secondLogger);
+
+    assertTrue(readFile(secondTmpDir, "topics", "target-topic-a.xml").endsWith("<!--cached-->"));
+    final List<String> firstWarnings = getWarnings(firstLogger);
+    assertTrue(firstWarnings.stream().anyMatch(m -> m.contains("DOTJ057E")));
+    assertEquals(firstWarnings, getWarnings(secondLogger));
+  }
+
+  private static List<String> getWarnings(final TestUtils.CachingLogger logger) {
+    return logger
+      .getMessages()
+      .stream()
+      .filter(m -> m.level == TestUtils.CachingLogger.Message.Level.WARN)
+      .map(m -> m.message)
+      .toList();
+  }
+
+  private static String readFile(final File dir, final String... path) throws IOException {
+    return Files.readString(Paths.get(dir.getPath(), path));
+  }
+
+  @Test
+  public void testParallel() throws IOException, DITAOTException {
+    final File serialTmpDir = new File(tempDir, "serial");
+    run(serialTmpDir, null, false);
+    final File parallelTmpDir = new File(tempDir, "parallel");
+    run(parallelTmpDir, null, true);
+
+    for (final File file : new File[] {
+      new File("maps", "root-map-01.ditamap"),
+      new File("topics", "target-topic-a.xml"),
+      new File("topics", "target-topic-c.xml"),
+      new File("topics", "xreffin-topic-1.xml"),
+    }) {
+      assertEquals(
+        DebugAndFilterModule.relocate(
+          Files.readString(new File(serialTmpDir, file.getPath()).toPath()),
+          new File(serialTmpDir, file.getPath()).getAbsoluteFile(),
+          new File(parallelTmpDir, file.getPath()).getAbsoluteFile()
+        ),
+        Files.readString(new File(parallelTmpDir, file.getPath()).toPath())
+      );
+    }
+    final Job serialJob = new Job(serialTmpDir, new StreamStore(serialTmpDir, new XMLUtils()));
+    final Job parallelJob = new Job(parallelTmpDir, new StreamStore(parallelTmpDir, new XMLUtils()));
+    for (final Job.FileInfo fi : serialJob.getFileInfo()) {
+      assertEquals(fi.format, parallelJob.getFileInfo(fi.uri).format);
+    }
+  }
+
+  private void runIncremental(final File tmpDir, final File cacheDir) throws IOException, DITAOTException {
+    run(tmpDir, cacheDir, false);
+  }
+
+  private void run(final File tmpDir, final File cacheDir, final boolean parallel)
+    throws IOException, DITAOTException {
+    run(tmpDir, cacheDir, parallel, new TestUtils.TestLogger());
+  }
+
+  private void run(final File tmpDir, final File cacheDir, final boolean parallel, final DITAOTLogger logger)
+    throws IOException, DITAOTException {
+    final File inputMap = new File(inputDir, "maps" + File.separator + "root-map-01.ditamap");
+    final File outDir = new File(tempDir, "out");
+    TestUtils.copy(new File(resourceDir, "temp"), tmpDir);
+    final Job job = new Job(tmpDir, new StreamStore(tmpDir, new XMLUtils()));
+    for (final Job.FileInfo fi : job.getFileInfo()) {
+      job.add(new Job.FileInfo.Builder(fi).src(inputDir.toURI().resolve(fi.uri)).build());
+    }
+    job.setInputFile(inputMap.getAbsoluteFile().toURI());
+    job.setGeneratecopyouter(NOT_GENERATEOUTTER);
+    job.setOutputDir(outDir);
+    job.setProperty(INPUT_DIR, inputDir.getAbsolutePath());
+    job.setInputDir(inputDir.getAbsoluteFile().toURI());
+    job.write();
+    final ReferenceIndex referenceIndex = new ReferenceIndex();
+    referenceIndex.put(
+      URI.create("maps/root-map-01.ditamap"),
+      Map.of(
+        URI.create("topics/target-topic-a.xml"),
+        List.of(1),
+        URI.create("topics/target-topic-c.xml"),
+        List.of(2),
+        URI.create("topics/xreffin-topic-1.xml"),
+        List.of(3)
+      )
+    );
+    for (final String topic : List.of("target-topic-a.xml", "target-topic-c.xml", "xreffin-topic-1.xml")) {
+      referenceIndex.put(URI.create("topics/" + topic), Map.of());
+    }
+    referenceIndex.write(job.getStore(), new File(tmpDir, FILE_NAME_REFERENCE_INDEX).toURI());
+
+    final PipelineHashIO pipelineInput = new PipelineHashIO();
+    pipelineInput.setAttribute("inputmap", inputMap.getPath());
+    pipelineInput.setAttribute("basedir", inputDir.getAbsolutePath());
+    pipelineInput.setAttribute("inputdir", inputDir.getPath());
+    pipelineInput.setAttribute("outputdir", outDir.getPath());
+    pipelineInput.setAttribute("tempDir", tmpDir.getPath());
+    pipelineInput.setAttribute("ditadir", ditaDir.getAbsolutePath());
+    pipelineInput.setAttribute("validate", Boolean.FALSE.toString());
+    pipelineInput.setAttribute(ANT_INVOKER_EXT_PARAM_TRANSTYPE, "xhtml");
+    pipelineInput.setAttribute(ANT_INVOKER_EXT_PARAM_GENERATE_DEBUG_ATTR, Boolean.TRUE.toString());
+    if (cacheDir != null) {
+      pipelineInput.setAttribute(ANT_INVOKER_EXT_PARAM_INCREMENTAL_DIR, cacheDir.getPath());
+    }
+
+    final DebugAndFilterModule module = new DebugAndFilterModule();
+    module.setLogger(logger);
+    module.setJob(job);
+    module.setXmlUtils(new XMLUtils());
+    module.setProcessingPipe(Collections.emptyList());
+    module.setParallel(parallel);
+
+    module.execute(pipelineInput);
+  }
+
   private static class TestHandler implements ContentHandler {
 
     private File source;
@@ -0,0 +1,140 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.module;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.List;
+import org.dita.dost.module.ModuleMetrics.Sample;
+import org.dita.dost.store.StreamStore;
+import org.dita.dost.util.XMLUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ModuleMetricsTest {
+
+  @TempDir
+  private File tmpDir;
+
+  private XMLUtils xmlUtils;
+  private StreamStore store;
+
+  @BeforeEach
+  public void setUp() {
+    xmlUtils = new XMLUtils();
+    store = new StreamStore(tmpDir, xmlUtils);
+  }
+
+  @Test
+  public void startModule() throws IOException {
+    final ModuleMetrics metrics = new ModuleMetrics();
+    final URI file = new File(tmpDir, "topic.dita").toURI();
+
+    try (ModuleMetrics.ModuleTimer module = metrics.startModule("preprocess/Dummy", store, xmlUtils)) {
+      final ModuleMetrics.Timer timer = module.getMetrics().startFile(file);
+      try (timer; OutputStream out = store.getOutputStream(file)) {
+        out.write(new byte[100]);
+      }
+    }
+
+    final List<Sample> modules = metrics.getModules();
+    assertEquals(1, modules.size());
+    final Sample module = modules.get(0);
+    assertEquals("preprocess/Dummy", module.module());
+    assertNull(module.file());
+    assertEquals(100, module.bytesWritten());
+    assertTrue(module.wallTimeNanos() > 0);
+    final List<Sample> files = metrics.getFiles();
+    assertEquals(1, files.size());
+    assertEquals("preprocess/Dummy", files.get(0).module());
+    assertEquals(file, files.get(0).file());
+    assertTrue(files.get(0).wallTimeNanos() <= module.wallTimeNanos());
+    assertNull(files.get(0).bytesWritten());
+    assertNull(files.get(0).cacheHits());
+  }
+
+  @Test
+  public void startFile_concurrentModules() {
+    final ModuleMetrics metrics = new ModuleMetrics();
+    final URI file = new File(tmpDir, "topic.dita").toURI();
+
+    final ModuleMetrics.ModuleTimer first = metrics.startModule("First", store, xmlUtils);
+    final ModuleMetrics.ModuleTimer second = metrics.startModule("Second", store, xmlUtils);
+    first.getMetrics().startFile(file).close();
+    second.close();
+    first.getMetrics().startFile(file).close();
+    first.close();
+
+    assertEquals(List.of("First", "First"), metrics.getFiles().stream().map(Sample::module).toList());
+    assertEquals(List.of("Second", "First"), metrics.getModules().stream().map(Sample::module).toList());
+  }
+
+  @Test
+  public void disabledStoreCounting() throws IOException {
+    final URI file = new File(tmpDir, "topic.dita").toURI();
+    try (OutputStream out = store.getOutputStream(file)) {
+      out.write(new byte[100]);
+    }
+
+    assertEquals(0, store.getBytesWritten());
+  }
+
+  @Test
+  public void startFile_noModule() {
+    final ModuleMetrics metrics = new ModuleMetrics();
+
+    metrics.startFile(new File(tmpDir, "topic.dita").toURI()).close();
+
+    assertTrue(metrics.getFiles().isEmpty());
+  }
+
+  @Test
+  public void disabled() {
+    final ModuleMetrics metrics = ModuleMetrics.disabled();
+
+    try (ModuleMetrics.ModuleTimer module = metrics.startModule("Dummy", store, xmlUtils)) {
+      module.getMetrics().startFile(new File(tmpDir, "topic.dita").toURI()).close();
+    }
+
+    assertFalse(metrics.isEnabled());
+    assertTrue(metrics.getModules().isEmpty());
+    assertTrue(metrics.getFiles().isEmpty());
+  }
+
+  @Test
+  public void write() throws IOException {
+    final ModuleMetrics metrics = new ModuleMetrics();
+    try (ModuleMetrics.ModuleTimer module = metrics.startModule("Dummy", store, xmlUtils)) {
+      module.getMetrics().startFile(URI.create("file:/src/a,b.dita")).close();
+    }
+    final File outputDir = new File(tmpDir, "out");
+
+    metrics.write(outputDir);
+
+    final JsonNode json = new ObjectMapper().readTree(new File(outputDir, ModuleMetrics.FILE_NAME_JSON));
+    assertEquals("Dummy", json.get("modules").get(0).get("module").asText());
+    assertEquals("file:/src/a,b.dita", json.get("files").get(0).get("file").asText());
+    assertTrue(json.get("modules").get(0).has("bytesRead"));
+    assertFalse(json.get("files").get(0).has("bytesRead"));
+    final List<String> csv = Files.readAllLines(new File(outputDir, ModuleMetrics.FILE_NAME_CSV).toPath());
+    assertEquals(3, csv.size());
+    assertTrue(csv.get(0).startsWith("module,file,wall-time-ns,"));
+    assertTrue(csv.get(1).startsWith("Dummy,,"));
+    assertTrue(csv.get(2).startsWith("Dummy,\"file:/src/a,b.dita\","));
+    assertTrue(csv.get(2).endsWith(",,,,"));
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.module;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import org.dita.dost.TestUtils.TestLogger;
+import org.dita.dost.exception.DITAOTException;
+import org.dita.dost.module.XmlFilterModule.FilterPair;
+import org.dita.dost.pipeline.PipelineHashIO;
+import org.dita.dost.store.StreamStore;
+import org.dita.dost.util.Job;
+import org.dita.dost.util.XMLUtils;
+import org.dita.dost.writer.AbstractXMLFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+
+public class XmlFilterModuleTest {
+
+  private static final String SRC = "<topic  id='%s'/>";
+
+  @TempDir
+  private File tempDir;
+
+  private Job job;
+  private XmlFilterModule module;
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    final XMLUtils xmlUtils = new XMLUtils();
+    job = new Job(tempDir, new StreamStore(tempDir, xmlUtils));
+    for (final String name : List.of("a", "b")) {
+      Files.writeString(new File(tempDir, name + ".dita").toPath(), SRC.formatted(name));
+      job.add(new Job.FileInfo.Builder().uri(URI.create(name + ".dita")).format("dita").build());
+    }
+    module = new XmlFilterModule();
+    module.setJob(job);
+    module.setLogger(new TestLogger());
+    module.setXmlUtils(xmlUtils);
+  }
+
+  @Test
+  public void execute_skipFilesWithoutFilters() throws DITAOTException, IOException {
+    module.setFileInfoFilter(f -> true);
+    module.setProcessingPipe(
+      List.of(new FilterPair(MarkFilter.class, f -> f.uri.toString().equals("a.dita"), Map.of()))
+    );
+
+    module.execute(new PipelineHashIO());
+
+    assertTrue(Files.readString(new File(tempDir, "a.dita").toPath()).contains("marked=\"true\""));
+    assertEquals(SRC.formatted("b"), Files.readString(new File(tempDir, "b.dita").toPath()));
+  }
+
+  public static class MarkFilter extends AbstractXMLFilter {
+
+    @Override
+    public void startElement(final String uri, final String localName, final String qName, final Attributes atts)
+      throws SAXException {
+      final AttributesImpl res = new AttributesImpl(atts);
+      res.addAttribute("", "marked", "marked", "CDATA", "true");
+      super.startElement(uri, localName, qName, res);
+    }
+  }
+}
@@ -15,9 +15,13 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.TreeMap;
 import java.util.stream.Stream;
 import org.dita.dost.TestUtils;
 import org.dita.dost.TestUtils.CachingLogger.Message.Level;
@@ -117,6 +121,80 @@ public class MapReaderModuleTest {
     assertFalse(logger.getMessages().stream().anyMatch(m -> m.level == Level.ERROR));
   }
 
+  @Test
+  public void executeParallel() throws DITAOTException, IOException {
+    final File serial = new File(baseTempDir, "serial");
+    final File parallel = new File(baseTempDir, "parallel");
+
+    readMap(serial, false);
+    readMap(parallel, true);
+
+    assertTempDirEquals(serial, parallel);
+  }
+
+  static Job readMap(final File baseDir, final boolean parallel) throws DITAOTException, IOException {
+    final MapReaderModule reader = new MapReaderModule();
+    return read(reader, baseDir, parallel, createJob(baseDir));
+  }
+
+  static Job createJob(final File baseDir) throws IOException {
+    final File tempDir = new File(baseDir, "temp");
+    final Job job = new Job(tempDir, new StreamStore(tempDir, new XMLUtils()));
+    job.setProperty("temp-file-name-scheme", DefaultTempFileScheme.class.getCanonicalName());
+    return job;
+  }
+
+  static Job read(final AbstractReaderModule reader, final File baseDir, final boolean parallel, final Job job)
+    throws DITAOTException {
+    final File srcDir = new File(TestUtils.getResourceDir(MapReaderModuleTest.class), "parallel");
+    final Map<String, String> input = new HashMap<>();
+    input.put("inputmap", new File(srcDir, "root.ditamap").getAbsolutePath());
+    input.put("validate", Boolean.toString(true));
+    input.put("generatecopyouter", Integer.toString(1));
+    input.put("outercontrol", "warn");
+    input.put("outputdir", new File(baseDir, "out").getAbsolutePath());
+    reader.setLogger(new TestUtils.TestLogger(false));
+    reader.setJob(job);
+    reader.setParallel(parallel);
+
+    reader.execute(input);
+
+    return job;
+  }
+
+  /**
+   * Assert temporary directories contain the same files with the same contents. Job file, flags, copy-to, subject
+   * scheme and reference index files are all compared as written, with base directory paths normalized.
+   */
+  static void assertTempDirEquals(final File exp, final File act) throws IOException {
+    final Map<String, String> expFiles = readTempDir(exp);
+    final Map<String, String> actFiles = readTempDir(act);
+    assertEquals(expFiles.keySet(), actFiles.keySet());
+    for (Map.Entry<String, String> e : expFiles.entrySet()) {
+      assertEquals(e.getValue(), actFiles.get(e.getKey()), e.getKey());
+    }
+  }
+
+  private static Map<String, String> readTempDir(final File baseDir) throws IOException {
+    final Path tempDir = baseDir.toPath().resolve("temp");
+    final Map<String, String> res = new TreeMap<>();
+    try (Stream<Path> files = Files.walk(tempDir)) {
+      for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+        final String name = tempDir.relativize(file).toString().replace(File.separatorChar, '/');
+        if (name.equals(".job.bin")) {
+          continue;
+        }
+        final String content = Files
+          .readString(file, StandardCharsets.ISO_8859_1)
+          .replace(baseDir.toPath().toUri().toString(), "base:/")
+          .replace(baseDir.toURI().toString(), "base:/")
+          .replace(baseDir.getAbsolutePath(), "base:");
+        res.put(name, content);
+      }
+    }
+    return res;
+  }
+
   @Test
   public void categorizeReferenceFileTopic() throws Exception {
     reader.categorizeReferenceFile(new GenListModuleReader.Reference(URI.create("file:///foo/bar/baz.dita")));
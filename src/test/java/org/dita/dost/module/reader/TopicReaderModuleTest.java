@@ -102,4 +102,15 @@ public class TopicReaderModuleTest {
     assertEquals(0, reader.htmlSet.size());
     assertEquals(1, reader.formatSet.size());
   }
+
+  @Test
+  public void executeParallel() throws Exception {
+    final File serial = new File(tempDir, "serial");
+    final File parallel = new File(tempDir, "parallel");
+
+    MapReaderModuleTest.read(new TopicReaderModule(), serial, false, MapReaderModuleTest.readMap(serial, false));
+    MapReaderModuleTest.read(new TopicReaderModule(), parallel, true, MapReaderModuleTest.readMap(parallel, false));
+
+    MapReaderModuleTest.assertTempDirEquals(serial, parallel);
+  }
 }
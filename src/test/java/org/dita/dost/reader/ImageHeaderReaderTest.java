@@ -0,0 +1,62 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.reader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import org.dita.dost.writer.ImageMetadataFilter.Dimensions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class ImageHeaderReaderTest {
+
+  @ParameterizedTest
+  @ValueSource(strings = { "img.png", "img.jpg" })
+  public void read(final String name) throws IOException {
+    final Dimensions act = readImage("/ImageMetadataFilterTest/src/" + name);
+    assertEquals("135", act.width);
+    assertEquals("95", act.height);
+    assertEquals("100", act.horizontalDpi);
+    assertEquals("100", act.verticalDpi);
+  }
+
+  @Test
+  public void read_gif() throws IOException {
+    final Dimensions act = readImage("/ImageMetadataFilterTest/src/img.gif");
+    assertEquals("135", act.width);
+    assertEquals("95", act.height);
+    assertNull(act.horizontalDpi);
+    assertNull(act.verticalDpi);
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = { "img.tiff", "img.xxx" })
+  public void read_unsupported(final String name) throws IOException {
+    assertNull(readImage("/ImageMetadataFilterTest/src/" + name));
+  }
+
+  @Test
+  public void read_truncated() throws IOException {
+    final byte[] buf;
+    try (InputStream in = getClass().getResourceAsStream("/ImageMetadataFilterTest/src/img.png")) {
+      buf = in.readNBytes(20);
+    }
+    assertNull(ImageHeaderReader.read(new ByteArrayInputStream(buf)));
+  }
+
+  private Dimensions readImage(final String name) throws IOException {
+    try (InputStream in = getClass().getResourceAsStream(name)) {
+      return ImageHeaderReader.read(in);
+    }
+  }
+}
@@ -19,6 +19,8 @@ import java.net.URI;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -106,6 +108,37 @@ public class TestGenListModuleReader {
     assertEquals(inputDir.toURI().resolve("image.png"), reader.getNonTopicrefReferenceSet().iterator().next());
   }
 
+  @Test
+  public void startElement_references() throws SAXException {
+    reader.startDocument();
+    reader.startElement(
+      NULL_NS_URI,
+      TOPIC_TOPIC.localName,
+      TOPIC_TOPIC.localName,
+      new AttributesBuilder().add(ATTRIBUTE_NAME_CLASS, TOPIC_TOPIC.toString()).add(ATTRIBUTE_NAME_ID, "abc").build()
+    );
+    for (String href : new String[] { "a.dita#a", "#abc/def", "https://example.com/", "a.dita" }) {
+      reader.startElement(
+        NULL_NS_URI,
+        TOPIC_XREF.localName,
+        TOPIC_XREF.localName,
+        new AttributesBuilder().add(ATTRIBUTE_NAME_CLASS, TOPIC_XREF.toString()).add(ATTRIBUTE_NAME_HREF, href).build()
+      );
+      reader.endElement(NULL_NS_URI, TOPIC_XREF.localName, TOPIC_XREF.localName);
+    }
+    assertEquals(
+      Map.of(
+        inputDir.toURI().resolve("a.dita"),
+        List.of(2, 5),
+        new File(inputDir, "root-map-01.ditamap").toURI(),
+        List.of(3)
+      ),
+      reader.getReferences()
+    );
+    reader.reset();
+    assertTrue(reader.getReferences().isEmpty());
+  }
+
   @Test
   public void startElement_externalImage_withScope() throws SAXException {
     reader.startDocument();
@@ -626,6 +626,28 @@ public class TestKeyrefReader {
     assertTrue(keyDef.element.toString().contains("Product A"));
   }
 
+  @Test
+  public void testInheritedKeyref() {
+    final File filename = new File(srcDir, "inheritedKeyref.ditamap");
+    keyrefreader.read(filename.toURI(), readMap(filename));
+    final KeyScope root = keyrefreader.getKeyDefinition();
+
+    assertNull(root.get("alias").href);
+    final KeyScope a = root.getChildScope("A");
+    assertEquals("a.dita", a.get("alias").href.toString());
+    assertEquals("common.dita", a.get("common").href.toString());
+    final KeyScope a1 = a.getChildScope("A-1");
+    assertEquals("a.dita", a1.get("alias").href.toString());
+    assertEquals("leaf.dita", a1.get("leaf").href.toString());
+    assertEquals(
+      Set.of("alias", "common", "target", "leaf", "A-1.leaf", "A.target", "A.A-1.leaf", "B.other"),
+      a1.keySet()
+    );
+    final KeyScope b = root.getChildScope("B");
+    assertNull(b.get("alias").href);
+    assertEquals("b.dita", b.get("other").href.toString());
+  }
+
   private void log(final KeyScope scope, final String indent) {
     System.err.println(indent + "scope: " + scope.name());
     for (final Map.Entry<String, KeyDef> key : scope.keyDefinition().entrySet()) {
@@ -0,0 +1,195 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.store;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import net.sf.saxon.s9api.XdmNode;
+import org.dita.dost.exception.DITAOTException;
+import org.dita.dost.util.XMLUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.w3c.dom.Document;
+import org.xml.sax.helpers.DefaultHandler;
+
+public class CacheStoreTest {
+
+  private XMLUtils xmlUtils;
+
+  @TempDir
+  private File tmpDir;
+
+  @BeforeEach
+  public void setUp() {
+    xmlUtils = new XMLUtils();
+  }
+
+  @Test
+  public void write_WhenUnbounded_ShouldKeepInMemory() throws IOException {
+    final CacheStore store = new CacheStore(tmpDir, xmlUtils);
+    final URI first = tmpDir.toURI().resolve("first.xml");
+    final URI second = tmpDir.toURI().resolve("second.xml");
+
+    write(store, first, "<first/>");
+    write(store, second, "<second/>");
+
+    assertTrue(store.exists(first));
+    assertTrue(store.exists(second));
+    assertFalse(Files.exists(new File(first).toPath()));
+    assertFalse(Files.exists(new File(second).toPath()));
+    assertEquals(0, store.getEvictionCount());
+  }
+
+  @Test
+  public void write_WhenOverBudget_ShouldSpillLeastRecentlyUsed() throws IOException {
+    final CacheStore store = new CacheStore(tmpDir, xmlUtils, 16);
+    final URI first = tmpDir.toURI().resolve("first.xml");
+    final URI second = tmpDir.toURI().resolve("second.xml");
+
+    write(store, first, "<first/>");
+    write(store, second, "<second/>");
+
+    assertEquals(1, store.getEvictionCount());
+    assertTrue(Files.exists(new File(first).toPath()));
+    assertFalse(Files.exists(new File(second).toPath()));
+    assertTrue(store.exists(first));
+    assertEquals("<first/>", read(store, first));
+    assertEquals("<second/>", read(store, second));
+    assertEquals(1, store.getHitCount());
+    assertEquals(1, store.getMissCount());
+  }
+
+  @Test
+  public void transform_WhenSpilled_ShouldCountMiss() throws IOException, DITAOTException {
+    final CacheStore store = new CacheStore(tmpDir, xmlUtils, 16);
+    final URI first = tmpDir.toURI().resolve("first.xml");
+    final URI second = tmpDir.toURI().resolve("second.xml");
+
+    write(store, first, "<first/>");
+    write(store, second, "<second/>");
+    store.transform(first, new DefaultHandler());
+    store.transform(second, new DefaultHandler());
+
+    assertEquals(1, store.getHitCount());
+    assertEquals(1, store.getMissCount());
+  }
+
+  @Test
+  public void getImmutableDocument_WhenSpilled_ShouldReadFromDisk() throws IOException {
+    final CacheStore store = new CacheStore(tmpDir, xmlUtils, 16);
+    final URI first = tmpDir.toURI().resolve("sub/first.xml");
+    final URI second = tmpDir.toURI().resolve("sub/second.xml");
+
+    write(store, first, "<first/>");
+    write(store, second, "<second/>");
+
+    final Document doc = store.getImmutableDocument(first);
+    assertEquals("first", doc.getDocumentElement().getTagName());
+  }
+
+  @Test
+  public void getImmutableNode_WhenWrittenAsBytes_ShouldParseFromMemory() throws IOException {
+    final CacheStore store = new CacheStore(tmpDir, xmlUtils);
+    final URI first = tmpDir.toURI().resolve("first.xml");
+
+    write(store, first, "<first/>");
+
+    final XdmNode node = store.getImmutableNode(first);
+    assertEquals("first", node.children().iterator().next().getNodeName().getLocalName());
+    assertFalse(Files.exists(new File(first).toPath()));
+  }
+
+  @Test
+  public void write_WhenSpilledAndRewritten_ShouldRemoveSpilledFile() throws IOException {
+    final CacheStore store = new CacheStore(tmpDir, xmlUtils, 16);
+    final URI first = tmpDir.toURI().resolve("first.xml");
+    final URI second = tmpDir.toURI().resolve("second.xml");
+
+    write(store, first, "<first/>");
+    write(store, second, "<second/>");
+    write(store, first, "<third/>");
+
+    assertFalse(Files.exists(new File(first).toPath()));
+    assertEquals("<third/>", read(store, first));
+  }
+
+  @Test
+  public void delete_WhenSpilled_ShouldRemoveFile() throws IOException {
+    final CacheStore store = new CacheStore(tmpDir, xmlUtils, 16);
+    final URI first = tmpDir.toURI().resolve("first.xml");
+    final URI second = tmpDir.toURI().resolve("second.xml");
+
+    write(store, first, "<first/>");
+    write(store, second, "<second/>");
+    store.delete(first);
+
+    assertFalse(store.exists(first));
+    assertTrue(store.exists(second));
+  }
+
+  @Test
+  public void write_WhenSpillingConcurrently_ShouldReadLatestContent() throws Exception {
+    final CacheStore store = new CacheStore(tmpDir, xmlUtils, 64);
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final List<Future<?>> results = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        final int thread = i;
+        results.add(
+          executor.submit(() -> {
+            for (int j = 0; j < 50; j++) {
+              final URI file = tmpDir.toURI().resolve("t" + thread + "/" + (j % 5) + ".xml");
+              final String content = "<file n='" + j + "'/>";
+              write(store, file, content);
+              assertEquals(content, read(store, file));
+            }
+            return null;
+          })
+        );
+      }
+      for (final Future<?> result : results) {
+        result.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    for (int i = 0; i < 4; i++) {
+      for (int j = 45; j < 50; j++) {
+        final URI file = tmpDir.toURI().resolve("t" + i + "/" + (j % 5) + ".xml");
+        assertEquals("<file n='" + j + "'/>", read(store, file));
+      }
+    }
+    assertTrue(store.getEvictionCount() > 0);
+  }
+
+  private void write(final Store store, final URI dst, final String content) throws IOException {
+    try (OutputStream out = store.getOutputStream(dst)) {
+      out.write(content.getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
+  private String read(final Store store, final URI src) throws IOException {
+    try (InputStream in = store.getInputStream(src)) {
+      return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+}
@@ -12,6 +12,7 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.file.Files;
@@ -52,6 +53,34 @@ public class StreamStoreTest {
     serializer.serializeNode(source);
   }
 
+  @Test
+  public void metrics_countsReadsAndWrites() throws IOException, DITAOTException {
+    final URI src = tmpDir.toPath().resolve("src.xml").toUri();
+    final URI dst = tmpDir.toPath().resolve("dst.xml").toUri();
+    store.setMetricsEnabled(true);
+    try (OutputStream out = store.getOutputStream(src)) {
+      out.write("<dummy/>".getBytes());
+    }
+
+    store.transform(src, dst, Collections.emptyList());
+
+    assertEquals(1, store.getDocumentsParsed());
+    assertEquals(8, store.getBytesRead());
+    assertEquals(8 + Files.size(Paths.get(dst)), store.getBytesWritten());
+  }
+
+  @Test
+  public void metrics_getSourceNotCounted() throws IOException {
+    final URI src = tmpDir.toPath().resolve("src.xml").toUri();
+    Files.writeString(Paths.get(src), "<dummy/>");
+    store.setMetricsEnabled(true);
+
+    store.getSource(src);
+
+    assertEquals(0, store.getDocumentsParsed());
+    assertEquals(0, store.getBytesRead());
+  }
+
   @Test
   public void exists_WhenFileExists_ShouldReturnTrue() throws IOException {
     Files.writeString(tmpDir.toPath().resolve("dummy.xml"), "<dummy/>");
@@ -69,6 +69,17 @@ public class DitaClassTest {
   public void testMatchesString() {
     assertTrue(new DitaClass("- foo/bar ").matches("- foo/bar baz/qux "));
     assertTrue(new DitaClass("- foo/bar baz/qux ").matches("- foo/bar baz/qux "));
+    assertFalse(new DitaClass("- baz/bar ").matches("- foo/bar baz/qux "));
+    assertFalse(new DitaClass("- foo/bar ").matches("foo/bar baz/qux "));
+    assertFalse(new DitaClass("- foo/bar ").matches(""));
+    assertFalse(new DitaClass("- foo/bar ").matches((String) null));
+  }
+
+  @Test
+  public void testMatchesDitaClass_notMatching() {
+    assertFalse(new DitaClass("- foo/bar baz/qux ").matches(new DitaClass("- foo/bar ")));
+    assertFalse(new DitaClass("- foo/qux ").matches(new DitaClass("- foo/bar baz/qux ")));
+    assertFalse(new DitaClass("- foo/bar ").matches((DitaClass) null));
   }
 
   @Test
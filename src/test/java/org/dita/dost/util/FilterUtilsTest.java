@@ -199,6 +199,35 @@ public class FilterUtilsTest {
     assertTrue(f.needExclude(attr(OTHERPROPS, "os(windows)"), new QName[0][0]));
   }
 
+  @Test
+  public void testNeedExcludeRepeated() {
+    final Map<FilterKey, Action> fm = new HashMap<>();
+    fm.put(new FilterKey(OS, "amiga"), Action.INCLUDE);
+    fm.put(new FilterKey(OS, null), Action.EXCLUDE);
+    final FilterUtils f = new FilterUtils(false, fm, null, null);
+    f.setLogger(new TestUtils.TestLogger());
+
+    for (int i = 0; i < 3; i++) {
+      assertTrue(f.needExclude(attr(OS, "windows"), new QName[][] { { PROPS, OS } }));
+      assertFalse(f.needExclude(attr(OS, "windows"), new QName[0][0]));
+      assertFalse(f.needExclude(attr(OS, "windows"), new QName[][] { { PROPS, GUI } }));
+      assertFalse(f.needExclude(attr(OS, "amiga"), new QName[][] { { PROPS, OS } }));
+    }
+  }
+
+  @Test
+  public void testGetFlagsRepeated() {
+    final Flag flagRed = new Flag("prop", "red", null, null, null, null, null, null);
+    final FilterUtils f = new FilterUtils(false, ImmutableMap.of(new FilterKey(PLATFORM, "amiga"), flagRed), null, null);
+    f.setLogger(new TestUtils.TestLogger());
+
+    for (int i = 0; i < 3; i++) {
+      assertEquals(singleton(flagRed), f.getFlags(attr(PLATFORM, "amiga"), new QName[0][0]));
+      assertEquals(emptySet(), f.getFlags(attr(PLATFORM, "unix"), new QName[0][0]));
+      assertEquals(emptySet(), f.getFlags(new AttributesImpl(), new QName[0][0]));
+    }
+  }
+
   @Test
   public void testgetFlagsDefaultFlag() {
     final Flag flag = new Flag("prop", "red", null, null, null, null, null, null);
@@ -0,0 +1,95 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ImageMetadataCacheTest {
+
+  @TempDir
+  private Path tempDir;
+
+  private File cacheDir;
+  private URI image;
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    cacheDir = tempDir.resolve("cache").toFile();
+    final Path img = tempDir.resolve("img.png");
+    Files.write(img, new byte[] { 1, 2, 3 });
+    image = img.toUri();
+  }
+
+  @Test
+  public void get_fromPreviousBuild() throws IOException {
+    final ImageMetadataCache first = ImageMetadataCache.open(cacheDir);
+    assertNull(first.get(image));
+    first.put(image, "135", "95", "100", null);
+    first.write();
+
+    final ImageMetadataCache second = ImageMetadataCache.open(cacheDir);
+    final ImageMetadataCache.Entry act = second.get(image);
+    assertEquals("135", act.width());
+    assertEquals("95", act.height());
+    assertEquals("100", act.horizontalDpi());
+    assertNull(act.verticalDpi());
+    assertEquals(1, second.getHitCount());
+  }
+
+  @Test
+  public void get_changed() throws IOException {
+    final ImageMetadataCache first = ImageMetadataCache.open(cacheDir);
+    first.put(image, "135", "95", null, null);
+    first.write();
+
+    Files.write(Path.of(image), new byte[] { 1, 2, 3, 4 });
+
+    assertNull(ImageMetadataCache.open(cacheDir).get(image));
+  }
+
+  @Test
+  public void write_merge() throws IOException {
+    final URI other = Files.write(tempDir.resolve("other.png"), new byte[] { 1 }).toUri();
+    final ImageMetadataCache first = ImageMetadataCache.open(cacheDir);
+    final ImageMetadataCache second = ImageMetadataCache.open(cacheDir);
+    first.put(image, "1", "2", null, null);
+    second.put(other, "3", "4", null, null);
+    first.write();
+    second.write();
+
+    final ImageMetadataCache act = ImageMetadataCache.open(cacheDir);
+    assertEquals("1", act.get(image).width());
+    assertEquals("3", act.get(other).width());
+  }
+
+  @Test
+  public void write_unchanged() throws IOException {
+    ImageMetadataCache.open(cacheDir).write();
+
+    assertFalse(new File(cacheDir, ImageMetadataCache.FILE_NAME).exists());
+  }
+
+  @Test
+  public void open_invalid() throws IOException {
+    Files.createDirectories(cacheDir.toPath());
+    Files.writeString(cacheDir.toPath().resolve(ImageMetadataCache.FILE_NAME), "<images><image");
+
+    assertNull(ImageMetadataCache.open(cacheDir).get(image));
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.dita.dost.log.RecordingLogger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.event.Level;
+
+public class IncrementalCacheTest {
+
+  private static final URI SRC = URI.create("file:/src/topic.dita");
+  private static final URI TEMP_DIR = URI.create("file:/tmp/");
+
+  @TempDir
+  private File cacheDir;
+
+  @Test
+  public void write_messages() throws IOException {
+    final List<RecordingLogger.Message> messages = List.of(
+      new RecordingLogger.Message(Level.WARN, "[DOTJ057E][WARN] <duplicate> & \"id\""),
+      new RecordingLogger.Message(Level.ERROR, "Failed")
+    );
+    final IncrementalCache first = IncrementalCache.open(cacheDir, "deliverable");
+    put(first, SRC, "a", messages);
+    first.write();
+
+    final IncrementalCache.Entry act = IncrementalCache.open(cacheDir, "deliverable").get(SRC, "a");
+
+    assertNotNull(act);
+    assertEquals(messages, act.messages());
+  }
+
+  @Test
+  public void write_otherKeyRetained() throws IOException {
+    final URI other = URI.create("file:/src/other.dita");
+    final IncrementalCache first = IncrementalCache.open(cacheDir, "first");
+    put(first, SRC, "a", List.of());
+    first.write();
+    final IncrementalCache second = IncrementalCache.open(cacheDir, "second");
+    put(second, other, "b", List.of());
+    second.write();
+
+    assertNotNull(IncrementalCache.open(cacheDir, "first").get(SRC, "a"));
+    assertNotNull(IncrementalCache.open(cacheDir, "second").get(other, "b"));
+  }
+
+  @Test
+  public void write_unusedSnapshotDeleted() throws IOException {
+    final IncrementalCache first = IncrementalCache.open(cacheDir, "deliverable");
+    put(first, SRC, "a", List.of());
+    first.write();
+    final IncrementalCache second = IncrementalCache.open(cacheDir, "deliverable");
+    assertTrue(first.getSnapshot("a").setLastModified(System.currentTimeMillis() - 10_000));
+    put(second, SRC, "b", List.of());
+    second.write();
+
+    assertFalse(second.getSnapshot("a").exists());
+    assertTrue(second.getSnapshot("b").exists());
+  }
+
+  private static void put(
+    final IncrementalCache cache,
+    final URI src,
+    final String digest,
+    final List<RecordingLogger.Message> messages
+  ) throws IOException {
+    cache.put(
+      src,
+      new IncrementalCache.Entry(digest, "dita", TEMP_DIR, messages),
+      new ByteArrayInputStream("<topic/>".getBytes(StandardCharsets.UTF_8))
+    );
+  }
+}
@@ -12,17 +12,26 @@ import static org.dita.dost.util.Constants.INPUT_DIR_URI;
 import static org.dita.dost.util.URLUtils.toURI;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import org.dita.dost.TestUtils;
 import org.dita.dost.store.StreamStore;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.xml.sax.ContentHandler;
 
 public final class JobTest {
 
@@ -61,6 +70,202 @@ public final class JobTest {
     assertNull(job.getFileInfo((URI) null));
   }
 
+  @Test
+  public void getFileInfo_flag() {
+    final Job job = new Job(JobTest.job, new HashMap<>(), List.of());
+    final Job.FileInfo a = Job.FileInfo.builder().uri(toURI("a.dita")).format("dita").build();
+    final Job.FileInfo b = Job.FileInfo.builder().uri(toURI("b.dita")).format("dita").hasKeyref(true).build();
+    final Job.FileInfo c = Job.FileInfo.builder().uri(toURI("c.ditamap")).format("ditamap").isInput(true).build();
+    job.addAll(List.of(a, b, c));
+
+    assertEquals(List.of(b), job.getFileInfo(Job.Flag.HAS_KEYREF));
+    assertEquals(List.of(b), job.getFileInfo(Job.Flag.HAS_KEYREF, fi -> fi.format.equals("dita")));
+    assertEquals(List.of(), job.getFileInfo(Job.Flag.HAS_KEYREF, fi -> fi.format.equals("ditamap")));
+    assertEquals(c, job.getInputFileInfo());
+
+    b.hasKeyref = false;
+    b.format = "ditamap";
+    job.add(b);
+    assertEquals(List.of(), job.getFileInfo(Job.Flag.HAS_KEYREF));
+    assertEquals(Set.of(b, c), new HashSet<>(job.getFileInfoByFormat("ditamap")));
+    assertEquals(List.of(a), job.getFileInfoByFormat("dita"));
+
+    job.remove(c);
+    assertNull(job.getInputFileInfo());
+    assertEquals(List.of(b), job.getFileInfoByFormat("ditamap"));
+    assertEquals(List.of(), job.getFileInfoByFormat(null));
+  }
+
+  @Test
+  public void getFileInfo_flagOrder() {
+    final Job job = new Job(JobTest.job, new HashMap<>(), List.of());
+    final Job.FileInfo a = Job.FileInfo.builder().uri(toURI("a.dita")).format("dita").isTarget(true).build();
+    final Job.FileInfo b = Job.FileInfo.builder().uri(toURI("b.dita")).format("dita").isTarget(true).build();
+    final Job.FileInfo c = Job.FileInfo.builder().uri(toURI("c.dita")).format("dita").isTarget(true).build();
+    job.add(c);
+    job.add(a);
+    job.remove(c);
+    job.add(b);
+    job.add(c);
+
+    assertEquals(List.of(a, b, c), job.getFileInfo(Job.Flag.TARGET));
+    assertEquals(List.of(a, b, c), job.getFileInfoByFormat("dita"));
+  }
+
+  @Test
+  public void getFileInfo_flagCopy() {
+    final Job.FileInfo a = Job.FileInfo.builder().uri(toURI("a.dita")).isFlagImage(true).build();
+    final Job job = new Job(JobTest.job, new HashMap<>(), List.of(a));
+
+    assertEquals(List.of(a), job.getFileInfo(Job.Flag.FLAG_IMAGE));
+    assertEquals(List.of(a), job.getFileInfoByFormat(null));
+  }
+
+  @Test
+  public void add_canonicalUris() {
+    final Job job = new Job(JobTest.job, new HashMap<>(), List.of());
+    final Job.FileInfo a = Job.FileInfo
+      .builder()
+      .src(URI.create("file:/src/a.dita"))
+      .uri(toURI("a.dita"))
+      .result(URI.create("file:/src/a.dita"))
+      .format(new String("dita"))
+      .build();
+    final Job.FileInfo b = Job.FileInfo.builder().uri(toURI("b.dita")).build();
+    b.src = URI.create("file:/src/a.dita");
+    b.format = new String("dita");
+    job.addAll(List.of(a, b));
+
+    assertSame(a.src, a.result);
+    assertSame(a.src, b.src);
+    assertSame(a.format, b.format);
+  }
+
+  @Test
+  public void write_binaryState(@TempDir final File dir) throws IOException {
+    final Job job = createJob(dir);
+    for (int i = 0; i < 2_000; i++) {
+      job.add(Job.FileInfo.builder().uri(toURI("topic_" + i + ".dita")).format("dita").isTarget(true).build());
+    }
+    job.write();
+    assertTrue(new File(dir, ".job.bin").exists());
+
+    // state is read from binary file when it is consistent with the XML job file
+    final Job act = new Job(
+      dir,
+      new StreamStore(dir, new XMLUtils()) {
+        @Override
+        public void transform(final URI input, final ContentHandler contentHandler) {
+          throw new AssertionError("XML job file should not be parsed");
+        }
+      }
+    );
+
+    assertEquals(Set.copyOf(job.getFileInfo()), Set.copyOf(act.getFileInfo()));
+    assertEquals("bar", act.getProperty("foo"));
+    assertEquals(URI.create("file:/src/a.dita"), act.getInputFileInfo().src);
+  }
+
+  @Test
+  public void write_unchanged(@TempDir final File dir) throws IOException {
+    final Job job = createJob(dir);
+    job.write();
+    final File xml = new File(dir, ".job.xml");
+    final File bin = new File(dir, ".job.bin");
+    final long lastModified = xml.lastModified();
+    Files.writeString(xml.toPath(), "unchanged");
+    assertTrue(xml.setLastModified(lastModified));
+
+    job.write();
+
+    assertEquals("unchanged", Files.readString(xml.toPath()));
+
+    final long length = bin.length();
+    job.getFileInfo(URI.create("b.dita")).hasKeyref = true;
+    job.remove(job.getFileInfo(URI.create("a.dita")));
+    job.write();
+
+    assertTrue(bin.length() > length);
+    final Job act = new Job(dir, new StreamStore(dir, new XMLUtils()));
+    assertNull(act.getFileInfo(URI.create("a.dita")));
+    assertTrue(act.getFileInfo(URI.create("b.dita")).hasKeyref);
+    assertEquals(Set.copyOf(job.getFileInfo()), Set.copyOf(act.getFileInfo()));
+  }
+
+  @Test
+  public void write_removedAndAdded(@TempDir final File dir) throws IOException {
+    final Job job = createJob(dir);
+    job.write();
+    final Job.FileInfo a = job.getFileInfo(URI.create("a.dita"));
+    job.remove(a);
+    job.add(a);
+    job.remove(job.getFileInfo(URI.create("b.dita")));
+    job.write();
+
+    final Job act = new Job(dir, new StreamStore(dir, new XMLUtils()));
+    assertEquals(a, act.getFileInfo(URI.create("a.dita")));
+    assertNull(act.getFileInfo(URI.create("b.dita")));
+  }
+
+  @Test
+  public void read_xmlChangedSameModified(@TempDir final File dir) throws IOException {
+    final Job job = createJob(dir);
+    job.write();
+    final File xml = new File(dir, ".job.xml");
+    final long lastModified = xml.lastModified();
+    final String content = Files.readString(xml.toPath());
+    // same modification time, different length
+    Files.writeString(xml.toPath(), content.replace(">bar<", ">bazz<"));
+    assertTrue(xml.setLastModified(lastModified));
+
+    final Job act = new Job(dir, new StreamStore(dir, new XMLUtils()));
+
+    assertEquals("bazz", act.getProperty("foo"));
+  }
+
+  @Test
+  public void read_xmlNewer(@TempDir final File dir) throws IOException {
+    final Job job = createJob(dir);
+    job.write();
+    final File xml = new File(dir, ".job.xml");
+    final long lastModified = xml.lastModified();
+    Files.writeString(
+      xml.toPath(),
+      "<job><property name='foo'><string>baz</string></property><files><file uri='c.dita'/></files></job>"
+    );
+    assertTrue(xml.setLastModified(lastModified + 10_000));
+
+    final Job act = new Job(dir, new StreamStore(dir, new XMLUtils()));
+
+    assertEquals("baz", act.getProperty("foo"));
+    assertEquals(List.of(URI.create("c.dita")), act.getFileInfo().stream().map(fi -> fi.uri).toList());
+  }
+
+  private static Job createJob(final File dir) throws IOException {
+    final Job job = new Job(dir, new StreamStore(dir, new XMLUtils()));
+    job.setProperty("foo", "bar");
+    job.add(
+      Job.FileInfo
+        .builder()
+        .src(URI.create("file:/src/a.dita"))
+        .uri(toURI("a.dita"))
+        .format("dita")
+        .isInput(true)
+        .hasLink(true)
+        .build()
+    );
+    job.add(
+      Job.FileInfo
+        .builder()
+        .src(URI.create("file:/src/b.dita"))
+        .uri(toURI("b.dita"))
+        .result(URI.create("file:/out/b.dita"))
+        .format("dita")
+        .build()
+    );
+    return job;
+  }
+
   @Test
   public void testGetInputMap() {
     assertEquals(toURI("foo"), job.getInputMap());
@@ -0,0 +1,69 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class LayeredMapTest {
+
+  @Test
+  public void get() {
+    final Map<String, String> parent = Map.of("a", "parent", "b", "parent");
+    final LayeredMap<String, String> map = new LayeredMap<>(Map.of("b", "local", "c", "local"), parent);
+
+    assertEquals("parent", map.get("a"));
+    assertEquals("local", map.get("b"));
+    assertEquals("local", map.get("c"));
+    assertNull(map.get("d"));
+    assertTrue(map.containsKey("a"));
+    assertFalse(map.containsKey("d"));
+    assertSame(parent, map.parent());
+  }
+
+  @Test
+  public void entrySet() {
+    final LayeredMap<String, String> map = new LayeredMap<>(
+      Map.of("b", "local", "c", "local"),
+      Map.of("a", "parent", "b", "parent")
+    );
+
+    assertEquals(3, map.size());
+    assertEquals(Map.of("a", "parent", "b", "local", "c", "local"), map);
+    assertEquals(Map.of("a", "parent", "b", "local", "c", "local"), new HashMap<>(map));
+    assertEquals(Map.of("a", "parent", "b", "local", "c", "local").hashCode(), map.hashCode());
+  }
+
+  @Test
+  public void deepChain() {
+    Map<String, Integer> map = Map.of("root", -1);
+    for (int i = 0; i < LayeredMap.MAX_DEPTH * 3; i++) {
+      map = new LayeredMap<>(Map.of("k" + i, i, "root", i), map);
+    }
+
+    assertEquals(LayeredMap.MAX_DEPTH * 3 + 1, map.size());
+    assertEquals(0, map.get("k0"));
+    assertEquals(LayeredMap.MAX_DEPTH * 3 - 1, map.get("root"));
+  }
+
+  @Test
+  public void immutable() {
+    final LayeredMap<String, String> map = new LayeredMap<>(Map.of("a", "local"), Map.of());
+
+    assertThrows(UnsupportedOperationException.class, () -> map.put("b", "local"));
+    assertThrows(UnsupportedOperationException.class, () -> map.entrySet().iterator().next().setValue("value"));
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.dita.dost.store.StreamStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ReferenceIndexTest {
+
+  private static final URI A = URI.create("topics/a.dita");
+  private static final URI B = URI.create("topics/b.dita");
+  private static final URI C = URI.create("topics/c.dita");
+
+  @TempDir
+  private File tempDir;
+
+  @Test
+  public void getReferencingFiles() {
+    final ReferenceIndex index = new ReferenceIndex();
+    index.put(A, Map.of(B, List.of(3, 7)));
+    index.put(C, Map.of(A, List.of(1), B, List.of(2)));
+
+    assertEquals(Set.of(A, C), index.getReferencingFiles(List.of(URI.create("topics/b.dita#topic"))));
+    assertEquals(Set.of(C), index.getReferencingFiles(List.of(A)));
+    assertEquals(Set.of(), index.getReferencingFiles(List.of(C)));
+    assertEquals(Map.of(A, List.of(3, 7), C, List.of(2)), index.getReferences(B));
+    assertTrue(index.isIndexed(C));
+    assertFalse(index.isIndexed(B));
+  }
+
+  @Test
+  public void put_replace() {
+    final ReferenceIndex index = new ReferenceIndex();
+    index.put(A, Map.of(B, List.of(3)));
+    index.put(A, Map.of(C, List.of(4)));
+
+    assertEquals(Set.of(), index.getReferencingFiles(List.of(B)));
+    assertEquals(Set.of(A), index.getReferencingFiles(List.of(C)));
+  }
+
+  @Test
+  public void readWrite() throws IOException {
+    final StreamStore store = new StreamStore(tempDir, new XMLUtils());
+    final URI file = new File(tempDir, "references.xml").toURI();
+    final ReferenceIndex index = new ReferenceIndex();
+    index.put(A, Map.of(B, List.of(3, 7)));
+    index.put(B, Map.of());
+    index.write(store, file);
+
+    final ReferenceIndex act = ReferenceIndex.read(store, file);
+    assertEquals(Map.of(A, List.of(3, 7)), act.getReferences(B));
+    assertTrue(act.isIndexed(B));
+    assertFalse(act.isIndexed(C));
+  }
+
+  @Test
+  public void read_missing() throws IOException {
+    final StreamStore store = new StreamStore(tempDir, new XMLUtils());
+    final ReferenceIndex act = ReferenceIndex.read(store, new File(tempDir, "references.xml").toURI());
+    assertFalse(act.isIndexed(A));
+  }
+}
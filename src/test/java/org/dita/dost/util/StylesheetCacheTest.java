@@ -0,0 +1,131 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import javax.xml.transform.stream.StreamSource;
+import net.sf.saxon.s9api.Processor;
+import net.sf.saxon.s9api.SaxonApiException;
+import net.sf.saxon.s9api.XmlProcessingError;
+import net.sf.saxon.s9api.XsltCompiler;
+import net.sf.saxon.s9api.XsltExecutable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class StylesheetCacheTest {
+
+  private static final String STYLESHEET =
+    """
+    <xsl:stylesheet xmlns:xsl="http://www.w3.org/1999/XSL/Transform" version="3.0">
+      <xsl:include href="include.xsl"/>
+    </xsl:stylesheet>""";
+  private static final String INCLUDE =
+    """
+    <xsl:stylesheet xmlns:xsl="http://www.w3.org/1999/XSL/Transform" version="3.0">
+      <xsl:template match="/"><out/></xsl:template>
+    </xsl:stylesheet>""";
+
+  @TempDir
+  private File tempDir;
+
+  private Processor processor;
+  private StylesheetCache cache;
+  private File style;
+  private File include;
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    processor = new Processor(false);
+    cache = new StylesheetCache(processor, null);
+    style = new File(tempDir, "style.xsl");
+    include = new File(tempDir, "include.xsl");
+    Files.writeString(style.toPath(), STYLESHEET);
+    Files.writeString(include.toPath(), INCLUDE);
+  }
+
+  @Test
+  public void get_cached() throws SaxonApiException {
+    final XsltExecutable first = get();
+    final XsltExecutable second = get();
+
+    assertSame(first, second);
+    assertEquals(1, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+  }
+
+  @Test
+  public void get_includeModified() throws SaxonApiException {
+    final XsltExecutable first = get();
+    assertTrue(include.setLastModified(include.lastModified() - 10_000));
+    final XsltExecutable second = get();
+
+    assertNotSame(first, second);
+    assertEquals(0, cache.getHitCount());
+    assertEquals(2, cache.getMissCount());
+  }
+
+  @Test
+  public void get_noSystemId() throws SaxonApiException {
+    final XsltCompiler compiler = processor.newXsltCompiler();
+    final XsltExecutable first = cache.get(new StreamSource(new StringReader(INCLUDE)), compiler);
+    final XsltExecutable second = cache.get(new StreamSource(new StringReader(INCLUDE)), compiler);
+
+    assertNotSame(first, second);
+    assertEquals(0, cache.getHitCount());
+    assertEquals(0, cache.getMissCount());
+  }
+
+  @Test
+  public void get_includeInJobTempDir() throws SaxonApiException {
+    final XsltCompiler compiler = processor.newXsltCompiler();
+    final XsltExecutable first = cache.get(new StreamSource(style), compiler, tempDir);
+    final XsltExecutable second = cache.get(new StreamSource(style), compiler, tempDir);
+
+    assertNotSame(first, second);
+    assertEquals(0, cache.getHitCount());
+    assertEquals(2, cache.getMissCount());
+  }
+
+  @Test
+  public void get_warningsReportedOnReuse() throws SaxonApiException, IOException {
+    Files.writeString(
+      include.toPath(),
+      """
+      <xsl:stylesheet xmlns:xsl="http://www.w3.org/1999/XSL/Transform" version="3.0">
+        <xsl:template match="/"><out/><xsl:variable name="unused" select="1"/></xsl:template>
+      </xsl:stylesheet>"""
+    );
+    final List<XmlProcessingError> firstWarnings = new ArrayList<>();
+    final XsltCompiler firstCompiler = processor.newXsltCompiler();
+    firstCompiler.setErrorReporter(firstWarnings::add);
+    cache.get(new StreamSource(style), firstCompiler);
+    final List<XmlProcessingError> secondWarnings = new ArrayList<>();
+    final XsltCompiler secondCompiler = processor.newXsltCompiler();
+    secondCompiler.setErrorReporter(secondWarnings::add);
+    cache.get(new StreamSource(style), secondCompiler);
+
+    assertEquals(1, cache.getHitCount());
+    assertFalse(firstWarnings.isEmpty());
+    assertEquals(
+      firstWarnings.stream().map(XmlProcessingError::getMessage).toList(),
+      secondWarnings.stream().map(XmlProcessingError::getMessage).toList()
+    );
+  }
+
+  private XsltExecutable get() throws SaxonApiException {
+    return cache.get(new StreamSource(style), processor.newXsltCompiler());
+  }
+}
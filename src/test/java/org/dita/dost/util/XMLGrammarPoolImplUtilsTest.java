@@ -8,13 +8,25 @@
 package org.dita.dost.util;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
-
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import org.apache.xerces.impl.dtd.DTDGrammar;
 import org.apache.xerces.impl.dtd.XMLDTDDescription;
 import org.apache.xerces.xni.grammars.Grammar;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 public class XMLGrammarPoolImplUtilsTest {
 
@@ -73,6 +85,107 @@ public class XMLGrammarPoolImplUtilsTest {
     assertNull(act);
   }
 
+  @Test
+  public void testRetrieveGrammar_countsHitsAndMisses() {
+    final XMLDTDDescription desc = getXmldtdDescription("file:/foo/abc.xml", "file:/foo/abc.dtd", "publicID");
+
+    assertNull(utils.retrieveGrammar(desc));
+    final DTDGrammar exp = new DTDGrammar(null, desc);
+    utils.cacheGrammars(desc.getGrammarType(), new Grammar[] { exp });
+    final Grammar act = utils.retrieveGrammar(getXmldtdDescription("file:/abc.xml", "file:/abc.dtd", "publicID"));
+
+    assertEquals(exp, act);
+    assertEquals(1, utils.getHitCount());
+    assertEquals(1, utils.getMissCount());
+  }
+
+  @Test
+  public void testPutGrammar_loadTimeOfOtherGrammar() throws InterruptedException {
+    final XMLDTDDescription missing = getXmldtdDescription("file:/foo/abc.xml", "file:/foo/abc.dtd", "missing");
+    final XMLDTDDescription desc = getXmldtdDescription("file:/foo/abc.xml", "file:/foo/abc.dtd", "publicID");
+
+    // miss that is never completed with a put
+    assertNull(utils.retrieveGrammar(missing));
+    Thread.sleep(50);
+    utils.putGrammar(new DTDGrammar(null, desc));
+    utils.retrieveGrammar(desc);
+
+    assertEquals(1, utils.getHitCount());
+    assertTrue(utils.getSavedTime() < 50);
+  }
+
+  @Test
+  public void testPutGrammar_locked() {
+    final XMLDTDDescription desc = getXmldtdDescription("file:/foo/abc.xml", "file:/foo/abc.dtd", "publicID");
+
+    utils.lockPool();
+    utils.putGrammar(new DTDGrammar(null, desc));
+    assertNull(utils.getGrammar(desc));
+
+    utils.unlockPool();
+    final DTDGrammar exp = new DTDGrammar(null, desc);
+    utils.putGrammar(exp);
+    assertEquals(exp, utils.getGrammar(desc));
+  }
+
+  @Test
+  public void testRetrieveGrammar_sharedBetweenThreads() throws Exception {
+    final XMLDTDDescription desc = getXmldtdDescription("file:/foo/abc.xml", "file:/foo/abc.dtd", "publicID");
+    final DTDGrammar exp = new DTDGrammar(null, desc);
+    utils.putGrammar(exp);
+
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final List<Future<Grammar>> results = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        results.add(executor.submit(() -> utils.retrieveGrammar(desc)));
+      }
+      for (Future<Grammar> result : results) {
+        assertEquals(exp, result.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+    assertEquals(8, utils.getHitCount());
+    assertEquals(0, utils.getMissCount());
+  }
+
+  @Test
+  public void testRetrieveGrammar_concurrentMissLoadsOnce() throws Exception {
+    final XMLDTDDescription desc = getXmldtdDescription("file:/foo/abc.xml", "file:/foo/abc.dtd", "publicID");
+    assertNull(utils.retrieveGrammar(desc));
+
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      final Future<Grammar> waiting = executor.submit(() -> utils.retrieveGrammar(desc));
+      Thread.sleep(100);
+      assertFalse(waiting.isDone());
+      final DTDGrammar exp = new DTDGrammar(null, desc);
+      utils.putGrammar(exp);
+
+      assertEquals(exp, waiting.get(5, TimeUnit.SECONDS));
+    } finally {
+      executor.shutdown();
+    }
+    assertEquals(1, utils.getHitCount());
+    assertEquals(1, utils.getMissCount());
+  }
+
+  @Test
+  public void testRetrieveGrammar_modifiedGrammarFile(@TempDir File tempDir) throws Exception {
+    final File dtd = new File(tempDir, "abc.dtd");
+    Files.writeString(dtd.toPath(), "<!ELEMENT topic EMPTY>");
+    final XMLDTDDescription desc = getXmldtdDescription("file:/foo/abc.xml", dtd.toURI().toString(), "publicID");
+    utils.putGrammar(new DTDGrammar(null, desc));
+
+    assertNotNull(utils.retrieveGrammar(desc));
+    assertTrue(dtd.setLastModified(dtd.lastModified() - 10_000L));
+    Thread.sleep(XMLGrammarPoolImplUtils.VALIDATION_INTERVAL_MILLIS + 100);
+
+    assertNull(utils.retrieveGrammar(desc));
+    assertNull(utils.getGrammar(desc));
+  }
+
   private XMLDTDDescription getXmldtdDescription(String base, String systemId, String publicId) {
     return new XMLDTDDescription(publicId, "topic.dtd", base, systemId, "topic");
   }
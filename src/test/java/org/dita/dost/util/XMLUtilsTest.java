@@ -15,6 +15,8 @@ import static org.junit.jupiter.api.Assertions.*;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.util.Deque;
 import java.util.LinkedList;
 import java.util.List;
@@ -27,6 +29,7 @@ import net.sf.saxon.lib.CollationURIResolver;
 import net.sf.saxon.lib.ErrorReporter;
 import net.sf.saxon.om.StructuredQName;
 import net.sf.saxon.s9api.MessageListener2;
+import net.sf.saxon.s9api.Processor;
 import net.sf.saxon.s9api.SaxonApiException;
 import net.sf.saxon.s9api.SaxonApiUncheckedException;
 import net.sf.saxon.s9api.XdmNode;
@@ -508,6 +511,88 @@ public class XMLUtilsTest {
   //                       new InputSource(new File(tempDir, "identity.dita").toURI().toString()));
   //    }
 
+  @Test
+  public void sharedProcessor_sameCatalog() {
+    CatalogUtils.setDitaDir(new File("src" + File.separator + "main").getAbsoluteFile());
+    XMLUtils.clearSharedProcessors();
+
+    assertSame(new XMLUtils().getProcessor(), new XMLUtils().getProcessor());
+  }
+
+  @Test
+  public void sharedProcessor_recycled() {
+    CatalogUtils.setDitaDir(new File("src" + File.separator + "main").getAbsoluteFile());
+    XMLUtils.clearSharedProcessors();
+    final Processor first = new XMLUtils().getProcessor();
+    for (int i = 1; i < XMLUtils.MAX_PROCESSOR_USES; i++) {
+      assertSame(first, new XMLUtils().getProcessor());
+    }
+
+    assertNotSame(first, new XMLUtils().getProcessor());
+  }
+
+  @Test
+  public void sharedProcessor_differentCatalog() {
+    try {
+      CatalogUtils.setDitaDir(new File("src" + File.separator + "main").getAbsoluteFile());
+      final XMLUtils first = new XMLUtils();
+      CatalogUtils.setDitaDir(tempDir);
+      final XMLUtils second = new XMLUtils();
+
+      assertNotSame(first.getProcessor(), second.getProcessor());
+      assertNotSame(
+        first.getProcessor().getUnderlyingConfiguration(),
+        second.getProcessor().getUnderlyingConfiguration()
+      );
+      assertNotSame(first.getStylesheetCache(), second.getStylesheetCache());
+    } finally {
+      CatalogUtils.setDitaDir(new File("src" + File.separator + "main").getAbsoluteFile());
+    }
+  }
+
+  @Test
+  public void sharedProcessor_differentClassLoader() throws IOException {
+    CatalogUtils.setDitaDir(new File("src" + File.separator + "main").getAbsoluteFile());
+    final XMLUtils first = new XMLUtils();
+    final Thread thread = Thread.currentThread();
+    final ClassLoader classLoader = thread.getContextClassLoader();
+    try (URLClassLoader pluginClassLoader = new URLClassLoader(new URL[0], classLoader)) {
+      thread.setContextClassLoader(pluginClassLoader);
+      final XMLUtils second = new XMLUtils();
+
+      assertNotSame(first.getProcessor(), second.getProcessor());
+      assertNotSame(first.getStylesheetCache(), second.getStylesheetCache());
+    } finally {
+      thread.setContextClassLoader(classLoader);
+    }
+  }
+
+  @Test
+  public void sharedProcessor_catalogModified() throws IOException {
+    final File catalog = new File(
+      tempDir,
+      org.dita.dost.util.Configuration.pluginResourceDirs.get("org.dita.base") + File.separator + FILE_NAME_CATALOG
+    );
+    try {
+      CatalogUtils.setDitaDir(tempDir);
+      catalog.getParentFile().mkdirs();
+      assertTrue(catalog.createNewFile() || catalog.exists());
+      assertTrue(catalog.setLastModified(1000L));
+      final XMLUtils first = new XMLUtils();
+      final int count = XMLUtils.getSharedProcessorCount();
+      for (int i = 2; i <= XMLUtils.MAX_SHARED_PROCESSORS * 2; i++) {
+        assertTrue(catalog.setLastModified(i * 1000L));
+        new XMLUtils();
+        // processors for earlier versions of the catalog are evicted
+        assertEquals(count, XMLUtils.getSharedProcessorCount());
+      }
+      assertTrue(catalog.setLastModified(1000L));
+      assertNotSame(first.getProcessor(), new XMLUtils().getProcessor());
+    } finally {
+      CatalogUtils.setDitaDir(new File("src" + File.separator + "main").getAbsoluteFile());
+    }
+  }
+
   @AfterAll
   public static void tearDown() throws IOException {
     TestUtils.forceDelete(tempDir);
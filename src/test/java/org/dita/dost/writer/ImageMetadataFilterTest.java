@@ -23,6 +23,7 @@ import java.util.stream.Collectors;
 import org.dita.dost.TestUtils;
 import org.dita.dost.exception.DITAOTException;
 import org.dita.dost.store.StreamStore;
+import org.dita.dost.util.ImageMetadataCache;
 import org.dita.dost.util.Job;
 import org.dita.dost.util.XMLUtils;
 import org.junit.jupiter.api.AfterAll;
@@ -99,6 +100,31 @@ public class ImageMetadataFilterTest {
     );
   }
 
+  @Test
+  public void testWriteWithMetadataCache() throws SAXException, IOException {
+    final File cacheDir = new File(tempDir, "cache");
+    for (int i = 0; i < 2; i++) {
+      final File f = new File(tempDir, "cached" + File.separator + "test.dita");
+      f.getParentFile().mkdirs();
+      copyFile(new File(srcDir, "test.dita"), f);
+
+      final Job job = new Job(tempDir, new StreamStore(tempDir, new XMLUtils()));
+      job.setProperty("uplevels", "");
+      final ImageMetadataCache metadataCache = ImageMetadataCache.open(cacheDir);
+      final ImageMetadataFilter filter = new ImageMetadataFilter(srcDir, job, new HashMap<>(), metadataCache);
+      filter.setLogger(new TestUtils.TestLogger());
+      filter.setJob(job);
+      filter.write(f.getAbsoluteFile());
+      metadataCache.write();
+
+      assertXMLEqual(
+        new InputSource(new File(expDir, "test.dita").toURI().toString()),
+        new InputSource(f.toURI().toString())
+      );
+      assertEquals(i == 0 ? 0 : 4, metadataCache.getHitCount());
+    }
+  }
+
   @AfterAll
   public static void teardown() throws IOException {
     TestUtils.forceDelete(tempDir);
@@ -0,0 +1,154 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.writer.include;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.MalformedInputException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+public class CodeFileTest {
+
+  private static final String[] TEXTS = {
+    "",
+    "\n",
+    "a",
+    "a\n",
+    "a\nb",
+    "a\r\nb\r\n",
+    "a\rb\r\rc",
+    "\n\nstart\nfoo\nend\nbar\n",
+    "x start y\none\ntwo end\nthree\nstart\nfour\nend\nfive",
+    "one\ntwo\nthree\nfour\nfive\nsix\n",
+  };
+
+  @TempDir
+  private File tempDir;
+
+  static Stream<Arguments> copyLines() {
+    final List<Supplier<Range>> ranges = List.of(
+      AllRange::new,
+      () -> new LineNumberRange(0, Integer.MAX_VALUE),
+      () -> new LineNumberRange(-1, 0),
+      () -> new LineNumberRange(1, 1),
+      () -> new LineNumberRange(2, 4),
+      () -> new LineNumberRange(3, 1),
+      () -> new LineNumberRange(4, Integer.MAX_VALUE),
+      () -> new AnchorRange("start", null),
+      () -> new AnchorRange("start", "end"),
+      () -> new AnchorRange(null, "end"),
+      () -> new AnchorRange("missing", "end"),
+      () -> new AnchorRange("start", "missing"),
+      () -> new AnchorRange("t", "e")
+    );
+    final List<Arguments> res = new ArrayList<>();
+    for (final String text : TEXTS) {
+      for (final Supplier<Range> range : ranges) {
+        res.add(Arguments.of(text, range));
+      }
+    }
+    return res.stream();
+  }
+
+  @ParameterizedTest
+  @MethodSource("copyLines")
+  public void copyLines(final String text, final Supplier<Range> range) throws IOException, SAXException {
+    final CharacterBufferContentHandler exp = new CharacterBufferContentHandler();
+    range.get().handler(exp).copyLines(new BufferedReader(new StringReader(text)));
+    final CharacterBufferContentHandler act = new CharacterBufferContentHandler();
+    range.get().handler(act).copyLines(new CodeFile(text));
+
+    assertEquals(exp.characters.toString(), act.characters.toString());
+  }
+
+  @Test
+  public void getLine() {
+    final CodeFile codeFile = new CodeFile("a\r\nbb\rccc\n\nd");
+
+    assertEquals(5, codeFile.getLineCount());
+    assertEquals("a", new String(codeFile.getLine(0)));
+    assertEquals("bb", new String(codeFile.getLine(1)));
+    assertEquals("ccc", new String(codeFile.getLine(2)));
+    assertEquals("", new String(codeFile.getLine(3)));
+    assertEquals("d", new String(codeFile.getLine(4)));
+  }
+
+  @Test
+  public void find() {
+    final CodeFile codeFile = new CodeFile("foo\nbar\nfoo bar\n");
+
+    assertEquals(0, codeFile.find("foo", 0));
+    assertEquals(2, codeFile.find("foo", 1));
+    assertEquals(1, codeFile.find("bar", 0));
+    assertEquals(-1, codeFile.find("foo", 3));
+    assertEquals(-1, codeFile.find("baz", 0));
+  }
+
+  @Test
+  public void read_malformed() throws IOException {
+    final Path file = Files.write(new File(tempDir, "code.txt").toPath(), new byte[] { 'a', (byte) 0xFF });
+
+    assertThrows(MalformedInputException.class, () -> CodeFile.read(file, UTF_8));
+  }
+
+  @Test
+  public void cache() throws IOException {
+    final Path file = Files.writeString(new File(tempDir, "code.txt").toPath(), "a\nb\n", UTF_8);
+    final CodeFileCache cache = new CodeFileCache(CodeFileCache.DEFAULT_MAX_SIZE);
+
+    final CodeFile first = cache.get(file, UTF_8);
+    assertSame(first, cache.get(file, UTF_8));
+
+    Files.writeString(file, "a\nb\nc\n", UTF_8);
+    final CodeFile changed = cache.get(file, UTF_8);
+    assertNotSame(first, changed);
+    assertEquals(3, changed.getLineCount());
+  }
+
+  @Test
+  public void cache_evict() throws IOException {
+    final Path a = Files.writeString(new File(tempDir, "a.txt").toPath(), "aaaa", UTF_8);
+    final Path b = Files.writeString(new File(tempDir, "b.txt").toPath(), "bbbb", UTF_8);
+    final CodeFileCache cache = new CodeFileCache(6);
+
+    final CodeFile first = cache.get(a, UTF_8);
+    cache.get(b, UTF_8);
+    assertNotSame(first, cache.get(a, UTF_8));
+  }
+
+  private static class CharacterBufferContentHandler extends DefaultHandler {
+
+    final StringBuilder characters = new StringBuilder();
+
+    @Override
+    public void characters(char[] ch, int start, int length) {
+      characters.append(ch, start, length);
+    }
+  }
+}